@@ -40,10 +40,15 @@ export class AdminHomeComponent implements OnInit {
     
     try {
       console.log('[AdminHome] Loading users...');
-      this.users = await this.adminService.getAllUsers();
-      this.totalUsers = this.users.length;
-      this.activeUsers = this.users.filter(u => u.enabled).length;
-      console.log('[AdminHome] Users loaded:', this.users.length);
+      // Les 5 plus récents et les compteurs (X-Total-Count), sans charger toute la table
+      const [recent, active] = await Promise.all([
+        this.adminService.getUsersPage(0, 5, { sort: 'id,desc' }),
+        this.adminService.getUsersPage(0, 1, { enabled: true })
+      ]);
+      this.users = recent.users;
+      this.totalUsers = recent.total;
+      this.activeUsers = active.total;
+      console.log('[AdminHome] Users loaded:', this.totalUsers);
     } catch (error: any) {
       console.error('[AdminHome] Error loading users:', error);
     } finally {
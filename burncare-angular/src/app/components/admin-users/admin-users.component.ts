@@ -13,7 +13,10 @@ import { AdminService } from '../../services/admin.service';
 })
 export class AdminUsersComponent implements OnInit {
   users: any[] = [];
+  totalUsers = 0;
+  nextPage = 0;
   isLoading = true;
+  isLoadingMore = false;
   error: string | null = null;
   showAddDialog = false;
   showDeleteDialog = false;
@@ -51,18 +54,12 @@ export class AdminUsersComponent implements OnInit {
     
     try {
       console.log('[AdminUsers] Fetching users...');
-      const users = await this.adminService.getAllUsers();
-      console.log('[AdminUsers] Users received:', users);
-      
-      // Trier les utilisateurs par ID décroissant (les plus récents en premier)
-      // Comme l'entité User n'a pas de createdAt, on utilise l'ID comme proxy
-      // Les IDs plus grands sont généralement créés plus récemment (auto-increment)
-      this.users = Array.isArray(users) ? users.sort((a, b) => {
-        const idA = a.id || 0;
-        const idB = b.id || 0;
-        return idB - idA; // Décroissant (plus récent en premier)
-      }) : [];
-      console.log('[AdminUsers] Users array set, length:', this.users.length);
+      // Les plus récents en premier : l'entité User n'a pas de createdAt, l'ID (auto-increment) sert de proxy
+      const { users, total } = await this.adminService.getUsersPage(0, AdminService.PAGE_SIZE, { sort: 'id,desc' });
+      this.users = users;
+      this.totalUsers = total;
+      this.nextPage = 1;
+      console.log('[AdminUsers] Users array set, length:', this.users.length, '/', total);
     } catch (error: any) {
       console.error('[AdminUsers] Error:', error);
       this.error = error.message || 'Erreur lors du chargement des utilisateurs';
@@ -74,6 +71,31 @@ export class AdminUsersComponent implements OnInit {
     }
   }
 
+  get hasMoreUsers(): boolean {
+    return this.users.length < this.totalUsers;
+  }
+
+  async fetchMoreUsers() {
+    if (this.isLoadingMore || !this.hasMoreUsers) {
+      return;
+    }
+    this.isLoadingMore = true;
+    this.cdr.detectChanges();
+
+    try {
+      const { users, total } = await this.adminService.getUsersPage(this.nextPage, AdminService.PAGE_SIZE, { sort: 'id,desc' });
+      this.users = [...this.users, ...users];
+      this.totalUsers = total;
+      this.nextPage++;
+    } catch (error: any) {
+      console.error('[AdminUsers] Error loading more users:', error);
+      alert(`Erreur lors du chargement: ${error.message || error}`);
+    } finally {
+      this.isLoadingMore = false;
+      this.cdr.detectChanges();
+    }
+  }
+
   openDeleteDialog(user: any) {
     this.userToDelete = user;
     this.showDeleteDialog = true;
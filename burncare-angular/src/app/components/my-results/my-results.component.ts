@@ -13,6 +13,14 @@ interface BurnoutResult {
   recommendation?: string;
 }
 
+// Ligne d'historique renvoyée par GET /fatigue-results/me ; le détail vient de GET /fatigue-results/{id}
+interface FatigueResultSummary {
+  id: number;
+  fatigueScore: number;
+  riskLabel: string;
+  createdAt: string | Date | number;
+}
+
 interface FatigueResult {
   id: number;
   fatigueScore: number;
@@ -41,7 +49,13 @@ export class MyResultsComponent implements OnInit {
   errorFatigue: string | null = null;
   
   burnoutResults: BurnoutResult[] = [];
-  fatigueResults: FatigueResult[] = [];
+  fatigueResults: FatigueResultSummary[] = [];
+
+  // Curseur de la page suivante (en-tête X-Next-Cursor), null en fin d'historique
+  burnoutCursor: string | null = null;
+  fatigueCursor: string | null = null;
+  loadingMoreBurnout = false;
+  loadingMoreFatigue = false;
 
   constructor(
     private router: Router,
@@ -58,6 +72,7 @@ export class MyResultsComponent implements OnInit {
     this.loadingBurnout = true;
     this.errorBurnout = null;
     this.burnoutResults = [];
+    this.burnoutCursor = null;
     this.cdr.detectChanges();
 
     try {
@@ -70,9 +85,10 @@ export class MyResultsComponent implements OnInit {
       }
 
       console.log('[MyResults] Fetching burnout results...');
-      const results = await this.apiClient.get<BurnoutResult[]>('/burnout-results/me');
-      console.log('[MyResults] Burnout results received:', results);
-      this.burnoutResults = Array.isArray(results) ? results : [];
+      const { data, headers } = await this.apiClient.getWithHeaders<BurnoutResult[]>('/burnout-results/me');
+      console.log('[MyResults] Burnout results received:', data);
+      this.burnoutResults = Array.isArray(data) ? data : [];
+      this.burnoutCursor = headers.get('X-Next-Cursor');
     } catch (error: any) {
       console.error('[MyResults] Error fetching burnout results:', error);
       this.errorBurnout = error.message || 'Erreur lors du chargement des résultats burnout.';
@@ -88,6 +104,7 @@ export class MyResultsComponent implements OnInit {
     this.loadingFatigue = true;
     this.errorFatigue = null;
     this.fatigueResults = [];
+    this.fatigueCursor = null;
     this.cdr.detectChanges();
 
     try {
@@ -100,9 +117,10 @@ export class MyResultsComponent implements OnInit {
       }
 
       console.log('[MyResults] Fetching fatigue results...');
-      const results = await this.apiClient.get<FatigueResult[]>('/fatigue-results/me');
-      console.log('[MyResults] Fatigue results received:', results);
-      this.fatigueResults = Array.isArray(results) ? results : [];
+      const { data, headers } = await this.apiClient.getWithHeaders<FatigueResultSummary[]>('/fatigue-results/me');
+      console.log('[MyResults] Fatigue results received:', data);
+      this.fatigueResults = Array.isArray(data) ? data : [];
+      this.fatigueCursor = headers.get('X-Next-Cursor');
     } catch (error: any) {
       console.error('[MyResults] Error fetching fatigue results:', error);
       this.errorFatigue = error.message || 'Erreur lors du chargement des résultats fatigue.';
@@ -114,6 +132,48 @@ export class MyResultsComponent implements OnInit {
     }
   }
 
+  async fetchMoreBurnoutResults() {
+    if (!this.burnoutCursor || this.loadingMoreBurnout) {
+      return;
+    }
+    this.loadingMoreBurnout = true;
+    this.cdr.detectChanges();
+
+    try {
+      const { data, headers } = await this.apiClient.getWithHeaders<BurnoutResult[]>(
+        `/burnout-results/me?cursor=${encodeURIComponent(this.burnoutCursor)}`);
+      this.burnoutResults = [...this.burnoutResults, ...(Array.isArray(data) ? data : [])];
+      this.burnoutCursor = headers.get('X-Next-Cursor');
+    } catch (error: any) {
+      console.error('[MyResults] Error fetching more burnout results:', error);
+      alert(error.message || 'Erreur lors du chargement des résultats burnout.');
+    } finally {
+      this.loadingMoreBurnout = false;
+      this.cdr.detectChanges();
+    }
+  }
+
+  async fetchMoreFatigueResults() {
+    if (!this.fatigueCursor || this.loadingMoreFatigue) {
+      return;
+    }
+    this.loadingMoreFatigue = true;
+    this.cdr.detectChanges();
+
+    try {
+      const { data, headers } = await this.apiClient.getWithHeaders<FatigueResultSummary[]>(
+        `/fatigue-results/me?cursor=${encodeURIComponent(this.fatigueCursor)}`);
+      this.fatigueResults = [...this.fatigueResults, ...(Array.isArray(data) ? data : [])];
+      this.fatigueCursor = headers.get('X-Next-Cursor');
+    } catch (error: any) {
+      console.error('[MyResults] Error fetching more fatigue results:', error);
+      alert(error.message || 'Erreur lors du chargement des résultats fatigue.');
+    } finally {
+      this.loadingMoreFatigue = false;
+      this.cdr.detectChanges();
+    }
+  }
+
   setTab(tab: 'burnout' | 'fatigue') {
     this.activeTab = tab;
   }
@@ -160,14 +220,23 @@ export class MyResultsComponent implements OnInit {
     }
   }
 
-  openDetails(result: BurnoutResult | FatigueResult, type: 'burnout' | 'fatigue') {
+  async openDetails(result: BurnoutResult | FatigueResultSummary, type: 'burnout' | 'fatigue') {
     // Show details in a modal or navigate to detail page
     // For now, we'll just show an alert with details
-    const details = type === 'burnout' 
-      ? `Score: ${(result as BurnoutResult).burnoutScore}\nRisque: ${result.riskLabel}\nDate: ${this.formatDate(result.createdAt)}\n${result.message || ''}`
-      : `Score: ${(result as FatigueResult).fatigueScore}\nRisque: ${result.riskLabel}\nConfiance: ${((result as FatigueResult).confidence || 0) * 100}%\nDate: ${this.formatDate(result.createdAt)}\n${result.message || ''}`;
-    
-    alert(details);
+    if (type === 'burnout') {
+      const burnout = result as BurnoutResult;
+      alert(`Score: ${burnout.burnoutScore}\nRisque: ${burnout.riskLabel}\nDate: ${this.formatDate(burnout.createdAt)}\n${burnout.message || ''}`);
+      return;
+    }
+
+    // L'historique fatigue ne contient que le résumé : le détail est chargé à l'ouverture
+    try {
+      const fatigue = await this.apiClient.get<FatigueResult>(`/fatigue-results/${result.id}`);
+      alert(`Score: ${fatigue.fatigueScore}\nRisque: ${fatigue.riskTitle || fatigue.riskLabel}\nConfiance: ${((fatigue.confidence || 0) * 100).toFixed(0)}%\nDate: ${this.formatDate(fatigue.createdAt)}\n${fatigue.message || ''}`);
+    } catch (error: any) {
+      console.error('[MyResults] Error fetching fatigue result details:', error);
+      alert(error.message || 'Erreur lors du chargement du détail.');
+    }
   }
 
   refresh() {
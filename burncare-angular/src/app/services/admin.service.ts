@@ -8,12 +8,21 @@ export class AdminService {
 
   constructor(private apiClient: ApiClientService) { }
 
-  async getAllUsers(): Promise<any[]> {
+  static readonly PAGE_SIZE = 50;
+
+  // Une page d'utilisateurs ; le total est dans l'en-tête X-Total-Count
+  // filters : sort ('id,desc'), role, profession, enabled, q
+  async getUsersPage(page = 0, size = AdminService.PAGE_SIZE,
+                     filters: Record<string, string | boolean> = {}): Promise<{ users: any[]; total: number }> {
     try {
-      console.log('[AdminService] Fetching all users...');
-      const response = await this.apiClient.get('/admin/users');
-      console.log('[AdminService] Users received:', response);
-      return Array.isArray(response) ? response : [];
+      const params = new URLSearchParams({ page: String(page), size: String(size) });
+      Object.entries(filters).forEach(([key, value]) => params.set(key, String(value)));
+      console.log('[AdminService] Fetching users page:', params.toString());
+      const { data, headers } = await this.apiClient.getWithHeaders<any[]>(`/admin/users?${params}`);
+      const users = Array.isArray(data) ? data : [];
+      const total = Number(headers.get('X-Total-Count') ?? users.length);
+      console.log('[AdminService] Users received:', users.length, '/', total);
+      return { users, total };
     } catch (error: any) {
       console.error('[AdminService] Error fetching users:', error);
       throw error;
@@ -22,14 +31,8 @@ export class AdminService {
 
   async getUserById(id: string): Promise<any> {
     try {
-      // Backend doesn't have GET /admin/users/{id}, so we fetch all and filter
       console.log('[AdminService] Fetching user by ID:', id);
-      const allUsers = await this.getAllUsers();
-      const user = allUsers.find((u: any) => u.id?.toString() === id.toString());
-      if (!user) {
-        throw new Error(`Utilisateur avec l'ID ${id} non trouvé`);
-      }
-      return user;
+      return await this.apiClient.get(`/admin/users/${id}`);
     } catch (error: any) {
       console.error('[AdminService] Error fetching user:', error);
       throw error;
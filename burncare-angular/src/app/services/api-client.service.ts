@@ -79,6 +79,27 @@ export class ApiClientService {
     return this.handleResponse<T>(response);
   }
 
+  // GET qui renvoie aussi les en-têtes (pagination : X-Total-Count, X-Next-Cursor)
+  async getWithHeaders<T>(path: string): Promise<{ data: T; headers: Headers }> {
+    const url = `${this.baseUrl}${path}`;
+    const token = localStorage.getItem('token');
+
+    console.log(`[API] GET ${url}`, token ? 'with token' : 'no token');
+
+    const response = await fetch(url, {
+      method: 'GET',
+      headers: {
+        'Content-Type': 'application/json',
+        ...(token && { 'Authorization': `Bearer ${token}` })
+      }
+    });
+
+    console.log(`[API] GET ${url} - Status: ${response.status}`);
+
+    const data = await this.handleResponse<T>(response);
+    return { data, headers: response.headers };
+  }
+
   async delete<T>(path: string): Promise<T> {
     const url = `${this.baseUrl}${path}`;
     const token = localStorage.getItem('token');
@@ -0,0 +1,110 @@
+package com.burncare.burncare_app.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rôles du realm (realm_access.roles) -> autorités ROLE_*, mis en cache par jeton jusqu'à son expiration.
+ * <p>
+ * Un même jeton est présenté à chaque requête (tableaux de bord en polling) : la liste d'autorités est
+ * calculée une fois par jeton (clé : jti, sinon le jeton lui-même) puis réutilisée, et chaque autorité
+ * est une instance partagée. Le cache est appelé après la validation du jeton (signature, exp, iss).
+ * Lectures sans verrou ; au-delà de max-size, les entrées expirées sont purgées et, si le cache reste
+ * plein, le jeton est converti sans être mis en cache.
+ * Métriques : cache.gets{result=hit|miss}, cache.size (cache=jwtAuthorities).
+ * Déclaré dans {@link SecurityConfig} (pas en @Component : un Converter serait aussi enregistré côté MVC).
+ */
+public class CachingJwtAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+    static final String CACHE_NAME = "jwtAuthorities";
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private record Entry(List<GrantedAuthority> authorities, long expiresAt) {}
+
+    // Une seule instance par rôle (ROLE_USER, ROLE_ADMIN...) pour toute l'application
+    private static final Map<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final Clock clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingJwtAuthoritiesConverter(MeterRegistry meterRegistry, int maxSize) {
+        this(meterRegistry, maxSize, Clock.systemUTC());
+    }
+
+    CachingJwtAuthoritiesConverter(MeterRegistry meterRegistry, int maxSize, Clock clock) {
+        this.maxSize = maxSize;
+        this.clock = clock;
+
+        FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+                .tags("cache", CACHE_NAME, "result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+                .tags("cache", CACHE_NAME, "result", "miss").register(meterRegistry);
+        Gauge.builder("cache.size", entries, Map::size)
+                .tags("cache", CACHE_NAME).register(meterRegistry);
+    }
+
+    @Override
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        String key = jwt.getId() != null ? jwt.getId() : jwt.getTokenValue();
+        long now = clock.millis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            hits.increment();
+            return entry.authorities();
+        }
+        misses.increment();
+
+        List<GrantedAuthority> authorities = extractAuthorities(jwt);
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt != null && expiresAt.toEpochMilli() > now && hasRoom(now)) {
+            entries.put(key, new Entry(authorities, expiresAt.toEpochMilli()));
+        }
+        return authorities;
+    }
+
+    static List<GrantedAuthority> extractAuthorities(Jwt jwt) {
+        Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
+        if (realmAccess == null || !(realmAccess.get("roles") instanceof Collection<?> roles)) {
+            return List.of();
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (Object role : roles) {
+            if (role instanceof String roleName) {
+                authorities.add(AUTHORITIES.computeIfAbsent(roleName,
+                        name -> new SimpleGrantedAuthority(ROLE_PREFIX + name)));
+            }
+        }
+        return List.copyOf(authorities);
+    }
+
+    private boolean hasRoom(long now) {
+        if (entries.size() < maxSize) {
+            return true;
+        }
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        return entries.size() < maxSize;
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
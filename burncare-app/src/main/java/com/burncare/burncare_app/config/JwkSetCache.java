@@ -0,0 +1,107 @@
+package com.burncare.burncare_app.config;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Clés publiques du realm (JWK set) utilisées pour vérifier les jetons.
+ * <p>
+ * Chargées au démarrage puis rechargées en arrière-plan à intervalle régulier : aucune requête n'attend
+ * le téléchargement des clés, et en cas d'échec les clés précédentes restent utilisées.
+ * Un kid inconnu (rotation des clés) déclenche un seul rechargement, partagé par tous les threads
+ * concernés, et au plus un toutes les min-refetch secondes (un jeton forgé ne peut pas saturer Keycloak).
+ */
+public class JwkSetCache implements JWKSource<SecurityContext> {
+
+    private final RestTemplate restTemplate;
+    private final String jwkSetUri;
+    private final Duration minRefetch;
+    private final Clock clock;
+    private final Timer fetchSuccess;
+    private final Timer fetchFailure;
+    private final Object fetchLock = new Object();
+
+    private volatile JWKSet jwkSet;
+    private volatile long version;
+    private Instant lastFetch = Instant.EPOCH;
+
+    public JwkSetCache(RestTemplate restTemplate, String jwkSetUri, Duration minRefetch, MeterRegistry meterRegistry) {
+        this(restTemplate, jwkSetUri, minRefetch, meterRegistry, Clock.systemUTC());
+    }
+
+    JwkSetCache(RestTemplate restTemplate, String jwkSetUri, Duration minRefetch, MeterRegistry meterRegistry, Clock clock) {
+        this.restTemplate = restTemplate;
+        this.jwkSetUri = jwkSetUri;
+        this.minRefetch = minRefetch;
+        this.clock = clock;
+        this.fetchSuccess = Timer.builder("burncare.jwt.jwks.fetch").tag("outcome", "success").register(meterRegistry);
+        this.fetchFailure = Timer.builder("burncare.jwt.jwks.fetch").tag("outcome", "failure").register(meterRegistry);
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        long seen = version;
+        JWKSet current = jwkSet;
+        List<JWK> keys = current == null ? List.of() : jwkSelector.select(current);
+        if (!keys.isEmpty()) {
+            return keys;
+        }
+        JWKSet refreshed = refreshForUnknownKey(seen);
+        return refreshed == null ? List.of() : jwkSelector.select(refreshed);
+    }
+
+    // Rechargement périodique (avant l'expiration des clés côté Keycloak)
+    @Scheduled(fixedDelayString = "${burncare.jwks.refresh-interval-ms:240000}",
+            initialDelayString = "${burncare.jwks.refresh-interval-ms:240000}")
+    public void refresh() {
+        synchronized (fetchLock) {
+            fetch();
+        }
+    }
+
+    private JWKSet refreshForUnknownKey(long seen) {
+        synchronized (fetchLock) {
+            // Un autre thread vient de recharger pendant l'attente du verrou : on utilise son résultat
+            if (version != seen) {
+                return jwkSet;
+            }
+            if (Duration.between(lastFetch, clock.instant()).compareTo(minRefetch) < 0) {
+                return jwkSet;
+            }
+            fetch();
+            return jwkSet;
+        }
+    }
+
+    // Appelé sous fetchLock ; garde l'ancien JWK set si Keycloak ne répond pas
+    private void fetch() {
+        lastFetch = clock.instant();
+        long start = System.nanoTime();
+        try {
+            JWKSet fetched = JWKSet.parse(restTemplate.getForObject(jwkSetUri, String.class));
+            jwkSet = fetched;
+            version++;
+            fetchSuccess.record(Duration.ofNanos(System.nanoTime() - start));
+        } catch (Exception e) {
+            fetchFailure.record(Duration.ofNanos(System.nanoTime() - start));
+            System.err.println("⚠️ Erreur lors du chargement des clés JWT (" + jwkSetUri + "): " + e.getMessage());
+        }
+    }
+
+    int size() {
+        JWKSet current = jwkSet;
+        return current == null ? 0 : current.getKeys().size();
+    }
+}
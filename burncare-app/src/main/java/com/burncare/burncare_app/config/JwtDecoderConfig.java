@@ -0,0 +1,131 @@
+package com.burncare.burncare_app.config;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.JWSVerifierFactory;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.web.client.RestTemplate;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Décodage des jetons du resource server (remplace le JwtDecoder auto-configuré depuis jwk-set-uri).
+ * <p>
+ * Les clés viennent de {@link JwkSetCache} (chargées au démarrage, rechargées en arrière-plan).
+ * Métriques : burncare.jwt.decode (décodage complet, outcome=success|failure) et
+ * burncare.jwt.verify (vérification de la signature seule).
+ */
+@Configuration
+public class JwtDecoderConfig {
+
+    @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}")
+    private String jwkSetUri;
+
+    @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
+    private String issuerUri;
+
+    @Value("${burncare.jwks.min-refetch-seconds:30}")
+    private long minRefetchSeconds;
+
+    @Bean
+    public JwkSetCache jwkSetCache(@Qualifier("keycloakTokenRestTemplate") RestTemplate keycloakTokenRestTemplate,
+                                   MeterRegistry meterRegistry) {
+        JwkSetCache cache = new JwkSetCache(keycloakTokenRestTemplate, jwkSetUri,
+                Duration.ofSeconds(minRefetchSeconds), meterRegistry);
+        // Chargement avant la première requête ; en cas d'échec, nouvel essai au premier jeton reçu
+        cache.refresh();
+        return cache;
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(JwkSetCache jwkSetCache, MeterRegistry meterRegistry) {
+        return timedJwtDecoder(jwkSetCache, issuerUri, meterRegistry);
+    }
+
+    static JwtDecoder timedJwtDecoder(JWKSource<SecurityContext> keys, String issuer, MeterRegistry meterRegistry) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, keys));
+        processor.setJWSVerifierFactory(new TimedVerifierFactory(
+                new DefaultJWSVerifierFactory(), Timer.builder("burncare.jwt.verify").register(meterRegistry)));
+        // exp / nbf / iss validés par Spring (setJwtValidator), comme avec le décodeur par défaut
+        processor.setJWTClaimsSetVerifier((claims, context) -> {});
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+
+        Timer success = Timer.builder("burncare.jwt.decode").tag("outcome", "success").register(meterRegistry);
+        Timer failure = Timer.builder("burncare.jwt.decode").tag("outcome", "failure").register(meterRegistry);
+        return token -> {
+            long start = System.nanoTime();
+            try {
+                Jwt jwt = decoder.decode(token);
+                success.record(Duration.ofNanos(System.nanoTime() - start));
+                return jwt;
+            } catch (JwtException e) {
+                failure.record(Duration.ofNanos(System.nanoTime() - start));
+                throw e;
+            }
+        };
+    }
+
+    // Mesure la durée de la vérification de signature (RSA) des vérificateurs créés par Nimbus
+    private record TimedVerifierFactory(JWSVerifierFactory delegate, Timer timer) implements JWSVerifierFactory {
+
+        @Override
+        public JWSVerifier createJWSVerifier(JWSHeader header, Key key) throws JOSEException {
+            JWSVerifier verifier = delegate.createJWSVerifier(header, key);
+            return new JWSVerifier() {
+                @Override
+                public boolean verify(JWSHeader jwsHeader, byte[] signingInput, Base64URL signature) throws JOSEException {
+                    long start = System.nanoTime();
+                    try {
+                        return verifier.verify(jwsHeader, signingInput, signature);
+                    } finally {
+                        timer.record(Duration.ofNanos(System.nanoTime() - start));
+                    }
+                }
+
+                @Override
+                public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+                    return verifier.supportedJWSAlgorithms();
+                }
+
+                @Override
+                public JCAContext getJCAContext() {
+                    return verifier.getJCAContext();
+                }
+            };
+        }
+
+        @Override
+        public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+            return delegate.supportedJWSAlgorithms();
+        }
+
+        @Override
+        public JCAContext getJCAContext() {
+            return delegate.getJCAContext();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.burncare.burncare_app.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Client HTTP partagé pour l'échange de jeton (AuthService.login -> endpoint token de Keycloak).
+ * <p>
+ * Pool de connexions persistantes (keep-alive) au lieu d'une connexion TCP par login, avec des délais
+ * de connexion / lecture / attente d'une connexion du pool : un Keycloak lent fait échouer le login
+ * rapidement au lieu de bloquer les threads de requêtes.
+ */
+@Configuration
+public class KeycloakHttpClientConfig {
+
+    @Value("${burncare.keycloak-http.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${burncare.keycloak-http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${burncare.keycloak-http.read-timeout-ms:5000}")
+    private long readTimeoutMs;
+
+    @Value("${burncare.keycloak-http.pool-timeout-ms:2000}")
+    private long poolTimeoutMs;
+
+    @Value("${burncare.keycloak-http.keep-alive-seconds:30}")
+    private long keepAliveSeconds;
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient keycloakHttpClient() {
+        // Un seul hôte (Keycloak) : toute la capacité du pool lui est attribuée
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .build();
+
+        TimeValue keepAlive = TimeValue.ofSeconds(keepAliveSeconds);
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                // Durée annoncée par Keycloak (en-tête Keep-Alive), plafonnée à keep-alive-seconds
+                .setKeepAliveStrategy((response, context) -> {
+                    TimeValue announced = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return announced.compareTo(keepAlive) < 0 ? announced : keepAlive;
+                })
+                .evictIdleConnections(keepAlive)
+                .evictExpiredConnections()
+                .build();
+    }
+
+    @Bean
+    public RestTemplate keycloakTokenRestTemplate(@Qualifier("keycloakHttpClient") CloseableHttpClient keycloakHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(keycloakHttpClient));
+    }
+}
@@ -0,0 +1,248 @@
+package com.burncare.burncare_app.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Migrations de schéma PostgreSQL que ddl-auto=update ne sait pas faire (changement de type, index GIN,
+ * remplacement d'une colonne par une clé étrangère, séquences d'ids).
+ * <p>
+ * Les changements de type passent AVANT l'initialisation d'Hibernate (voir {@link HibernateDependsOn}) :
+ * les entités sont déjà mappées sur le nouveau type dès la première requête.
+ * Les index spécifiques sont créés une fois l'application démarrée (la table peut ne pas exister avant).
+ * Sans effet sur une autre base (H2 en test).
+ */
+@Component
+public class PostgresSchemaUpgrader implements InitializingBean {
+
+    private static final long BACKFILL_CHUNK = 5_000;
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Contraction de fatigue_results.user_id : ponctuelle, anciennes instances arrêtées (voir application.properties)
+    @Value("${burncare.schema.fatigue-user-contract:false}")
+    private boolean contractFatigueUser;
+
+    public PostgresSchemaUpgrader(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!isPostgres()) {
+            return;
+        }
+        // fatigue_results.recommendations_json : TEXT -> jsonb
+        if ("text".equals(columnType("fatigue_results", "recommendations_json"))) {
+            System.out.println("✅ Conversion de fatigue_results.recommendations_json en jsonb");
+            jdbcTemplate.execute("ALTER TABLE fatigue_results ALTER COLUMN recommendations_json TYPE jsonb " +
+                    "USING COALESCE(NULLIF(recommendations_json, ''), '[]')::jsonb");
+        }
+        migrateFatigueUserForeignKey();
+        createIdSequence("burnout_results", "burnout_results_seq");
+        createIdSequence("fatigue_results", "fatigue_results_seq");
+    }
+
+    /**
+     * Passage des ids IDENTITY à une séquence à pas de 50 (allocationSize des entités).
+     * Sur une table existante, la séquence démarre à MAX(id) + 50 : l'optimiseur "pooled" d'Hibernate
+     * attribue alors les ids à partir de MAX(id) + 1. Sur une base vide, Hibernate la crée lui-même.
+     */
+    private void createIdSequence(String table, String sequence) {
+        if (columnType(table, "id") == null) {
+            return;
+        }
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, sequence);
+        if (Boolean.TRUE.equals(exists)) {
+            return;
+        }
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        long start = maxId == 0 ? 1 : maxId + ID_ALLOCATION_SIZE;
+        System.out.println("✅ Création de la séquence " + sequence + " (début : " + start + ")");
+        jdbcTemplate.execute("CREATE SEQUENCE " + sequence + " START WITH " + start + " INCREMENT BY " + ID_ALLOCATION_SIZE);
+    }
+
+    /**
+     * fatigue_results.user_id : sub Keycloak (varchar) -> clé étrangère bigint vers users.id, en deux temps.
+     * <ul>
+     *   <li>expansion (à chaque démarrage, en ligne) : colonne user_ref remplie par tranches, puis tenue à jour
+     *   par un trigger pour les écritures des anciennes instances, qui continuent d'écrire le sub dans user_id ;</li>
+     *   <li>contraction (explicite, burncare.schema.fatigue-user-contract=true, anciennes instances arrêtées) :
+     *   user_ref devient user_id, clé étrangère, NOT NULL et suppression de keycloak_sub.</li>
+     * </ul>
+     * Les résultats dont le sub ne correspond à aucun utilisateur local sont conservés (user_id NULL) et comptés.
+     * Chaque étape est rejouable : un démarrage interrompu reprend là où il s'était arrêté.
+     */
+    private void migrateFatigueUserForeignKey() {
+        if ("character varying".equals(columnType("fatigue_results", "user_id"))) {
+            expandFatigueUserForeignKey();
+            if (!contractFatigueUser) {
+                // Le mapping (user_id bigint) ne correspond pas encore au schéma : démarrage refusé
+                throw new IllegalStateException("fatigue_results.user_id contient encore le sub Keycloak : " +
+                        "expansion terminée, contraction à lancer avec burncare.schema.fatigue-user-contract=true " +
+                        "une fois les anciennes instances arrêtées");
+            }
+            System.out.println("✅ Contraction de fatigue_results.user_id : user_ref -> user_id");
+            inTransaction(
+                    "DROP TRIGGER IF EXISTS trg_fatigue_results_user_ref ON fatigue_results",
+                    "DROP FUNCTION IF EXISTS fatigue_results_user_ref()",
+                    "ALTER TABLE fatigue_results RENAME COLUMN user_id TO keycloak_sub",
+                    "ALTER TABLE fatigue_results RENAME COLUMN user_ref TO user_id",
+                    // L'index portait sur l'ancienne colonne : Hibernate le recrée sur la nouvelle
+                    "DROP INDEX IF EXISTS idx_fatigue_results_user_created");
+        }
+        // Contraction entamée (renommage fait) : on la termine, les anciennes instances ne peuvent plus écrire
+        if (columnType("fatigue_results", "keycloak_sub") == null) {
+            return;
+        }
+        backfillFatigueUser("keycloak_sub", "user_id");
+        Long orphans = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM fatigue_results WHERE user_id IS NULL", Long.class);
+        if (orphans == null || orphans == 0) {
+            jdbcTemplate.execute("ALTER TABLE fatigue_results ALTER COLUMN user_id SET NOT NULL");
+        } else {
+            System.err.println("⚠️ " + orphans + " résultat(s) fatigue sans utilisateur local conservé(s) : " +
+                    "fatigue_results.user_id reste nullable");
+        }
+        Boolean hasForeignKey = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_fatigue_results_user')", Boolean.class);
+        if (!Boolean.TRUE.equals(hasForeignKey)) {
+            // NOT VALID puis VALIDATE : la validation ne bloque pas les écritures
+            jdbcTemplate.execute("ALTER TABLE fatigue_results ADD CONSTRAINT fk_fatigue_results_user " +
+                    "FOREIGN KEY (user_id) REFERENCES users (id) NOT VALID");
+            jdbcTemplate.execute("ALTER TABLE fatigue_results VALIDATE CONSTRAINT fk_fatigue_results_user");
+        }
+        jdbcTemplate.execute("ALTER TABLE fatigue_results DROP COLUMN keycloak_sub");
+    }
+
+    // Expansion : compatible avec les anciennes instances (user_id inchangé)
+    private void expandFatigueUserForeignKey() {
+        jdbcTemplate.execute("ALTER TABLE fatigue_results ADD COLUMN IF NOT EXISTS user_ref bigint");
+        // Trigger avant le remplissage : aucune ligne écrite entre-temps n'échappe à user_ref
+        jdbcTemplate.execute("CREATE OR REPLACE FUNCTION fatigue_results_user_ref() RETURNS trigger AS $$ " +
+                "BEGIN NEW.user_ref := (SELECT u.id FROM users u WHERE u.keycloak_id = NEW.user_id); RETURN NEW; END " +
+                "$$ LANGUAGE plpgsql");
+        inTransaction(
+                "DROP TRIGGER IF EXISTS trg_fatigue_results_user_ref ON fatigue_results",
+                "CREATE TRIGGER trg_fatigue_results_user_ref BEFORE INSERT OR UPDATE OF user_id ON fatigue_results " +
+                        "FOR EACH ROW EXECUTE FUNCTION fatigue_results_user_ref()");
+        long mapped = backfillFatigueUser("user_id", "user_ref");
+        Long unmatched = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM fatigue_results WHERE user_ref IS NULL", Long.class);
+        System.out.println("✅ Résultats fatigue rattachés : " + mapped + " (sans utilisateur local, conservés : " + unmatched + ")");
+    }
+
+    // Remplissage par tranches d'id (une transaction courte par tranche, sans verrou prolongé)
+    private long backfillFatigueUser(String subColumn, String userColumn) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM fatigue_results", Long.class);
+        long mapped = 0;
+        for (long start = 0; maxId != null && start < maxId; start += BACKFILL_CHUNK) {
+            mapped += jdbcTemplate.update(
+                    "UPDATE fatigue_results f SET " + userColumn + " = u.id FROM users u " +
+                            "WHERE u.keycloak_id = f." + subColumn + " AND f." + userColumn + " IS NULL " +
+                            "AND f.id > ? AND f.id <= ?",
+                    start, start + BACKFILL_CHUNK);
+        }
+        return mapped;
+    }
+
+    private void inTransaction(String... statements) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) c -> {
+            boolean autoCommit = c.getAutoCommit();
+            c.setAutoCommit(false);
+            try (Statement statement = c.createStatement()) {
+                for (String sql : statements) {
+                    statement.execute(sql);
+                }
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    // Avant les autres écouteurs du démarrage (UserSearchService vérifie la présence de pg_trgm)
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        if (!isPostgres()) {
+            return;
+        }
+        try {
+            // jsonb_path_ops : sert les filtres de contenance (recommendations_json @> '[{"tag": "..."}]')
+            createIndexConcurrently("idx_fatigue_results_recommendations",
+                    "ON fatigue_results USING gin (recommendations_json jsonb_path_ops)");
+            // Recherche admin par préfixe insensible à la casse (lower(col) LIKE 'abc%') : text_pattern_ops
+            // rend le LIKE indexable quelle que soit la collation de la base
+            for (String column : new String[]{"email", "first_name", "last_name"}) {
+                createIndexConcurrently("idx_users_" + column + "_lower",
+                        "ON users (lower(" + column + ") text_pattern_ops)");
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Erreur lors de la création des index PostgreSQL: " + e.getMessage());
+        }
+        try {
+            // Recherche approchée des utilisateurs (UserSearchRepository) ; sans pg_trgm, recherche par préfixe
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            for (String column : new String[]{"email", "first_name", "last_name"}) {
+                createIndexConcurrently("idx_users_" + column + "_trgm",
+                        "ON users USING gin (lower(" + column + ") gin_trgm_ops)");
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Index trigrammes indisponibles (extension pg_trgm): " + e.getMessage());
+        }
+    }
+
+    /**
+     * CREATE INDEX CONCURRENTLY : la table reste accessible en écriture pendant la construction.
+     * Exécuté hors transaction (JdbcTemplate en auto-commit, écouteur non transactionnel), comme l'exige PostgreSQL.
+     * Un index laissé invalide par une construction interrompue est supprimé puis reconstruit.
+     */
+    private void createIndexConcurrently(String name, String definition) {
+        Boolean invalid = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_index i WHERE i.indexrelid = to_regclass(?) AND NOT i.indisvalid)",
+                Boolean.class, name);
+        if (Boolean.TRUE.equals(invalid)) {
+            System.err.println("⚠️ Index " + name + " invalide (construction interrompue) : reconstruction");
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+        }
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name + " " + definition);
+    }
+
+    private String columnType(String table, String column) {
+        return jdbcTemplate.query(
+                "SELECT data_type FROM information_schema.columns " +
+                        "WHERE table_schema = current_schema() AND table_name = ? AND column_name = ?",
+                rs -> rs.next() ? rs.getString(1) : null,
+                table, column);
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    // L'EntityManagerFactory (et donc ddl-auto) attend la fin des migrations
+    @Component
+    static class HibernateDependsOn extends EntityManagerFactoryDependsOnPostProcessor {
+        HibernateDependsOn() {
+            super("postgresSchemaUpgrader");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.burncare.burncare_app.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Aiguille chaque connexion vers le primaire ou le réplica selon la transaction en cours :
+ * {@code @Transactional(readOnly = true)} -> réplica, tout le reste (écritures, hors transaction) -> primaire.
+ * <p>
+ * Doit être enveloppé dans un {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} :
+ * le gestionnaire de transactions demande sa connexion avant que le caractère lecture seule ne soit publié,
+ * le proxy retarde le choix jusqu'à la première requête.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly ? REPLICA : PRIMARY;
+    }
+}
@@ -2,6 +2,10 @@ package com.burncare.burncare_app.config;
 
 import com.burncare.burncare_app.entities.Profession;
 import com.burncare.burncare_app.entities.Role;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod; // ✅ Import important
@@ -12,14 +16,8 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.web.cors.CorsConfigurationSource;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -74,19 +72,19 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+    public CachingJwtAuthoritiesConverter jwtAuthoritiesConverter(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${burncare.jwt-authorities-cache.max-size:10000}") int maxSize
+    ) {
+        // Registre local si l'actuator n'est pas chargé (tests @WebMvcTest qui importent cette config)
+        return new CachingJwtAuthoritiesConverter(meterRegistry.getIfAvailable(SimpleMeterRegistry::new), maxSize);
+    }
+
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter(CachingJwtAuthoritiesConverter authoritiesConverter) {
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
-        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
-            Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
-            if (realmAccess == null || realmAccess.isEmpty()) {
-                return List.of();
-            }
-            Collection<String> roles = (Collection<String>) realmAccess.getOrDefault("roles", List.of());
-            return roles.stream()
-                    .map(roleName -> "ROLE_" + roleName)
-                    .map(SimpleGrantedAuthority::new)
-                    .collect(Collectors.toList());
-        });
+        // realm_access.roles -> ROLE_*, mis en cache par jeton
+        converter.setJwtGrantedAuthoritiesConverter(authoritiesConverter);
         return converter;
     }
-}
\ No newline at end of file
+}
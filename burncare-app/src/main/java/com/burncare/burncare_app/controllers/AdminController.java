@@ -1,9 +1,17 @@
 package com.burncare.burncare_app.controllers;
 
+import com.burncare.burncare_app.dto.AdminUserSummary;
+import com.burncare.burncare_app.dto.BulkUserActionRequest;
+import com.burncare.burncare_app.dto.BulkUserActionResult;
 import com.burncare.burncare_app.dto.UserDTO;
+import com.burncare.burncare_app.entities.Profession;
+import com.burncare.burncare_app.entities.Role;
 import com.burncare.burncare_app.entities.User;
+import com.burncare.burncare_app.services.AdminBulkService;
 import com.burncare.burncare_app.services.AdminService;
+import com.burncare.burncare_app.services.UserSearchService;
 import com.burncare.burncare_app.services.UserService;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,17 +23,47 @@ public class AdminController {
 
     private final AdminService adminService;
     private final UserService userService; // ✅ Ajout du UserService
+    private final AdminBulkService adminBulkService;
+    private final UserSearchService userSearchService;
 
     // Injection des dépendances via le constructeur
-    public AdminController(AdminService adminService, UserService userService) {
+    public AdminController(AdminService adminService, UserService userService, AdminBulkService adminBulkService,
+                           UserSearchService userSearchService) {
         this.adminService = adminService;
         this.userService = userService;
+        this.adminBulkService = adminBulkService;
+        this.userSearchService = userSearchService;
     }
 
-    // GET : Récupérer tous les utilisateurs
+    // GET : Récupérer une page d'utilisateurs (tableau JSON, total dans l'en-tête X-Total-Count)
+    // ex: /api/admin/users?page=0&size=50&sort=lastName,asc&role=USER&enabled=false&q=dup
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(adminService.getAllUsers());
+    public ResponseEntity<List<AdminUserSummary>> getAllUsers(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) Profession profession,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) String q) {
+        Page<AdminUserSummary> users = adminService.searchUsers(page, size, sort, role, profession, enabled, q);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(users.getTotalElements()))
+                .body(users.getContent());
+    }
+
+    // GET : Recherche au fil de la frappe (nom, prénom ou email partiels, fautes de frappe tolérées), classée
+    // ex: /api/admin/users/search?q=dupnot&limit=10
+    @GetMapping("/users/search")
+    public ResponseEntity<List<AdminUserSummary>> searchUsers(@RequestParam(required = false) String q,
+                                                              @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(userSearchService.search(q, limit));
+    }
+
+    // GET : Récupérer un utilisateur par ID
+    @GetMapping("/users/{id}")
+    public ResponseEntity<AdminUserSummary> getUser(@PathVariable Long id) {
+        return ResponseEntity.ok(adminService.getUser(id));
     }
 
     // ✅ PUT : Mettre à jour / Approuver un utilisateur
@@ -37,6 +75,12 @@ public class AdminController {
         return ResponseEntity.ok(updatedUser);
     }
 
+    // ✅ POST : Action groupée (APPROVE / DISABLE / DELETE) sur une liste d'ids, résultat par utilisateur
+    @PostMapping("/users/bulk")
+    public ResponseEntity<List<BulkUserActionResult>> bulkAction(@RequestBody BulkUserActionRequest request) {
+        return ResponseEntity.ok(adminBulkService.apply(request));
+    }
+
     // DELETE : Supprimer un utilisateur par ID
     @DeleteMapping("/users/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
@@ -0,0 +1,54 @@
+package com.burncare.burncare_app.controllers;
+
+import com.burncare.burncare_app.dto.ResultExport;
+import com.burncare.burncare_app.services.ResultExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.OutputStream;
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/admin/export")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminExportController {
+
+    private final ResultExportService resultExportService;
+
+    // Durée max de l'export uniquement (le délai async global de Spring MVC reste celui par défaut)
+    @Value("${burncare.export.timeout-ms:3600000}")
+    private long timeoutMs;
+
+    // ✅ Export complet en flux : /api/admin/export/burnout|fatigue?format=csv|ndjson&from=...&to=...&riskLabel=...
+    @GetMapping("/{kind}")
+    public WebAsyncTask<Void> export(
+            @PathVariable String kind,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String riskLabel,
+            HttpServletResponse response
+    ) {
+        // Paramètres validés ici (400 immédiat), le flux est écrit hors du thread de la requête
+        ResultExport export = resultExportService.export(kind, format, from, to, riskLabel);
+        response.setContentType(export.mediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + export.fileName() + "\"");
+        return new WebAsyncTask<>(timeoutMs, () -> {
+            OutputStream out = response.getOutputStream();
+            export.body().writeTo(out);
+            out.flush();
+            return null;
+        });
+    }
+}
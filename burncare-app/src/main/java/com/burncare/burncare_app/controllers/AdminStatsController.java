@@ -1,14 +1,23 @@
 package com.burncare.burncare_app.controllers;
 
 import com.burncare.burncare_app.dto.AdminStatsResponse;
+import com.burncare.burncare_app.dto.RecommendationTagStats;
+import com.burncare.burncare_app.dto.StatsTimeseriesPoint;
 import com.burncare.burncare_app.services.AdminStatsService;
+import com.burncare.burncare_app.services.RecommendationStatsService;
+import com.burncare.burncare_app.services.StatsRollupService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Instant;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/admin/stats")
 @RequiredArgsConstructor
@@ -16,10 +25,34 @@ import org.springframework.web.bind.annotation.RestController;
 public class AdminStatsController {
 
     private final AdminStatsService statsService;
+    private final StatsRollupService statsRollupService;
+    private final RecommendationStatsService recommendationStatsService;
 
     @GetMapping
     public ResponseEntity<AdminStatsResponse> getStats() {
         return ResponseEntity.ok(statsService.getStats());
     }
-}
 
+    // ✅ Tendances : ?kind=burnout|fatigue&granularity=hour|day&from=...&to=... (ISO-8601, lues depuis les rollups)
+    @GetMapping("/timeseries")
+    public ResponseEntity<List<StatsTimeseriesPoint>> getTimeseries(
+            @RequestParam String kind,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to
+    ) {
+        return ResponseEntity.ok(statsRollupService.getTimeseries(kind, granularity, from, to));
+    }
+
+    // ✅ Recommandations fatigue par tag / sévérité : ?tag=sécurité&minSeverity=3&profession=INFIRMIER&from=...&to=...
+    @GetMapping("/recommendations")
+    public ResponseEntity<List<RecommendationTagStats>> getRecommendationStats(
+            @RequestParam(required = false) String tag,
+            @RequestParam(required = false) Integer minSeverity,
+            @RequestParam(required = false) String profession,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to
+    ) {
+        return ResponseEntity.ok(recommendationStatsService.getRecommendationStats(tag, minSeverity, profession, from, to));
+    }
+}
@@ -24,4 +24,16 @@ public class AuthController {
     public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest req) {
         return ResponseEntity.ok(authService.login(req));
     }
+
+    // Nouveau jeton d'accès à partir du refreshToken reçu au login (sans renvoyer le mot de passe)
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponse> refresh(@RequestBody RefreshTokenRequest req) {
+        return ResponseEntity.ok(authService.refresh(req));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody RefreshTokenRequest req) {
+        authService.logout(req);
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package com.burncare.burncare_app.controllers;// package com.burncare.burncare_app.controllers;
 
+import com.burncare.burncare_app.dto.BatchItemResult;
 import com.burncare.burncare_app.dto.BurnoutResultRequest;
 import com.burncare.burncare_app.dto.BurnoutResultResponse;
+import com.burncare.burncare_app.dto.CursorPage;
 import com.burncare.burncare_app.services.BurnoutResultService;
+import com.burncare.burncare_app.services.IdempotencyService;
+import com.burncare.burncare_app.services.ResultIngestionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -17,22 +21,55 @@ import java.util.List;
 public class BurnoutResultController {
 
     private final BurnoutResultService burnoutResultService;
+    private final ResultIngestionService resultIngestionService;
+    private final IdempotencyService idempotencyService;
 
+    // 200 + résultat enregistré, ou 202 + ticket si l'ingestion asynchrone est activée.
+    // Avec Idempotency-Key, une nouvelle tentative renvoie la réponse d'origine sans second enregistrement.
     @PostMapping
-    public ResponseEntity<BurnoutResultResponse> save(
+    public ResponseEntity<?> save(
             @AuthenticationPrincipal Jwt jwt,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @RequestBody BurnoutResultRequest request
     ) {
         String keycloakId = jwt.getSubject(); // "sub"
-        BurnoutResultResponse response = burnoutResultService.saveForUser(keycloakId, request);
-        return ResponseEntity.ok(response);
+        return idempotencyService.execute(keycloakId, idempotencyKey, ResultIngestionService.BURNOUT, () -> {
+            if (resultIngestionService.isEnabled()) {
+                return ResponseEntity.accepted().body(resultIngestionService.submitBurnout(keycloakId, request));
+            }
+            BurnoutResultResponse response = burnoutResultService.saveForUser(keycloakId, request);
+            return ResponseEntity.ok(response);
+        });
     }
+
+    // ✅ Envoi groupé (500 résultats max), statut par élément dans le même ordre que la requête
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> saveBatch(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestBody List<BurnoutResultRequest> requests
+    ) {
+        return ResponseEntity.ok(burnoutResultService.saveBatchForUser(jwt.getSubject(), requests));
+    }
+
+    // Résultat envoyé en ingestion asynchrone (202) : 404 tant qu'il n'est pas écrit en base
+    @GetMapping("/tickets/{ticket}")
+    public ResponseEntity<BurnoutResultResponse> getByTicket(@AuthenticationPrincipal Jwt jwt, @PathVariable String ticket) {
+        return ResponseEntity.ok(burnoutResultService.getResultByTicket(jwt.getSubject(), ticket));
+    }
+
     @GetMapping("/me")
     public ResponseEntity<List<BurnoutResultResponse>> getMyResults(
-            @AuthenticationPrincipal Jwt jwt
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
     ) {
         String keycloakId = jwt.getSubject();
-        List<BurnoutResultResponse> results = burnoutResultService.getResultsForUser(keycloakId);
-        return ResponseEntity.ok(results);
+        CursorPage<BurnoutResultResponse> page = burnoutResultService.getResultsForUser(keycloakId, cursor, limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
     }
 }
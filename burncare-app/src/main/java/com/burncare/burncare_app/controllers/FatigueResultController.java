@@ -1,14 +1,21 @@
 package com.burncare.burncare_app.controllers;
 
+import com.burncare.burncare_app.dto.BatchItemResult;
+import com.burncare.burncare_app.dto.CursorPage;
 import com.burncare.burncare_app.dto.FatigueResultRequest;
 import com.burncare.burncare_app.dto.FatigueResultResponse;
+import com.burncare.burncare_app.dto.FatigueResultSummary;
 import com.burncare.burncare_app.services.FatigueResultService;
+import com.burncare.burncare_app.services.IdempotencyService;
+import com.burncare.burncare_app.services.ResultIngestionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -17,19 +24,61 @@ import java.util.List;
 public class FatigueResultController {
 
     private final FatigueResultService fatigueResultService;
+    private final ResultIngestionService resultIngestionService;
+    private final IdempotencyService idempotencyService;
 
+    // 200 + résultat enregistré, ou 202 + ticket si l'ingestion asynchrone est activée.
+    // Avec Idempotency-Key, une nouvelle tentative renvoie la réponse d'origine sans second enregistrement.
     @PostMapping
-    public ResponseEntity<FatigueResultResponse> save(
+    public ResponseEntity<?> save(
             @AuthenticationPrincipal Jwt jwt,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @RequestBody FatigueResultRequest request
     ) {
         String keycloakId = jwt.getSubject();
-        return ResponseEntity.ok(fatigueResultService.saveForUser(keycloakId, request));
+        return idempotencyService.execute(keycloakId, idempotencyKey, ResultIngestionService.FATIGUE, () -> {
+            if (resultIngestionService.isEnabled()) {
+                return ResponseEntity.accepted().body(resultIngestionService.submitFatigue(keycloakId, request));
+            }
+            return ResponseEntity.ok(fatigueResultService.saveForUser(keycloakId, request));
+        });
+    }
+
+    // ✅ Envoi groupé (500 résultats max), statut par élément dans le même ordre que la requête
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> saveBatch(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestBody List<FatigueResultRequest> requests
+    ) {
+        return ResponseEntity.ok(fatigueResultService.saveBatchForUser(jwt.getSubject(), requests));
     }
 
     @GetMapping("/me")
-    public ResponseEntity<List<FatigueResultResponse>> myResults(@AuthenticationPrincipal Jwt jwt) {
+    public ResponseEntity<List<FatigueResultSummary>> myResults(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
         String keycloakId = jwt.getSubject();
-        return ResponseEntity.ok(fatigueResultService.getResultsForUser(keycloakId));
+        CursorPage<FatigueResultSummary> page = fatigueResultService.getResultsForUser(keycloakId, from, to, cursor, limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    // Résultat envoyé en ingestion asynchrone (202) : 404 tant qu'il n'est pas écrit en base
+    @GetMapping("/tickets/{ticket}")
+    public ResponseEntity<FatigueResultResponse> getByTicket(@AuthenticationPrincipal Jwt jwt, @PathVariable String ticket) {
+        return ResponseEntity.ok(fatigueResultService.getResultByTicket(jwt.getSubject(), ticket));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<FatigueResultResponse> getResult(@AuthenticationPrincipal Jwt jwt, @PathVariable Long id) {
+        return ResponseEntity.ok(fatigueResultService.getResultForUser(jwt.getSubject(), id));
     }
 }
@@ -0,0 +1,22 @@
+package com.burncare.burncare_app.dto;
+
+import com.burncare.burncare_app.entities.Profession;
+import com.burncare.burncare_app.entities.Role;
+import com.burncare.burncare_app.entities.User;
+
+// Ligne de la liste admin des utilisateurs (sans mot de passe ni sub Keycloak)
+public record AdminUserSummary(
+        Long id,
+        String firstName,
+        String lastName,
+        String email,
+        Role role,
+        Profession profession,
+        boolean enabled
+) {
+
+    public static AdminUserSummary from(User user) {
+        return new AdminUserSummary(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getRole(), user.getProfession(), user.isEnabled());
+    }
+}
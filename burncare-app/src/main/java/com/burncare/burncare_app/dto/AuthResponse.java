@@ -3,12 +3,19 @@ package com.burncare.burncare_app.dto;
 import com.burncare.burncare_app.entities.Profession;
 import com.burncare.burncare_app.entities.Role;
 
+// refreshToken : renseigné au login, à renvoyer à /api/auth/refresh quand le jeton expire
 public record AuthResponse(
         String token,
+        String refreshToken,
         String firstName,
         String lastName,
         String email,
         Role role,
         Profession profession
-) {}
+) {
 
+    // Réponses sans jeton de rafraîchissement (inscription, mise à jour du profil)
+    public AuthResponse(String token, String firstName, String lastName, String email, Role role, Profession profession) {
+        this(token, null, firstName, lastName, email, role, profession);
+    }
+}
@@ -0,0 +1,38 @@
+package com.burncare.burncare_app.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Statut d'un élément d'un envoi groupé, à la même position que dans la requête.
+ * {@code id} est renseigné si l'élément a été enregistré, {@code error} s'il a été rejeté.
+ */
+public record BatchItemResult(
+        int index,
+        String status,
+        Long id,
+        String error
+) {
+
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+
+    public static final int MAX_BATCH_SIZE = 500;
+
+    public static BatchItemResult created(int index, Long id) {
+        return new BatchItemResult(index, CREATED, id, null);
+    }
+
+    public static BatchItemResult rejected(int index, String error) {
+        return new BatchItemResult(index, REJECTED, null, error);
+    }
+
+    public static void checkSize(List<?> items) {
+        if (items == null || items.isEmpty() || items.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Un envoi groupé doit contenir entre 1 et " + MAX_BATCH_SIZE + " résultats");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.burncare.burncare_app.dto;
+
+import java.util.List;
+
+// Action groupée de l'admin : APPROVE (activer), DISABLE (désactiver) ou DELETE sur une liste d'ids
+public record BulkUserActionRequest(
+        String action,
+        List<Long> ids
+) {}
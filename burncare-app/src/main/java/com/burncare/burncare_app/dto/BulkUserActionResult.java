@@ -0,0 +1,26 @@
+package com.burncare.burncare_app.dto;
+
+/**
+ * Résultat d'une action groupée pour un utilisateur, dans l'ordre des ids reçus.
+ * {@code FAILED} : la suppression a échoué et a été annulée pour cet utilisateur.
+ * Keycloak est synchronisé ensuite par l'outbox : ses erreurs n'apparaissent pas ici.
+ */
+public record BulkUserActionResult(
+        Long id,
+        String status,
+        String error
+) {
+
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String FAILED = "FAILED";
+
+    public static BulkUserActionResult of(Long id, String status) {
+        return new BulkUserActionResult(id, status, null);
+    }
+
+    public static BulkUserActionResult failed(Long id, String status, String error) {
+        return new BulkUserActionResult(id, status, error);
+    }
+}
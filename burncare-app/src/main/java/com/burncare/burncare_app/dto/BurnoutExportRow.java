@@ -0,0 +1,17 @@
+package com.burncare.burncare_app.dto;
+
+import java.time.Instant;
+
+// Ligne brute de burnout_results pour l'export admin (réponses encore au format stocké)
+public record BurnoutExportRow(
+        Long id,
+        Long userId,
+        Instant createdAt,
+        Integer burnoutScore,
+        String riskLabel,
+        String riskTitle,
+        Integer answersCode,
+        String answersJson,
+        String message,
+        String recommendation
+) {}
@@ -0,0 +1,12 @@
+package com.burncare.burncare_app.dto;
+
+import java.time.Instant;
+
+// Ligne d'historique burnout lue par projection : seules les colonnes de BurnoutResultResponse
+public record BurnoutResultSummary(
+        Long id,
+        Integer burnoutScore,
+        String riskLabel,
+        String riskTitle,
+        Instant createdAt
+) {}
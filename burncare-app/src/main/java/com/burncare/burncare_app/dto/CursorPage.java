@@ -0,0 +1,49 @@
+package com.burncare.burncare_app.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page d'historique paginée par curseur (keyset).
+ * {@code nextCursor} est null quand il n'y a plus de résultats plus anciens.
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor
+) {
+
+    // Le corps des listes reste un tableau (compatibilité clients), le curseur suivant passe par cet en-tête
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    public static int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit doit être compris entre 1 et " + MAX_PAGE_SIZE);
+        }
+        return limit;
+    }
+
+    /**
+     * Construit une page à partir de lignes lues avec une limite de {@code pageSize + 1} :
+     * la ligne en trop indique seulement qu'une page suivante existe.
+     */
+    public static <R, T> CursorPage<T> of(List<R> rows, int pageSize,
+                                          Function<R, ResultCursor> cursorOf,
+                                          Function<R, T> mapper) {
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = cursorOf.apply(rows.get(pageSize - 1)).encode();
+        }
+        return new CursorPage<>(rows.stream().map(mapper).toList(), nextCursor);
+    }
+}
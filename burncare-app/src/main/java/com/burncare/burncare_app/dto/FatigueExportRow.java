@@ -0,0 +1,17 @@
+package com.burncare.burncare_app.dto;
+
+import java.time.Instant;
+
+// Ligne brute de fatigue_results pour l'export admin (recommandations en JSON texte)
+public record FatigueExportRow(
+        Long id,
+        Long userId,
+        Instant createdAt,
+        Integer fatigueScore,
+        String riskLabel,
+        String riskTitle,
+        Double confidence,
+        String recommendationsJson,
+        String message,
+        String recommendationText
+) {}
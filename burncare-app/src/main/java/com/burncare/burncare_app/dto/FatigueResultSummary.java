@@ -0,0 +1,11 @@
+package com.burncare.burncare_app.dto;
+
+import java.time.Instant;
+
+// Ligne d'historique fatigue : le détail (message, recommandations) est servi par GET /api/fatigue-results/{id}
+public record FatigueResultSummary(
+        Long id,
+        Integer fatigueScore,
+        String riskLabel,
+        Instant createdAt
+) {}
@@ -0,0 +1,15 @@
+package com.burncare.burncare_app.dto;
+
+// Réponse 202 du mode ingestion asynchrone : le résultat est journalisé, l'écriture en base suit.
+// Une fois écrit, le résultat se retrouve par GET /api/{burnout|fatigue}-results/tickets/{ticket}
+public record IngestionTicket(
+        String ticket,
+        String status
+) {
+
+    public static final String ACCEPTED = "ACCEPTED";
+
+    public static IngestionTicket accepted(String ticket) {
+        return new IngestionTicket(ticket, ACCEPTED);
+    }
+}
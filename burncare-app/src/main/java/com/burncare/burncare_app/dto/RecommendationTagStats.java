@@ -0,0 +1,9 @@
+package com.burncare.burncare_app.dto;
+
+// Nombre de recommandations d'un tag / d'une sévérité, et nombre de résultats fatigue distincts concernés
+public record RecommendationTagStats(
+        String tag,
+        Integer severity,
+        long recommendations,
+        long results
+) {}
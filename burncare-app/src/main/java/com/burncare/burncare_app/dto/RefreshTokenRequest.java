@@ -0,0 +1,5 @@
+package com.burncare.burncare_app.dto;
+
+public record RefreshTokenRequest(
+        String refreshToken
+) {}
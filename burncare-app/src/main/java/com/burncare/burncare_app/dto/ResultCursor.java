@@ -0,0 +1,39 @@
+package com.burncare.burncare_app.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position opaque dans un historique trié par (createdAt DESC, id DESC).
+ * Encodée en base64url pour que les clients la renvoient telle quelle.
+ */
+public record ResultCursor(
+        Instant createdAt,
+        Long id
+) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ResultCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARATOR);
+            return new ResultCursor(
+                    Instant.parse(raw.substring(0, sep)),
+                    Long.parseLong(raw.substring(sep + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curseur invalide");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.burncare.burncare_app.dto;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+// Export prêt à être renvoyé : le corps n'est produit qu'à l'écriture de la réponse
+public record ResultExport(
+        String fileName,
+        MediaType mediaType,
+        StreamingResponseBody body
+) {}
@@ -0,0 +1,10 @@
+package com.burncare.burncare_app.dto;
+
+import java.time.Instant;
+
+// Colonnes minimales d'un résultat nécessaires au rollup
+public record RollupSample(
+        Instant createdAt,
+        String riskLabel,
+        Integer score
+) {}
@@ -0,0 +1,8 @@
+package com.burncare.burncare_app.dto;
+
+// Nombre de résultats pour un couple (niveau de risque, score) : source de recalcul des compteurs
+public record ScoreBucketCount(
+        String riskLabel,
+        Integer score,
+        Long count
+) {}
@@ -0,0 +1,15 @@
+package com.burncare.burncare_app.dto;
+
+import java.time.Instant;
+
+// Un bucket de la série temporelle admin (avgScore / minScore / maxScore null si aucun score)
+public record StatsTimeseriesPoint(
+        Instant bucketStart,
+        long total,
+        long low,
+        long medium,
+        long high,
+        Double avgScore,
+        Integer minScore,
+        Integer maxScore
+) {}
@@ -0,0 +1,7 @@
+package com.burncare.burncare_app.dto;
+
+// Réponse de /api/auth/refresh : Keycloak renvoie aussi un nouveau jeton de rafraîchissement (rotation)
+public record TokenResponse(
+        String token,
+        String refreshToken
+) {}
@@ -0,0 +1,7 @@
+package com.burncare.burncare_app.dto;
+
+// Id local et sub Keycloak d'un utilisateur, sans charger l'entité
+public record UserKeycloakRef(
+        Long id,
+        String keycloakId
+) {}
@@ -0,0 +1,7 @@
+package com.burncare.burncare_app.dto;
+
+// Ce qu'une écriture authentifiée doit savoir de l'utilisateur derrière le sub du JWT
+public record UserSnapshot(
+        Long id,
+        boolean enabled
+) {}
@@ -6,11 +6,20 @@ import java.time.Instant;
 @Entity
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
-@Table(name = "burnout_results")
+@Table(
+        name = "burnout_results",
+        indexes = {
+                @Index(name = "idx_burnout_results_user_created", columnList = "user_id, created_at desc, id desc"),
+                @Index(name = "idx_burnout_results_created", columnList = "created_at"),
+                @Index(name = "idx_burnout_results_ticket", columnList = "ingestion_ticket")
+        }
+)
 public class BurnoutResult {
 
+    // Séquence à pas de 50 (et non IDENTITY) : Hibernate pré-alloue les ids et peut regrouper les INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "burnout_results_seq")
+    @SequenceGenerator(name = "burnout_results_seq", sequenceName = "burnout_results_seq", allocationSize = 50)
     private Long id;
 
     // 🔗 lien vers ton User local
@@ -28,9 +37,18 @@ public class BurnoutResult {
     @Column(length = 2000)
     private String recommendation;
 
-    // On stocke les réponses brutes en JSON pour l’analyse
+    // Ancien format des réponses (JSON) : vidé par AnswerCodeBackfill une fois converti
     @Column(columnDefinition = "TEXT")
     private String answersJson;
 
+    // ✅ Les 12 réponses (0..4) encodées en base 5 dans un entier, décodées à la demande par AnswerCodec
+    // (AnswerCodec.UNCONVERTIBLE : ancien JSON non convertible, conservé dans answersJson)
+    @Column(name = "answers_code")
+    private Integer answersCode;
+
     private Instant createdAt;
+
+    // Ticket renvoyé par le 202 de l'ingestion asynchrone (null pour un résultat écrit directement)
+    @Column(name = "ingestion_ticket", length = 36)
+    private String ingestionTicket;
 }
@@ -2,22 +2,35 @@ package com.burncare.burncare_app.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
 
 @Entity
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
-@Table(name = "fatigue_results")
+@Table(
+        name = "fatigue_results",
+        indexes = {
+                @Index(name = "idx_fatigue_results_user_created", columnList = "user_id, created_at desc, id desc"),
+                @Index(name = "idx_fatigue_results_created", columnList = "created_at"),
+                @Index(name = "idx_fatigue_results_ticket", columnList = "ingestion_ticket")
+        }
+)
 public class FatigueResult {
 
+    // Séquence à pas de 50 (et non IDENTITY) : Hibernate pré-alloue les ids et peut regrouper les INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fatigue_results_seq")
+    @SequenceGenerator(name = "fatigue_results_seq", sequenceName = "fatigue_results_seq", allocationSize = 50)
     private Long id;
 
-    // ✅ Keycloak "sub"
-    @Column(nullable = false)
-    private String userId;
+    // 🔗 lien vers le User local (comme BurnoutResult) ; ancienne colonne keycloak "sub" migrée par PostgresSchemaUpgrader
+    // (les résultats migrés sans utilisateur local gardent user_id NULL en base)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
 
     private Integer fatigueScore;   // 0–100
     private String riskLabel;
@@ -28,7 +41,8 @@ public class FatigueResult {
 
     private Double confidence;
 
-    @Column(columnDefinition = "TEXT")
+    // ✅ jsonb sous PostgreSQL (index GIN créé par PostgresSchemaUpgrader), json sous H2
+    @JdbcTypeCode(SqlTypes.JSON)
     private String recommendationsJson;
 
     @Column(columnDefinition = "TEXT")
@@ -36,4 +50,8 @@ public class FatigueResult {
 
     @Column(nullable = false)
     private Instant createdAt;
+
+    // Ticket renvoyé par le 202 de l'ingestion asynchrone (null pour un résultat écrit directement)
+    @Column(name = "ingestion_ticket", length = 36)
+    private String ingestionTicket;
 }
@@ -0,0 +1,47 @@
+package com.burncare.burncare_app.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Réponse d'un POST de résultat envoyé avec un en-tête Idempotency-Key : une nouvelle tentative avec la même clé
+ * renvoie cette réponse sans second insert. La ligne est créée avant l'enregistrement (statusCode = 0, en cours),
+ * complétée avec la réponse ensuite ; supprimée après expiration (IdempotencyService).
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Table(
+        name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_keys_user_key", columnNames = {"user_id", "idempotency_key"}),
+        indexes = @Index(name = "idx_idempotency_keys_created", columnList = "created_at")
+)
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Pas de clé étrangère : la suppression d'un utilisateur n'a pas à attendre l'expiration de ses clés
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    // BURNOUT / FATIGUE : une clé ne peut pas être réutilisée pour l'autre type de résultat
+    @Column(nullable = false, length = 16)
+    private String kind;
+
+    // 0 tant que la requête d'origine est en cours
+    @Column(nullable = false)
+    private int statusCode;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,22 @@
+package com.burncare.burncare_app.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Position de la file d'ingestion d'une instance : toutes les entrées du journal local
+ * avec seq <= committedSeq sont en base (mis à jour dans la même transaction que les résultats).
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Table(name = "ingestion_checkpoints")
+public class IngestionCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String instance;
+
+    @Column(nullable = false)
+    private long committedSeq;
+}
@@ -0,0 +1,51 @@
+package com.burncare.burncare_app.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Entrée de la file d'ingestion refusée par la base même seule (utilisateur supprimé entre-temps, contrainte
+ * non respectée...) : mise de côté avec l'erreur pour que le writer avance. Enregistrée dans la même
+ * transaction que la position du journal ({@link IngestionCheckpoint}).
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Table(
+        name = "ingestion_dead_letters",
+        indexes = @Index(name = "idx_ingestion_dead_letters_ticket", columnList = "ticket")
+)
+public class IngestionDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String instance;
+
+    @Column(nullable = false)
+    private long seq;
+
+    @Column(nullable = false, length = 36)
+    private String ticket;
+
+    // BURNOUT / FATIGUE
+    @Column(nullable = false, length = 16)
+    private String kind;
+
+    @Column(nullable = false)
+    private String keycloakId;
+
+    // Requête d'origine (JSON), pour une reprise manuelle
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(length = 2000)
+    private String error;
+
+    @Column(nullable = false)
+    private Instant failedAt;
+}
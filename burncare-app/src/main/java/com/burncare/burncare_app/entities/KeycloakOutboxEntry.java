@@ -0,0 +1,56 @@
+package com.burncare.burncare_app.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Modification Keycloak en attente, écrite dans la même transaction que la modification locale de l'utilisateur.
+ * Appliquée puis supprimée par KeycloakOutboxRelay ; failed = abandonnée après le nombre maximal de tentatives.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Table(
+        name = "keycloak_outbox",
+        indexes = {
+                @Index(name = "idx_keycloak_outbox_due", columnList = "failed, next_attempt_at"),
+                @Index(name = "idx_keycloak_outbox_user", columnList = "keycloak_id, id")
+        }
+)
+public class KeycloakOutboxEntry {
+
+    public static final String UPDATE = "UPDATE";
+    public static final String ASSIGN_ROLES = "ASSIGN_ROLES";
+    public static final String DELETE = "DELETE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "keycloak_id", nullable = false, length = 64)
+    private String keycloakId;
+
+    @Column(nullable = false, length = 16)
+    private String operation;
+
+    // KeycloakUserChange en JSON (null pour DELETE)
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @Column(nullable = false)
+    private boolean failed;
+}
@@ -0,0 +1,23 @@
+package com.burncare.burncare_app.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Compteur statistique maintenu à l'écriture (ex: "burnout.total", "fatigue.label.Moyen", "burnout.score.42").
+ * Mis à jour dans la même transaction que l'insertion / suppression des résultats.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Table(name = "stats_counters")
+public class StatsCounter {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    // "value" est un mot réservé (H2)
+    @Column(name = "counter_value", nullable = false)
+    private long value;
+}
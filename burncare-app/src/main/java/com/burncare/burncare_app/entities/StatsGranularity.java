@@ -0,0 +1,24 @@
+package com.burncare.burncare_app.entities;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+// Taille des buckets de rollup (bornes en UTC)
+public enum StatsGranularity {
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    StatsGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public Instant bucketStart(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+}
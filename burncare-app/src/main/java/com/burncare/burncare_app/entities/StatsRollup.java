@@ -0,0 +1,54 @@
+package com.burncare.burncare_app.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Agrégat horaire ou journalier des résultats d'un type ("burnout" / "fatigue").
+ * Alimenté incrémentalement par le job de rollup, lu par /api/admin/stats/timeseries.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(
+        name = "stats_rollups",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_stats_rollups_bucket",
+                columnNames = {"kind", "granularity", "bucket_start"}
+        )
+)
+public class StatsRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 16)
+    private String kind;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private StatsGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    private long totalCount;
+    private long lowCount;
+    private long mediumCount;
+    private long highCount;
+
+    // Résultats ayant un score (les scores nuls sont exclus de la moyenne)
+    private long scoreCount;
+    private long scoreSum;
+    private Integer scoreMin;
+    private Integer scoreMax;
+
+    public StatsRollup(String kind, StatsGranularity granularity, Instant bucketStart) {
+        this.kind = kind;
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+    }
+}
@@ -0,0 +1,24 @@
+package com.burncare.burncare_app.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Position du job de rollup pour un type de résultat :
+ * tous les résultats avec createdAt < processedUntil sont déjà agrégés.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Table(name = "stats_rollup_watermarks")
+public class StatsRollupWatermark {
+
+    @Id
+    @Column(length = 16)
+    private String kind;
+
+    @Column(nullable = false)
+    private Instant processedUntil;
+}
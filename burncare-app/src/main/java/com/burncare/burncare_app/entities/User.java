@@ -9,7 +9,15 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "users")
+@Table(
+        name = "users",
+        indexes = {
+                // Filtres de la liste admin (rôle, profession, actif) ; préfixes nom/email : PostgresSchemaUpgrader
+                @Index(name = "idx_users_role_profession_enabled", columnList = "role, profession, enabled"),
+                @Index(name = "idx_users_profession_enabled", columnList = "profession, enabled"),
+                @Index(name = "idx_users_enabled", columnList = "enabled")
+        }
+)
 public class User {
 
     @Id
@@ -1,17 +1,72 @@
 package com.burncare.burncare_app.repositories;// package com.burncare.burncare_app.repositories;
 
+import com.burncare.burncare_app.dto.BurnoutResultSummary;
+import com.burncare.burncare_app.dto.RollupSample;
+import com.burncare.burncare_app.dto.ScoreBucketCount;
 import com.burncare.burncare_app.entities.BurnoutResult;
 import com.burncare.burncare_app.entities.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 public interface BurnoutResultRepository extends JpaRepository<BurnoutResult, Long> {
 
     List<BurnoutResult> findByUserOrderByCreatedAtDesc(User user);
-    @Query("SELECT COUNT(b) FROM BurnoutResult b")
-    long countAll();
 
-    long countByRiskLabel(String riskLabel);
+    Optional<BurnoutResult> findByIngestionTicketAndUserId(String ingestionTicket, Long userId);
+
+    // Historique allégé : première page, une seule requête jointe sur le sub Keycloak (index unique)
+    // puis servie par idx_burnout_results_user_created ; ni message, ni recommandation, ni réponses
+    @Query("SELECT new com.burncare.burncare_app.dto.BurnoutResultSummary(b.id, b.burnoutScore, b.riskLabel, b.riskTitle, b.createdAt) " +
+            "FROM BurnoutResult b JOIN b.user u WHERE u.keycloakId = :keycloakId " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BurnoutResultSummary> findSummaries(@Param("keycloakId") String keycloakId, Limit limit);
+
+    // Historique allégé : résultats strictement plus anciens que le curseur (createdAt, id)
+    @Query("SELECT new com.burncare.burncare_app.dto.BurnoutResultSummary(b.id, b.burnoutScore, b.riskLabel, b.riskTitle, b.createdAt) " +
+            "FROM BurnoutResult b JOIN b.user u WHERE u.keycloakId = :keycloakId " +
+            "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BurnoutResultSummary> findSummariesBefore(@Param("keycloakId") String keycloakId,
+                                                   @Param("createdAt") Instant createdAt,
+                                                   @Param("id") Long id,
+                                                   Limit limit);
+
+    // Suppression groupée (un seul DELETE) : les entités ne sont pas chargées
+    @Modifying
+    @Query("DELETE FROM BurnoutResult b WHERE b.user = :user")
+    int deleteByUser(@Param("user") User user);
+
+    // Source des compteurs statistiques (recalcul complet / suppression d'un utilisateur)
+    @Query("SELECT new com.burncare.burncare_app.dto.ScoreBucketCount(b.riskLabel, b.burnoutScore, COUNT(b)) " +
+            "FROM BurnoutResult b GROUP BY b.riskLabel, b.burnoutScore")
+    List<ScoreBucketCount> countByLabelAndScore();
+
+    @Query("SELECT new com.burncare.burncare_app.dto.ScoreBucketCount(b.riskLabel, b.burnoutScore, COUNT(b)) " +
+            "FROM BurnoutResult b WHERE b.user = :user GROUP BY b.riskLabel, b.burnoutScore")
+    List<ScoreBucketCount> countByLabelAndScoreForUser(@Param("user") User user);
+
+    // Source du rollup : résultats créés sur [from, to[ (servie par idx_burnout_results_created)
+    @Query("SELECT new com.burncare.burncare_app.dto.RollupSample(b.createdAt, b.riskLabel, b.burnoutScore) " +
+            "FROM BurnoutResult b WHERE b.createdAt >= :from AND b.createdAt < :to")
+    List<RollupSample> findRollupSamples(@Param("from") Instant from, @Param("to") Instant to);
+
+    // Résultats d'un utilisateur à retirer des rollups avant sa suppression
+    @Query("SELECT new com.burncare.burncare_app.dto.RollupSample(b.createdAt, b.riskLabel, b.burnoutScore) " +
+            "FROM BurnoutResult b WHERE b.user = :user")
+    List<RollupSample> findRollupSamplesForUser(@Param("user") User user);
+
+    @Query("SELECT MIN(b.createdAt) FROM BurnoutResult b")
+    Instant findFirstCreatedAt();
+
+    // Rattrapage answersJson -> answers_code : lignes non converties, par id croissant
+    @Query("SELECT b FROM BurnoutResult b WHERE b.id > :afterId " +
+            "AND b.answersCode IS NULL AND b.answersJson IS NOT NULL ORDER BY b.id ASC")
+    List<BurnoutResult> findAnswersToEncode(@Param("afterId") Long afterId, Limit limit);
 }
@@ -1,20 +1,70 @@
 package com.burncare.burncare_app.repositories;
 
+import com.burncare.burncare_app.dto.FatigueResultSummary;
+import com.burncare.burncare_app.dto.RollupSample;
+import com.burncare.burncare_app.dto.ScoreBucketCount;
 import com.burncare.burncare_app.entities.FatigueResult;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 public interface FatigueResultRepository extends JpaRepository<FatigueResult, Long> {
-    List<FatigueResult> findByUserIdOrderByCreatedAtDesc(String userId);
+    Optional<FatigueResult> findByIdAndUserId(Long id, Long userId);
 
-    @Query("SELECT COUNT(f) FROM FatigueResult f")
-    long countAll();
+    Optional<FatigueResult> findByIngestionTicketAndUserId(String ingestionTicket, Long userId);
 
-    long countByRiskLabel(String riskLabel);
+    // Historique allégé sur [from, to[ : première page, une seule requête jointe sur le sub Keycloak
+    // (index unique) puis servie par idx_fatigue_results_user_created
+    @Query("SELECT new com.burncare.burncare_app.dto.FatigueResultSummary(f.id, f.fatigueScore, f.riskLabel, f.createdAt) " +
+            "FROM FatigueResult f JOIN f.user u WHERE u.keycloakId = :keycloakId " +
+            "AND f.createdAt >= :from AND f.createdAt < :to " +
+            "ORDER BY f.createdAt DESC, f.id DESC")
+    List<FatigueResultSummary> findSummaries(@Param("keycloakId") String keycloakId,
+                                             @Param("from") Instant from,
+                                             @Param("to") Instant to,
+                                             Limit limit);
 
-    @Query("SELECT AVG(f.fatigueScore) FROM FatigueResult f")
-    Double averageFatigueScore();
+    // Historique allégé : résultats strictement plus anciens que le curseur (createdAt, id), bornés par from
+    @Query("SELECT new com.burncare.burncare_app.dto.FatigueResultSummary(f.id, f.fatigueScore, f.riskLabel, f.createdAt) " +
+            "FROM FatigueResult f JOIN f.user u WHERE u.keycloakId = :keycloakId AND f.createdAt >= :from " +
+            "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id)) " +
+            "ORDER BY f.createdAt DESC, f.id DESC")
+    List<FatigueResultSummary> findSummariesBefore(@Param("keycloakId") String keycloakId,
+                                                   @Param("from") Instant from,
+                                                   @Param("createdAt") Instant createdAt,
+                                                   @Param("id") Long id,
+                                                   Limit limit);
 
+    // Suppression groupée (un seul DELETE) : les entités ne sont pas chargées
+    @Modifying
+    @Query("DELETE FROM FatigueResult f WHERE f.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    // Source des compteurs statistiques (recalcul complet / suppression d'un utilisateur)
+    @Query("SELECT new com.burncare.burncare_app.dto.ScoreBucketCount(f.riskLabel, f.fatigueScore, COUNT(f)) " +
+            "FROM FatigueResult f GROUP BY f.riskLabel, f.fatigueScore")
+    List<ScoreBucketCount> countByLabelAndScore();
+
+    @Query("SELECT new com.burncare.burncare_app.dto.ScoreBucketCount(f.riskLabel, f.fatigueScore, COUNT(f)) " +
+            "FROM FatigueResult f WHERE f.user.id = :userId GROUP BY f.riskLabel, f.fatigueScore")
+    List<ScoreBucketCount> countByLabelAndScoreForUser(@Param("userId") Long userId);
+
+    // Source du rollup : résultats créés sur [from, to[ (servie par idx_fatigue_results_created)
+    @Query("SELECT new com.burncare.burncare_app.dto.RollupSample(f.createdAt, f.riskLabel, f.fatigueScore) " +
+            "FROM FatigueResult f WHERE f.createdAt >= :from AND f.createdAt < :to")
+    List<RollupSample> findRollupSamples(@Param("from") Instant from, @Param("to") Instant to);
+
+    // Résultats d'un utilisateur à retirer des rollups avant sa suppression
+    @Query("SELECT new com.burncare.burncare_app.dto.RollupSample(f.createdAt, f.riskLabel, f.fatigueScore) " +
+            "FROM FatigueResult f WHERE f.user.id = :userId")
+    List<RollupSample> findRollupSamplesForUser(@Param("userId") Long userId);
+
+    @Query("SELECT MIN(f.createdAt) FROM FatigueResult f")
+    Instant findFirstCreatedAt();
 }
@@ -0,0 +1,30 @@
+package com.burncare.burncare_app.repositories;
+
+import com.burncare.burncare_app.entities.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    // Réponse de la requête d'origine, enregistrée une fois le résultat écrit
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.statusCode = :statusCode, r.responseBody = :body WHERE r.id = :id")
+    int complete(@Param("id") Long id, @Param("statusCode") int statusCode, @Param("body") String body);
+
+    // DELETE immédiat (et non différé au flush) : une clé expirée peut être remplacée dans la même transaction
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id")
+    int deleteRecord(@Param("id") Long id);
+
+    // Purge en une requête (index sur created_at)
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
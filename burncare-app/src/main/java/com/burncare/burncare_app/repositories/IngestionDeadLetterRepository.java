@@ -0,0 +1,7 @@
+package com.burncare.burncare_app.repositories;
+
+import com.burncare.burncare_app.entities.IngestionDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface IngestionDeadLetterRepository extends JpaRepository<IngestionDeadLetter, Long> {
+}
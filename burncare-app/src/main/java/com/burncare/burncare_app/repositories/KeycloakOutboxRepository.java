@@ -0,0 +1,50 @@
+package com.burncare.burncare_app.repositories;
+
+import com.burncare.burncare_app.entities.KeycloakOutboxEntry;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface KeycloakOutboxRepository extends JpaRepository<KeycloakOutboxEntry, Long> {
+
+    // Entrées à appliquer : seulement la plus ancienne de chaque compte, pour respecter l'ordre des modifications.
+    // FOR UPDATE SKIP LOCKED (timeout -2) : une autre instance qui réserve en même temps passe ces lignes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM KeycloakOutboxEntry e WHERE e.failed = false AND e.nextAttemptAt <= :now " +
+            "AND NOT EXISTS (SELECT p.id FROM KeycloakOutboxEntry p " +
+            "WHERE p.keycloakId = e.keycloakId AND p.failed = false AND p.id < e.id) " +
+            "ORDER BY e.id")
+    List<KeycloakOutboxEntry> findReady(@Param("now") Instant now, Pageable pageable);
+
+    // Réservation : les entrées ne sont plus dues avant la fin du bail
+    @Modifying
+    @Query("UPDATE KeycloakOutboxEntry e SET e.nextAttemptAt = :until WHERE e.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("until") Instant until);
+
+    @Modifying
+    @Query("DELETE FROM KeycloakOutboxEntry e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // Échec : UPDATE ciblé (sans effet si l'entrée a disparu entre-temps, contrairement à un save)
+    @Modifying
+    @Query("UPDATE KeycloakOutboxEntry e SET e.attempts = :attempts, e.lastError = :lastError, " +
+            "e.nextAttemptAt = :nextAttemptAt, e.failed = :failed WHERE e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("attempts") int attempts, @Param("lastError") String lastError,
+                      @Param("nextAttemptAt") Instant nextAttemptAt, @Param("failed") boolean failed);
+
+    long countByFailed(boolean failed);
+
+    @Query("SELECT MIN(e.createdAt) FROM KeycloakOutboxEntry e WHERE e.failed = false")
+    Instant findOldestPendingCreatedAt();
+}
@@ -0,0 +1,78 @@
+package com.burncare.burncare_app.repositories;
+
+import com.burncare.burncare_app.dto.RecommendationTagStats;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Agrégats sur les recommandations fatigue (colonne jsonb), calculés entièrement dans PostgreSQL :
+ * seules les lignes agrégées remontent dans la JVM.
+ */
+@Repository
+public class RecommendationStatsRepository {
+
+    // Sévérité 1..5 ; null si absente ou non numérique
+    private static final String SEVERITY =
+            "CASE WHEN rec ->> 'severity' ~ '^[0-9]+$' THEN (rec ->> 'severity')::int END";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private Boolean postgres;
+
+    public RecommendationStatsRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isSupported() {
+        if (postgres == null) {
+            String product = jdbcTemplate.getJdbcTemplate()
+                    .execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equalsIgnoreCase(product);
+        }
+        return postgres;
+    }
+
+    public List<RecommendationTagStats> countByTagAndSeverity(Instant from, Instant to, String tag,
+                                                              Integer minSeverity, String profession) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", Timestamp.from(from))
+                .addValue("to", Timestamp.from(to));
+
+        StringBuilder sql = new StringBuilder()
+                .append("SELECT rec ->> 'tag' AS tag, ").append(SEVERITY).append(" AS severity, ")
+                .append("COUNT(*) AS recommendations, COUNT(DISTINCT f.id) AS results ")
+                .append("FROM fatigue_results f ")
+                .append("CROSS JOIN LATERAL jsonb_array_elements(CASE WHEN jsonb_typeof(f.recommendations_json) = 'array' ")
+                .append("THEN f.recommendations_json ELSE '[]'::jsonb END) AS rec ")
+                .append("WHERE f.created_at >= :from AND f.created_at < :to ");
+
+        if (tag != null) {
+            // La contenance @> est servie par l'index GIN idx_fatigue_results_recommendations
+            sql.append("AND f.recommendations_json @> jsonb_build_array(jsonb_build_object('tag', CAST(:tag AS text))) ")
+                    .append("AND rec ->> 'tag' = :tag ");
+            params.addValue("tag", tag);
+        }
+        if (minSeverity != null) {
+            sql.append("AND ").append(SEVERITY).append(" >= :minSeverity ");
+            params.addValue("minSeverity", minSeverity);
+        }
+        if (profession != null) {
+            sql.append("AND f.user_id IN (SELECT u.id FROM users u WHERE u.profession = :profession) ");
+            params.addValue("profession", profession);
+        }
+        sql.append("GROUP BY 1, 2 ORDER BY recommendations DESC, tag, severity");
+
+        return jdbcTemplate.query(sql.toString(), params, (rs, i) -> new RecommendationTagStats(
+                rs.getString("tag"),
+                (Integer) rs.getObject("severity"),
+                rs.getLong("recommendations"),
+                rs.getLong("results")
+        ));
+    }
+}
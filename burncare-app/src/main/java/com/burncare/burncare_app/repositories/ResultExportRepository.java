@@ -0,0 +1,104 @@
+package com.burncare.burncare_app.repositories;
+
+import com.burncare.burncare_app.dto.BurnoutExportRow;
+import com.burncare.burncare_app.dto.FatigueExportRow;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Lecture en flux des tables de résultats pour l'export admin.
+ * <p>
+ * Curseur JDBC en avant seulement, lu par paquets de {@link #FETCH_SIZE} lignes : chaque ligne est passée
+ * au consommateur puis oubliée, la mémoire utilisée ne dépend pas du nombre de lignes.
+ * Sous PostgreSQL, le driver ne respecte la taille de paquet que dans une transaction (autocommit désactivé).
+ */
+@Repository
+public class ResultExportRepository {
+
+    static final int FETCH_SIZE = 1_000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ResultExportRepository(DataSource dataSource) {
+        // JdbcTemplate dédié : la taille de paquet ne doit pas s'appliquer aux autres requêtes
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+
+    public void streamBurnout(Instant from, Instant to, String riskLabel, Consumer<BurnoutExportRow> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT b.id, b.user_id, b.created_at, b.burnout_score, b.risk_label, b.risk_title, " +
+                "b.answers_code, b.answers_json, b.message, b.recommendation FROM burnout_results b " +
+                where("b", from, to, riskLabel, params) + "ORDER BY b.created_at, b.id";
+
+        jdbcTemplate.query(sql, params, rs -> {
+            consumer.accept(new BurnoutExportRow(
+                    rs.getLong("id"),
+                    rs.getLong("user_id"),
+                    instant(rs, "created_at"),
+                    (Integer) rs.getObject("burnout_score"),
+                    rs.getString("risk_label"),
+                    rs.getString("risk_title"),
+                    (Integer) rs.getObject("answers_code"),
+                    rs.getString("answers_json"),
+                    rs.getString("message"),
+                    rs.getString("recommendation")
+            ));
+        });
+    }
+
+    public void streamFatigue(Instant from, Instant to, String riskLabel, Consumer<FatigueExportRow> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT f.id, f.user_id, f.created_at, f.fatigue_score, f.risk_label, f.risk_title, " +
+                "f.confidence, f.recommendations_json, f.message, f.recommendation_text FROM fatigue_results f " +
+                where("f", from, to, riskLabel, params) + "ORDER BY f.created_at, f.id";
+
+        jdbcTemplate.query(sql, params, rs -> {
+            consumer.accept(new FatigueExportRow(
+                    rs.getLong("id"),
+                    rs.getLong("user_id"),
+                    instant(rs, "created_at"),
+                    (Integer) rs.getObject("fatigue_score"),
+                    rs.getString("risk_label"),
+                    rs.getString("risk_title"),
+                    (Double) rs.getObject("confidence"),
+                    rs.getString("recommendations_json"),
+                    rs.getString("message"),
+                    rs.getString("recommendation_text")
+            ));
+        });
+    }
+
+    // Filtres facultatifs : sans borne, les lignes sans date sont aussi exportées
+    private static String where(String alias, Instant from, Instant to, String riskLabel, MapSqlParameterSource params) {
+        StringBuilder sql = new StringBuilder("WHERE 1 = 1 ");
+        if (from != null) {
+            sql.append("AND ").append(alias).append(".created_at >= :from ");
+            params.addValue("from", Timestamp.from(from));
+        }
+        if (to != null) {
+            sql.append("AND ").append(alias).append(".created_at < :to ");
+            params.addValue("to", Timestamp.from(to));
+        }
+        if (riskLabel != null) {
+            sql.append("AND ").append(alias).append(".risk_label = :riskLabel ");
+            params.addValue("riskLabel", riskLabel);
+        }
+        return sql.toString();
+    }
+
+    private static Instant instant(ResultSet rs, String column) throws SQLException {
+        Timestamp ts = rs.getTimestamp(column);
+        return ts == null ? null : ts.toInstant();
+    }
+}
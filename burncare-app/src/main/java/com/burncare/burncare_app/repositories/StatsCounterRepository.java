@@ -0,0 +1,25 @@
+package com.burncare.burncare_app.repositories;
+
+import com.burncare.burncare_app.entities.StatsCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface StatsCounterRepository extends JpaRepository<StatsCounter, String>, StatsCounterRepositoryCustom {
+
+    // Incrément atomique côté base : pas de lecture préalable, pas de mise à jour perdue
+    @Modifying
+    @Query("UPDATE StatsCounter c SET c.value = c.value + :delta WHERE c.name IN :names")
+    int increment(@Param("names") Collection<String> names, @Param("delta") long delta);
+
+    // Verrouille tous les compteurs pendant un recalcul : les écritures concurrentes attendent
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM StatsCounter c")
+    List<StatsCounter> findAllForUpdate();
+}
@@ -0,0 +1,13 @@
+package com.burncare.burncare_app.repositories;
+
+import java.util.Map;
+
+public interface StatsCounterRepositoryCustom {
+
+    /**
+     * Applique un delta par compteur en une seule requête UPDATE (value + CASE name ...).
+     * Une seule instruction : les lignes sont verrouillées dans un ordre stable, sans interblocage
+     * entre deux transactions qui touchent les mêmes compteurs.
+     */
+    int incrementAll(Map<String, Long> deltas);
+}
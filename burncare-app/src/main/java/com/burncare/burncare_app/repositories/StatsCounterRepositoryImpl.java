@@ -0,0 +1,36 @@
+package com.burncare.burncare_app.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class StatsCounterRepositoryImpl implements StatsCounterRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int incrementAll(Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        List<String> names = new ArrayList<>(deltas.keySet());
+        StringBuilder jpql = new StringBuilder("UPDATE StatsCounter c SET c.value = c.value + CASE c.name");
+        for (int i = 0; i < names.size(); i++) {
+            jpql.append(" WHEN :n").append(i).append(" THEN :d").append(i);
+        }
+        jpql.append(" ELSE 0 END WHERE c.name IN :names");
+
+        Query query = entityManager.createQuery(jpql.toString());
+        for (int i = 0; i < names.size(); i++) {
+            query.setParameter("n" + i, names.get(i));
+            query.setParameter("d" + i, deltas.get(names.get(i)));
+        }
+        query.setParameter("names", names);
+        return query.executeUpdate();
+    }
+}
@@ -0,0 +1,20 @@
+package com.burncare.burncare_app.repositories;
+
+import com.burncare.burncare_app.entities.StatsGranularity;
+import com.burncare.burncare_app.entities.StatsRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface StatsRollupRepository extends JpaRepository<StatsRollup, Long> {
+
+    List<StatsRollup> findByKindAndGranularityAndBucketStartIn(String kind,
+                                                              StatsGranularity granularity,
+                                                              Collection<Instant> bucketStarts);
+
+    // Série temporelle sur [from, to[ : servie par uk_stats_rollups_bucket
+    List<StatsRollup> findByKindAndGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+            String kind, StatsGranularity granularity, Instant from, Instant to);
+}
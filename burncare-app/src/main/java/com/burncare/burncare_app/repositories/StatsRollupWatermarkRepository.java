@@ -0,0 +1,18 @@
+package com.burncare.burncare_app.repositories;
+
+import com.burncare.burncare_app.entities.StatsRollupWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface StatsRollupWatermarkRepository extends JpaRepository<StatsRollupWatermark, String> {
+
+    // Une seule instance agrège un type donné à la fois : pas de double comptage
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM StatsRollupWatermark w WHERE w.kind = :kind")
+    Optional<StatsRollupWatermark> findForUpdate(@Param("kind") String kind);
+}
@@ -1,18 +1,38 @@
 package com.burncare.burncare_app.repositories;
 
+import com.burncare.burncare_app.dto.UserKeycloakRef;
+import com.burncare.burncare_app.dto.UserSnapshot;
 import com.burncare.burncare_app.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
 
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
     Optional<User> findByKeycloakId(String keycloakId);
+
+    // Résolution sub Keycloak -> id, actif, rôle sans charger l'utilisateur (index unique sur keycloak_id)
+    @Query("SELECT new com.burncare.burncare_app.dto.UserSnapshot(u.id, u.enabled) FROM User u WHERE u.keycloakId = :keycloakId")
+    Optional<UserSnapshot> findSnapshotByKeycloakId(@Param("keycloakId") String keycloakId);
+
+    @Query("SELECT new com.burncare.burncare_app.dto.UserKeycloakRef(u.id, u.keycloakId) FROM User u WHERE u.id IN :ids")
+    List<UserKeycloakRef> findKeycloakRefs(@Param("ids") Collection<Long> ids);
+
+    // Activation / désactivation groupée : un seul UPDATE
+    @Modifying
+    @Query("UPDATE User u SET u.enabled = :enabled WHERE u.id IN :ids")
+    int updateEnabled(@Param("ids") Collection<Long> ids, @Param("enabled") boolean enabled);
     long count();
 
 }
\ No newline at end of file
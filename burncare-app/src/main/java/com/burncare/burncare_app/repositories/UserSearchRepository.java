@@ -0,0 +1,102 @@
+package com.burncare.burncare_app.repositories;
+
+import com.burncare.burncare_app.dto.AdminUserSummary;
+import com.burncare.burncare_app.entities.Profession;
+import com.burncare.burncare_app.entities.Role;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Recherche approchée des utilisateurs sous PostgreSQL (extension pg_trgm).
+ * <p>
+ * La saisie est découpée en mots ; chaque mot doit trouver un champ (prénom, nom ou email) qui commence par lui
+ * (index lower(col) text_pattern_ops) ou dont un mot lui est proche au sens des trigrammes (opérateur &lt;%,
+ * index GIN gin_trgm_ops) : "jean dupont" trouve Jean Dupont, les fautes de frappe sont tolérées.
+ * Classement : nombre de mots trouvés par préfixe, puis somme des similarités.
+ */
+@Repository
+public class UserSearchRepository {
+
+    private static final String FIELDS = "id, first_name, last_name, email, role, profession, enabled";
+    private static final String[] COLUMNS = {"lower(email)", "lower(first_name)", "lower(last_name)"};
+
+    // Au-delà, les mots supplémentaires sont ignorés (requête bornée)
+    static final int MAX_TERMS = 5;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public UserSearchRepository(DataSource dataSource) {
+        this(new NamedParameterJdbcTemplate(dataSource));
+    }
+
+    UserSearchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean trigramAvailable() {
+        Boolean installed = jdbcTemplate.getJdbcTemplate().queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", Boolean.class);
+        return Boolean.TRUE.equals(installed);
+    }
+
+    // query : saisie en minuscules
+    public List<AdminUserSummary> searchTrigram(String query, int limit) {
+        List<String> terms = Arrays.stream(query.trim().split("\\s+"))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_TERMS)
+                .toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource().addValue("limit", limit);
+        List<String> prefixHits = new ArrayList<>();
+        List<String> scores = new ArrayList<>();
+        List<String> matches = new ArrayList<>();
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            String q = "q" + i;
+            String prefixParam = "prefix" + i;
+            params.addValue(q, term)
+                    .addValue(prefixParam, term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+            String prefix = anyColumn(col -> col + " LIKE :" + prefixParam);
+            String similar = anyColumn(col -> ":" + q + " <% " + col);
+            prefixHits.add("(CASE WHEN " + prefix + " THEN 1 ELSE 0 END)");
+            scores.add(Arrays.stream(COLUMNS)
+                    .map(col -> "word_similarity(:" + q + ", " + col + ")")
+                    .collect(Collectors.joining(", ", "greatest(", ")")));
+            matches.add("(" + prefix + " OR " + similar + ")");
+        }
+        String sql = "SELECT " + FIELDS + " FROM (" +
+                "SELECT " + FIELDS + ", " +
+                String.join(" + ", prefixHits) + " AS prefix_hits, " +
+                String.join(" + ", scores) + " AS score " +
+                "FROM users " +
+                "WHERE " + String.join(" AND ", matches) +
+                ") ranked ORDER BY prefix_hits DESC, score DESC, id LIMIT :limit";
+
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new AdminUserSummary(
+                rs.getLong("id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("email"),
+                rs.getString("role") == null ? null : Role.valueOf(rs.getString("role")),
+                rs.getString("profession") == null ? null : Profession.valueOf(rs.getString("profession")),
+                rs.getBoolean("enabled")
+        ));
+    }
+
+    private static String anyColumn(Function<String, String> condition) {
+        return Arrays.stream(COLUMNS).map(condition).collect(Collectors.joining(" OR ", "(", ")"));
+    }
+}
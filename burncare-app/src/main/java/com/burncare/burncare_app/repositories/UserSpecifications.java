@@ -0,0 +1,39 @@
+package com.burncare.burncare_app.repositories;
+
+import com.burncare.burncare_app.entities.Profession;
+import com.burncare.burncare_app.entities.Role;
+import com.burncare.burncare_app.entities.User;
+import org.springframework.data.jpa.domain.Specification;
+
+// Filtres de la liste admin des utilisateurs ; un filtre null n'ajoute aucune condition
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    public static Specification<User> hasRole(Role role) {
+        return (root, query, cb) -> role == null ? null : cb.equal(root.get("role"), role);
+    }
+
+    public static Specification<User> hasProfession(Profession profession) {
+        return (root, query, cb) -> profession == null ? null : cb.equal(root.get("profession"), profession);
+    }
+
+    public static Specification<User> isEnabled(Boolean enabled) {
+        return (root, query, cb) -> enabled == null ? null : cb.equal(root.get("enabled"), enabled);
+    }
+
+    // Préfixe (déjà en minuscules) de l'email, du prénom ou du nom : lower(col) LIKE 'abc%'
+    public static Specification<User> startsWith(String prefix) {
+        return (root, query, cb) -> {
+            if (prefix == null) {
+                return null;
+            }
+            String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("email")), pattern, '\\'),
+                    cb.like(cb.lower(root.get("firstName")), pattern, '\\'),
+                    cb.like(cb.lower(root.get("lastName")), pattern, '\\'));
+        };
+    }
+}
@@ -0,0 +1,109 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.BulkUserActionRequest;
+import com.burncare.burncare_app.dto.BulkUserActionResult;
+import com.burncare.burncare_app.dto.UserKeycloakRef;
+import com.burncare.burncare_app.repositories.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Actions groupées de l'admin (validation d'une équipe entière, désactivation, suppression).
+ * <p>
+ * APPROVE / DISABLE : un seul UPDATE en base, synchronisation Keycloak par l'outbox dans la même transaction
+ * (pas d'appel réseau pendant la requête). DELETE : {@link AdminService#deleteUser} pour chaque id.
+ */
+@Service
+public class AdminBulkService {
+
+    public static final String APPROVE = "APPROVE";
+    public static final String DISABLE = "DISABLE";
+    public static final String DELETE = "DELETE";
+
+    public static final int MAX_IDS = 500;
+
+    private final UserRepository userRepository;
+    private final AdminService adminService;
+    private final KeycloakOutbox keycloakOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public AdminBulkService(UserRepository userRepository, AdminService adminService, KeycloakOutbox keycloakOutbox,
+                            TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher) {
+        this.userRepository = userRepository;
+        this.adminService = adminService;
+        this.keycloakOutbox = keycloakOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public List<BulkUserActionResult> apply(BulkUserActionRequest request) {
+        String action = request == null || request.action() == null ? "" : request.action().trim().toUpperCase();
+        if (!APPROVE.equals(action) && !DISABLE.equals(action) && !DELETE.equals(action)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Action inconnue : " + (request == null ? null : request.action()));
+        }
+        List<Long> ids = request.ids();
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_IDS || ids.stream().anyMatch(Objects::isNull)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "La liste d'ids doit contenir entre 1 et " + MAX_IDS + " ids");
+        }
+        // Un id répété n'est traité qu'une fois
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+
+        return DELETE.equals(action) ? deleteAll(uniqueIds) : setEnabled(uniqueIds, APPROVE.equals(action));
+    }
+
+    private List<BulkUserActionResult> setEnabled(Set<Long> ids, boolean enabled) {
+        List<UserKeycloakRef> found = transactionTemplate.execute(status -> {
+            List<UserKeycloakRef> refs = userRepository.findKeycloakRefs(ids);
+            userRepository.updateEnabled(ids, enabled);
+            KeycloakUserChange change = new KeycloakUserChange(null, null, null, enabled, null);
+            for (UserKeycloakRef ref : refs) {
+                if (ref.keycloakId() != null) {
+                    keycloakOutbox.update(ref.keycloakId(), change);
+                }
+            }
+            return refs;
+        });
+        if (!found.isEmpty()) {
+            eventPublisher.publishEvent(new UserChangedEvent(found.stream().map(UserKeycloakRef::id).toList()));
+        }
+
+        Set<Long> foundIds = found.stream().map(UserKeycloakRef::id).collect(Collectors.toSet());
+        List<BulkUserActionResult> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            results.add(BulkUserActionResult.of(id,
+                    foundIds.contains(id) ? BulkUserActionResult.UPDATED : BulkUserActionResult.NOT_FOUND));
+        }
+        return results;
+    }
+
+    // Chaque suppression est une transaction à nombre de requêtes constant ; Keycloak suit via l'outbox
+    private List<BulkUserActionResult> deleteAll(Set<Long> ids) {
+        List<BulkUserActionResult> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (!userRepository.existsById(id)) {
+                results.add(BulkUserActionResult.of(id, BulkUserActionResult.NOT_FOUND));
+                continue;
+            }
+            try {
+                adminService.deleteUser(id);
+                results.add(BulkUserActionResult.of(id, BulkUserActionResult.DELETED));
+            } catch (RuntimeException e) {
+                System.err.println("⚠️ Erreur lors de la suppression de l'utilisateur " + id + ": " + e.getMessage());
+                results.add(BulkUserActionResult.failed(id, BulkUserActionResult.FAILED, e.getMessage()));
+            }
+        }
+        return results;
+    }
+}
@@ -1,85 +1,139 @@
 package com.burncare.burncare_app.services;
 
+import com.burncare.burncare_app.dto.AdminUserSummary;
+import com.burncare.burncare_app.dto.RollupSample;
+import com.burncare.burncare_app.entities.Profession;
+import com.burncare.burncare_app.entities.Role;
 import com.burncare.burncare_app.entities.User;
 import com.burncare.burncare_app.repositories.UserRepository;
+import com.burncare.burncare_app.repositories.UserSpecifications;
 import com.burncare.burncare_app.repositories.BurnoutResultRepository;
 import com.burncare.burncare_app.repositories.FatigueResultRepository;
-import org.keycloak.admin.client.Keycloak;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 @Service
 public class AdminService {
 
     private final UserRepository userRepository;
-    private final Keycloak keycloak;
     private final BurnoutResultRepository burnoutResultRepository;
     private final FatigueResultRepository fatigueResultRepository;
+    private final StatsCounterService statsCounterService;
+    private final StatsRollupService statsRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeycloakOutbox keycloakOutbox;
 
-    @Value("${keycloak.realm}")
-    private String realm;
-
-    public AdminService(UserRepository userRepository, Keycloak keycloak, 
+    public AdminService(UserRepository userRepository,
                        BurnoutResultRepository burnoutResultRepository,
-                       FatigueResultRepository fatigueResultRepository) {
+                       FatigueResultRepository fatigueResultRepository,
+                       StatsCounterService statsCounterService,
+                       StatsRollupService statsRollupService,
+                       ApplicationEventPublisher eventPublisher,
+                       KeycloakOutbox keycloakOutbox) {
         this.userRepository = userRepository;
-        this.keycloak = keycloak;
         this.burnoutResultRepository = burnoutResultRepository;
         this.fatigueResultRepository = fatigueResultRepository;
+        this.statsCounterService = statsCounterService;
+        this.statsRollupService = statsRollupService;
+        this.eventPublisher = eventPublisher;
+        this.keycloakOutbox = keycloakOutbox;
+    }
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+    private static final Set<String> SORTABLE = Set.of("id", "email", "firstName", "lastName", "role", "profession", "enabled");
+
+    // 📋 Lister les utilisateurs : page filtrée (rôle, profession, actif, préfixe nom/email) et triée
+    @Transactional(readOnly = true)
+    public Page<AdminUserSummary> searchUsers(int page, Integer size, String sort,
+                                              Role role, Profession profession, Boolean enabled, String q) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (page < 0 || pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "page >= 0 et size entre 1 et " + MAX_PAGE_SIZE + " attendus");
+        }
+        String prefix = q == null || q.isBlank() ? null : q.trim().toLowerCase(Locale.ROOT);
+
+        Specification<User> spec = Specification.where(UserSpecifications.hasRole(role))
+                .and(UserSpecifications.hasProfession(profession))
+                .and(UserSpecifications.isEnabled(enabled))
+                .and(UserSpecifications.startsWith(prefix));
+        return userRepository.findAll(spec, PageRequest.of(page, pageSize, parseSort(sort)))
+                .map(AdminUserSummary::from);
+    }
+
+    // 👤 Détail d'un utilisateur (écran d'administration), 404 s'il n'existe pas
+    @Transactional(readOnly = true)
+    public AdminUserSummary getUser(Long id) {
+        return userRepository.findById(id)
+                .map(AdminUserSummary::from)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Utilisateur introuvable"));
     }
 
-    // 📋 Lister tous les utilisateurs
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    // "lastName" ou "lastName,desc" ; l'id départage les égalités pour une pagination stable
+    static Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.by("id");
+        }
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!SORTABLE.contains(property) || parts.length > 2) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tri invalide: " + sort);
+        }
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length == 2) {
+            direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tri invalide: " + sort));
+        }
+        Sort result = Sort.by(direction, property);
+        return "id".equals(property) ? result : result.and(Sort.by("id"));
     }
 
     // 🗑️ Supprimer un utilisateur (Local + Keycloak)
+    // Pas de chargement d'entités : compteurs agrégés en base puis DELETE groupés ; les rollups déjà calculés
+    // sont ajustés dans la même transaction (StatsRollupService.remove).
+    // Keycloak est appelé après le commit par l'outbox (KeycloakOutboxRelay, avec nouvelles tentatives).
     @Transactional
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Utilisateur introuvable"));
 
         // 1. Supprimer tous les résultats de burnout associés
-        try {
-            List<com.burncare.burncare_app.entities.BurnoutResult> burnoutResults = 
-                burnoutResultRepository.findByUserOrderByCreatedAtDesc(user);
-            if (!burnoutResults.isEmpty()) {
-                burnoutResultRepository.deleteAll(burnoutResults);
-                System.out.println("✅ " + burnoutResults.size() + " résultat(s) de burnout supprimé(s) pour l'utilisateur: " + user.getEmail());
-            }
-        } catch (Exception e) {
-            System.err.println("⚠️ Erreur lors de la suppression des résultats de burnout: " + e.getMessage());
-        }
+        statsCounterService.remove(StatsCounterService.BURNOUT,
+                burnoutResultRepository.countByLabelAndScoreForUser(user));
+        List<RollupSample> burnoutSamples = burnoutResultRepository.findRollupSamplesForUser(user);
+        int burnoutDeleted = burnoutResultRepository.deleteByUser(user);
+        statsRollupService.remove(StatsCounterService.BURNOUT, burnoutSamples);
+        System.out.println("✅ " + burnoutDeleted + " résultat(s) de burnout supprimé(s) pour l'utilisateur: " + user.getEmail());
 
-        // 2. Supprimer tous les résultats de fatigue associés (utilise keycloakId)
-        try {
-            if (user.getKeycloakId() != null) {
-                List<com.burncare.burncare_app.entities.FatigueResult> fatigueResults = 
-                    fatigueResultRepository.findByUserIdOrderByCreatedAtDesc(user.getKeycloakId());
-                if (!fatigueResults.isEmpty()) {
-                    fatigueResultRepository.deleteAll(fatigueResults);
-                    System.out.println("✅ " + fatigueResults.size() + " résultat(s) de fatigue supprimé(s) pour l'utilisateur: " + user.getEmail());
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("⚠️ Erreur lors de la suppression des résultats de fatigue: " + e.getMessage());
-        }
-
-        // 3. Suppression Keycloak
-        if (user.getKeycloakId() != null) {
-            try {
-                keycloak.realm(realm).users().get(user.getKeycloakId()).remove();
-                System.out.println("✅ User supprimé de Keycloak: " + user.getEmail());
-            } catch (Exception e) {
-                System.err.println("⚠️ Erreur suppression Keycloak (déjà supprimé ?): " + e.getMessage());
-            }
-        }
+        // 2. Supprimer tous les résultats de fatigue associés
+        statsCounterService.remove(StatsCounterService.FATIGUE,
+                fatigueResultRepository.countByLabelAndScoreForUser(user.getId()));
+        List<RollupSample> fatigueSamples = fatigueResultRepository.findRollupSamplesForUser(user.getId());
+        int fatigueDeleted = fatigueResultRepository.deleteByUserId(user.getId());
+        statsRollupService.remove(StatsCounterService.FATIGUE, fatigueSamples);
+        System.out.println("✅ " + fatigueDeleted + " résultat(s) de fatigue supprimé(s) pour l'utilisateur: " + user.getEmail());
 
-        // 4. Suppression Locale
+        // 3. Suppression Locale
         userRepository.delete(user);
         System.out.println("✅ User supprimé de la BDD locale: " + user.getEmail());
+
+        eventPublisher.publishEvent(UserChangedEvent.of(user.getId()));
+
+        // 4. Suppression Keycloak via l'outbox, appliquée uniquement si la transaction est validée
+        if (user.getKeycloakId() != null) {
+            keycloakOutbox.delete(user.getKeycloakId());
+        }
     }
-}
\ No newline at end of file
+}
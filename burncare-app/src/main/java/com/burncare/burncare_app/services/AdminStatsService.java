@@ -1,43 +1,58 @@
 package com.burncare.burncare_app.services;
 
 import com.burncare.burncare_app.dto.AdminStatsResponse;
-import com.burncare.burncare_app.repositories.BurnoutResultRepository;
-import com.burncare.burncare_app.repositories.FatigueResultRepository;
 import com.burncare.burncare_app.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+import static com.burncare.burncare_app.services.StatsCounterService.*;
 
 @Service
 @RequiredArgsConstructor
 public class AdminStatsService {
 
     private final UserRepository userRepository;
-    private final BurnoutResultRepository burnoutRepo;
-    private final FatigueResultRepository fatigueRepo;
+    private final StatsCounterService statsCounterService;
 
+    // 2 requêtes au total, indépendantes de la taille de l'historique :
+    // le nombre d'utilisateurs et la lecture des compteurs maintenus à l'écriture
+    @Transactional(readOnly = true)
     public AdminStatsResponse getStats() {
 
+        Map<String, Long> counters = statsCounterService.snapshot();
+
         return AdminStatsResponse.builder()
                 // Users
                 .totalUsers(userRepository.count())
 
                 // Burnout
-                .burnoutTotal(burnoutRepo.countAll())
-                .burnoutLow(burnoutRepo.countByRiskLabel("Faible"))
-                .burnoutMedium(burnoutRepo.countByRiskLabel("Moyen"))
-                .burnoutHigh(burnoutRepo.countByRiskLabel("Élevé"))
+                .burnoutTotal(counters.getOrDefault(totalKey(BURNOUT), 0L))
+                .burnoutLow(counters.getOrDefault(labelKey(BURNOUT, LOW), 0L))
+                .burnoutMedium(counters.getOrDefault(labelKey(BURNOUT, MEDIUM), 0L))
+                .burnoutHigh(counters.getOrDefault(labelKey(BURNOUT, HIGH), 0L))
 
                 // Fatigue
-                .fatigueTotal(fatigueRepo.countAll())
-                .fatigueAlert(fatigueRepo.countByRiskLabel("Faible"))
-                .fatigueNonVigilant(fatigueRepo.countByRiskLabel("Moyen"))
-                .fatigueTired(fatigueRepo.countByRiskLabel("Élevé"))
-                .avgFatigueScore(
-                        fatigueRepo.averageFatigueScore() != null
-                                ? fatigueRepo.averageFatigueScore()
-                                : 0.0
-                )
+                .fatigueTotal(counters.getOrDefault(totalKey(FATIGUE), 0L))
+                .fatigueAlert(counters.getOrDefault(labelKey(FATIGUE, LOW), 0L))
+                .fatigueNonVigilant(counters.getOrDefault(labelKey(FATIGUE, MEDIUM), 0L))
+                .fatigueTired(counters.getOrDefault(labelKey(FATIGUE, HIGH), 0L))
+                .avgFatigueScore(averageScore(counters, FATIGUE))
                 .build();
     }
-}
 
+    // Moyenne calculée depuis l'histogramme des scores (les scores nuls sont exclus, comme AVG en SQL) ;
+    // l'histogramme couvre tout score accepté, les écritures hors 0..100 étant refusées (ResultFieldLimits)
+    private double averageScore(Map<String, Long> counters, String kind) {
+        long count = 0;
+        long sum = 0;
+        for (int score = 0; score <= MAX_SCORE; score++) {
+            long n = counters.getOrDefault(scoreKey(kind, score), 0L);
+            count += n;
+            sum += n * score;
+        }
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+}
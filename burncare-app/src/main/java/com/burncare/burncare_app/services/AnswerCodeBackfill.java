@@ -0,0 +1,85 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.entities.BurnoutResult;
+import com.burncare.burncare_app.repositories.BurnoutResultRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Convertit au démarrage les anciens résultats (answersJson) vers answers_code, par lots d'une transaction chacun.
+ * Une fois encodé, le JSON est vidé ; les réponses illisibles ou hors format (pas 12 valeurs 0..4) gardent leur JSON
+ * et sont marquées {@link AnswerCodec#UNCONVERTIBLE} : elles ne sont plus relues aux démarrages suivants.
+ */
+@Component
+public class AnswerCodeBackfill {
+
+    private static final TypeReference<List<Integer>> ANSWERS_TYPE = new TypeReference<>() {};
+
+    private final BurnoutResultRepository burnoutResultRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${burncare.answers.backfill-batch-size:500}")
+    private int batchSize;
+
+    public AnswerCodeBackfill(BurnoutResultRepository burnoutResultRepository,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper) {
+        this.burnoutResultRepository = burnoutResultRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            long lastId = 0L;
+            int converted = 0;
+            int skipped = 0;
+            while (true) {
+                long afterId = lastId;
+                BatchResult batch = transactionTemplate.execute(status -> encodeBatch(afterId));
+                if (batch == null || batch.lastId() == null) {
+                    break;
+                }
+                lastId = batch.lastId();
+                converted += batch.converted();
+                skipped += batch.skipped();
+            }
+            if (converted > 0 || skipped > 0) {
+                System.out.println("✅ Réponses burnout encodées : " + converted + " (ignorées : " + skipped + ")");
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Erreur lors de l'encodage des réponses burnout: " + e.getMessage());
+        }
+    }
+
+    BatchResult encodeBatch(long afterId) {
+        List<BurnoutResult> rows = burnoutResultRepository.findAnswersToEncode(afterId, Limit.of(batchSize));
+        if (rows.isEmpty()) {
+            return new BatchResult(null, 0, 0);
+        }
+        int converted = 0;
+        for (BurnoutResult row : rows) {
+            try {
+                row.setAnswersCode(AnswerCodec.encode(objectMapper.readValue(row.getAnswersJson(), ANSWERS_TYPE)));
+                row.setAnswersJson(null);
+                converted++;
+            } catch (Exception e) {
+                // Ancien format non convertible : on garde le JSON, marqué pour ne plus être relu
+                row.setAnswersCode(AnswerCodec.UNCONVERTIBLE);
+            }
+        }
+        return new BatchResult(rows.get(rows.size() - 1).getId(), converted, rows.size() - converted);
+    }
+
+    record BatchResult(Long lastId, int converted, int skipped) {}
+}
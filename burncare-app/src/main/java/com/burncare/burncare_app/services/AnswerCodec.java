@@ -0,0 +1,67 @@
+package com.burncare.burncare_app.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodage compact des réponses au questionnaire burnout : 12 réponses de 0 à 4 (échelle de Likert)
+ * tiennent dans un seul entier en base 5 (5^12 = 244 140 625 < 2^31).
+ * La réponse à la question i vaut (code / 5^i) % 5 : pas de parsing JSON pour les analyses par question.
+ */
+public final class AnswerCodec {
+
+    public static final int QUESTION_COUNT = 12;
+    public static final int MAX_ANSWER = 4;
+    private static final int RADIX = MAX_ANSWER + 1;
+
+    // answers_code d'un ancien résultat dont le JSON n'est pas convertible (conservé dans answersJson) :
+    // jamais produit par encode(), il évite de relire ces lignes à chaque démarrage
+    public static final int UNCONVERTIBLE = -1;
+
+    private static final int[] POWERS = new int[QUESTION_COUNT];
+
+    static {
+        int power = 1;
+        for (int i = 0; i < QUESTION_COUNT; i++) {
+            POWERS[i] = power;
+            power *= RADIX;
+        }
+    }
+
+    private AnswerCodec() {
+    }
+
+    public static int encode(List<Integer> answers) {
+        if (answers == null || answers.size() != QUESTION_COUNT) {
+            throw new IllegalArgumentException("Le questionnaire doit contenir " + QUESTION_COUNT + " réponses");
+        }
+        int code = 0;
+        for (int i = 0; i < QUESTION_COUNT; i++) {
+            Integer answer = answers.get(i);
+            if (answer == null || answer < 0 || answer > MAX_ANSWER) {
+                throw new IllegalArgumentException("Réponse invalide à la question " + (i + 1) + " (0 à " + MAX_ANSWER + ")");
+            }
+            code += answer * POWERS[i];
+        }
+        return code;
+    }
+
+    public static int answerAt(int code, int questionIndex) {
+        if (questionIndex < 0 || questionIndex >= QUESTION_COUNT) {
+            throw new IllegalArgumentException("Question inconnue : " + questionIndex);
+        }
+        return (code / POWERS[questionIndex]) % RADIX;
+    }
+
+    public static boolean isEncoded(Integer code) {
+        return code != null && code != UNCONVERTIBLE;
+    }
+
+    public static List<Integer> decode(int code) {
+        List<Integer> answers = new ArrayList<>(QUESTION_COUNT);
+        for (int i = 0; i < QUESTION_COUNT; i++) {
+            answers.add(answerAt(code, i));
+        }
+        return answers;
+    }
+}
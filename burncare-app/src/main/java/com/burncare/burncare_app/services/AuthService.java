@@ -8,28 +8,38 @@ import org.keycloak.admin.client.CreatedResponseUtil;
 import org.keycloak.admin.client.Keycloak;
 import org.keycloak.admin.client.resource.UsersResource;
 import org.keycloak.representations.idm.CredentialRepresentation;
-import org.keycloak.representations.idm.RoleRepresentation;
 import org.keycloak.representations.idm.UserRepresentation;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.*;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 @Service
 public class AuthService {
 
+    private static final String CLIENT_ID = "springboot-app";
+    private static final String TOKEN_PATH = "/protocol/openid-connect/token";
+    private static final String LOGOUT_PATH = "/protocol/openid-connect/logout";
+
     private final UserRepository userRepository;
     private final Keycloak keycloak;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeycloakOutbox keycloakOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final RestTemplate tokenRestTemplate;
 
     @Value("${keycloak.urls.auth}")
     private String keycloakServerUrl;
@@ -37,9 +47,15 @@ public class AuthService {
     @Value("${keycloak.realm}")
     private String realm;
 
-    public AuthService(UserRepository userRepository, Keycloak keycloak) {
+    public AuthService(UserRepository userRepository, Keycloak keycloak, ApplicationEventPublisher eventPublisher,
+                       KeycloakOutbox keycloakOutbox, TransactionTemplate transactionTemplate,
+                       @Qualifier("keycloakTokenRestTemplate") RestTemplate tokenRestTemplate) {
         this.userRepository = userRepository;
         this.keycloak = keycloak;
+        this.eventPublisher = eventPublisher;
+        this.keycloakOutbox = keycloakOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.tokenRestTemplate = tokenRestTemplate;
     }
 
     // --- INSCRIPTION (REGISTER) ---
@@ -68,6 +84,8 @@ public class AuthService {
         credential.setTemporary(false);
         kcUser.setCredentials(List.of(credential));
 
+        // La création du compte reste synchrone : elle fournit l'id Keycloak et utilise le mot de passe,
+        // qui ne doit pas être stocké dans l'outbox
         UsersResource usersResource = keycloak.realm(realm).users();
 
         Response response;
@@ -84,28 +102,14 @@ public class AuthService {
 
         String userId = CreatedResponseUtil.getCreatedId(response);
 
-        // Ajout des rôles Keycloak
-        try {
-            if (req.profession() != null) {
-                String professionRole = req.profession().name();
-                try {
-                    RoleRepresentation roleRep = keycloak.realm(realm).roles().get(professionRole).toRepresentation();
-                    usersResource.get(userId).roles().realmLevel().add(Collections.singletonList(roleRep));
-                } catch (Exception ex) {
-                    System.err.println("⚠️ Rôle Keycloak introuvable pour profession: " + professionRole);
-                }
-            }
-
-            if (req.role() == Role.ADMIN) {
-                try {
-                    RoleRepresentation adminRoleRep = keycloak.realm(realm).roles().get("ADMIN").toRepresentation();
-                    usersResource.get(userId).roles().realmLevel().add(Collections.singletonList(adminRoleRep));
-                } catch (Exception ex) {
-                    System.err.println("⚠️ Rôle ADMIN introuvable dans Keycloak");
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("⚠️ Erreur assignation rôles Keycloak : " + e.getMessage());
+        // Rôles Keycloak : ajoutés par l'outbox, dans la même transaction que l'utilisateur local
+        // (le compte est créé désactivé, le délai d'application n'a donc pas d'effet pour l'utilisateur)
+        List<String> roles = new ArrayList<>();
+        if (req.profession() != null) {
+            roles.add(req.profession().name());
+        }
+        if (req.role() == Role.ADMIN) {
+            roles.add("ADMIN");
         }
 
         User user = new User();
@@ -119,7 +123,13 @@ public class AuthService {
 
         user.setEnabled(isEnabled);
 
-        userRepository.save(user);
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.save(user);
+            if (!roles.isEmpty()) {
+                keycloakOutbox.assignRoles(userId, roles);
+            }
+            eventPublisher.publishEvent(UserChangedEvent.of(user.getId()));
+        });
 
         return new AuthResponse(
                 "",
@@ -141,23 +151,15 @@ public class AuthService {
             throw new DisabledException("Votre compte est créé mais doit être activé par un administrateur.");
         }
 
-        String tokenEndpoint = keycloakServerUrl + "/realms/" + realm + "/protocol/openid-connect/token";
-        RestTemplate restTemplate = new RestTemplate();
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("client_id", CLIENT_ID);
+        form.add("username", req.email());
+        form.add("password", req.password());
+        form.add("grant_type", "password");
 
-        MultiValueMap<String, String> map = new LinkedMultiValueMap<>();
-        map.add("client_id", "springboot-app");
-        map.add("username", req.email());
-        map.add("password", req.password());
-        map.add("grant_type", "password");
-
-        HttpEntity<MultiValueMap<String, String>> entity = new HttpEntity<>(map, headers);
-
-        String accessToken = "";
+        Map<?, ?> tokens;
         try {
-            ResponseEntity<Map> response = restTemplate.exchange(tokenEndpoint, HttpMethod.POST, entity, Map.class);
-            accessToken = (String) response.getBody().get("access_token");
+            tokens = postForm(TOKEN_PATH, form);
         } catch (HttpClientErrorException e) {
             if (e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
                 throw new BadCredentialsException("Email ou mot de passe incorrect");
@@ -168,7 +170,8 @@ public class AuthService {
         }
 
         return new AuthResponse(
-                accessToken,
+                (String) tokens.get("access_token"),
+                (String) tokens.get("refresh_token"),
                 user.getFirstName(),
                 user.getLastName(),
                 user.getEmail(),
@@ -176,4 +179,62 @@ public class AuthService {
                 user.getProfession()
         );
     }
-}
\ No newline at end of file
+
+    // --- RAFRAÎCHISSEMENT DU JETON ---
+    // Grant refresh_token : ni lecture en base ni vérification du mot de passe. Un compte désactivé
+    // ou une session fermée dans Keycloak est refusé par Keycloak lui-même.
+    public TokenResponse refresh(RefreshTokenRequest req) {
+        if (req == null || req.refreshToken() == null || req.refreshToken().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "refreshToken obligatoire");
+        }
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("client_id", CLIENT_ID);
+        form.add("refresh_token", req.refreshToken());
+        form.add("grant_type", "refresh_token");
+
+        try {
+            Map<?, ?> tokens = postForm(TOKEN_PATH, form);
+            return new TokenResponse((String) tokens.get("access_token"), (String) tokens.get("refresh_token"));
+        } catch (HttpClientErrorException e) {
+            // invalid_grant (400) : jeton expiré, révoqué ou session fermée
+            if (e.getStatusCode() == HttpStatus.BAD_REQUEST || e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
+                throw new BadCredentialsException("Session expirée, veuillez vous reconnecter");
+            }
+            throw new RuntimeException("Erreur Keycloak: " + e.getMessage());
+        } catch (Exception e) {
+            throw new RuntimeException("Erreur interne: " + e.getMessage());
+        }
+    }
+
+    // --- DÉCONNEXION ---
+    // Ferme la session Keycloak : le jeton de rafraîchissement ne peut plus être utilisé.
+    // Un jeton déjà invalide est ignoré (la session est de toute façon terminée).
+    public void logout(RefreshTokenRequest req) {
+        if (req == null || req.refreshToken() == null || req.refreshToken().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "refreshToken obligatoire");
+        }
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("client_id", CLIENT_ID);
+        form.add("refresh_token", req.refreshToken());
+
+        try {
+            postForm(LOGOUT_PATH, form);
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() != HttpStatus.BAD_REQUEST && e.getStatusCode() != HttpStatus.UNAUTHORIZED) {
+                throw new RuntimeException("Erreur Keycloak: " + e.getMessage());
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Erreur interne: " + e.getMessage());
+        }
+    }
+
+    // Client partagé (KeycloakHttpClientConfig) : connexions réutilisées d'un appel à l'autre
+    private Map<?, ?> postForm(String path, MultiValueMap<String, String> form) {
+        String endpoint = keycloakServerUrl + "/realms/" + realm + path;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+
+        ResponseEntity<Map> response = tokenRestTemplate.exchange(endpoint, HttpMethod.POST, new HttpEntity<>(form, headers), Map.class);
+        return response.getBody() == null ? Map.of() : response.getBody();
+    }
+}
@@ -1,17 +1,28 @@
 package com.burncare.burncare_app.services;// import important
+import com.burncare.burncare_app.dto.BatchItemResult;
 import com.burncare.burncare_app.dto.BurnoutResultRequest;
 import com.burncare.burncare_app.dto.BurnoutResultResponse;
+import com.burncare.burncare_app.dto.BurnoutResultSummary;
+import com.burncare.burncare_app.dto.CursorPage;
+import com.burncare.burncare_app.dto.ResultCursor;
+import com.burncare.burncare_app.dto.ScoreBucketCount;
+import com.burncare.burncare_app.dto.UserSnapshot;
 import com.burncare.burncare_app.entities.BurnoutResult;
 import com.burncare.burncare_app.entities.User;
 import com.burncare.burncare_app.repositories.BurnoutResultRepository;
 import com.burncare.burncare_app.repositories.UserRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -19,15 +30,154 @@ public class BurnoutResultService {
 
     private final BurnoutResultRepository burnoutResultRepository;
     private final UserRepository userRepository;
-
-    // ❌ NE PLUS LE METTRE EN final, NI DANS LE CONSTRUCTEUR
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StatsCounterService statsCounterService;
+    private final UserSnapshotCache userSnapshotCache;
 
     @Transactional
     public BurnoutResultResponse saveForUser(String keycloakId, BurnoutResultRequest req) {
-        User user = userRepository.findByKeycloakId(keycloakId)
-                .orElseThrow(() -> new RuntimeException("User not found for keycloakId " + keycloakId));
+        // Référence (proxy) : l'id vient du cache, aucune lecture de users avant l'insert
+        User user = userRepository.getReferenceById(userSnapshotCache.require(keycloakId).id());
+
+        BurnoutResult entity;
+        try {
+            entity = toEntity(user, req, Instant.now());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        BurnoutResult saved = burnoutResultRepository.save(entity);
+        statsCounterService.record(StatsCounterService.BURNOUT, saved.getRiskLabel(), saved.getBurnoutScore());
+
+        return toResponse(saved);
+    }
+
+    /**
+     * Envoi groupé (questionnaires saisis hors ligne) : une transaction, une seule résolution de l'utilisateur,
+     * inserts regroupés par Hibernate (ids pré-alloués par séquence). Les éléments invalides sont rejetés
+     * individuellement sans bloquer les autres.
+     */
+    @Transactional
+    public List<BatchItemResult> saveBatchForUser(String keycloakId, List<BurnoutResultRequest> requests) {
+        BatchItemResult.checkSize(requests);
+        User user = userRepository.getReferenceById(userSnapshotCache.require(keycloakId).id());
+
+        Instant now = Instant.now();
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<BurnoutResult> entities = new ArrayList<>(requests.size());
+        List<Integer> indexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            BurnoutResultRequest req = requests.get(i);
+            if (req == null) {
+                results[i] = BatchItemResult.rejected(i, "Résultat vide");
+                continue;
+            }
+            try {
+                entities.add(toEntity(user, req, now));
+                indexes.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = BatchItemResult.rejected(i, e.getMessage());
+            }
+        }
 
+        List<BurnoutResult> saved = burnoutResultRepository.saveAll(entities);
+        List<ScoreBucketCount> buckets = new ArrayList<>(saved.size());
+        for (int j = 0; j < saved.size(); j++) {
+            BurnoutResult r = saved.get(j);
+            results[indexes.get(j)] = BatchItemResult.created(indexes.get(j), r.getId());
+            buckets.add(new ScoreBucketCount(r.getRiskLabel(), r.getBurnoutScore(), 1L));
+        }
+        statsCounterService.recordAll(StatsCounterService.BURNOUT, buckets);
+
+        return Arrays.asList(results);
+    }
+
+    // Contrôle fait dès la réception quand l'écriture est différée (ResultIngestionService)
+    public void checkRequest(BurnoutResultRequest req) {
+        if (req == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Résultat vide");
+        }
+        try {
+            checkFields(req);
+            AnswerCodec.encode(req.answers());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Écriture d'un lot de la file d'ingestion, dans la transaction du writer : plusieurs utilisateurs,
+     * inserts regroupés. Un utilisateur supprimé depuis la réception est ignoré.
+     * createdAt est l'heure d'écriture (et non de réception) : un lot retardé par une panne de la base ou
+     * rejoué au redémarrage ne tombe pas derrière le watermark du rollup (StatsRollupService).
+     */
+    @Transactional
+    public int saveQueued(List<IngestionRecord> records) {
+        Instant now = Instant.now();
+        List<BurnoutResult> entities = new ArrayList<>(records.size());
+        for (IngestionRecord record : records) {
+            Optional<UserSnapshot> user = userSnapshotCache.get(record.keycloakId());
+            if (user.isEmpty()) {
+                System.err.println("⚠️ Ingestion : utilisateur introuvable, résultat " + record.ticket() + " ignoré");
+                continue;
+            }
+            try {
+                BurnoutResult entity = toEntity(userRepository.getReferenceById(user.get().id()),
+                        (BurnoutResultRequest) record.request(), now);
+                entity.setIngestionTicket(record.ticket());
+                entities.add(entity);
+            } catch (IllegalArgumentException e) {
+                System.err.println("⚠️ Ingestion : résultat " + record.ticket() + " invalide ignoré : " + e.getMessage());
+            }
+        }
+        if (entities.isEmpty()) {
+            return 0;
+        }
+
+        List<BurnoutResult> saved = burnoutResultRepository.saveAll(entities);
+        List<ScoreBucketCount> buckets = new ArrayList<>(saved.size());
+        for (BurnoutResult r : saved) {
+            buckets.add(new ScoreBucketCount(r.getRiskLabel(), r.getBurnoutScore(), 1L));
+        }
+        statsCounterService.recordAll(StatsCounterService.BURNOUT, buckets);
+        return saved.size();
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<BurnoutResultResponse> getResultsForUser(String keycloakId, String cursor, Integer limit) {
+        int pageSize = CursorPage.resolvePageSize(limit);
+        // On lit un élément de plus pour savoir s'il existe une page suivante
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<BurnoutResultSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = burnoutResultRepository.findSummaries(keycloakId, fetch);
+        } else {
+            ResultCursor position = ResultCursor.decode(cursor);
+            rows = burnoutResultRepository.findSummariesBefore(keycloakId, position.createdAt(), position.id(), fetch);
+        }
+        // Page vide : seul cas où l'on vérifie (2e requête) que l'utilisateur existe
+        if (rows.isEmpty() && userSnapshotCache.get(keycloakId).isEmpty()) {
+            throw new RuntimeException("User not found for keycloakId " + keycloakId);
+        }
+
+        return CursorPage.of(rows, pageSize,
+                r -> new ResultCursor(r.createdAt(), r.id()),
+                r -> new BurnoutResultResponse(r.id(), r.burnoutScore(), r.riskLabel(), r.riskTitle(),
+                        r.createdAt().toString()));
+    }
+
+    // Résultat écrit par la file d'ingestion, retrouvé par le ticket du 202 (404 tant qu'il n'est pas en base)
+    @Transactional(readOnly = true)
+    public BurnoutResultResponse getResultByTicket(String keycloakId, String ticket) {
+        return burnoutResultRepository.findByIngestionTicketAndUserId(ticket, userSnapshotCache.require(keycloakId).id())
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Résultat introuvable"));
+    }
+
+    // ⚠️ IllegalArgumentException si les réponses ne sont pas 12 valeurs de 0 à 4, si le score sort de 0..100
+    // ou si un texte est trop long
+    private BurnoutResult toEntity(User user, BurnoutResultRequest req, Instant createdAt) {
+        checkFields(req);
         BurnoutResult entity = new BurnoutResult();
         entity.setUser(user);
         entity.setBurnoutScore(req.burnoutScore());
@@ -35,41 +185,27 @@ public class BurnoutResultService {
         entity.setRiskTitle(req.riskTitle());
         entity.setMessage(req.message());
         entity.setRecommendation(req.recommendation());
+        // ✅ les 12 réponses tiennent dans un entier (au lieu d'un JSON en TEXT)
+        entity.setAnswersCode(AnswerCodec.encode(req.answers()));
+        entity.setCreatedAt(createdAt);
+        return entity;
+    }
 
-        try {
-            // ✅ sérialisation des réponses en JSON
-            entity.setAnswersJson(objectMapper.writeValueAsString(req.answers()));
-        } catch (Exception e) {
-            throw new RuntimeException("Error serializing answers", e);
-        }
-
-        entity.setCreatedAt(Instant.now());
-
-        BurnoutResult saved = burnoutResultRepository.save(entity);
+    private static void checkFields(BurnoutResultRequest req) {
+        ResultFieldLimits.checkScore(req.burnoutScore(), "burnoutScore");
+        ResultFieldLimits.check(req.riskLabel(), ResultFieldLimits.LABEL, "riskLabel");
+        ResultFieldLimits.check(req.riskTitle(), ResultFieldLimits.LABEL, "riskTitle");
+        ResultFieldLimits.check(req.message(), ResultFieldLimits.BURNOUT_TEXT, "message");
+        ResultFieldLimits.check(req.recommendation(), ResultFieldLimits.BURNOUT_TEXT, "recommendation");
+    }
 
+    private BurnoutResultResponse toResponse(BurnoutResult r) {
         return new BurnoutResultResponse(
-                saved.getId(),
-                saved.getBurnoutScore(),
-                saved.getRiskLabel(),
-                saved.getRiskTitle(),
-                saved.getCreatedAt().toString()
+                r.getId(),
+                r.getBurnoutScore(),
+                r.getRiskLabel(),
+                r.getRiskTitle(),
+                r.getCreatedAt().toString()
         );
     }
-
-    public List<BurnoutResultResponse> getResultsForUser(String keycloakId) {
-        User user = userRepository.findByKeycloakId(keycloakId)
-                .orElseThrow(() -> new RuntimeException("User not found for keycloakId " + keycloakId));
-
-        List<BurnoutResult> results = burnoutResultRepository.findByUserOrderByCreatedAtDesc(user);
-
-        return results.stream()
-                .map(r -> new BurnoutResultResponse(
-                        r.getId(),
-                        r.getBurnoutScore(),
-                        r.getRiskLabel(),
-                        r.getRiskTitle(),
-                        r.getCreatedAt().toString()
-                ))
-                .toList();
-    }
 }
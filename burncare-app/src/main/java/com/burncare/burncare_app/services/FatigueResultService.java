@@ -1,27 +1,198 @@
 package com.burncare.burncare_app.services;
 
+import com.burncare.burncare_app.dto.BatchItemResult;
+import com.burncare.burncare_app.dto.CursorPage;
 import com.burncare.burncare_app.dto.FatigueResultRequest;
 import com.burncare.burncare_app.dto.FatigueResultResponse;
+import com.burncare.burncare_app.dto.FatigueResultSummary;
+import com.burncare.burncare_app.dto.ResultCursor;
+import com.burncare.burncare_app.dto.ScoreBucketCount;
+import com.burncare.burncare_app.dto.UserSnapshot;
 import com.burncare.burncare_app.entities.FatigueResult;
+import com.burncare.burncare_app.entities.User;
 import com.burncare.burncare_app.repositories.FatigueResultRepository;
+import com.burncare.burncare_app.repositories.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class FatigueResultService {
 
+    // Bornes par défaut de la fenêtre temporelle quand from / to sont absents
+    private static final Instant MIN_CREATED_AT = Instant.EPOCH;
+    private static final Instant MAX_CREATED_AT = Instant.parse("9999-12-31T23:59:59Z");
+
     private final FatigueResultRepository fatigueResultRepository;
+    private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
+    private final StatsCounterService statsCounterService;
+    private final UserSnapshotCache userSnapshotCache;
 
+    @Transactional
     public FatigueResultResponse saveForUser(String keycloakId, FatigueResultRequest request) {
+        // Référence (proxy) : seul l'id est nécessaire pour la clé étrangère
+        User user = userRepository.getReferenceById(resolveUserId(keycloakId));
+
+        FatigueResult entity;
+        try {
+            entity = toEntity(user, request, Instant.now());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        FatigueResult saved = fatigueResultRepository.save(entity);
+        statsCounterService.record(StatsCounterService.FATIGUE, saved.getRiskLabel(), saved.getFatigueScore());
 
+        return toResponse(saved);
+    }
+
+    /**
+     * Envoi groupé : une transaction, une seule résolution de l'utilisateur, inserts regroupés par Hibernate.
+     * Un élément vide ou invalide est rejeté individuellement sans bloquer les autres.
+     */
+    @Transactional
+    public List<BatchItemResult> saveBatchForUser(String keycloakId, List<FatigueResultRequest> requests) {
+        BatchItemResult.checkSize(requests);
+        User user = userRepository.getReferenceById(resolveUserId(keycloakId));
+
+        Instant now = Instant.now();
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<FatigueResult> entities = new ArrayList<>(requests.size());
+        List<Integer> indexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            FatigueResultRequest request = requests.get(i);
+            if (request == null) {
+                results[i] = BatchItemResult.rejected(i, "Résultat vide");
+                continue;
+            }
+            try {
+                entities.add(toEntity(user, request, now));
+                indexes.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = BatchItemResult.rejected(i, e.getMessage());
+            }
+        }
+
+        List<FatigueResult> saved = fatigueResultRepository.saveAll(entities);
+        List<ScoreBucketCount> buckets = new ArrayList<>(saved.size());
+        for (int j = 0; j < saved.size(); j++) {
+            FatigueResult r = saved.get(j);
+            results[indexes.get(j)] = BatchItemResult.created(indexes.get(j), r.getId());
+            buckets.add(new ScoreBucketCount(r.getRiskLabel(), r.getFatigueScore(), 1L));
+        }
+        statsCounterService.recordAll(StatsCounterService.FATIGUE, buckets);
+
+        return Arrays.asList(results);
+    }
+
+    // Contrôle fait dès la réception quand l'écriture est différée (ResultIngestionService)
+    public void checkRequest(FatigueResultRequest request) {
+        if (request == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Résultat vide");
+        }
+        try {
+            checkFields(request);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Écriture d'un lot de la file d'ingestion, dans la transaction du writer : plusieurs utilisateurs,
+     * inserts regroupés. Un utilisateur supprimé depuis la réception est ignoré.
+     * createdAt est l'heure d'écriture, comme pour BurnoutResultService.saveQueued.
+     */
+    @Transactional
+    public int saveQueued(List<IngestionRecord> records) {
+        Instant now = Instant.now();
+        List<FatigueResult> entities = new ArrayList<>(records.size());
+        for (IngestionRecord record : records) {
+            Optional<UserSnapshot> user = userSnapshotCache.get(record.keycloakId());
+            if (user.isEmpty()) {
+                System.err.println("⚠️ Ingestion : utilisateur introuvable, résultat " + record.ticket() + " ignoré");
+                continue;
+            }
+            try {
+                FatigueResult entity = toEntity(userRepository.getReferenceById(user.get().id()),
+                        (FatigueResultRequest) record.request(), now);
+                entity.setIngestionTicket(record.ticket());
+                entities.add(entity);
+            } catch (IllegalArgumentException e) {
+                System.err.println("⚠️ Ingestion : résultat " + record.ticket() + " invalide ignoré : " + e.getMessage());
+            }
+        }
+        if (entities.isEmpty()) {
+            return 0;
+        }
+
+        List<FatigueResult> saved = fatigueResultRepository.saveAll(entities);
+        List<ScoreBucketCount> buckets = new ArrayList<>(saved.size());
+        for (FatigueResult r : saved) {
+            buckets.add(new ScoreBucketCount(r.getRiskLabel(), r.getFatigueScore(), 1L));
+        }
+        statsCounterService.recordAll(StatsCounterService.FATIGUE, buckets);
+        return saved.size();
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<FatigueResultSummary> getResultsForUser(String keycloakId, Instant from, Instant to,
+                                                              String cursor, Integer limit) {
+        int pageSize = CursorPage.resolvePageSize(limit);
+        Instant lower = from != null ? from : MIN_CREATED_AT;
+        Instant upper = to != null ? to : MAX_CREATED_AT;
+        // On lit un élément de plus pour savoir s'il existe une page suivante
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<FatigueResultSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = fatigueResultRepository.findSummaries(keycloakId, lower, upper, fetch);
+        } else {
+            // Le curseur provient d'une page déjà bornée par "to" : seul "from" reste à appliquer
+            ResultCursor position = ResultCursor.decode(cursor);
+            rows = fatigueResultRepository.findSummariesBefore(keycloakId, lower, position.createdAt(), position.id(), fetch);
+        }
+        // Page vide : seul cas où l'on vérifie (2e requête) que l'utilisateur existe
+        if (rows.isEmpty() && userSnapshotCache.get(keycloakId).isEmpty()) {
+            throw new RuntimeException("User not found for keycloakId " + keycloakId);
+        }
+
+        return CursorPage.of(rows, pageSize,
+                r -> new ResultCursor(r.createdAt(), r.id()),
+                r -> r);
+    }
+
+    @Transactional(readOnly = true)
+    public FatigueResultResponse getResultForUser(String keycloakId, Long id) {
+        return fatigueResultRepository.findByIdAndUserId(id, resolveUserId(keycloakId))
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Résultat introuvable"));
+    }
+
+    // Résultat écrit par la file d'ingestion, retrouvé par le ticket du 202 (404 tant qu'il n'est pas en base)
+    @Transactional(readOnly = true)
+    public FatigueResultResponse getResultByTicket(String keycloakId, String ticket) {
+        return fatigueResultRepository.findByIngestionTicketAndUserId(ticket, resolveUserId(keycloakId))
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Résultat introuvable"));
+    }
+
+    // ⚠️ IllegalArgumentException si le score sort de 0..100 ou si un libellé est trop long
+    private FatigueResult toEntity(User user, FatigueResultRequest request, Instant createdAt) {
+        checkFields(request);
         FatigueResult r = new FatigueResult();
-        r.setUserId(keycloakId);
+        r.setUser(user);
 
         r.setFatigueScore(request.getFatigueScore());
         r.setRiskLabel(request.getRiskLabel());
@@ -30,44 +201,38 @@ public class FatigueResultService {
         r.setConfidence(request.getConfidence());
         r.setRecommendationText(request.getRecommendationText());
 
-        r.setCreatedAt(Instant.now());
+        r.setCreatedAt(createdAt);
 
         try {
             r.setRecommendationsJson(objectMapper.writeValueAsString(request.getRecommendations()));
         } catch (Exception e) {
             r.setRecommendationsJson("[]");
         }
+        return r;
+    }
 
-        FatigueResult saved = fatigueResultRepository.save(r);
+    // message et recommendationText sont en TEXT : seuls le score et les libellés sont bornés
+    private static void checkFields(FatigueResultRequest request) {
+        ResultFieldLimits.checkScore(request.getFatigueScore(), "fatigueScore");
+        ResultFieldLimits.check(request.getRiskLabel(), ResultFieldLimits.LABEL, "riskLabel");
+        ResultFieldLimits.check(request.getRiskTitle(), ResultFieldLimits.LABEL, "riskTitle");
+    }
 
-        return FatigueResultResponse.builder()
-                .id(saved.getId())
-                .fatigueScore(saved.getFatigueScore())
-                .riskLabel(saved.getRiskLabel())
-                .riskTitle(saved.getRiskTitle())
-                .message(saved.getMessage())
-                .confidence(saved.getConfidence())
-                .recommendationsJson(saved.getRecommendationsJson())
-                .recommendationText(saved.getRecommendationText())
-                .createdAt(saved.getCreatedAt())
-                .build();
+    private Long resolveUserId(String keycloakId) {
+        return userSnapshotCache.require(keycloakId).id();
     }
 
-    public List<FatigueResultResponse> getResultsForUser(String keycloakId) {
-        return fatigueResultRepository.findByUserIdOrderByCreatedAtDesc(keycloakId)
-                .stream()
-                .map(r -> FatigueResultResponse.builder()
-                        .id(r.getId())
-                        .fatigueScore(r.getFatigueScore())
-                        .riskLabel(r.getRiskLabel())
-                        .riskTitle(r.getRiskTitle())
-                        .message(r.getMessage())
-                        .confidence(r.getConfidence())
-                        .recommendationsJson(r.getRecommendationsJson())
-                        .recommendationText(r.getRecommendationText())
-                        .createdAt(r.getCreatedAt())
-                        .build()
-                )
-                .toList();
+    private FatigueResultResponse toResponse(FatigueResult r) {
+        return FatigueResultResponse.builder()
+                .id(r.getId())
+                .fatigueScore(r.getFatigueScore())
+                .riskLabel(r.getRiskLabel())
+                .riskTitle(r.getRiskTitle())
+                .message(r.getMessage())
+                .confidence(r.getConfidence())
+                .recommendationsJson(r.getRecommendationsJson())
+                .recommendationText(r.getRecommendationText())
+                .createdAt(r.getCreatedAt())
+                .build();
     }
 }
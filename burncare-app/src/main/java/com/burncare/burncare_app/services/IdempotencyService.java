@@ -0,0 +1,214 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.entities.IdempotencyRecord;
+import com.burncare.burncare_app.repositories.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Clés d'idempotence des POST de résultats (en-tête Idempotency-Key, une clé par tentative côté client).
+ * <p>
+ * Première requête : la clé est réservée en base avant l'enregistrement (ligne « en cours », unicité
+ * (utilisateur, clé) garantie par la base), puis complétée avec la réponse. Une nouvelle tentative reçoit la
+ * réponse d'origine (en-tête Idempotent-Replayed) sans second enregistrement, ou un 409 si la requête d'origine
+ * est encore en cours : l'action n'est jamais exécutée deux fois, y compris en ingestion asynchrone (journal et
+ * file hors transaction). Les réponses récentes sont aussi gardées dans un LRU en mémoire pour éviter la lecture
+ * en base ; les clés expirent après le TTL et sont purgées chaque nuit.
+ * <p>
+ * ⚠️ Un arrêt entre l'enregistrement et la complétion laisse la clé « en cours » jusqu'à son expiration
+ * (409 plutôt qu'un doublon).
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 100;
+    // statusCode d'une clé réservée dont la requête d'origine n'a pas encore répondu
+    static final int PENDING = 0;
+
+    private record StoredResponse(String kind, int statusCode, String body, Instant createdAt) {}
+
+    private final IdempotencyRecordRepository repository;
+    private final UserSnapshotCache userSnapshotCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Duration ttl;
+    private final Map<String, StoredResponse> hot;
+
+    @Autowired
+    public IdempotencyService(IdempotencyRecordRepository repository, UserSnapshotCache userSnapshotCache,
+                              TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                              @Value("${burncare.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${burncare.idempotency.cache-size:10000}") int cacheSize) {
+        this(repository, userSnapshotCache, transactionTemplate, objectMapper, ttlHours, cacheSize, Clock.systemUTC());
+    }
+
+    IdempotencyService(IdempotencyRecordRepository repository, UserSnapshotCache userSnapshotCache,
+                       TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                       long ttlHours, int cacheSize, Clock clock) {
+        this.repository = repository;
+        this.userSnapshotCache = userSnapshotCache;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.hot = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Exécute action (l'enregistrement du résultat) au plus une fois par (utilisateur, clé).
+     * Sans clé, action est simplement exécutée.
+     */
+    public ResponseEntity<?> execute(String keycloakId, String key, String kind, Supplier<ResponseEntity<?>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    HEADER + " doit contenir entre 1 et " + MAX_KEY_LENGTH + " caractères");
+        }
+        Long userId = userSnapshotCache.require(keycloakId).id();
+        String hotKey = userId + ":" + key;
+
+        synchronized (hot) {
+            StoredResponse cached = hot.get(hotKey);
+            if (cached != null && cached.createdAt().isAfter(clock.instant().minus(ttl))) {
+                return replay(cached, kind);
+            }
+        }
+        Optional<IdempotencyRecord> existing = repository.findByUserIdAndIdempotencyKey(userId, key);
+        if (existing.isPresent() && !isExpired(existing.get())) {
+            return replay(hotKey, existing.get(), kind);
+        }
+
+        // Réservation de la clé (transaction courte) avant toute écriture du résultat
+        Instant createdAt = clock.instant();
+        Long claimId;
+        try {
+            claimId = transactionTemplate.execute(status -> {
+                // Clé expirée mais pas encore purgée : remplacée
+                existing.ifPresent(record -> repository.deleteRecord(record.getId()));
+                return repository.saveAndFlush(new IdempotencyRecord(null, userId, key, kind, PENDING, null, createdAt)).getId();
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Tentative simultanée : elle a réservé la clé la première
+            return repository.findByUserIdAndIdempotencyKey(userId, key)
+                    .filter(record -> !isExpired(record))
+                    .map(record -> replay(hotKey, record, kind))
+                    .orElseThrow(() -> e);
+        }
+
+        ResponseEntity<?> result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            release(claimId);
+            throw e;
+        }
+        // Seules les réussites sont mémorisées : une erreur peut être retentée avec la même clé
+        if (!result.getStatusCode().is2xxSuccessful()) {
+            release(claimId);
+            return result;
+        }
+        StoredResponse response = new StoredResponse(kind, result.getStatusCode().value(), toJson(result.getBody()), createdAt);
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    repository.complete(claimId, response.statusCode(), response.body()));
+        } catch (Exception e) {
+            // Le résultat est enregistré : on répond quand même, la clé reste « en cours » (409 en cas de nouvel essai)
+            System.err.println("⚠️ Clé d'idempotence " + claimId + " non complétée : " + e.getMessage());
+            return result;
+        }
+        remember(hotKey, response);
+        return result;
+    }
+
+    @Scheduled(cron = "${burncare.idempotency.purge-cron:0 15 3 * * *}")
+    public void purgeExpired() {
+        try {
+            Instant before = clock.instant().minus(ttl);
+            Integer deleted = transactionTemplate.execute(status -> repository.deleteCreatedBefore(before));
+            synchronized (hot) {
+                hot.values().removeIf(response -> response.createdAt().isBefore(before));
+            }
+            System.out.println("✅ Clés d'idempotence expirées supprimées : " + deleted);
+        } catch (Exception e) {
+            System.err.println("⚠️ Erreur lors de la purge des clés d'idempotence: " + e.getMessage());
+        }
+    }
+
+    private boolean isExpired(IdempotencyRecord record) {
+        return !record.getCreatedAt().isAfter(clock.instant().minus(ttl));
+    }
+
+    // Réservation annulée : la même clé peut être retentée
+    private void release(Long claimId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.deleteRecord(claimId));
+        } catch (Exception e) {
+            System.err.println("⚠️ Clé d'idempotence " + claimId + " non libérée : " + e.getMessage());
+        }
+    }
+
+    private void remember(String hotKey, StoredResponse response) {
+        synchronized (hot) {
+            hot.put(hotKey, response);
+        }
+    }
+
+    private ResponseEntity<?> replay(String hotKey, IdempotencyRecord record, String kind) {
+        StoredResponse stored = new StoredResponse(record.getKind(), record.getStatusCode(), record.getResponseBody(),
+                record.getCreatedAt());
+        if (stored.statusCode() == PENDING) {
+            if (!stored.kind().equals(kind)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, HEADER + " déjà utilisée pour un autre type de résultat");
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Requête déjà en cours avec cette " + HEADER + ", réessayez");
+        }
+        remember(hotKey, stored);
+        return replay(stored, kind);
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored, String kind) {
+        if (!stored.kind().equals(kind)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, HEADER + " déjà utilisée pour un autre type de résultat");
+        }
+        return ResponseEntity.status(stored.statusCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.body());
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Réponse non sérialisable", e);
+        }
+    }
+}
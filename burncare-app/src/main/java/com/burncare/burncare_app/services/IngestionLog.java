@@ -0,0 +1,119 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.BurnoutResultRequest;
+import com.burncare.burncare_app.dto.FatigueResultRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Journal local en ajout seul (une ligne JSON par résultat reçu) de la file d'ingestion.
+ * <p>
+ * {@link #write} n'écrit que dans le cache du système ; {@link #sync} force le disque jusqu'à une entrée donnée.
+ * Les appelants concurrents partagent le même fsync : celui qui l'obtient couvre tout ce qui est déjà écrit.
+ * Pas thread-safe pour write / truncate : l'appelant les sérialise.
+ */
+class IngestionLog implements Closeable {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+    private final Object syncLock = new Object();
+
+    private volatile long writtenSeq;
+    private long syncedSeq;
+
+    IngestionLog(Path path, ObjectMapper objectMapper) throws IOException {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.channel.position(channel.size());
+    }
+
+    // Une ligne illisible (écriture interrompue par un arrêt brutal) est ignorée
+    List<IngestionRecord> readAll() throws IOException {
+        List<IngestionRecord> records = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    records.add(parse(objectMapper.readTree(line)));
+                } catch (Exception e) {
+                    System.err.println("⚠️ Journal d'ingestion : ligne illisible ignorée (" + e.getMessage() + ")");
+                }
+            }
+        }
+        return records;
+    }
+
+    void write(IngestionRecord record) throws IOException {
+        ObjectNode node = objectMapper.createObjectNode()
+                .put("seq", record.seq())
+                .put("ticket", record.ticket())
+                .put("kind", record.kind())
+                .put("keycloakId", record.keycloakId());
+        node.set("request", objectMapper.valueToTree(record.request()));
+
+        ByteBuffer buffer = ByteBuffer.wrap((objectMapper.writeValueAsString(node) + "\n").getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        writtenSeq = record.seq();
+    }
+
+    void sync(long seq) throws IOException {
+        synchronized (syncLock) {
+            if (syncedSeq >= seq) {
+                return;
+            }
+            long target = writtenSeq;
+            channel.force(false);
+            syncedSeq = target;
+        }
+    }
+
+    // Tout est en base : le journal repart de zéro
+    void truncate() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+    }
+
+    long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private IngestionRecord parse(JsonNode node) throws IOException {
+        String kind = node.get("kind").asText();
+        Class<?> type = ResultIngestionService.BURNOUT.equals(kind) ? BurnoutResultRequest.class : FatigueResultRequest.class;
+        return new IngestionRecord(
+                node.get("seq").asLong(),
+                node.get("ticket").asText(),
+                kind,
+                node.get("keycloakId").asText(),
+                objectMapper.treeToValue(node.get("request"), type)
+        );
+    }
+}
@@ -0,0 +1,10 @@
+package com.burncare.burncare_app.services;
+
+// Entrée du journal d'ingestion ; request est un BurnoutResultRequest ou un FatigueResultRequest selon kind
+public record IngestionRecord(
+        long seq,
+        String ticket,
+        String kind,
+        String keycloakId,
+        Object request
+) {}
@@ -0,0 +1,53 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.entities.KeycloakOutboxEntry;
+import com.burncare.burncare_app.repositories.KeycloakOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Enregistre les modifications Keycloak d'un utilisateur dans l'outbox (table keycloak_outbox).
+ * <p>
+ * Doit être appelé dans la transaction de la modification locale : les deux sont validées ou annulées ensemble,
+ * et aucun appel réseau n'est fait pendant la requête. KeycloakOutboxRelay applique ensuite les entrées.
+ */
+@Service
+@RequiredArgsConstructor
+public class KeycloakOutbox {
+
+    private final KeycloakOutboxRepository repository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void update(String keycloakId, KeycloakUserChange change) {
+        enqueue(keycloakId, KeycloakOutboxEntry.UPDATE, change);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void assignRoles(String keycloakId, List<String> roles) {
+        enqueue(keycloakId, KeycloakOutboxEntry.ASSIGN_ROLES, KeycloakUserChange.roles(roles));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void delete(String keycloakId) {
+        enqueue(keycloakId, KeycloakOutboxEntry.DELETE, null);
+    }
+
+    private void enqueue(String keycloakId, String operation, KeycloakUserChange change) {
+        String payload;
+        try {
+            payload = change == null ? null : objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Modification Keycloak non sérialisable", e);
+        }
+        Instant now = Instant.now();
+        repository.save(new KeycloakOutboxEntry(null, keycloakId, operation, payload, now, 0, now, null, false));
+    }
+}
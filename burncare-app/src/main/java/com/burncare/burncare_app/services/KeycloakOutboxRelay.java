@@ -0,0 +1,242 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.entities.KeycloakOutboxEntry;
+import com.burncare.burncare_app.repositories.KeycloakOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.ws.rs.NotFoundException;
+import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.resource.UserResource;
+import org.keycloak.representations.idm.RoleRepresentation;
+import org.keycloak.representations.idm.UserRepresentation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applique l'outbox Keycloak (KeycloakOutbox) : par lots, au plus N appels Keycloak simultanés.
+ * <p>
+ * Seule la plus ancienne entrée de chaque compte est traitée à un instant donné, les modifications d'un utilisateur
+ * sont donc appliquées dans l'ordre. Une entrée appliquée est supprimée ; en cas d'échec, nouvelle tentative avec
+ * un délai doublé à chaque fois, puis abandon (failed = true) après le nombre maximal de tentatives.
+ * Plusieurs instances : chaque lot est réservé (SELECT ... FOR UPDATE SKIP LOCKED puis next_attempt_at reporté à la
+ * fin du bail) dans une courte transaction, hors appels Keycloak. Si l'instance tombe, le lot redevient dû à la fin
+ * du bail ; les opérations étant idempotentes, le rejouer ne change pas le résultat.
+ * Métriques : burncare.keycloak.outbox.pending / failed / lag (secondes depuis la plus ancienne entrée en attente).
+ */
+@Component
+public class KeycloakOutboxRelay {
+
+    private final KeycloakOutboxRepository repository;
+    private final Keycloak keycloak;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final ExecutorService keycloakExecutor;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+    private final long leaseMs;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Counter applied;
+    private final Counter errors;
+
+    @Value("${keycloak.realm}")
+    private String realm;
+
+    @Autowired
+    public KeycloakOutboxRelay(KeycloakOutboxRepository repository, Keycloak keycloak,
+                               TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${burncare.keycloak-outbox.batch-size:100}") int batchSize,
+                               @Value("${burncare.keycloak-outbox.concurrency:8}") int concurrency,
+                               @Value("${burncare.keycloak-outbox.max-attempts:10}") int maxAttempts,
+                               @Value("${burncare.keycloak-outbox.retry-base-ms:2000}") long retryBaseMs,
+                               @Value("${burncare.keycloak-outbox.retry-max-ms:300000}") long retryMaxMs,
+                               @Value("${burncare.keycloak-outbox.lease-ms:120000}") long leaseMs) {
+        this(repository, keycloak, transactionTemplate, objectMapper, meterRegistry,
+                batchSize, concurrency, maxAttempts, retryBaseMs, retryMaxMs, leaseMs, Clock.systemUTC());
+    }
+
+    KeycloakOutboxRelay(KeycloakOutboxRepository repository, Keycloak keycloak,
+                        TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry, int batchSize, int concurrency, int maxAttempts,
+                        long retryBaseMs, long retryMaxMs, long leaseMs, Clock clock) {
+        this.repository = repository;
+        this.keycloak = keycloak;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.keycloakExecutor = Executors.newFixedThreadPool(concurrency);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+        this.leaseMs = leaseMs;
+
+        Gauge.builder("burncare.keycloak.outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("burncare.keycloak.outbox.failed", failed, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("burncare.keycloak.outbox.lag", lagSeconds, AtomicLong::get).baseUnit("seconds").register(meterRegistry);
+        this.applied = Counter.builder("burncare.keycloak.outbox.applied").register(meterRegistry);
+        this.errors = Counter.builder("burncare.keycloak.outbox.errors").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        keycloakExecutor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${burncare.keycloak-outbox.poll-interval-ms:1000}")
+    public void relay() {
+        try {
+            boolean more = true;
+            while (more) {
+                List<KeycloakOutboxEntry> batch = claim();
+                if (!batch.isEmpty()) {
+                    relayBatch(batch);
+                }
+                // Les entrées en échec sont reportées : la boucle se termine quand plus rien n'est dû
+                more = batch.size() == batchSize;
+            }
+            refreshMetrics();
+        } catch (Exception e) {
+            System.err.println("⚠️ Erreur lors de l'envoi de l'outbox Keycloak: " + e.getMessage());
+        }
+    }
+
+    // Réserve un lot pour cette instance : verrou le temps de la transaction, puis bail sur next_attempt_at
+    private List<KeycloakOutboxEntry> claim() {
+        List<KeycloakOutboxEntry> batch = transactionTemplate.execute(status -> {
+            Instant now = clock.instant();
+            List<KeycloakOutboxEntry> ready = repository.findReady(now, PageRequest.of(0, batchSize));
+            if (!ready.isEmpty()) {
+                repository.lease(ready.stream().map(KeycloakOutboxEntry::getId).toList(), now.plusMillis(leaseMs));
+            }
+            return ready;
+        });
+        return batch == null ? List.of() : batch;
+    }
+
+    private void relayBatch(List<KeycloakOutboxEntry> batch) {
+        Map<KeycloakOutboxEntry, CompletableFuture<String>> calls = new LinkedHashMap<>();
+        for (KeycloakOutboxEntry entry : batch) {
+            calls.put(entry, CompletableFuture.supplyAsync(() -> apply(entry), keycloakExecutor));
+        }
+
+        List<Long> done = new ArrayList<>();
+        List<KeycloakOutboxEntry> retried = new ArrayList<>();
+        Instant now = clock.instant();
+        calls.forEach((entry, call) -> {
+            String error = call.join();
+            if (error == null) {
+                done.add(entry.getId());
+                return;
+            }
+            entry.setAttempts(entry.getAttempts() + 1);
+            entry.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+            if (entry.getAttempts() >= maxAttempts) {
+                entry.setFailed(true);
+                System.err.println("⚠️ Outbox Keycloak : " + entry.getOperation() + " abandonné après " + entry.getAttempts()
+                        + " tentative(s) pour " + entry.getKeycloakId() + ": " + error);
+            } else {
+                entry.setNextAttemptAt(now.plus(retryDelay(entry.getAttempts())));
+                System.err.println("⚠️ Outbox Keycloak : erreur " + entry.getOperation() + " (tentative " + entry.getAttempts()
+                        + "/" + maxAttempts + ") pour " + entry.getKeycloakId() + ": " + error);
+            }
+            retried.add(entry);
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!done.isEmpty()) {
+                repository.deleteByIds(done);
+            }
+            for (KeycloakOutboxEntry entry : retried) {
+                repository.recordFailure(entry.getId(), entry.getAttempts(), entry.getLastError(),
+                        entry.getNextAttemptAt(), entry.isFailed());
+            }
+        });
+        applied.increment(done.size());
+        errors.increment(retried.size());
+    }
+
+    // null si l'entrée est appliquée (ou n'a plus d'objet), sinon le message d'erreur
+    String apply(KeycloakOutboxEntry entry) {
+        try {
+            UserResource userResource = keycloak.realm(realm).users().get(entry.getKeycloakId());
+            switch (entry.getOperation()) {
+                case KeycloakOutboxEntry.DELETE -> userResource.remove();
+                case KeycloakOutboxEntry.UPDATE -> update(userResource, readChange(entry));
+                case KeycloakOutboxEntry.ASSIGN_ROLES -> assignRoles(userResource, readChange(entry));
+                default -> System.err.println("⚠️ Outbox Keycloak : opération inconnue ignorée " + entry.getOperation());
+            }
+            return null;
+        } catch (NotFoundException e) {
+            System.out.println("✅ Outbox Keycloak : compte déjà absent de Keycloak (" + entry.getKeycloakId() + ")");
+            return null;
+        } catch (Exception e) {
+            return e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        }
+    }
+
+    private void update(UserResource userResource, KeycloakUserChange change) {
+        UserRepresentation kcUser = userResource.toRepresentation();
+        if (change.firstName() != null) kcUser.setFirstName(change.firstName());
+        if (change.lastName() != null) kcUser.setLastName(change.lastName());
+        if (change.email() != null) kcUser.setEmail(change.email());
+        if (change.enabled() != null) kcUser.setEnabled(change.enabled());
+        userResource.update(kcUser);
+    }
+
+    private void assignRoles(UserResource userResource, KeycloakUserChange change) {
+        List<RoleRepresentation> roles = new ArrayList<>();
+        for (String role : change.roles()) {
+            try {
+                roles.add(keycloak.realm(realm).roles().get(role).toRepresentation());
+            } catch (NotFoundException e) {
+                System.err.println("⚠️ Rôle Keycloak introuvable : " + role);
+            }
+        }
+        if (!roles.isEmpty()) {
+            userResource.roles().realmLevel().add(roles);
+        }
+    }
+
+    private KeycloakUserChange readChange(KeycloakOutboxEntry entry) throws JsonProcessingException {
+        return objectMapper.readValue(entry.getPayload(), KeycloakUserChange.class);
+    }
+
+    Duration retryDelay(int attempts) {
+        long delay = retryBaseMs << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, retryMaxMs));
+    }
+
+    private void refreshMetrics() {
+        pending.set(repository.countByFailed(false));
+        failed.set(repository.countByFailed(true));
+        Instant oldest = repository.findOldestPendingCreatedAt();
+        lagSeconds.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, clock.instant()).toSeconds()));
+    }
+}
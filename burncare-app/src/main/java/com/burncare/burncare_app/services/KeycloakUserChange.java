@@ -0,0 +1,17 @@
+package com.burncare.burncare_app.services;
+
+import java.util.List;
+
+// Contenu d'une entrée de l'outbox Keycloak : champs à mettre à jour (null = inchangé) ou rôles de realm à ajouter
+public record KeycloakUserChange(
+        String firstName,
+        String lastName,
+        String email,
+        Boolean enabled,
+        List<String> roles
+) {
+
+    public static KeycloakUserChange roles(List<String> roles) {
+        return new KeycloakUserChange(null, null, null, null, roles);
+    }
+}
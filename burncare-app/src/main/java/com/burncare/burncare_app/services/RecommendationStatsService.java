@@ -0,0 +1,54 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.RecommendationTagStats;
+import com.burncare.burncare_app.entities.Profession;
+import com.burncare.burncare_app.repositories.RecommendationStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class RecommendationStatsService {
+
+    private static final Duration DEFAULT_WINDOW = Duration.ofDays(30);
+
+    private final RecommendationStatsRepository recommendationStatsRepository;
+
+    /**
+     * Répartition des recommandations fatigue par tag et sévérité sur [from, to[
+     * (par défaut les 30 derniers jours), filtrable par tag, sévérité minimale (1..5) et profession.
+     */
+    @Transactional(readOnly = true)
+    public List<RecommendationTagStats> getRecommendationStats(String tag, Integer minSeverity, String profession,
+                                                               Instant from, Instant to) {
+        if (minSeverity != null && (minSeverity < 1 || minSeverity > 5)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minSeverity doit être compris entre 1 et 5");
+        }
+        String professionName = null;
+        if (profession != null && !profession.isBlank()) {
+            try {
+                professionName = Profession.valueOf(profession.trim().toUpperCase()).name();
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Profession inconnue : " + profession);
+            }
+        }
+        Instant upper = to != null ? to : Instant.now();
+        Instant lower = from != null ? from : upper.minus(DEFAULT_WINDOW);
+        if (!lower.isBefore(upper)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Période invalide");
+        }
+        if (!recommendationStatsRepository.isSupported()) {
+            throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, "Requête disponible uniquement sur PostgreSQL");
+        }
+
+        String tagFilter = tag == null || tag.isBlank() ? null : tag.trim();
+        return recommendationStatsRepository.countByTagAndSeverity(lower, upper, tagFilter, minSeverity, professionName);
+    }
+}
@@ -0,0 +1,208 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.BurnoutExportRow;
+import com.burncare.burncare_app.dto.FatigueExportRow;
+import com.burncare.burncare_app.dto.ResultExport;
+import com.burncare.burncare_app.repositories.ResultExportRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Export complet des résultats burnout / fatigue (CSV ou NDJSON) pour l'équipe de santé au travail.
+ * <p>
+ * Les lignes sont lues par {@link ResultExportRepository} et écrites une à une dans la réponse,
+ * dans une transaction en lecture seule : rien n'est accumulé en mémoire, quelle que soit la taille des tables.
+ */
+@Service
+public class ResultExportService {
+
+    public static final String BURNOUT = "burnout";
+    public static final String FATIGUE = "fatigue";
+
+    private static final MediaType CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final List<String> BURNOUT_COLUMNS = List.of(
+            "id", "userId", "createdAt", "burnoutScore", "riskLabel", "riskTitle", "answers", "message", "recommendation");
+    private static final List<String> FATIGUE_COLUMNS = List.of(
+            "id", "userId", "createdAt", "fatigueScore", "riskLabel", "riskTitle", "confidence", "recommendations",
+            "message", "recommendationText");
+
+    // Colonnes déjà au format JSON : recopiées telles quelles en NDJSON
+    private static final Set<String> JSON_COLUMNS = Set.of("answers", "recommendations");
+
+    private final ResultExportRepository resultExportRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonFactory jsonFactory;
+
+    public ResultExportService(ResultExportRepository resultExportRepository,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper) {
+        this.resultExportRepository = resultExportRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Prépare l'export de {@code kind} (burnout|fatigue) au format {@code format} (csv|ndjson),
+     * filtré sur [from, to[ et le niveau de risque. Les paramètres sont validés ici (400) :
+     * une fois l'écriture commencée, le statut de la réponse ne peut plus changer.
+     */
+    public ResultExport export(String kind, String format, Instant from, Instant to, String riskLabel) {
+        String exportKind = kind == null ? "" : kind.trim().toLowerCase();
+        if (!BURNOUT.equals(exportKind) && !FATIGUE.equals(exportKind)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Type d'export inconnu : " + kind);
+        }
+        String exportFormat = format == null ? "ndjson" : format.trim().toLowerCase();
+        if (!"csv".equals(exportFormat) && !"ndjson".equals(exportFormat)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Format d'export inconnu : " + format);
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Période invalide");
+        }
+        String label = riskLabel == null || riskLabel.isBlank() ? null : riskLabel.trim();
+        boolean csv = "csv".equals(exportFormat);
+        boolean burnout = BURNOUT.equals(exportKind);
+        List<String> columns = burnout ? BURNOUT_COLUMNS : FATIGUE_COLUMNS;
+
+        StreamingResponseBody body = out -> {
+            try (RowWriter writer = csv ? new CsvRowWriter(out, columns) : new NdjsonRowWriter(jsonFactory, out, columns)) {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    if (burnout) {
+                        resultExportRepository.streamBurnout(from, to, label, row -> write(writer, values(row)));
+                    } else {
+                        resultExportRepository.streamFatigue(from, to, label, row -> write(writer, values(row)));
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // Client déconnecté en cours d'export : la transaction a été annulée, le curseur fermé
+                throw e.getCause();
+            }
+        };
+        return new ResultExport(exportKind + "-results." + exportFormat, csv ? CSV : NDJSON, body);
+    }
+
+    private static Object[] values(BurnoutExportRow row) {
+        // Réponses encodées (AnswerCodec) ou, pour les lignes pas encore converties, JSON d'origine
+        String answers = AnswerCodec.isEncoded(row.answersCode()) ? AnswerCodec.decode(row.answersCode()).toString() : row.answersJson();
+        return new Object[]{row.id(), row.userId(), row.createdAt(), row.burnoutScore(), row.riskLabel(),
+                row.riskTitle(), answers, row.message(), row.recommendation()};
+    }
+
+    private static Object[] values(FatigueExportRow row) {
+        return new Object[]{row.id(), row.userId(), row.createdAt(), row.fatigueScore(), row.riskLabel(),
+                row.riskTitle(), row.confidence(), row.recommendationsJson(), row.message(), row.recommendationText()};
+    }
+
+    private static void write(RowWriter writer, Object[] values) {
+        try {
+            writer.write(values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // close() vide les tampons sans fermer le flux de la réponse (géré par Spring)
+    private interface RowWriter extends Closeable {
+        void write(Object[] values) throws IOException;
+    }
+
+    // RFC 4180 : séparateur virgule, fin de ligne CRLF, champs entre guillemets si nécessaire
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out, List<String> columns) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            write(columns.toArray());
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writer.write(escape(values[i].toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+        private final List<String> columns;
+
+        NdjsonRowWriter(JsonFactory jsonFactory, OutputStream out, List<String> columns) throws IOException {
+            this.generator = jsonFactory.createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.columns = columns;
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                String column = columns.get(i);
+                Object value = values[i];
+                if (value == null) {
+                    generator.writeNullField(column);
+                } else if (JSON_COLUMNS.contains(column)) {
+                    generator.writeFieldName(column);
+                    generator.writeRawValue(value.toString());
+                } else if (value instanceof Long l) {
+                    generator.writeNumberField(column, l);
+                } else if (value instanceof Integer n) {
+                    generator.writeNumberField(column, n);
+                } else if (value instanceof Double d) {
+                    generator.writeNumberField(column, d);
+                } else {
+                    generator.writeStringField(column, value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,31 @@
+package com.burncare.burncare_app.services;
+
+/**
+ * Longueurs maximales des colonnes texte des résultats (VARCHAR par défaut : 255, message / recommandation
+ * du burnout : 2000). Vérifiées avant l'écriture : une valeur trop longue donne un 400 au lieu d'un échec
+ * de l'insert (et, en ingestion asynchrone, d'un lot entier).
+ * Les scores sont bornés à 0..100 : l'histogramme des compteurs (et donc la moyenne admin) couvre tout score accepté.
+ */
+final class ResultFieldLimits {
+
+    static final int LABEL = 255;
+    static final int BURNOUT_TEXT = 2000;
+    static final int MAX_SCORE = StatsCounterService.MAX_SCORE;
+
+    private ResultFieldLimits() {
+    }
+
+    // ⚠️ IllegalArgumentException si la valeur dépasse max caractères
+    static void check(String value, int max, String field) {
+        if (value != null && value.length() > max) {
+            throw new IllegalArgumentException(field + " : " + max + " caractères maximum");
+        }
+    }
+
+    // ⚠️ IllegalArgumentException si le score (facultatif) sort de 0..100
+    static void checkScore(Integer score, String field) {
+        if (score != null && (score < 0 || score > MAX_SCORE)) {
+            throw new IllegalArgumentException(field + " : entre 0 et " + MAX_SCORE);
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.BurnoutResultRequest;
+import com.burncare.burncare_app.dto.FatigueResultRequest;
+import com.burncare.burncare_app.dto.IngestionTicket;
+import com.burncare.burncare_app.entities.IngestionCheckpoint;
+import com.burncare.burncare_app.entities.IngestionDeadLetter;
+import com.burncare.burncare_app.repositories.IngestionCheckpointRepository;
+import com.burncare.burncare_app.repositories.IngestionDeadLetterRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingestion asynchrone (optionnelle) des résultats envoyés un par un : POST /api/burnout-results et
+ * /api/fatigue-results répondent 202 avec un ticket au lieu d'écrire en base sur le thread de la requête.
+ * <p>
+ * À la réception : contrôle de la requête et de l'utilisateur, ajout au journal local puis fsync (partagé entre
+ * les requêtes simultanées), mise en file. Un writer unique vide la file par lots et les écrit dans une seule
+ * transaction, avec la position atteinte dans le journal ({@link IngestionCheckpoint}) : au redémarrage, seules
+ * les entrées au-delà de cette position sont rejouées, sans doublon. La file est bornée : quand elle est pleine,
+ * la requête est refusée (503) et le client réessaie.
+ * <p>
+ * Un lot refusé par la base est repris entrée par entrée : une entrée refusée seule alors que la base répond
+ * (utilisateur supprimé entre-temps...) est mise de côté dans ingestion_dead_letters et la position avance,
+ * pour qu'un seul résultat ne bloque pas la file. Si la base ne répond pas, le writer réessaie plus tard.
+ */
+@Service
+public class ResultIngestionService {
+
+    public static final String BURNOUT = "BURNOUT";
+    public static final String FATIGUE = "FATIGUE";
+
+    private final BurnoutResultService burnoutResultService;
+    private final FatigueResultService fatigueResultService;
+    private final UserSnapshotCache userSnapshotCache;
+    private final IngestionCheckpointRepository checkpointRepository;
+    private final IngestionDeadLetterRepository deadLetterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long retryDelayMs;
+    private final Path logPath;
+    private final String instance;
+
+    private final int capacity;
+    // Créé au démarrage : les entrées rejouées occupent leur place dans la file (compteur éventuellement négatif)
+    private volatile Semaphore permits;
+    private final BlockingQueue<IngestionRecord> queue = new LinkedBlockingQueue<>();
+    private final Object appendLock = new Object();
+    private final Counter deadLetters;
+
+    private IngestionLog log;
+    private Thread writer;
+    private long nextSeq;
+    private volatile long committedSeq;
+    private volatile boolean running;
+
+    public ResultIngestionService(BurnoutResultService burnoutResultService,
+                                  FatigueResultService fatigueResultService,
+                                  UserSnapshotCache userSnapshotCache,
+                                  IngestionCheckpointRepository checkpointRepository,
+                                  IngestionDeadLetterRepository deadLetterRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${burncare.ingestion.enabled:false}") boolean enabled,
+                                  @Value("${burncare.ingestion.capacity:5000}") int capacity,
+                                  @Value("${burncare.ingestion.max-batch:200}") int maxBatch,
+                                  @Value("${burncare.ingestion.retry-delay-ms:1000}") long retryDelayMs,
+                                  @Value("${burncare.ingestion.log-path:data/ingestion.log}") String logPath,
+                                  @Value("${burncare.ingestion.instance:local}") String instance) {
+        this.burnoutResultService = burnoutResultService;
+        this.fatigueResultService = fatigueResultService;
+        this.userSnapshotCache = userSnapshotCache;
+        this.checkpointRepository = checkpointRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.retryDelayMs = retryDelayMs;
+        this.logPath = Path.of(logPath);
+        this.instance = instance;
+        this.capacity = capacity;
+        this.permits = new Semaphore(capacity);
+
+        Gauge.builder("burncare.ingestion.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        this.deadLetters = Counter.builder("burncare.ingestion.dead_letters").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        log = new IngestionLog(logPath, objectMapper);
+        committedSeq = checkpointRepository.findById(instance).map(IngestionCheckpoint::getCommittedSeq).orElse(0L);
+
+        List<IngestionRecord> pending = new ArrayList<>();
+        long lastSeq = committedSeq;
+        for (IngestionRecord record : log.readAll()) {
+            lastSeq = Math.max(lastSeq, record.seq());
+            if (record.seq() > committedSeq) {
+                pending.add(record);
+            }
+        }
+        nextSeq = lastSeq + 1;
+
+        // Rejeu des entrées reçues mais pas encore écrites avant l'arrêt : toutes en file AVANT d'accepter de
+        // nouvelles entrées, pour que la position validée avance sans trou et que le journal ne soit pas vidé
+        // tant qu'elles ne sont qu'en mémoire. La file peut dépasser sa capacité le temps de les écrire.
+        synchronized (appendLock) {
+            permits = new Semaphore(capacity - pending.size());
+            queue.addAll(pending);
+        }
+
+        running = true;
+        writer = new Thread(this::drain, "result-ingestion-writer");
+        writer.start();
+        System.out.println("✅ Ingestion asynchrone active (" + logPath + ", " + pending.size() + " résultat(s) rejoué(s))");
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    public IngestionTicket submitBurnout(String keycloakId, BurnoutResultRequest request) {
+        burnoutResultService.checkRequest(request);
+        return submit(BURNOUT, keycloakId, request);
+    }
+
+    public IngestionTicket submitFatigue(String keycloakId, FatigueResultRequest request) {
+        fatigueResultService.checkRequest(request);
+        return submit(FATIGUE, keycloakId, request);
+    }
+
+    private IngestionTicket submit(String kind, String keycloakId, Object request) {
+        // Même erreur qu'en mode synchrone pour un utilisateur inconnu
+        userSnapshotCache.require(keycloakId);
+        if (!running) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Ingestion indisponible");
+        }
+        if (!permits.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "File d'ingestion pleine, réessayez");
+        }
+
+        IngestionRecord record;
+        try {
+            // Numéro, journal et file dans le même ordre : la position validée ne saute jamais une entrée
+            synchronized (appendLock) {
+                record = new IngestionRecord(nextSeq++, UUID.randomUUID().toString(), kind, keycloakId, request);
+                log.write(record);
+                queue.add(record);
+            }
+        } catch (IOException e) {
+            permits.release();
+            System.err.println("⚠️ Journal d'ingestion : écriture impossible : " + e.getMessage());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Ingestion indisponible");
+        }
+
+        // Réponse seulement une fois l'entrée sur disque (le writer a pu l'écrire en base entre-temps)
+        try {
+            log.sync(record.seq());
+        } catch (IOException e) {
+            System.err.println("⚠️ Journal d'ingestion : fsync impossible : " + e.getMessage());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Ingestion indisponible");
+        }
+        return IngestionTicket.accepted(record.ticket());
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            List<IngestionRecord> batch = new ArrayList<>(maxBatch);
+            try {
+                IngestionRecord first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (!isContiguous(committedSeq, batch)) {
+                // Ne doit pas arriver : s'arrêter plutôt que valider une position qui sauterait des entrées
+                // (le journal est conservé et rejoué au redémarrage)
+                System.err.println("⚠️ Ingestion : lot non contigu après la position " + committedSeq
+                        + " (" + batch.get(0).seq() + ".." + batch.get(batch.size() - 1).seq() + "), writer arrêté");
+                running = false;
+                return;
+            }
+            if (!write(batch)) {
+                return;
+            }
+            permits.release(batch.size());
+            truncateIfDrained();
+        }
+    }
+
+    // false si l'arrêt est demandé avant que tout le lot soit écrit (le reste est rejoué au redémarrage)
+    private boolean write(List<IngestionRecord> batch) {
+        int done = 0;
+        while (true) {
+            List<IngestionRecord> pending = batch.subList(done, batch.size());
+            if (commit(pending)) {
+                return true;
+            }
+            done += commitEach(pending);
+            if (done == batch.size()) {
+                return true;
+            }
+            // Base indisponible : nouvel essai à partir de la première entrée non écrite
+            if (!running) {
+                return false;
+            }
+            try {
+                Thread.sleep(retryDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    // Un seul commit pour tout le lot, position du journal comprise
+    boolean commit(List<IngestionRecord> batch) {
+        try {
+            save(batch);
+            return true;
+        } catch (Exception e) {
+            System.err.println("⚠️ Ingestion : écriture de " + batch.size() + " résultat(s) impossible : " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Lot refusé : une transaction par entrée ; renvoie le nombre d'entrées écrites ou mises de côté
+    // avant la première entrée que la base n'a pas pu traiter du tout
+    private int commitEach(List<IngestionRecord> records) {
+        int done = 0;
+        for (IngestionRecord record : records) {
+            try {
+                save(List.of(record));
+            } catch (Exception e) {
+                if (!deadLetter(record, e)) {
+                    return done;
+                }
+            }
+            done++;
+        }
+        return done;
+    }
+
+    private void save(List<IngestionRecord> batch) {
+        List<IngestionRecord> burnout = new ArrayList<>();
+        List<IngestionRecord> fatigue = new ArrayList<>();
+        long lastSeq = committedSeq;
+        for (IngestionRecord record : batch) {
+            (BURNOUT.equals(record.kind()) ? burnout : fatigue).add(record);
+            lastSeq = Math.max(lastSeq, record.seq());
+        }
+        long position = lastSeq;
+        transactionTemplate.executeWithoutResult(status -> {
+            burnoutResultService.saveQueued(burnout);
+            fatigueResultService.saveQueued(fatigue);
+            checkpointRepository.save(new IngestionCheckpoint(instance, position));
+        });
+        committedSeq = position;
+    }
+
+    // La base accepte la mise de côté mais pas le résultat : c'est l'entrée qui est en cause
+    private boolean deadLetter(IngestionRecord record, Exception cause) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(record.request());
+        } catch (Exception e) {
+            payload = String.valueOf(record.request());
+        }
+        String error = String.valueOf(cause.getMessage());
+        IngestionDeadLetter deadLetter = new IngestionDeadLetter(null, instance, record.seq(), record.ticket(),
+                record.kind(), record.keycloakId(), payload, error.substring(0, Math.min(error.length(), 2000)),
+                Instant.now());
+        long position = Math.max(committedSeq, record.seq());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                deadLetterRepository.save(deadLetter);
+                checkpointRepository.save(new IngestionCheckpoint(instance, position));
+            });
+        } catch (Exception e) {
+            return false;
+        }
+        committedSeq = position;
+        deadLetters.increment();
+        System.err.println("⚠️ Ingestion : résultat " + record.ticket() + " mis de côté (ingestion_dead_letters) : " + error);
+        return true;
+    }
+
+    // Les numéros du lot suivent la position validée, un par un
+    static boolean isContiguous(long committed, List<IngestionRecord> batch) {
+        long expected = committed + 1;
+        for (IngestionRecord record : batch) {
+            if (record.seq() != expected++) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void truncateIfDrained() {
+        synchronized (appendLock) {
+            if (!queue.isEmpty() || committedSeq < nextSeq - 1) {
+                return;
+            }
+            try {
+                log.truncate();
+            } catch (IOException e) {
+                System.err.println("⚠️ Journal d'ingestion : remise à zéro impossible : " + e.getMessage());
+            }
+        }
+    }
+}
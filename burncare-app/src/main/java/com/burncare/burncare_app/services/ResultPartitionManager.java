@@ -0,0 +1,258 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.ScoreBucketCount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Partitionnement mensuel (PostgreSQL, PARTITION BY RANGE (created_at)) de burnout_results et fatigue_results.
+ * <p>
+ * Chaque nuit (et au démarrage), les partitions des mois à venir sont pré-créées et celles au-delà de la rétention
+ * sont détachées (ou supprimées). Les requêtes filtrant sur createdAt ne parcourent que les partitions concernées.
+ * Sans effet sur une autre base (H2 en test). Désactivé par défaut (burncare.partitioning.enabled).
+ * <p>
+ * Une table encore « classique » (créée par ddl-auto=update) n'est convertie que si
+ * burncare.partitioning.convert-existing=true : opération ponctuelle, en fenêtre de maintenance, car la copie
+ * des lignes se fait sous verrou ACCESS EXCLUSIVE (procédure dans application.properties).
+ * <p>
+ * Rétention : les compteurs du tableau de bord (stats_counters) décrivent le contenu des tables, ils sont
+ * décrémentés des lignes retirées dans la transaction du détachement. Les rollups horaires / journaliers gardent
+ * en revanche l'historique : la série temporelle d'un mois retiré reste consultable, sans les lignes brutes.
+ */
+@Component
+@ConditionalOnProperty(name = "burncare.partitioning.enabled", havingValue = "true")
+public class ResultPartitionManager {
+
+    static final List<String> TABLES = List.of("burnout_results", "fatigue_results");
+
+    // Clé du verrou consultatif : une seule instance fait la maintenance à la fois
+    private static final long LOCK_KEY = 0x6275726e63617265L;
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StatsCounterService statsCounterService;
+
+    @Value("${burncare.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    // 0 = conservation illimitée
+    @Value("${burncare.partitioning.retention-months:0}")
+    private int retentionMonths;
+
+    // "detach" (la partition reste en base, hors de la table) ou "drop"
+    @Value("${burncare.partitioning.retention-action:detach}")
+    private String retentionAction;
+
+    // Conversion des tables non partitionnées : opération ponctuelle, bloquante pendant la copie
+    @Value("${burncare.partitioning.convert-existing:false}")
+    private boolean convertExisting;
+
+    private Boolean postgres;
+
+    public ResultPartitionManager(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                  StatsCounterService statsCounterService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.statsCounterService = statsCounterService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${burncare.partitioning.maintenance-cron:0 0 4 * * *}")
+    public void maintain() {
+        if (!isPostgres()) {
+            return;
+        }
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (String table : TABLES) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, LOCK_KEY);
+                    if (!tableExists(table)) {
+                        return;
+                    }
+                    if (!isPartitioned(table)) {
+                        if (!convertExisting) {
+                            System.err.println("⚠️ " + table + " n'est pas partitionnée : conversion ponctuelle à lancer " +
+                                    "avec burncare.partitioning.convert-existing=true (fenêtre de maintenance)");
+                            return;
+                        }
+                        convert(table, current);
+                    }
+                    createPartitions(table, current, current.plusMonths(monthsAhead));
+                    applyRetention(table, current);
+                });
+            } catch (Exception e) {
+                System.err.println("⚠️ Erreur lors de la maintenance des partitions de " + table + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Conversion d'une table existante : copie des lignes, des index et des clés étrangères
+    private void convert(String table, YearMonth current) {
+        String legacy = table + "_legacy";
+        System.out.println("✅ Conversion de " + table + " en table partitionnée par mois");
+
+        List<String> indexDefs = jdbcTemplate.queryForList(
+                "SELECT i.indexdef FROM pg_indexes i WHERE i.schemaname = current_schema() AND i.tablename = ? " +
+                        "AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conname = i.indexname)",
+                String.class, table);
+        List<Map<String, Object>> foreignKeys = jdbcTemplate.queryForList(
+                "SELECT conname, pg_get_constraintdef(oid) AS def FROM pg_constraint " +
+                        "WHERE conrelid = ?::regclass AND contype = 'f'", table);
+
+        jdbcTemplate.execute("ALTER TABLE " + table + " RENAME TO " + legacy);
+        // Une clé de partition ne peut pas être NULL dans une partition mensuelle : ces lignes vont dans la partition par défaut
+        jdbcTemplate.execute("UPDATE " + legacy + " SET created_at = to_timestamp(0) WHERE created_at IS NULL");
+
+        jdbcTemplate.execute("CREATE TABLE " + table + " (LIKE " + legacy + " INCLUDING DEFAULTS INCLUDING IDENTITY) " +
+                "PARTITION BY RANGE (created_at)");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN created_at SET NOT NULL");
+
+        Timestamp first = jdbcTemplate.queryForObject(
+                "SELECT MIN(created_at) FROM " + legacy + " WHERE created_at > to_timestamp(0)", Timestamp.class);
+        YearMonth from = first == null ? current : YearMonth.from(first.toInstant().atZone(ZoneOffset.UTC));
+        createPartitions(table, from, current.plusMonths(monthsAhead));
+
+        jdbcTemplate.execute("INSERT INTO " + table + " SELECT * FROM " + legacy);
+        jdbcTemplate.execute("DROP TABLE " + legacy);
+        // Pas de séquence à recaler : les ids viennent de burnout_results_seq / fatigue_results_seq
+        // (PostgresSchemaUpgrader), indépendantes de la table et conservées par la copie
+
+        // La clé primaire d'une table partitionnée doit contenir la clé de partition
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + table + "_pkey PRIMARY KEY (id, created_at)");
+        // Index et clés étrangères recréés sur la table parente (propagés à chaque partition)
+        for (String indexDef : indexDefs) {
+            jdbcTemplate.execute(indexDef.replaceFirst(" ON (\\S+\\.)?" + table + " ", " ON " + table + " "));
+        }
+        for (Map<String, Object> fk : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + fk.get("conname") + " " + fk.get("def"));
+        }
+        System.out.println("✅ Conversion de " + table + " terminée");
+    }
+
+    private void createPartitions(String table, YearMonth from, YearMonth to) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table + "_pdefault PARTITION OF " + table + " DEFAULT");
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            String partition = partitionName(table, month);
+            if (tableExists(partition)) {
+                continue;
+            }
+            // Une partition ne peut pas être créée si la partition par défaut contient déjà des lignes du mois
+            Boolean conflict = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM " + table + "_pdefault WHERE created_at >= ?::timestamptz AND created_at < ?::timestamptz)",
+                    Boolean.class, lowerBound(month), lowerBound(month.plusMonths(1)));
+            if (Boolean.TRUE.equals(conflict)) {
+                System.err.println("⚠️ Partition " + partition + " non créée : la partition par défaut contient des lignes de ce mois");
+                continue;
+            }
+            jdbcTemplate.execute(createPartitionSql(table, month));
+        }
+    }
+
+    private void applyRetention(String table, YearMonth current) {
+        if (retentionMonths <= 0) {
+            return;
+        }
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "WHERE i.inhparent = ?::regclass", String.class, table);
+        for (String partition : expiredPartitions(table, partitions, current, retentionMonths)) {
+            retire(table, partition);
+        }
+    }
+
+    // Appelé dans la transaction de maintenance (verrou consultatif pris) : détachement et compteurs ensemble
+    void retire(String table, String partition) {
+        // Compté après le DETACH : plus aucune insertion ne peut arriver dans la partition
+        jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+        List<ScoreBucketCount> buckets = jdbcTemplate.query(
+                "SELECT risk_label, " + scoreColumn(table) + " AS score, COUNT(*) AS n FROM " + partition +
+                        " GROUP BY risk_label, " + scoreColumn(table),
+                (rs, i) -> new ScoreBucketCount(rs.getString("risk_label"), (Integer) rs.getObject("score"), rs.getLong("n")));
+        statsCounterService.remove(kind(table), buckets);
+        if ("drop".equalsIgnoreCase(retentionAction)) {
+            jdbcTemplate.execute("DROP TABLE " + partition);
+        }
+        System.out.println("✅ Partition " + partition + " retirée (" + retentionAction + ")");
+    }
+
+    static String kind(String table) {
+        return "burnout_results".equals(table) ? StatsCounterService.BURNOUT : StatsCounterService.FATIGUE;
+    }
+
+    static String scoreColumn(String table) {
+        return "burnout_results".equals(table) ? "burnout_score" : "fatigue_score";
+    }
+
+    static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(SUFFIX);
+    }
+
+    static String createPartitionSql(String table, YearMonth month) {
+        return "CREATE TABLE " + partitionName(table, month) + " PARTITION OF " + table +
+                " FOR VALUES FROM ('" + lowerBound(month) + "') TO ('" + lowerBound(month.plusMonths(1)) + "')";
+    }
+
+    // Partitions mensuelles entièrement antérieures à la fenêtre de rétention (le mois courant compte pour 1)
+    static List<String> expiredPartitions(String table, List<String> partitions, YearMonth current, int retentionMonths) {
+        YearMonth oldestKept = current.minusMonths(retentionMonths - 1L);
+        List<String> expired = new ArrayList<>();
+        for (String partition : partitions) {
+            YearMonth month = partitionMonth(table, partition);
+            if (month != null && month.isBefore(oldestKept)) {
+                expired.add(partition);
+            }
+        }
+        return expired;
+    }
+
+    static YearMonth partitionMonth(String table, String partition) {
+        String prefix = table + "_p";
+        if (!partition.startsWith(prefix) || !partition.substring(prefix.length()).matches("\\d{6}")) {
+            return null;
+        }
+        return YearMonth.parse(partition.substring(prefix.length()), SUFFIX);
+    }
+
+    private static String lowerBound(YearMonth month) {
+        return month.atDay(1) + " 00:00:00+00";
+    }
+
+    private boolean tableExists(String table) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table);
+    }
+
+    private boolean isPartitioned(String table) {
+        return jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = ?::regclass)", Boolean.class, table);
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equalsIgnoreCase(product);
+        }
+        return postgres;
+    }
+}
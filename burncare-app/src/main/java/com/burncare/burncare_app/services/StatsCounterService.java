@@ -0,0 +1,160 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.ScoreBucketCount;
+import com.burncare.burncare_app.entities.StatsCounter;
+import com.burncare.burncare_app.repositories.BurnoutResultRepository;
+import com.burncare.burncare_app.repositories.FatigueResultRepository;
+import com.burncare.burncare_app.repositories.StatsCounterRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compteurs du tableau de bord admin maintenus à l'écriture.
+ * Par type de résultat : un total, un compteur par niveau de risque et un histogramme de 101 scores (0..100).
+ * Le tableau de bord lit donc un nombre fixe de lignes, quelle que soit la taille de l'historique.
+ */
+@Service
+@RequiredArgsConstructor
+public class StatsCounterService {
+
+    public static final String BURNOUT = "burnout";
+    public static final String FATIGUE = "fatigue";
+
+    public static final String LOW = "Faible";
+    public static final String MEDIUM = "Moyen";
+    public static final String HIGH = "Élevé";
+
+    static final List<String> KINDS = List.of(BURNOUT, FATIGUE);
+    static final List<String> RISK_LABELS = List.of(LOW, MEDIUM, HIGH);
+    static final int MAX_SCORE = 100;
+
+    private final StatsCounterRepository statsCounterRepository;
+    private final BurnoutResultRepository burnoutResultRepository;
+    private final FatigueResultRepository fatigueResultRepository;
+
+    public static String totalKey(String kind) {
+        return kind + ".total";
+    }
+
+    public static String labelKey(String kind, String riskLabel) {
+        return kind + ".label." + riskLabel;
+    }
+
+    public static String scoreKey(String kind, int score) {
+        return kind + ".score." + score;
+    }
+
+    // ✅ Appelé dans la transaction d'insertion d'un résultat (delta = +1) : une seule requête UPDATE
+    @Transactional
+    public void record(String kind, String riskLabel, Integer score) {
+        statsCounterRepository.increment(keysFor(kind, riskLabel, score), 1);
+    }
+
+    // ✅ Envoi groupé : un bucket (niveau, score, 1) par résultat, regroupés en un seul UPDATE
+    @Transactional
+    public void recordAll(String kind, Collection<ScoreBucketCount> buckets) {
+        apply(kind, buckets, 1);
+    }
+
+    // ✅ Appelé avant la suppression en masse de résultats : décrémente selon leur répartition
+    @Transactional
+    public void remove(String kind, Collection<ScoreBucketCount> buckets) {
+        apply(kind, buckets, -1);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isInitialized() {
+        return statsCounterRepository.count() > 0;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Long> snapshot() {
+        return statsCounterRepository.findAll().stream()
+                .collect(Collectors.toMap(StatsCounter::getName, StatsCounter::getValue));
+    }
+
+    /**
+     * Recalcule tous les compteurs depuis les tables sources et corrige les écarts.
+     * Les compteurs sont verrouillés avant le comptage : une insertion concurrente attend la fin du recalcul.
+     *
+     * @return le nombre de compteurs créés ou corrigés
+     */
+    @Transactional
+    public int rebuild() {
+        Map<String, StatsCounter> current = statsCounterRepository.findAllForUpdate().stream()
+                .collect(Collectors.toMap(StatsCounter::getName, Function.identity()));
+
+        Map<String, Long> expected = new LinkedHashMap<>();
+        for (String kind : KINDS) {
+            allKeys(kind).forEach(key -> expected.put(key, 0L));
+        }
+        accumulate(expected, BURNOUT, burnoutResultRepository.countByLabelAndScore());
+        accumulate(expected, FATIGUE, fatigueResultRepository.countByLabelAndScore());
+
+        List<StatsCounter> repaired = new ArrayList<>();
+        expected.forEach((key, value) -> {
+            StatsCounter counter = current.get(key);
+            if (counter == null) {
+                repaired.add(new StatsCounter(key, value));
+            } else if (counter.getValue() != value) {
+                counter.setValue(value);
+                repaired.add(counter);
+            }
+        });
+        statsCounterRepository.saveAll(repaired);
+        return repaired.size();
+    }
+
+    private void apply(String kind, Collection<ScoreBucketCount> buckets, int sign) {
+        Map<String, Long> deltas = new HashMap<>();
+        for (ScoreBucketCount bucket : buckets) {
+            for (String key : keysFor(kind, bucket.riskLabel(), bucket.score())) {
+                deltas.merge(key, sign * bucket.count(), Long::sum);
+            }
+        }
+        // Un seul UPDATE (CASE par compteur) : plusieurs requêtes successives verrouilleraient les compteurs
+        // dans un ordre différent d'une transaction à l'autre (interblocage)
+        statsCounterRepository.incrementAll(deltas);
+    }
+
+    private void accumulate(Map<String, Long> expected, String kind, List<ScoreBucketCount> buckets) {
+        for (ScoreBucketCount bucket : buckets) {
+            for (String key : keysFor(kind, bucket.riskLabel(), bucket.score())) {
+                expected.merge(key, bucket.count(), Long::sum);
+            }
+        }
+    }
+
+    // Compteurs touchés par un résultat : le total, son niveau de risque (si connu) et son score (si 0..100)
+    private List<String> keysFor(String kind, String riskLabel, Integer score) {
+        List<String> keys = new ArrayList<>(3);
+        keys.add(totalKey(kind));
+        if (riskLabel != null && RISK_LABELS.contains(riskLabel)) {
+            keys.add(labelKey(kind, riskLabel));
+        }
+        if (score != null && score >= 0 && score <= MAX_SCORE) {
+            keys.add(scoreKey(kind, score));
+        }
+        return keys;
+    }
+
+    private List<String> allKeys(String kind) {
+        List<String> keys = new ArrayList<>();
+        keys.add(totalKey(kind));
+        RISK_LABELS.forEach(label -> keys.add(labelKey(kind, label)));
+        for (int score = 0; score <= MAX_SCORE; score++) {
+            keys.add(scoreKey(kind, score));
+        }
+        return keys;
+    }
+}
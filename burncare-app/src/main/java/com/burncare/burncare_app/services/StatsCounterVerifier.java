@@ -0,0 +1,38 @@
+package com.burncare.burncare_app.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Initialise les compteurs statistiques au démarrage puis les revérifie chaque nuit
+ * (recalcul complet depuis burnout_results / fatigue_results et correction des écarts).
+ */
+@Component
+@RequiredArgsConstructor
+public class StatsCounterVerifier {
+
+    private final StatsCounterService statsCounterService;
+
+    // Premier démarrage (table vide) : remplissage initial depuis l'historique existant
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeCounters() {
+        if (!statsCounterService.isInitialized()) {
+            verify();
+        }
+    }
+
+    @Scheduled(cron = "${burncare.stats.verify-cron:0 30 3 * * *}")
+    public void verify() {
+        try {
+            int repaired = statsCounterService.rebuild();
+            if (repaired > 0) {
+                System.out.println("✅ Compteurs statistiques corrigés : " + repaired);
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Erreur lors de la vérification des compteurs statistiques: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.burncare.burncare_app.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static com.burncare.burncare_app.services.StatsCounterService.KINDS;
+
+/**
+ * Fait avancer les rollups statistiques à intervalle régulier.
+ * Les résultats des dernières secondes (burncare.stats.rollup-lag-seconds) sont laissés de côté :
+ * une transaction encore en cours avec un createdAt plus ancien que le watermark serait sinon perdue.
+ */
+@Component
+@RequiredArgsConstructor
+public class StatsRollupJob {
+
+    private final StatsRollupService statsRollupService;
+
+    @Value("${burncare.stats.rollup-lag-seconds:120}")
+    private long lagSeconds;
+
+    @Scheduled(fixedDelayString = "${burncare.stats.rollup-interval-ms:60000}")
+    public void rollUp() {
+        Instant upTo = Instant.now().minus(Duration.ofSeconds(lagSeconds));
+        for (String kind : KINDS) {
+            try {
+                // Une transaction par fenêtre : le rattrapage d'un long historique reste découpé
+                boolean more = true;
+                while (more) {
+                    more = statsRollupService.rollUpNextChunk(kind, upTo);
+                }
+            } catch (Exception e) {
+                System.err.println("⚠️ Erreur lors du rollup des statistiques " + kind + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.RollupSample;
+import com.burncare.burncare_app.dto.StatsTimeseriesPoint;
+import com.burncare.burncare_app.entities.StatsGranularity;
+import com.burncare.burncare_app.entities.StatsRollup;
+import com.burncare.burncare_app.entities.StatsRollupWatermark;
+import com.burncare.burncare_app.repositories.BurnoutResultRepository;
+import com.burncare.burncare_app.repositories.FatigueResultRepository;
+import com.burncare.burncare_app.repositories.StatsRollupRepository;
+import com.burncare.burncare_app.repositories.StatsRollupWatermarkRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.burncare.burncare_app.services.StatsCounterService.*;
+
+/**
+ * Rollups horaires et journaliers des résultats burnout / fatigue.
+ * Le job avance un watermark sur createdAt et n'agrège que les nouveaux résultats ;
+ * la série temporelle admin est ensuite lue depuis les rollups, sans parcourir les tables brutes.
+ */
+@Service
+@RequiredArgsConstructor
+public class StatsRollupService {
+
+    // Fenêtre de createdAt agrégée par transaction (rattrapage de l'historique par morceaux)
+    static final Duration CHUNK = Duration.ofDays(1);
+
+    // Nombre maximal de buckets renvoyés par la série temporelle
+    static final int MAX_POINTS = 1000;
+
+    private final StatsRollupRepository statsRollupRepository;
+    private final StatsRollupWatermarkRepository watermarkRepository;
+    private final BurnoutResultRepository burnoutResultRepository;
+    private final FatigueResultRepository fatigueResultRepository;
+
+    /**
+     * Agrège au plus une fenêtre CHUNK de résultats au-delà du watermark, sans dépasser upTo.
+     * Les buckets et le watermark sont mis à jour dans la même transaction : une fenêtre n'est jamais comptée deux fois.
+     *
+     * @return true s'il reste des résultats à agréger avant upTo
+     */
+    @Transactional
+    public boolean rollUpNextChunk(String kind, Instant upTo) {
+        StatsRollupWatermark watermark = watermarkRepository.findForUpdate(kind).orElse(null);
+        if (watermark == null) {
+            // Premier passage : on part du plus ancien résultat (ou de upTo si la table est vide)
+            Instant first = firstCreatedAt(kind);
+            Instant start = first == null ? upTo : StatsGranularity.HOUR.bucketStart(first);
+            watermark = watermarkRepository.save(new StatsRollupWatermark(kind, start));
+        }
+
+        Instant from = watermark.getProcessedUntil();
+        if (!from.isBefore(upTo)) {
+            return false;
+        }
+        Instant to = from.plus(CHUNK).isBefore(upTo) ? from.plus(CHUNK) : upTo;
+
+        List<RollupSample> samples = samples(kind, from, to);
+        if (!samples.isEmpty()) {
+            for (StatsGranularity granularity : StatsGranularity.values()) {
+                merge(kind, granularity, samples);
+            }
+        }
+
+        watermark.setProcessedUntil(to);
+        watermarkRepository.save(watermark);
+        return to.isBefore(upTo);
+    }
+
+    /**
+     * Retire des rollups des résultats supprimés, dans la transaction de suppression et après le DELETE.
+     * Le watermark est verrouillé (le job attend) : seuls les résultats déjà agrégés (createdAt < watermark) sont retirés,
+     * les autres ne le seront jamais. Le min / max d'un bucket touché est recalculé depuis les résultats restants.
+     */
+    @Transactional
+    public void remove(String kind, List<RollupSample> removed) {
+        if (removed.isEmpty()) {
+            return;
+        }
+        StatsRollupWatermark watermark = watermarkRepository.findForUpdate(kind).orElse(null);
+        if (watermark == null) {
+            return;
+        }
+        Instant processedUntil = watermark.getProcessedUntil();
+        List<RollupSample> rolledUp = removed.stream()
+                .filter(sample -> sample.createdAt().isBefore(processedUntil))
+                .toList();
+        if (rolledUp.isEmpty()) {
+            return;
+        }
+        for (StatsGranularity granularity : StatsGranularity.values()) {
+            subtract(kind, granularity, rolledUp, processedUntil);
+        }
+    }
+
+    /**
+     * Série temporelle sur [from, to[ (bornes par défaut : les 48 dernières heures en horaire, 30 derniers jours en journalier).
+     * Seuls les buckets contenant au moins un résultat sont renvoyés.
+     */
+    @Transactional(readOnly = true)
+    public List<StatsTimeseriesPoint> getTimeseries(String kind, String granularityName, Instant from, Instant to) {
+        if (!KINDS.contains(kind)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Type de résultat inconnu");
+        }
+        StatsGranularity granularity = parseGranularity(granularityName);
+        if (to == null) {
+            to = Instant.now();
+        }
+        if (from == null) {
+            from = to.minus(granularity == StatsGranularity.HOUR ? Duration.ofHours(48) : Duration.ofDays(30));
+        }
+        Instant start = granularity.bucketStart(from);
+        if (!start.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Période invalide");
+        }
+        if (granularity.getUnit().between(start, to) >= MAX_POINTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Période trop longue pour cette granularité");
+        }
+
+        return statsRollupRepository
+                .findByKindAndGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+                        kind, granularity, start, to)
+                .stream()
+                .map(this::toPoint)
+                .toList();
+    }
+
+    private StatsGranularity parseGranularity(String name) {
+        for (StatsGranularity granularity : StatsGranularity.values()) {
+            if (granularity.name().equalsIgnoreCase(name)) {
+                return granularity;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Granularité invalide (hour ou day)");
+    }
+
+    // Ajoute les résultats d'une fenêtre aux buckets existants (ou nouveaux) d'une granularité
+    private void merge(String kind, StatsGranularity granularity, List<RollupSample> samples) {
+        Map<Instant, List<RollupSample>> byBucket = samples.stream()
+                .collect(Collectors.groupingBy(s -> granularity.bucketStart(s.createdAt())));
+
+        Map<Instant, StatsRollup> buckets = new HashMap<>(statsRollupRepository
+                .findByKindAndGranularityAndBucketStartIn(kind, granularity, byBucket.keySet())
+                .stream()
+                .collect(Collectors.toMap(StatsRollup::getBucketStart, Function.identity())));
+
+        byBucket.forEach((bucketStart, bucketSamples) -> {
+            StatsRollup rollup = buckets.computeIfAbsent(bucketStart, b -> new StatsRollup(kind, granularity, b));
+            bucketSamples.forEach(sample -> add(rollup, sample, 1));
+        });
+        statsRollupRepository.saveAll(buckets.values());
+    }
+
+    // Retire des résultats supprimés des buckets d'une granularité ; un bucket vidé est supprimé
+    private void subtract(String kind, StatsGranularity granularity, List<RollupSample> removed, Instant processedUntil) {
+        Map<Instant, List<RollupSample>> byBucket = removed.stream()
+                .collect(Collectors.groupingBy(s -> granularity.bucketStart(s.createdAt())));
+
+        List<StatsRollup> updated = new ArrayList<>();
+        List<StatsRollup> emptied = new ArrayList<>();
+        for (StatsRollup rollup : statsRollupRepository
+                .findByKindAndGranularityAndBucketStartIn(kind, granularity, byBucket.keySet())) {
+            List<RollupSample> bucketSamples = byBucket.get(rollup.getBucketStart());
+            bucketSamples.forEach(sample -> add(rollup, sample, -1));
+            if (rollup.getTotalCount() <= 0) {
+                emptied.add(rollup);
+                continue;
+            }
+            // Le min ou le max a peut-être disparu : relu sur la partie déjà agrégée du bucket
+            boolean extremeRemoved = bucketSamples.stream()
+                    .map(RollupSample::score)
+                    .anyMatch(score -> score != null
+                            && (score.equals(rollup.getScoreMin()) || score.equals(rollup.getScoreMax())));
+            if (extremeRemoved) {
+                Instant end = rollup.getBucketStart().plus(1, granularity.getUnit());
+                refreshScoreRange(kind, rollup, end.isBefore(processedUntil) ? end : processedUntil);
+            }
+            updated.add(rollup);
+        }
+        statsRollupRepository.deleteAll(emptied);
+        statsRollupRepository.saveAll(updated);
+    }
+
+    private void refreshScoreRange(String kind, StatsRollup rollup, Instant end) {
+        Integer min = null;
+        Integer max = null;
+        for (RollupSample sample : samples(kind, rollup.getBucketStart(), end)) {
+            Integer score = sample.score();
+            if (score != null) {
+                min = min == null ? score : Math.min(min, score);
+                max = max == null ? score : Math.max(max, score);
+            }
+        }
+        rollup.setScoreMin(min);
+        rollup.setScoreMax(max);
+    }
+
+    // sign = 1 : ajout d'un résultat ; sign = -1 : retrait (le min / max est alors recalculé à part)
+    private void add(StatsRollup rollup, RollupSample sample, int sign) {
+        rollup.setTotalCount(rollup.getTotalCount() + sign);
+        if (LOW.equals(sample.riskLabel())) {
+            rollup.setLowCount(rollup.getLowCount() + sign);
+        } else if (MEDIUM.equals(sample.riskLabel())) {
+            rollup.setMediumCount(rollup.getMediumCount() + sign);
+        } else if (HIGH.equals(sample.riskLabel())) {
+            rollup.setHighCount(rollup.getHighCount() + sign);
+        }
+
+        Integer score = sample.score();
+        if (score != null) {
+            rollup.setScoreCount(rollup.getScoreCount() + sign);
+            rollup.setScoreSum(rollup.getScoreSum() + (long) sign * score);
+            if (sign > 0) {
+                rollup.setScoreMin(rollup.getScoreMin() == null ? score : Math.min(rollup.getScoreMin(), score));
+                rollup.setScoreMax(rollup.getScoreMax() == null ? score : Math.max(rollup.getScoreMax(), score));
+            }
+        }
+    }
+
+    private StatsTimeseriesPoint toPoint(StatsRollup r) {
+        Double avg = r.getScoreCount() == 0 ? null : (double) r.getScoreSum() / r.getScoreCount();
+        return new StatsTimeseriesPoint(
+                r.getBucketStart(),
+                r.getTotalCount(),
+                r.getLowCount(),
+                r.getMediumCount(),
+                r.getHighCount(),
+                avg,
+                r.getScoreMin(),
+                r.getScoreMax()
+        );
+    }
+
+    private Instant firstCreatedAt(String kind) {
+        return BURNOUT.equals(kind)
+                ? burnoutResultRepository.findFirstCreatedAt()
+                : fatigueResultRepository.findFirstCreatedAt();
+    }
+
+    private List<RollupSample> samples(String kind, Instant from, Instant to) {
+        return BURNOUT.equals(kind)
+                ? burnoutResultRepository.findRollupSamples(from, to)
+                : fatigueResultRepository.findRollupSamples(from, to);
+    }
+}
@@ -0,0 +1,14 @@
+package com.burncare.burncare_app.services;
+
+import java.util.Collection;
+import java.util.Collections;
+
+// Publié à chaque création, modification ou suppression d'utilisateurs : l'index de recherche relit ces ids
+public record UserChangedEvent(
+        Collection<Long> ids
+) {
+
+    public static UserChangedEvent of(Long id) {
+        return new UserChangedEvent(Collections.singletonList(id));
+    }
+}
@@ -0,0 +1,256 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.AdminUserSummary;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Index de recherche en mémoire sur prénom, nom et email (sans accents, en minuscules).
+ * <p>
+ * Chaque mot est une clé d'une table triée pointant vers les ids qui le contiennent : une recherche par préfixe
+ * est un parcours de plage. Si les préfixes ne suffisent pas à remplir la page, les mots commençant par les
+ * deux mêmes lettres (ou ces lettres inversées) sont comparés au terme avec au plus 1 faute (2 à partir de
+ * 7 lettres). Les résultats sont classés : mot exact, puis préfixe, puis mot approché.
+ */
+public class UserPrefixIndex {
+
+    static final int MAX_CANDIDATES = 1_000;
+    static final int MAX_FUZZY_SCAN = 50_000;
+
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int FUZZY = 1;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private record Entry(AdminUserSummary user, String[] tokens) {}
+
+    private record Hit(Entry entry, int score) {}
+
+    private final ConcurrentSkipListMap<String, long[]> tokens = new ConcurrentSkipListMap<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // Écritures sérialisées (rares) ; les recherches lisent sans verrou
+    public synchronized void put(AdminUserSummary user) {
+        Entry entry = new Entry(user, tokensOf(user));
+        Entry previous = entries.put(user.id(), entry);
+        if (previous != null) {
+            for (String token : previous.tokens()) {
+                tokens.computeIfPresent(token, (key, ids) -> without(ids, user.id()));
+            }
+        }
+        for (String token : entry.tokens()) {
+            tokens.merge(token, new long[]{user.id()}, (ids, added) -> with(ids, user.id()));
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        Entry previous = entries.remove(id);
+        if (previous != null) {
+            for (String token : previous.tokens()) {
+                tokens.computeIfPresent(token, (key, ids) -> without(ids, id));
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        tokens.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public List<AdminUserSummary> search(String query, int limit) {
+        String[] terms = query == null ? new String[0] : normalize(query).trim().split("\\s+");
+        terms = Arrays.stream(terms).filter(term -> !term.isEmpty()).toArray(String[]::new);
+        if (terms.length == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        // Le terme le plus long est le plus sélectif : il fournit les candidats, les autres termes les filtrent
+        String pivot = Arrays.stream(terms).max(Comparator.comparingInt(String::length)).orElseThrow();
+        Set<Long> candidates = new LinkedHashSet<>();
+        collectPrefix(pivot, candidates);
+        if (candidates.size() < limit) {
+            collectFuzzy(pivot, candidates);
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (Long id : candidates) {
+            Entry entry = entries.get(id);
+            int score = entry == null ? 0 : score(entry, terms);
+            if (score > 0) {
+                hits.add(new Hit(entry, score));
+            }
+        }
+        hits.sort(Comparator.comparingInt(Hit::score).reversed()
+                .thenComparing(hit -> hit.entry().tokens()[0])
+                .thenComparing(hit -> hit.entry().user().id()));
+        return hits.stream().limit(limit).map(hit -> hit.entry().user()).toList();
+    }
+
+    private void collectPrefix(String term, Set<Long> candidates) {
+        for (long[] ids : tokens.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+            for (long id : ids) {
+                candidates.add(id);
+                if (candidates.size() >= MAX_CANDIDATES) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void collectFuzzy(String term, Set<Long> candidates) {
+        if (term.length() < 3) {
+            return;
+        }
+        int maxEdits = maxEdits(term);
+        String head = term.substring(0, 2);
+        String swapped = "" + term.charAt(1) + term.charAt(0);
+        int scanned = 0;
+        for (String start : head.equals(swapped) ? List.of(head) : List.of(head, swapped)) {
+            NavigableMap<String, long[]> range = tokens.subMap(start, true, start + Character.MAX_VALUE, false);
+            for (Map.Entry<String, long[]> token : range.entrySet()) {
+                if (++scanned > MAX_FUZZY_SCAN || candidates.size() >= MAX_CANDIDATES) {
+                    return;
+                }
+                if (prefixDistance(term, token.getKey(), maxEdits) <= maxEdits) {
+                    for (long id : token.getValue()) {
+                        candidates.add(id);
+                    }
+                }
+            }
+        }
+    }
+
+    // Somme, sur les termes, de la meilleure correspondance avec les mots de l'utilisateur (0 si un terme manque)
+    private static int score(Entry entry, String[] terms) {
+        int total = 0;
+        for (String term : terms) {
+            int best = 0;
+            for (String token : entry.tokens()) {
+                if (token.equals(term)) {
+                    best = EXACT;
+                    break;
+                }
+                if (token.startsWith(term)) {
+                    best = Math.max(best, PREFIX);
+                } else if (best < FUZZY && term.length() >= 3
+                        && prefixDistance(term, token, maxEdits(term)) <= maxEdits(term)) {
+                    best = FUZZY;
+                }
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static int maxEdits(String term) {
+        return term.length() >= 7 ? 2 : 1;
+    }
+
+    /**
+     * Plus petite distance d'édition (avec inversion de deux lettres voisines) entre le terme et un préfixe
+     * du mot : "dupnot" est à 1 de "dupont". Arrêt dès que la distance dépasse maxEdits.
+     */
+    static int prefixDistance(String term, String token, int maxEdits) {
+        int n = term.length();
+        int m = Math.min(token.length(), n + maxEdits);
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = term.charAt(i - 1) == token.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && term.charAt(i - 1) == token.charAt(j - 2) && term.charAt(i - 2) == token.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return rowMin;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        // Le terme entier contre n'importe quel préfixe du mot
+        int best = Integer.MAX_VALUE;
+        for (int j = 0; j <= m; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    // Champ complet (pour "jean.dupont@") et ses morceaux ("jean", "dupont", "hopital"...)
+    static String[] tokensOf(AdminUserSummary user) {
+        Set<String> result = new LinkedHashSet<>();
+        for (String field : new String[]{user.lastName(), user.firstName(), user.email()}) {
+            if (field == null || field.isBlank()) {
+                continue;
+            }
+            String value = normalize(field).trim();
+            result.add(value);
+            for (String part : SEPARATORS.split(value)) {
+                if (!part.isEmpty()) {
+                    result.add(part);
+                }
+            }
+        }
+        return result.isEmpty() ? new String[]{""} : result.toArray(String[]::new);
+    }
+
+    static String normalize(String value) {
+        return DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static long[] with(long[] ids, long id) {
+        for (long existing : ids) {
+            if (existing == id) {
+                return ids;
+            }
+        }
+        long[] result = Arrays.copyOf(ids, ids.length + 1);
+        result[ids.length] = id;
+        return result;
+    }
+
+    // null retire la clé de la table
+    private static long[] without(long[] ids, long id) {
+        int count = 0;
+        long[] result = new long[ids.length];
+        for (long existing : ids) {
+            if (existing != id) {
+                result[count++] = existing;
+            }
+        }
+        return count == 0 ? null : count == ids.length ? ids : Arrays.copyOf(result, count);
+    }
+}
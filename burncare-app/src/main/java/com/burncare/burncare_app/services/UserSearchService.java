@@ -0,0 +1,128 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.AdminUserSummary;
+import com.burncare.burncare_app.entities.User;
+import com.burncare.burncare_app.repositories.UserRepository;
+import com.burncare.burncare_app.repositories.UserSearchRepository;
+import com.burncare.burncare_app.repositories.UserSpecifications;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Recherche d'utilisateurs « au fil de la frappe » pour l'écran admin (nom, prénom ou email partiels).
+ * <p>
+ * Sous PostgreSQL avec pg_trgm : requête sur les index trigrammes ({@link UserSearchRepository}).
+ * Sous PostgreSQL sans l'extension : recherche par préfixe en base (index lower(col) text_pattern_ops),
+ * sans tolérance aux fautes de frappe.
+ * Sur une autre base (H2 en test, instance unique) : {@link UserPrefixIndex} en mémoire, chargé au démarrage et
+ * tenu à jour par les {@link UserChangedEvent} locaux. Cet index ne voit pas les modifications faites par
+ * une autre instance : il n'est jamais utilisé sous PostgreSQL.
+ */
+@Service
+public class UserSearchService {
+
+    static final int DEFAULT_LIMIT = 10;
+    static final int MAX_LIMIT = 50;
+    private static final int LOAD_PAGE_SIZE = 1_000;
+
+    private final UserRepository userRepository;
+    private final UserSearchRepository userSearchRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserPrefixIndex index = new UserPrefixIndex();
+
+    enum Mode { TRIGRAM, PREFIX, MEMORY }
+
+    // null tant que l'application n'a pas démarré
+    private volatile Mode mode;
+
+    public UserSearchService(UserRepository userRepository, UserSearchRepository userSearchRepository,
+                             JdbcTemplate jdbcTemplate) {
+        this.userRepository = userRepository;
+        this.userSearchRepository = userSearchRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (isPostgres()) {
+            if (userSearchRepository.trigramAvailable()) {
+                mode = Mode.TRIGRAM;
+                System.out.println("✅ Recherche utilisateurs : index trigrammes PostgreSQL");
+            } else {
+                mode = Mode.PREFIX;
+                System.err.println("⚠️ Recherche utilisateurs : pg_trgm indisponible, recherche par préfixe en base");
+            }
+            return;
+        }
+        mode = Mode.MEMORY;
+        reload();
+        System.out.println("✅ Recherche utilisateurs : index en mémoire (" + index.size() + " utilisateurs)");
+    }
+
+    public List<AdminUserSummary> search(String query, Integer limit) {
+        int max = limit == null ? DEFAULT_LIMIT : limit;
+        if (max < 1 || max > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit entre 1 et " + MAX_LIMIT + " attendu");
+        }
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        Mode current = mode;
+        if (current == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Index de recherche en cours de chargement");
+        }
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        return switch (current) {
+            case TRIGRAM -> userSearchRepository.searchTrigram(normalized, max);
+            case PREFIX -> userRepository.findAll(UserSpecifications.startsWith(normalized),
+                            PageRequest.of(0, max, Sort.by("id")))
+                    .map(AdminUserSummary::from)
+                    .getContent();
+            case MEMORY -> index.search(query, max);
+        };
+    }
+
+    // Après commit (ou tout de suite hors transaction) : relecture des utilisateurs concernés
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (mode != Mode.MEMORY) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>(event.ids());
+        for (User user : userRepository.findAllById(event.ids())) {
+            index.put(AdminUserSummary.from(user));
+            missing.remove(user.getId());
+        }
+        missing.forEach(index::remove);
+    }
+
+    private void reload() {
+        index.clear();
+        PageRequest pageRequest = PageRequest.of(0, LOAD_PAGE_SIZE, Sort.by("id"));
+        Page<User> page;
+        do {
+            page = userRepository.findAll(pageRequest);
+            page.forEach(user -> index.put(AdminUserSummary.from(user)));
+            pageRequest = pageRequest.next();
+        } while (page.hasNext());
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+}
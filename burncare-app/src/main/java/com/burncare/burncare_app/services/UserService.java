@@ -9,48 +9,48 @@ import com.burncare.burncare_app.entities.Role;
 import com.burncare.burncare_app.entities.User;
 import com.burncare.burncare_app.repositories.UserRepository;
 import org.keycloak.admin.client.Keycloak;
-import org.keycloak.admin.client.resource.UserResource;
 import org.keycloak.representations.idm.CredentialRepresentation;
-import org.keycloak.representations.idm.UserRepresentation;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
     private final Keycloak keycloak;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeycloakOutbox keycloakOutbox;
 
     @Value("${keycloak.realm}")
     private String realm;
 
-    public UserService(UserRepository userRepository, Keycloak keycloak) {
+    public UserService(UserRepository userRepository, Keycloak keycloak, ApplicationEventPublisher eventPublisher,
+                       KeycloakOutbox keycloakOutbox) {
         this.userRepository = userRepository;
         this.keycloak = keycloak;
+        this.eventPublisher = eventPublisher;
+        this.keycloakOutbox = keycloakOutbox;
     }
 
     // ==========================================
     // 1. GESTION PROFIL (Utilisateur lui-même)
     // ==========================================
+    // Keycloak est mis à jour par l'outbox, validée avec la modification locale
+    @Transactional
     public AuthResponse updateProfile(UpdateProfileRequest req) {
         User user = userRepository.findByEmail(req.email())
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé : " + req.email()));
 
-        if (user.getKeycloakId() != null) {
-            try {
-                UserResource userResource = keycloak.realm(realm).users().get(user.getKeycloakId());
-                UserRepresentation kcUser = userResource.toRepresentation();
-                kcUser.setFirstName(req.firstName());
-                kcUser.setLastName(req.lastName());
-                userResource.update(kcUser);
-            } catch (Exception e) {
-                System.err.println("⚠️ Erreur Keycloak : " + e.getMessage());
-            }
-        }
-
         user.setFirstName(req.firstName());
         user.setLastName(req.lastName());
         userRepository.save(user);
+        if (user.getKeycloakId() != null) {
+            keycloakOutbox.update(user.getKeycloakId(),
+                    new KeycloakUserChange(req.firstName(), req.lastName(), null, null, null));
+        }
+        eventPublisher.publishEvent(UserChangedEvent.of(user.getId()));
 
         return new AuthResponse(
                 "",
@@ -78,6 +78,7 @@ public class UserService {
     // ==========================================
     // 2. ADMINISTRATION (Correction du Crash)
     // ==========================================
+    @Transactional
     public User updateUser(Long id, UserDTO userDTO) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé avec l'ID : " + id));
@@ -103,23 +104,12 @@ public class UserService {
         user.setEnabled(userDTO.isEnabled());
 
         userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(user.getId()));
 
-        // Mise à jour Keycloak
+        // Mise à jour Keycloak (outbox, appliquée après commit)
         if (user.getKeycloakId() != null) {
-            try {
-                UserResource userResource = keycloak.realm(realm).users().get(user.getKeycloakId());
-                UserRepresentation kcUser = userResource.toRepresentation();
-
-                if (userDTO.getFirstName() != null) kcUser.setFirstName(userDTO.getFirstName());
-                if (userDTO.getLastName() != null) kcUser.setLastName(userDTO.getLastName());
-                if (userDTO.getEmail() != null) kcUser.setEmail(userDTO.getEmail());
-
-                kcUser.setEnabled(userDTO.isEnabled());
-
-                userResource.update(kcUser);
-            } catch (Exception e) {
-                System.err.println("⚠️ Admin : Erreur Keycloak (non bloquant) : " + e.getMessage());
-            }
+            keycloakOutbox.update(user.getKeycloakId(), new KeycloakUserChange(
+                    userDTO.getFirstName(), userDTO.getLastName(), userDTO.getEmail(), userDTO.isEnabled(), null));
         }
 
         return user;
@@ -0,0 +1,146 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.UserSnapshot;
+import com.burncare.burncare_app.repositories.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache local sub Keycloak -> {@link UserSnapshot} (id, actif) pour les écritures authentifiées.
+ * {@link #require} refuse un compte désactivé (403), même si son jeton n'a pas encore expiré.
+ * <p>
+ * Taille bornée (les entrées les moins récemment lues sont évincées) et durée de vie fixe : un changement
+ * fait sur une autre instance est visible au plus tard après le TTL. Sur cette instance, les entrées sont
+ * invalidées après commit par les {@link UserChangedEvent} (modification, suppression de l'utilisateur).
+ * La base est lue hors verrou : une invalidation survenue pendant la lecture est notée (génération par id
+ * d'utilisateur) et la valeur lue, peut-être antérieure, n'est alors pas mise en cache.
+ * Métriques : cache.gets{result=hit|miss}, cache.evictions, cache.size (cache=userSnapshots).
+ */
+@Component
+public class UserSnapshotCache {
+
+    static final String CACHE_NAME = "userSnapshots";
+
+    private record Entry(UserSnapshot snapshot, long expiresAt) {}
+
+    private final UserRepository userRepository;
+    private final Clock clock;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+
+    // Protégés par le verrou sur entries : génération courante, dernière invalidation par id (tant qu'une
+    // lecture est en cours, vidé ensuite) et nombre de lectures en cours
+    private long generation;
+    private final Map<Long, Long> invalidatedAt = new HashMap<>();
+    private int loadsInFlight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public UserSnapshotCache(UserRepository userRepository, MeterRegistry meterRegistry,
+                             @Value("${burncare.user-cache.max-size:10000}") int maxSize,
+                             @Value("${burncare.user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this(userRepository, meterRegistry, maxSize, ttlSeconds, Clock.systemUTC());
+    }
+
+    UserSnapshotCache(UserRepository userRepository, MeterRegistry meterRegistry, int maxSize, long ttlSeconds,
+                      Clock clock) {
+        this.userRepository = userRepository;
+        this.clock = clock;
+        this.ttlMillis = ttlSeconds * 1000;
+        // Ordre d'accès : la première entrée est la moins récemment lue
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+                .tags("cache", CACHE_NAME, "result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+                .tags("cache", CACHE_NAME, "result", "miss").register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::doubleValue)
+                .tags("cache", CACHE_NAME).register(meterRegistry);
+        Gauge.builder("cache.size", this, UserSnapshotCache::size)
+                .tags("cache", CACHE_NAME).register(meterRegistry);
+    }
+
+    public Optional<UserSnapshot> get(String keycloakId) {
+        long now = clock.millis();
+        long loadGeneration;
+        synchronized (entries) {
+            Entry entry = entries.get(keycloakId);
+            if (entry != null && entry.expiresAt() > now) {
+                hits.increment();
+                return Optional.of(entry.snapshot());
+            }
+            loadGeneration = generation;
+            loadsInFlight++;
+        }
+        misses.increment();
+        // Lecture hors verrou ; un utilisateur inconnu n'est pas mis en cache (inscription imminente)
+        Optional<UserSnapshot> loaded = Optional.empty();
+        try {
+            loaded = userRepository.findSnapshotByKeycloakId(keycloakId);
+            return loaded;
+        } finally {
+            synchronized (entries) {
+                loadsInFlight--;
+                UserSnapshot snapshot = loaded.orElse(null);
+                if (snapshot != null && invalidatedAt.getOrDefault(snapshot.id(), 0L) <= loadGeneration) {
+                    entries.put(keycloakId, new Entry(snapshot, now + ttlMillis));
+                }
+                if (loadsInFlight == 0) {
+                    invalidatedAt.clear();
+                }
+            }
+        }
+    }
+
+    public UserSnapshot require(String keycloakId) {
+        UserSnapshot snapshot = get(keycloakId)
+                .orElseThrow(() -> new RuntimeException("User not found for keycloakId " + keycloakId));
+        if (!snapshot.enabled()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Compte désactivé");
+        }
+        return snapshot;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        synchronized (entries) {
+            generation++;
+            if (loadsInFlight > 0) {
+                event.ids().forEach(id -> invalidatedAt.put(id, generation));
+            }
+            entries.values().removeIf(entry -> event.ids().contains(entry.snapshot().id()));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.burncare.burncare_app.benchmarks;
+
+import com.burncare.burncare_app.config.CachingJwtAuthoritiesConverter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Conversion Jwt -> JwtAuthenticationToken à chaque requête authentifiée : l'ancien convertisseur de
+ * SecurityConfig (realm_access relu et autorités recréées à chaque appel) contre
+ * {@link CachingJwtAuthoritiesConverter}, pour un petit ensemble de jetons présentés en boucle (polling).
+ * <p>
+ * Lancement : mvn test-compile puis exécuter {@link #main} avec le classpath de test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class JwtAuthoritiesBenchmark {
+
+    private static final int TOKENS = 256;
+
+    private JwtAuthenticationConverter legacyConverter;
+    private JwtAuthenticationConverter cachingConverter;
+    private Jwt[] tokens;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        legacyConverter = new JwtAuthenticationConverter();
+        legacyConverter.setJwtGrantedAuthoritiesConverter(jwt -> {
+            Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
+            if (realmAccess == null || realmAccess.isEmpty()) {
+                return List.of();
+            }
+            if (!(realmAccess.get("roles") instanceof Collection<?> roles)) {
+                return List.of();
+            }
+            return roles.stream()
+                    .map(roleName -> "ROLE_" + roleName)
+                    .map(SimpleGrantedAuthority::new)
+                    .collect(Collectors.toList());
+        });
+
+        cachingConverter = new JwtAuthenticationConverter();
+        cachingConverter.setJwtGrantedAuthoritiesConverter(new CachingJwtAuthoritiesConverter(new SimpleMeterRegistry(), 10000));
+
+        tokens = new Jwt[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = Jwt.withTokenValue("token-" + i)
+                    .header("alg", "RS256")
+                    .subject("kc-" + i)
+                    .jti("jti-" + i)
+                    .issuedAt(Instant.now())
+                    .expiresAt(Instant.now().plusSeconds(3600))
+                    .claim("realm_access", Map.of("roles",
+                            List.of("offline_access", "uma_authorization", "default-roles-burnout", "USER", "MEDECIN")))
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken legacyConverter(Cursor cursor) {
+        return legacyConverter.convert(tokens[cursor.next++ & (TOKENS - 1)]);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken cachingConverter(Cursor cursor) {
+        return cachingConverter.convert(tokens[cursor.next++ & (TOKENS - 1)]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(JwtAuthoritiesBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.burncare.burncare_app.benchmarks;
+
+import com.burncare.burncare_app.config.KeycloakHttpClientConfig;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Échange de jeton du login contre un endpoint token local (bouchon) : un RestTemplate créé à chaque login
+ * (ancien AuthService.login) contre le client partagé avec pool de KeycloakHttpClientConfig.
+ * <p>
+ * Lancement : mvn test-compile puis exécuter {@link #main} avec le classpath de test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+// TCP_NODELAY côté bouchon : sinon Nagle + ACK retardé (~40 ms par réponse) masquent la différence entre clients
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class TokenExchangeBenchmark {
+
+    private static final byte[] TOKEN = "{\"access_token\":\"stub-token\",\"expires_in\":300}".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private CloseableHttpClient pooledClient;
+    private RestTemplate pooledRestTemplate;
+    private String tokenEndpoint;
+    private HttpEntity<MultiValueMap<String, String>> request;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Bouchon de l'endpoint token Keycloak (réponse fixe, connexions persistantes acceptées)
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        serverExecutor = Executors.newFixedThreadPool(32);
+        server.setExecutor(serverExecutor);
+        server.createContext("/realms/Burnout/protocol/openid-connect/token", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, TOKEN.length);
+            exchange.getResponseBody().write(TOKEN);
+            exchange.close();
+        });
+        server.start();
+        tokenEndpoint = "http://127.0.0.1:" + server.getAddress().getPort() + "/realms/Burnout/protocol/openid-connect/token";
+
+        KeycloakHttpClientConfig config = new KeycloakHttpClientConfig();
+        ReflectionTestUtils.setField(config, "maxConnections", 200);
+        ReflectionTestUtils.setField(config, "connectTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(config, "readTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(config, "poolTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(config, "keepAliveSeconds", 30L);
+        pooledClient = config.keycloakHttpClient();
+        pooledRestTemplate = config.keycloakTokenRestTemplate(pooledClient);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("client_id", "springboot-app");
+        form.add("username", "bench@test.com");
+        form.add("password", "secret");
+        form.add("grant_type", "password");
+        request = new HttpEntity<>(form, headers);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pooledClient.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public Object newRestTemplatePerLogin() {
+        return new RestTemplate().exchange(tokenEndpoint, HttpMethod.POST, request, Map.class).getBody();
+    }
+
+    @Benchmark
+    public Object sharedPooledRestTemplate() {
+        return pooledRestTemplate.exchange(tokenEndpoint, HttpMethod.POST, request, Map.class).getBody();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(TokenExchangeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
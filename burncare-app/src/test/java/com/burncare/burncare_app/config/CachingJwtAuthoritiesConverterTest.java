@@ -0,0 +1,99 @@
+package com.burncare.burncare_app.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingJwtAuthoritiesConverterTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void convert_ShouldMapRealmRolesAndReuseCachedAuthorities() {
+        // ARRANGE
+        CachingJwtAuthoritiesConverter converter = converter(100);
+        Jwt jwt = jwt("jti-1", "token-1", Map.of("roles", List.of("USER", "MEDECIN")), NOW.plusSeconds(300));
+
+        // ACT
+        Collection<GrantedAuthority> first = converter.convert(jwt);
+        Collection<GrantedAuthority> second = converter.convert(jwt);
+
+        // ASSERT : même liste renvoyée, sans nouvelle conversion
+        assertThat(first).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER", "ROLE_MEDECIN");
+        assertThat(second).isSameAs(first);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void convert_DifferentTokens_ShouldShareAuthorityInstances() {
+        // ARRANGE
+        CachingJwtAuthoritiesConverter converter = converter(100);
+
+        // ACT
+        GrantedAuthority a = converter.convert(jwt("jti-1", "token-1", Map.of("roles", List.of("USER")), NOW.plusSeconds(300)))
+                .iterator().next();
+        GrantedAuthority b = converter.convert(jwt("jti-2", "token-2", Map.of("roles", List.of("USER")), NOW.plusSeconds(300)))
+                .iterator().next();
+
+        // ASSERT
+        assertThat(b).isSameAs(a);
+    }
+
+    @Test
+    void convert_MalformedOrMissingRealmAccess_ShouldReturnEmpty() {
+        // ARRANGE
+        CachingJwtAuthoritiesConverter converter = converter(100);
+
+        // ACT + ASSERT
+        assertThat(converter.convert(jwt("jti-1", "token-1", null, NOW.plusSeconds(300)))).isEmpty();
+        assertThat(converter.convert(jwt("jti-2", "token-2", Map.of("roles", "USER"), NOW.plusSeconds(300)))).isEmpty();
+        assertThat(converter.convert(jwt("jti-3", "token-3", Map.of("roles", List.of(42, "ADMIN")), NOW.plusSeconds(300))))
+                .extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    void convert_WhenFull_ShouldStayBounded() {
+        // ARRANGE : un jeton déjà expiré puis deux jetons valides (cache plein)
+        CachingJwtAuthoritiesConverter converter = converter(2);
+        Map<String, Object> realmAccess = Map.of("roles", List.of("USER"));
+        converter.convert(jwt("expired", "token-0", realmAccess, NOW.minusSeconds(1)));
+        converter.convert(jwt("jti-1", "token-1", realmAccess, NOW.plusSeconds(300)));
+        converter.convert(jwt("jti-2", "token-2", realmAccess, NOW.plusSeconds(300)));
+
+        // ACT
+        converter.convert(jwt("jti-3", "token-3", realmAccess, NOW.plusSeconds(300)));
+
+        // ASSERT : le jeton expiré n'est jamais mis en cache, la taille reste bornée
+        assertThat(converter.size()).isEqualTo(2);
+    }
+
+    private CachingJwtAuthoritiesConverter converter(int maxSize) {
+        return new CachingJwtAuthoritiesConverter(meterRegistry, maxSize, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static Jwt jwt(String jti, String tokenValue, Map<String, Object> realmAccess, Instant expiresAt) {
+        Jwt.Builder builder = Jwt.withTokenValue(tokenValue)
+                .header("alg", "RS256")
+                .subject("kc-123")
+                .jti(jti)
+                .issuedAt(expiresAt.minusSeconds(600))
+                .expiresAt(expiresAt);
+        if (realmAccess != null) {
+            builder.claim("realm_access", realmAccess);
+        }
+        return builder.build();
+    }
+}
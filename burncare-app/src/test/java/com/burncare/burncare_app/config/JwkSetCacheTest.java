@@ -0,0 +1,129 @@
+package com.burncare.burncare_app.config;
+
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwkSetCacheTest {
+
+    private static final String URI = "http://keycloak/certs";
+
+    private static RSAKey oldKey;
+    private static RSAKey newKey;
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        oldKey = new RSAKeyGenerator(2048).keyID("old").generate();
+        newKey = new RSAKeyGenerator(2048).keyID("new").generate();
+    }
+
+    @Test
+    void unknownKid_ConcurrentMisses_ShouldFetchOnce() throws Exception {
+        // ARRANGE : au démarrage seule l'ancienne clé existe, la nouvelle apparaît au rechargement
+        when(restTemplate.getForObject(URI, String.class))
+                .thenReturn(jwks(oldKey))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(100);
+                    return jwks(oldKey, newKey);
+                });
+        JwkSetCache cache = cache(Duration.ZERO);
+        cache.refresh();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return cache.get(selector("new"), null).size();
+            }));
+        }
+
+        // ACT
+        start.countDown();
+
+        // ASSERT : un seul appel à Keycloak en plus du chargement initial, tous les threads obtiennent la clé
+        for (Future<Integer> result : results) {
+            assertThat(result.get()).isEqualTo(1);
+        }
+        executor.shutdown();
+        verify(restTemplate, times(2)).getForObject(URI, String.class);
+    }
+
+    @Test
+    void unknownKid_WithinCooldown_ShouldNotFetch() {
+        // ARRANGE
+        when(restTemplate.getForObject(URI, String.class)).thenReturn(jwks(oldKey));
+        JwkSetCache cache = cache(Duration.ofSeconds(30));
+        cache.refresh();
+
+        // ACT : kid forgé, répété
+        cache.get(selector("forged"), null);
+        cache.get(selector("forged"), null);
+
+        // ASSERT
+        verify(restTemplate, times(1)).getForObject(URI, String.class);
+    }
+
+    @Test
+    void refresh_WhenKeycloakFails_ShouldKeepPreviousKeys() {
+        // ARRANGE
+        when(restTemplate.getForObject(URI, String.class))
+                .thenReturn(jwks(oldKey))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+        JwkSetCache cache = cache(Duration.ofSeconds(30));
+        cache.refresh();
+
+        // ACT
+        cache.refresh();
+
+        // ASSERT
+        assertThat(cache.get(selector("old"), null)).hasSize(1);
+        assertThat(meterRegistry.get("burncare.jwt.jwks.fetch").tag("outcome", "failure").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("burncare.jwt.jwks.fetch").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    private JwkSetCache cache(Duration minRefetch) {
+        Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+        return new JwkSetCache(restTemplate, URI, minRefetch, meterRegistry, clock);
+    }
+
+    private static JWKSelector selector(String kid) {
+        return new JWKSelector(new JWKMatcher.Builder().keyID(kid).build());
+    }
+
+    private static String jwks(RSAKey... keys) {
+        List<com.nimbusds.jose.jwk.JWK> publicKeys = new ArrayList<>();
+        for (RSAKey key : keys) {
+            publicKeys.add(key.toPublicJWK());
+        }
+        return new JWKSet(publicKeys).toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.burncare.burncare_app.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtDecoderConfigTest {
+
+    private static final String ISSUER = "http://keycloak/realms/Burnout";
+
+    private static RSAKey key;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeAll
+    static void generateKey() throws Exception {
+        key = new RSAKeyGenerator(2048).keyID("k1").generate();
+    }
+
+    @Test
+    void timedJwtDecoder_ShouldDecodeAndRecordTimings() throws Exception {
+        // ARRANGE
+        JwtDecoder decoder = JwtDecoderConfig.timedJwtDecoder(
+                new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK())), ISSUER, meterRegistry);
+
+        // ACT
+        Jwt jwt = decoder.decode(token(ISSUER));
+
+        // ASSERT
+        assertThat(jwt.getSubject()).isEqualTo("kc-123");
+        assertThat(meterRegistry.get("burncare.jwt.decode").tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("burncare.jwt.verify").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void timedJwtDecoder_WrongIssuer_ShouldRecordFailure() throws Exception {
+        // ARRANGE
+        JwtDecoder decoder = JwtDecoderConfig.timedJwtDecoder(
+                new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK())), ISSUER, meterRegistry);
+        String token = token("http://ailleurs/realms/Burnout");
+
+        // ACT + ASSERT
+        assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+        assertThat(meterRegistry.get("burncare.jwt.decode").tag("outcome", "failure").timer().count()).isEqualTo(1);
+    }
+
+    private static String token(String issuer) throws Exception {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("kc-123")
+                .issuer(issuer)
+                .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
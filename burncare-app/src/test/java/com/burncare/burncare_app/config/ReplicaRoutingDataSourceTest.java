@@ -0,0 +1,69 @@
+package com.burncare.burncare_app.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Deux bases H2 en mémoire jouent le primaire et le réplica : chacune contient une ligne qui l'identifie
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("routing_primary");
+        DataSource replica = database("routing_replica");
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica));
+        jdbcTemplate = new JdbcTemplate(routing);
+        transactionManager = new DataSourceTransactionManager(routing);
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        // ARRANGE
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // ACT
+        String database = readOnly.execute(status -> currentDatabase());
+
+        // ASSERT
+        assertThat(database).isEqualTo("routing_replica");
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUsePrimary() {
+        // ACT
+        String database = new TransactionTemplate(transactionManager).execute(status -> currentDatabase());
+
+        // ASSERT
+        assertThat(database).isEqualTo("routing_primary");
+    }
+
+    @Test
+    void withoutTransaction_ShouldUsePrimary() {
+        assertThat(currentDatabase()).isEqualTo("routing_primary");
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT name FROM db_marker", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS db_marker (name VARCHAR(50))");
+        jdbc.execute("DELETE FROM db_marker");
+        jdbc.update("INSERT INTO db_marker (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -21,6 +21,9 @@ class SecurityConfigTest {
     @Autowired
     private SecurityConfig securityConfig;
 
+    @Autowired
+    private CachingJwtAuthoritiesConverter authoritiesConverter;
+
     @Test
     void shouldCreatePasswordEncoder() {
         // ASSERT
@@ -95,7 +98,7 @@ class SecurityConfigTest {
     @Test
     void shouldCreateJwtAuthenticationConverter() {
         // ACT
-        var converter = securityConfig.jwtAuthenticationConverter();
+        var converter = securityConfig.jwtAuthenticationConverter(authoritiesConverter);
 
         // ASSERT
         assertThat(converter)
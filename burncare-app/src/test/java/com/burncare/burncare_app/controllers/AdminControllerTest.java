@@ -1,9 +1,14 @@
 package com.burncare.burncare_app.controllers;
 
+import com.burncare.burncare_app.dto.AdminUserSummary;
+import com.burncare.burncare_app.dto.BulkUserActionRequest;
+import com.burncare.burncare_app.dto.BulkUserActionResult;
 import com.burncare.burncare_app.dto.UserDTO;
 import com.burncare.burncare_app.entities.Role;
 import com.burncare.burncare_app.entities.User;
+import com.burncare.burncare_app.services.AdminBulkService;
 import com.burncare.burncare_app.services.AdminService;
+import com.burncare.burncare_app.services.UserSearchService;
 import com.burncare.burncare_app.services.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -11,8 +16,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Arrays;
 import java.util.List;
@@ -39,24 +48,90 @@ class AdminControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private AdminBulkService adminBulkService;
+
+    @MockBean
+    private UserSearchService userSearchService;
+
     @Autowired
     private ObjectMapper objectMapper; // Pour convertir les objets Java en JSON
 
     @Test
     void getAllUsers_ShouldReturnListOfUsers() throws Exception {
         // ARRANGE
-        User u1 = new User(); u1.setId(1L); u1.setFirstName("Alice"); u1.setEmail("alice@test.com");
-        User u2 = new User(); u2.setId(2L); u2.setFirstName("Bob"); u2.setEmail("bob@test.com");
-        List<User> users = Arrays.asList(u1, u2);
+        List<AdminUserSummary> users = Arrays.asList(
+                new AdminUserSummary(1L, "Alice", null, "alice@test.com", Role.USER, null, true),
+                new AdminUserSummary(2L, "Bob", null, "bob@test.com", Role.USER, null, false));
 
-        when(adminService.getAllUsers()).thenReturn(users);
+        when(adminService.searchUsers(0, null, null, null, null, null, null))
+                .thenReturn(new PageImpl<>(users, PageRequest.of(0, 50), 120));
 
         // ACT & ASSERT
         mockMvc.perform(get("/api/admin/users")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "120"))
                 .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].email").value("alice@test.com"));
+                .andExpect(jsonPath("$[0].email").value("alice@test.com"))
+                .andExpect(jsonPath("$[0].password").doesNotExist())
+                .andExpect(jsonPath("$[1].enabled").value(false));
+    }
+
+    @Test
+    void getAllUsers_ShouldPassFiltersToService() throws Exception {
+        // ARRANGE
+        when(adminService.searchUsers(2, 20, "lastName,desc", Role.USER, null, false, "dup"))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(2, 20), 0));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/admin/users")
+                        .param("page", "2").param("size", "20").param("sort", "lastName,desc")
+                        .param("role", "USER").param("enabled", "false").param("q", "dup"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "0"))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void getAllUsers_ShouldRejectUnknownRole() throws Exception {
+        mockMvc.perform(get("/api/admin/users").param("role", "ROOT"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getUser_ShouldReturnSummary() throws Exception {
+        // ARRANGE
+        when(adminService.getUser(3L)).thenReturn(
+                new AdminUserSummary(3L, "Jean", "Dupont", "jean@test.com", Role.USER, null, false));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/admin/users/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("jean@test.com"))
+                .andExpect(jsonPath("$.enabled").value(false));
+    }
+
+    @Test
+    void getUser_ShouldReturn404WhenUnknown() throws Exception {
+        when(adminService.getUser(99L))
+                .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Utilisateur introuvable"));
+
+        mockMvc.perform(get("/api/admin/users/99"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void searchUsers_ShouldReturnRankedSummaries() throws Exception {
+        // ARRANGE
+        when(userSearchService.search("dupnot", 5)).thenReturn(List.of(
+                new AdminUserSummary(3L, "Jean", "Dupont", "jean@test.com", Role.USER, null, true)));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/admin/users/search").param("q", "dupnot").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].lastName").value("Dupont"));
     }
 
     @Test
@@ -94,4 +169,25 @@ class AdminControllerTest {
         mockMvc.perform(delete("/api/admin/users/{id}", userId))
                 .andExpect(status().isNoContent()); // Code 204
     }
-}
\ No newline at end of file
+
+    @Test
+    void bulkAction_ShouldReturnOutcomePerUser() throws Exception {
+        // ARRANGE
+        BulkUserActionRequest request = new BulkUserActionRequest("DELETE", List.of(1L, 2L, 3L));
+        when(adminBulkService.apply(any(BulkUserActionRequest.class))).thenReturn(List.of(
+                BulkUserActionResult.of(1L, BulkUserActionResult.DELETED),
+                BulkUserActionResult.failed(2L, BulkUserActionResult.FAILED, "timeout"),
+                BulkUserActionResult.of(3L, BulkUserActionResult.NOT_FOUND)));
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/admin/users/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].status").value("DELETED"))
+                .andExpect(jsonPath("$[1].status").value("FAILED"))
+                .andExpect(jsonPath("$[1].error").value("timeout"))
+                .andExpect(jsonPath("$[2].id").value(3));
+    }
+}
@@ -0,0 +1,67 @@
+package com.burncare.burncare_app.controllers;
+
+import com.burncare.burncare_app.config.SecurityConfig;
+import com.burncare.burncare_app.dto.ResultExport;
+import com.burncare.burncare_app.services.ResultExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = AdminExportController.class)
+@Import(SecurityConfig.class)
+class AdminExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ResultExportService resultExportService;
+
+    @Test
+    void shouldStreamExportAsAttachment() throws Exception {
+        // ARRANGE
+        ResultExport export = new ResultExport("burnout-results.csv", new MediaType("text", "csv", StandardCharsets.UTF_8),
+                out -> out.write("id,userId\r\n1,2\r\n".getBytes(StandardCharsets.UTF_8)));
+        when(resultExportService.export("burnout", "csv", null, null, "Élevé")).thenReturn(export);
+
+        // ACT
+        MvcResult result = mockMvc.perform(get("/api/admin/export/burnout")
+                        .param("format", "csv")
+                        .param("riskLabel", "Élevé")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // ASSERT : délai propre à l'export (burncare.export.timeout-ms), pas le délai async global
+        assertEquals(3_600_000L, result.getRequest().getAsyncContext().getTimeout());
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"burnout-results.csv\""))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("id,userId\r\n1,2\r\n"));
+    }
+
+    @Test
+    void shouldForbidExportForNonAdmin() throws Exception {
+        mockMvc.perform(get("/api/admin/export/fatigue")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER"))))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(resultExportService);
+    }
+}
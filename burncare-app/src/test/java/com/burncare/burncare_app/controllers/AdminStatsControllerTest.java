@@ -2,7 +2,11 @@ package com.burncare.burncare_app.controllers;
 
 import com.burncare.burncare_app.config.SecurityConfig;
 import com.burncare.burncare_app.dto.AdminStatsResponse;
+import com.burncare.burncare_app.dto.RecommendationTagStats;
+import com.burncare.burncare_app.dto.StatsTimeseriesPoint;
 import com.burncare.burncare_app.services.AdminStatsService;
+import com.burncare.burncare_app.services.RecommendationStatsService;
+import com.burncare.burncare_app.services.StatsRollupService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -11,6 +15,9 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
+import java.util.List;
+
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -26,6 +33,12 @@ class AdminStatsControllerTest {
     @MockBean
     private AdminStatsService adminStatsService;
 
+    @MockBean
+    private StatsRollupService statsRollupService;
+
+    @MockBean
+    private RecommendationStatsService recommendationStatsService;
+
     @Test
     void shouldGetStatsForAdmin() throws Exception {
         // ARRANGE
@@ -148,5 +161,65 @@ class AdminStatsControllerTest {
                 .andExpect(jsonPath("$.fatigueTired").exists())
                 .andExpect(jsonPath("$.avgFatigueScore").exists());
     }
-}
 
+    @Test
+    void shouldGetTimeseriesForAdmin() throws Exception {
+        // ARRANGE
+        Instant from = Instant.parse("2024-03-01T00:00:00Z");
+        Instant to = Instant.parse("2024-03-03T00:00:00Z");
+        List<StatsTimeseriesPoint> points = List.of(
+                new StatsTimeseriesPoint(from, 4L, 1L, 2L, 1L, 55.0, 20, 90),
+                new StatsTimeseriesPoint(Instant.parse("2024-03-02T00:00:00Z"), 1L, 0L, 0L, 1L, null, null, null)
+        );
+        when(statsRollupService.getTimeseries("fatigue", "day", from, to)).thenReturn(points);
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/admin/stats/timeseries")
+                        .param("kind", "fatigue")
+                        .param("from", "2024-03-01T00:00:00Z")
+                        .param("to", "2024-03-03T00:00:00Z")
+                        .with(jwt().authorities(new org.springframework.security.core.authority.SimpleGrantedAuthority("ROLE_ADMIN"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].total").value(4))
+                .andExpect(jsonPath("$[0].avgScore").value(55.0))
+                .andExpect(jsonPath("$[0].maxScore").value(90))
+                .andExpect(jsonPath("$[1].avgScore").doesNotExist());
+    }
+
+    @Test
+    void shouldReturnForbiddenTimeseriesForNonAdmin() throws Exception {
+        // ARRANGE
+        when(statsRollupService.getTimeseries("burnout", "hour", null, null)).thenReturn(List.of());
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/admin/stats/timeseries")
+                        .param("kind", "burnout")
+                        .param("granularity", "hour")
+                        .with(jwt().authorities(new org.springframework.security.core.authority.SimpleGrantedAuthority("ROLE_USER"))))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void shouldGetRecommendationStatsForAdmin() throws Exception {
+        // ARRANGE
+        when(recommendationStatsService.getRecommendationStats("sécurité", 3, "INFIRMIER", null, null))
+                .thenReturn(List.of(
+                        new RecommendationTagStats("sécurité", 4, 12L, 10L),
+                        new RecommendationTagStats("sécurité", 3, 5L, 5L)
+                ));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/admin/stats/recommendations")
+                        .param("tag", "sécurité")
+                        .param("minSeverity", "3")
+                        .param("profession", "INFIRMIER")
+                        .with(jwt().authorities(new org.springframework.security.core.authority.SimpleGrantedAuthority("ROLE_ADMIN"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].tag").value("sécurité"))
+                .andExpect(jsonPath("$[0].severity").value(4))
+                .andExpect(jsonPath("$[0].recommendations").value(12))
+                .andExpect(jsonPath("$[0].results").value(10));
+    }
+}
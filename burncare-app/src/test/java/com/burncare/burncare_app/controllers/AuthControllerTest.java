@@ -2,7 +2,9 @@ package com.burncare.burncare_app.controllers;
 
 import com.burncare.burncare_app.dto.AuthRequest;
 import com.burncare.burncare_app.dto.AuthResponse;
+import com.burncare.burncare_app.dto.RefreshTokenRequest;
 import com.burncare.burncare_app.dto.RegisterRequest;
+import com.burncare.burncare_app.dto.TokenResponse;
 import com.burncare.burncare_app.entities.Profession;
 import com.burncare.burncare_app.entities.Role;
 import com.burncare.burncare_app.services.AuthService;
@@ -17,6 +19,7 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -87,4 +90,29 @@ class AuthControllerTest {
             // MockMvc peut parfois lancer l'exception directement si elle n'est pas capturée par un Handler
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void refresh_ShouldReturnNewTokens() throws Exception {
+        // ARRANGE
+        RefreshTokenRequest request = new RefreshTokenRequest("refresh-1");
+        when(authService.refresh(request)).thenReturn(new TokenResponse("token456", "refresh-2"));
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("token456"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh-2"));
+    }
+
+    @Test
+    void logout_ShouldReturn204() throws Exception {
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/auth/logout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"refresh-1\"}"))
+                .andExpect(status().isNoContent());
+        verify(authService).logout(new RefreshTokenRequest("refresh-1"));
+    }
+}
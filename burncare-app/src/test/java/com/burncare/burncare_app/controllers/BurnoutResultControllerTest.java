@@ -1,22 +1,34 @@
 package com.burncare.burncare_app.controllers;
 
+import com.burncare.burncare_app.dto.BatchItemResult;
 import com.burncare.burncare_app.dto.BurnoutResultRequest;
 import com.burncare.burncare_app.dto.BurnoutResultResponse;
+import com.burncare.burncare_app.dto.CursorPage;
+import com.burncare.burncare_app.dto.IngestionTicket;
 import com.burncare.burncare_app.services.BurnoutResultService;
+import com.burncare.burncare_app.services.IdempotencyService;
+import com.burncare.burncare_app.services.ResultIngestionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -33,9 +45,22 @@ class BurnoutResultControllerTest {
     @MockBean
     private BurnoutResultService burnoutResultService;
 
+    @MockBean
+    private ResultIngestionService resultIngestionService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    // Sans en-tête Idempotency-Key, le service exécute simplement l'enregistrement
+    @BeforeEach
+    void passThroughIdempotency() {
+        when(idempotencyService.execute(anyString(), isNull(), anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<ResponseEntity<?>>>getArgument(3).get());
+    }
+
     @Test
     void save_ShouldReturnSavedResult() throws Exception {
         // ARRANGE
@@ -47,7 +72,7 @@ class BurnoutResultControllerTest {
                 "Risque Élevé",
                 "Attention...",
                 "Consultez...",
-                Arrays.asList(3, 3, 4)
+                Arrays.asList(3, 3, 4, 2, 1, 0, 3, 3, 4, 2, 1, 0)
         );
 
         BurnoutResultResponse response = new BurnoutResultResponse(
@@ -72,6 +97,74 @@ class BurnoutResultControllerTest {
                 .andExpect(jsonPath("$.burnoutScore").value(65));
     }
 
+    @Test
+    void save_ShouldReturnTicket_WhenAsyncIngestionEnabled() throws Exception {
+        // ARRANGE
+        BurnoutResultRequest request = new BurnoutResultRequest(
+                65, "Élevé", "Risque Élevé", "Attention...", "Consultez...",
+                Arrays.asList(3, 3, 4, 2, 1, 0, 3, 3, 4, 2, 1, 0));
+        when(resultIngestionService.isEnabled()).thenReturn(true);
+        when(resultIngestionService.submitBurnout(eq("user-123"), any(BurnoutResultRequest.class)))
+                .thenReturn(IngestionTicket.accepted("ticket-1"));
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/burnout-results")
+                        .with(jwt().jwt(builder -> builder.subject("user-123")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.ticket").value("ticket-1"))
+                .andExpect(jsonPath("$.status").value(IngestionTicket.ACCEPTED));
+        verify(burnoutResultService, never()).saveForUser(any(), any());
+    }
+
+    @Test
+    void save_ShouldReplayStoredResponse_WhenIdempotencyKeyAlreadyUsed() throws Exception {
+        // ARRANGE : la clé "retry-1" a déjà été utilisée, le service renvoie la réponse enregistrée
+        BurnoutResultRequest request = new BurnoutResultRequest(
+                65, "Élevé", "Risque Élevé", "Attention...", "Consultez...",
+                Arrays.asList(3, 3, 4, 2, 1, 0, 3, 3, 4, 2, 1, 0));
+        when(idempotencyService.execute(eq("user-123"), eq("retry-1"), eq(ResultIngestionService.BURNOUT), any()))
+                .thenAnswer(invocation -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(IdempotencyService.REPLAYED_HEADER, "true")
+                        .body("{\"id\":1,\"burnoutScore\":65}"));
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/burnout-results")
+                        .with(jwt().jwt(builder -> builder.subject("user-123")))
+                        .header(IdempotencyService.HEADER, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id").value(1));
+        verify(burnoutResultService, never()).saveForUser(any(), any());
+    }
+
+    @Test
+    void saveBatch_ShouldReturnStatusPerItem() throws Exception {
+        // ARRANGE
+        String keycloakId = "user-123";
+        BurnoutResultRequest request = new BurnoutResultRequest(
+                65, "Élevé", "Risque Élevé", "Attention...", "Consultez...",
+                Arrays.asList(3, 3, 4, 2, 1, 0, 3, 3, 4, 2, 1, 0));
+
+        when(burnoutResultService.saveBatchForUser(eq(keycloakId), any()))
+                .thenReturn(List.of(BatchItemResult.created(0, 7L), BatchItemResult.rejected(1, "Réponses invalides")));
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/burnout-results/batch")
+                        .with(jwt().jwt(builder -> builder.subject(keycloakId)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(request, request))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].id").value(7))
+                .andExpect(jsonPath("$[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$[1].error").value("Réponses invalides"));
+    }
+
     @Test
     void getMyResults_ShouldReturnList() throws Exception {
         // ARRANGE
@@ -81,7 +174,8 @@ class BurnoutResultControllerTest {
         BurnoutResultResponse r2 = new BurnoutResultResponse(2L, 30, "Faible", "Titre2", "2025-01-02");
         List<BurnoutResultResponse> results = Arrays.asList(r1, r2);
 
-        when(burnoutResultService.getResultsForUser(keycloakId)).thenReturn(results);
+        when(burnoutResultService.getResultsForUser(keycloakId, null, null))
+                .thenReturn(new CursorPage<>(results, null));
 
         // ACT & ASSERT
         // ✅ CORRECTION ICI AUSSI
@@ -90,7 +184,27 @@ class BurnoutResultControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].burnoutScore").value(65));
+                .andExpect(jsonPath("$[0].burnoutScore").value(65))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void getMyResults_ShouldExposeNextCursorHeader() throws Exception {
+        // ARRANGE
+        String keycloakId = "user-123";
+        BurnoutResultResponse r1 = new BurnoutResultResponse(1L, 65, "Élevé", "Titre1", "2025-01-01");
+
+        when(burnoutResultService.getResultsForUser(keycloakId, "abc", 1))
+                .thenReturn(new CursorPage<>(List.of(r1), "next-cursor"));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/burnout-results/me")
+                        .param("cursor", "abc")
+                        .param("limit", "1")
+                        .with(jwt().jwt(builder -> builder.subject(keycloakId))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string("X-Next-Cursor", "next-cursor"));
     }
 
     @Test
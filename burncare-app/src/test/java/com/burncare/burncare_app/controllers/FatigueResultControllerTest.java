@@ -1,22 +1,32 @@
 package com.burncare.burncare_app.controllers;
 
+import com.burncare.burncare_app.dto.BatchItemResult;
+import com.burncare.burncare_app.dto.CursorPage;
 import com.burncare.burncare_app.dto.FatigueResultRequest;
 import com.burncare.burncare_app.dto.FatigueResultResponse;
+import com.burncare.burncare_app.dto.FatigueResultSummary;
 import com.burncare.burncare_app.services.FatigueResultService;
+import com.burncare.burncare_app.services.IdempotencyService;
+import com.burncare.burncare_app.services.ResultIngestionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
@@ -32,9 +42,22 @@ class FatigueResultControllerTest {
     @MockBean
     private FatigueResultService fatigueResultService;
 
+    @MockBean
+    private ResultIngestionService resultIngestionService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    // Sans en-tête Idempotency-Key, le service exécute simplement l'enregistrement
+    @BeforeEach
+    void passThroughIdempotency() {
+        when(idempotencyService.execute(anyString(), isNull(), anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<ResponseEntity<?>>>getArgument(3).get());
+    }
+
     private static final String KEYCLOAK_ID = "test-user-123";
 
     @Test
@@ -78,26 +101,37 @@ class FatigueResultControllerTest {
     }
 
     @Test
-    void shouldGetMyFatigueResults() throws Exception {
+    void shouldSaveFatigueResultBatch() throws Exception {
         // ARRANGE
-        FatigueResultResponse response1 = FatigueResultResponse.builder()
-                .id(1L)
-                .fatigueScore(75)
-                .riskLabel("Élevé")
-                .createdAt(Instant.now())
-                .build();
+        FatigueResultRequest request = new FatigueResultRequest();
+        request.setFatigueScore(75);
+        request.setRiskLabel("Élevé");
 
-        FatigueResultResponse response2 = FatigueResultResponse.builder()
-                .id(2L)
-                .fatigueScore(50)
-                .riskLabel("Moyen")
-                .createdAt(Instant.now().minusSeconds(3600))
-                .build();
+        when(fatigueResultService.saveBatchForUser(eq(KEYCLOAK_ID), any()))
+                .thenReturn(List.of(BatchItemResult.created(0, 3L), BatchItemResult.created(1, 4L)));
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/fatigue-results/batch")
+                        .with(jwt().jwt(jwt -> jwt.subject(KEYCLOAK_ID)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(request, request))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].id").value(4L));
+    }
 
-        List<FatigueResultResponse> responses = Arrays.asList(response1, response2);
+    @Test
+    void shouldGetMyFatigueResults() throws Exception {
+        // ARRANGE
+        FatigueResultSummary response1 = new FatigueResultSummary(1L, 75, "Élevé", Instant.now());
+        FatigueResultSummary response2 = new FatigueResultSummary(2L, 50, "Moyen", Instant.now().minusSeconds(3600));
+
+        List<FatigueResultSummary> responses = Arrays.asList(response1, response2);
 
-        when(fatigueResultService.getResultsForUser(KEYCLOAK_ID))
-                .thenReturn(responses);
+        when(fatigueResultService.getResultsForUser(KEYCLOAK_ID, null, null, null, null))
+                .thenReturn(new CursorPage<>(responses, null));
 
         // ACT & ASSERT
         mockMvc.perform(get("/api/fatigue-results/me")
@@ -108,16 +142,38 @@ class FatigueResultControllerTest {
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].fatigueScore").value(75))
                 .andExpect(jsonPath("$[0].riskLabel").value("Élevé"))
+                .andExpect(jsonPath("$[0].message").doesNotExist())
                 .andExpect(jsonPath("$[1].id").value(2L))
                 .andExpect(jsonPath("$[1].fatigueScore").value(50))
                 .andExpect(jsonPath("$[1].riskLabel").value("Moyen"));
     }
 
+    @Test
+    void shouldPassTimeWindowAndExposeNextCursor() throws Exception {
+        // ARRANGE
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        Instant to = Instant.parse("2024-02-01T00:00:00Z");
+        FatigueResultSummary summary = new FatigueResultSummary(1L, 75, "Élevé", Instant.parse("2024-01-15T10:00:00Z"));
+
+        when(fatigueResultService.getResultsForUser(KEYCLOAK_ID, from, to, null, 1))
+                .thenReturn(new CursorPage<>(List.of(summary), "next-cursor"));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/fatigue-results/me")
+                        .param("from", "2024-01-01T00:00:00Z")
+                        .param("to", "2024-02-01T00:00:00Z")
+                        .param("limit", "1")
+                        .with(jwt().jwt(jwt -> jwt.subject(KEYCLOAK_ID))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string("X-Next-Cursor", "next-cursor"));
+    }
+
     @Test
     void shouldReturnEmptyListWhenNoResults() throws Exception {
         // ARRANGE
-        when(fatigueResultService.getResultsForUser(KEYCLOAK_ID))
-                .thenReturn(List.of());
+        when(fatigueResultService.getResultsForUser(KEYCLOAK_ID, null, null, null, null))
+                .thenReturn(new CursorPage<>(List.of(), null));
 
         // ACT & ASSERT
         mockMvc.perform(get("/api/fatigue-results/me")
@@ -128,6 +184,41 @@ class FatigueResultControllerTest {
                 .andExpect(jsonPath("$").isEmpty());
     }
 
+    @Test
+    void shouldGetFullFatigueResultById() throws Exception {
+        // ARRANGE
+        FatigueResultResponse response = FatigueResultResponse.builder()
+                .id(1L)
+                .fatigueScore(75)
+                .riskLabel("Élevé")
+                .message("Faites attention")
+                .recommendationsJson("[\"Repos\"]")
+                .createdAt(Instant.now())
+                .build();
+
+        when(fatigueResultService.getResultForUser(KEYCLOAK_ID, 1L)).thenReturn(response);
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/fatigue-results/{id}", 1L)
+                        .with(jwt().jwt(jwt -> jwt.subject(KEYCLOAK_ID))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Faites attention"))
+                .andExpect(jsonPath("$.recommendationsJson").value("[\"Repos\"]"));
+    }
+
+    @Test
+    void shouldGetResultByIngestionTicket() throws Exception {
+        // ARRANGE
+        FatigueResultResponse response = FatigueResultResponse.builder().id(7L).fatigueScore(40).build();
+        when(fatigueResultService.getResultByTicket(KEYCLOAK_ID, "ticket-1")).thenReturn(response);
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/fatigue-results/tickets/{ticket}", "ticket-1")
+                        .with(jwt().jwt(jwt -> jwt.subject(KEYCLOAK_ID))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(7));
+    }
+
     @Test
     void shouldHandleNullFieldsInRequest() throws Exception {
         // ARRANGE
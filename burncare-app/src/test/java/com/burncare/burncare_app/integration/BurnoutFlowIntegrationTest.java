@@ -59,7 +59,7 @@ class BurnoutFlowIntegrationTest {
                 "Risque Élevé",
                 "Faites attention",
                 "Prenez des vacances",
-                Arrays.asList(4, 4, 3, 5)
+                Arrays.asList(4, 4, 3, 4, 2, 1, 0, 3, 4, 4, 2, 1)
         );
 
         // On appelle l'API POST /api/burnout-results
@@ -1,10 +1,12 @@
 package com.burncare.burncare_app.repositories;
 
+import com.burncare.burncare_app.dto.BurnoutResultSummary;
 import com.burncare.burncare_app.entities.BurnoutResult;
 import com.burncare.burncare_app.entities.User;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -53,4 +55,37 @@ class BurnoutResultRepositoryTest {
         // Le deuxième doit être le plus ancien
         assertThat(results.get(1).getBurnoutScore()).isEqualTo(10);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findSummariesBefore_ShouldWalkHistoryWithoutGapsOrDuplicates() {
+        // ARRANGE : 5 résultats dont deux avec le même createdAt (départage par id)
+        User user = new User();
+        user.setEmail("keyset@test.com");
+        user.setKeycloakId("kc-keyset");
+        user = userRepository.save(user);
+
+        Instant base = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            BurnoutResult r = new BurnoutResult();
+            r.setUser(user);
+            r.setBurnoutScore(i);
+            r.setCreatedAt(i < 2 ? base : base.minus(i, ChronoUnit.MINUTES));
+            burnoutResultRepository.save(r);
+        }
+
+        // ACT : parcours par pages de 2
+        List<BurnoutResultSummary> firstPage = burnoutResultRepository.findSummaries("kc-keyset", Limit.of(2));
+        BurnoutResultSummary last = firstPage.get(1);
+        List<BurnoutResultSummary> secondPage = burnoutResultRepository.findSummariesBefore(
+                "kc-keyset", last.createdAt(), last.id(), Limit.of(2));
+        last = secondPage.get(1);
+        List<BurnoutResultSummary> thirdPage = burnoutResultRepository.findSummariesBefore(
+                "kc-keyset", last.createdAt(), last.id(), Limit.of(2));
+
+        // ASSERT
+        assertThat(firstPage).extracting(BurnoutResultSummary::burnoutScore).containsExactly(1, 0);
+        assertThat(secondPage).extracting(BurnoutResultSummary::burnoutScore).containsExactly(2, 3);
+        assertThat(thirdPage).extracting(BurnoutResultSummary::burnoutScore).containsExactly(4);
+        assertThat(burnoutResultRepository.findSummaries("kc-inconnu", Limit.of(2))).isEmpty();
+    }
+}
@@ -0,0 +1,121 @@
+package com.burncare.burncare_app.repositories;
+
+import com.burncare.burncare_app.dto.FatigueResultSummary;
+import com.burncare.burncare_app.entities.FatigueResult;
+import com.burncare.burncare_app.entities.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class FatigueResultRepositoryTest {
+
+    @Autowired
+    private FatigueResultRepository fatigueResultRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void findSummaries_ShouldRespectTimeWindowAndCursor() {
+        // ARRANGE : un résultat par jour sur 5 jours, plus un résultat d'un autre utilisateur
+        User user = user("kc-window");
+        User other = user("kc-other");
+        Instant base = Instant.parse("2024-01-10T12:00:00Z");
+        for (int i = 0; i < 5; i++) {
+            fatigueResultRepository.save(result(user, i * 10, base.minus(i, ChronoUnit.DAYS)));
+        }
+        fatigueResultRepository.save(result(other, 99, base));
+
+        Instant from = base.minus(3, ChronoUnit.DAYS);
+        Instant to = base;
+
+        // ACT : fenêtre [J-3, J[ par pages de 2
+        List<FatigueResultSummary> firstPage = fatigueResultRepository.findSummaries("kc-window", from, to, Limit.of(2));
+        FatigueResultSummary last = firstPage.get(1);
+        List<FatigueResultSummary> secondPage = fatigueResultRepository.findSummariesBefore(
+                "kc-window", from, last.createdAt(), last.id(), Limit.of(2));
+
+        // ASSERT
+        assertThat(firstPage).extracting(FatigueResultSummary::fatigueScore).containsExactly(10, 20);
+        assertThat(secondPage).extracting(FatigueResultSummary::fatigueScore).containsExactly(30);
+    }
+
+    @Test
+    void recommendationsJson_ShouldRoundTripThroughJsonColumn() {
+        // ARRANGE
+        String json = "[{\"tag\":\"sécurité\",\"severity\":4,\"title\":\"Pause\"}]";
+        User user = user("kc-json");
+        FatigueResult r = result(user, 50, Instant.parse("2024-01-10T12:00:00Z"));
+        r.setRecommendationsJson(json);
+        Long id = fatigueResultRepository.saveAndFlush(r).getId();
+        entityManager.clear();
+
+        // ACT
+        FatigueResult reloaded = fatigueResultRepository.findByIdAndUserId(id, user.getId()).orElseThrow();
+
+        // ASSERT
+        assertThat(reloaded.getRecommendationsJson()).contains("\"tag\"").contains("sécurité");
+    }
+
+    @Test
+    void findByIdAndUserId_ShouldNotReturnResultOfAnotherUser() {
+        // ARRANGE
+        User owner = user("kc-owner");
+        User intruder = user("kc-intruder");
+        Long id = fatigueResultRepository.save(result(owner, 50, Instant.now())).getId();
+
+        // ACT & ASSERT
+        assertThat(fatigueResultRepository.findByIdAndUserId(id, owner.getId())).isPresent();
+        assertThat(fatigueResultRepository.findByIdAndUserId(id, intruder.getId())).isEmpty();
+    }
+
+    @Test
+    void deleteByUserId_ShouldRemoveOnlyResultsOfThatUser() {
+        // ARRANGE
+        User leaving = user("kc-leaving");
+        User staying = user("kc-staying");
+        for (int i = 0; i < 3; i++) {
+            fatigueResultRepository.save(result(leaving, i, Instant.now()));
+        }
+        fatigueResultRepository.save(result(staying, 50, Instant.now()));
+        fatigueResultRepository.flush();
+
+        // ACT
+        int deleted = fatigueResultRepository.deleteByUserId(leaving.getId());
+
+        // ASSERT
+        assertThat(deleted).isEqualTo(3);
+        assertThat(fatigueResultRepository.countByLabelAndScoreForUser(leaving.getId())).isEmpty();
+        assertThat(fatigueResultRepository.countByLabelAndScoreForUser(staying.getId())).hasSize(1);
+    }
+
+    private User user(String keycloakId) {
+        User user = new User();
+        user.setEmail(keycloakId + "@test.com");
+        user.setKeycloakId(keycloakId);
+        return userRepository.save(user);
+    }
+
+    private FatigueResult result(User user, int score, Instant createdAt) {
+        FatigueResult r = new FatigueResult();
+        r.setUser(user);
+        r.setFatigueScore(score);
+        r.setRiskLabel("Moyen");
+        r.setMessage("Message volumineux");
+        r.setRecommendationsJson("[]");
+        r.setCreatedAt(createdAt);
+        return r;
+    }
+}
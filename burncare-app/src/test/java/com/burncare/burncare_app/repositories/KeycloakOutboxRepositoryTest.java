@@ -0,0 +1,76 @@
+package com.burncare.burncare_app.repositories;
+
+import com.burncare.burncare_app.entities.KeycloakOutboxEntry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class KeycloakOutboxRepositoryTest {
+
+    @Autowired
+    private KeycloakOutboxRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void findReady_ShouldReturnOnlyOldestPendingEntryPerAccount() {
+        // ARRANGE
+        Instant now = Instant.parse("2025-01-01T08:00:00Z");
+        KeycloakOutboxEntry kc1Update = save("kc-1", KeycloakOutboxEntry.UPDATE, now, false);
+        save("kc-1", KeycloakOutboxEntry.DELETE, now, false);
+        save("kc-2", KeycloakOutboxEntry.UPDATE, now.plusSeconds(60), false); // en attente de nouvelle tentative
+        save("kc-2", KeycloakOutboxEntry.DELETE, now, false);
+        save("kc-3", KeycloakOutboxEntry.UPDATE, now, true);                  // abandonnée : ne bloque pas la suite
+        KeycloakOutboxEntry kc3Delete = save("kc-3", KeycloakOutboxEntry.DELETE, now, false);
+
+        // ACT
+        List<KeycloakOutboxEntry> ready = repository.findReady(now, PageRequest.of(0, 10));
+        int deleted = repository.deleteByIds(List.of(kc1Update.getId()));
+
+        // ASSERT : kc-1 dans l'ordre, kc-2 bloqué par sa première entrée reportée
+        assertThat(ready).extracting(KeycloakOutboxEntry::getId).containsExactly(kc1Update.getId(), kc3Delete.getId());
+        assertThat(deleted).isEqualTo(1);
+        assertThat(repository.countByFailed(false)).isEqualTo(4);
+        assertThat(repository.findOldestPendingCreatedAt()).isEqualTo(now);
+    }
+
+    @Test
+    void leaseAndRecordFailure_ShouldUpdateOnlyTargetedRows() {
+        // ARRANGE
+        Instant now = Instant.parse("2025-01-01T08:00:00Z");
+        KeycloakOutboxEntry claimed = save("kc-1", KeycloakOutboxEntry.UPDATE, now, false);
+        KeycloakOutboxEntry other = save("kc-2", KeycloakOutboxEntry.UPDATE, now, false);
+
+        // ACT : kc-1 réservé puis en échec ; échec d'une entrée déjà supprimée par une autre instance
+        int leased = repository.lease(List.of(claimed.getId()), now.plusSeconds(120));
+        List<KeycloakOutboxEntry> readyDuringLease = repository.findReady(now, PageRequest.of(0, 10));
+        int updated = repository.recordFailure(claimed.getId(), 1, "timeout", now.plusSeconds(2), false);
+        int vanished = repository.recordFailure(-1L, 1, "timeout", now.plusSeconds(2), false);
+        entityManager.clear();
+
+        // ASSERT
+        assertThat(leased).isEqualTo(1);
+        assertThat(readyDuringLease).extracting(KeycloakOutboxEntry::getId).containsExactly(other.getId());
+        assertThat(updated).isEqualTo(1);
+        assertThat(vanished).isZero();
+        KeycloakOutboxEntry reloaded = repository.findById(claimed.getId()).orElseThrow();
+        assertThat(reloaded.getAttempts()).isEqualTo(1);
+        assertThat(reloaded.getLastError()).isEqualTo("timeout");
+        assertThat(reloaded.getNextAttemptAt()).isEqualTo(now.plusSeconds(2));
+        assertThat(repository.count()).isEqualTo(2);
+    }
+
+    private KeycloakOutboxEntry save(String keycloakId, String operation, Instant nextAttemptAt, boolean failed) {
+        return repository.save(new KeycloakOutboxEntry(null, keycloakId, operation, null,
+                Instant.parse("2025-01-01T08:00:00Z"), 0, nextAttemptAt, null, failed));
+    }
+}
@@ -6,6 +6,10 @@ import com.burncare.burncare_app.entities.User;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.Optional;
 
@@ -69,4 +73,44 @@ class UserRepositoryTest {
         assertThat(found).isPresent();
         assertThat(found.get().getEmail()).isEqualTo("kc@repo.com");
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllWithSpecifications_ShouldFilterByRoleEnabledAndPrefix() {
+        // ARRANGE
+        saveUser("dupont@repo.com", "Jean", "Dupont", Role.USER, Profession.MEDECIN, false);
+        saveUser("marie@repo.com", "Marie", "Dupuis", Role.USER, Profession.INFIRMIER, false);
+        saveUser("paul@repo.com", "Paul", "Dupré", Role.USER, Profession.MEDECIN, true);
+        saveUser("admin@repo.com", "Dupin", "Admin", Role.ADMIN, Profession.ADMIN, false);
+        saveUser("x_y@repo.com", "Xavier", "Martin", Role.USER, Profession.MEDECIN, false);
+
+        Specification<User> pending = Specification.where(UserSpecifications.hasRole(Role.USER))
+                .and(UserSpecifications.isEnabled(false));
+
+        // ACT
+        Page<User> dup = userRepository.findAll(pending.and(UserSpecifications.startsWith("dup")),
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "lastName")));
+        Page<User> underscore = userRepository.findAll(UserSpecifications.startsWith("x_"), PageRequest.of(0, 10));
+        Page<User> noMatch = userRepository.findAll(UserSpecifications.startsWith("x%"), PageRequest.of(0, 10));
+        Page<User> medecins = userRepository.findAll(
+                Specification.where(UserSpecifications.hasProfession(Profession.MEDECIN)), PageRequest.of(0, 10));
+
+        // ASSERT : "Dupont" et "Dupuis" (Paul est actif, l'admin est exclu), une seule ligne par page
+        assertThat(dup.getTotalElements()).isEqualTo(2);
+        assertThat(dup.getContent()).extracting(User::getLastName).containsExactly("Dupuis");
+        assertThat(underscore.getContent()).extracting(User::getEmail).containsExactly("x_y@repo.com");
+        assertThat(noMatch.getContent()).isEmpty();
+        assertThat(medecins.getTotalElements()).isEqualTo(3);
+    }
+
+    private void saveUser(String email, String firstName, String lastName, Role role, Profession profession, boolean enabled) {
+        User user = new User();
+        user.setEmail(email);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setRole(role);
+        user.setProfession(profession);
+        user.setEnabled(enabled);
+        user.setKeycloakId("kc-" + email);
+        userRepository.save(user);
+    }
+}
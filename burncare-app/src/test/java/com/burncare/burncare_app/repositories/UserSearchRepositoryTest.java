@@ -0,0 +1,60 @@
+package com.burncare.burncare_app.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UserSearchRepositoryTest {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final UserSearchRepository repository = new UserSearchRepository(jdbcTemplate);
+
+    @Test
+    void searchTrigram_ShouldRequireEveryWordOfAMultiWordQuery() {
+        // ACT
+        repository.searchTrigram(" jean   dupont ", 10);
+
+        // ASSERT : une condition par mot, reliées par AND, chaque mot comparé à chaque colonne
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate).query(sql.capture(), params.capture(), ArgumentMatchers.<RowMapper<Object>>any());
+
+        assertThat(sql.getValue())
+                .contains(":q0 <% lower(first_name)", ":q1 <% lower(last_name)")
+                .contains("lower(email) LIKE :prefix0", "lower(email) LIKE :prefix1")
+                .contains(") AND ((");
+        assertThat(params.getValue().getValue("q0")).isEqualTo("jean");
+        assertThat(params.getValue().getValue("q1")).isEqualTo("dupont");
+        assertThat(params.getValue().getValue("prefix1")).isEqualTo("dupont%");
+        assertThat(params.getValue().hasValue("q2")).isFalse();
+    }
+
+    @Test
+    void searchTrigram_ShouldEscapeLikeWildcardsAndCapTheNumberOfWords() {
+        // ACT
+        repository.searchTrigram("50% a_b c d e f g", 10);
+
+        // ASSERT
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate).query(anyString(), params.capture(), ArgumentMatchers.<RowMapper<Object>>any());
+        assertThat(params.getValue().getValue("prefix0")).isEqualTo("50\\%%");
+        assertThat(params.getValue().getValue("prefix1")).isEqualTo("a\\_b%");
+        assertThat(params.getValue().hasValue("q" + (UserSearchRepository.MAX_TERMS - 1))).isTrue();
+        assertThat(params.getValue().hasValue("q" + UserSearchRepository.MAX_TERMS)).isFalse();
+    }
+
+    @Test
+    void searchTrigram_ShouldNotQueryForBlankInput() {
+        assertThat(repository.searchTrigram("   ", 10)).isEqualTo(List.of());
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -2,17 +2,23 @@ package com.burncare.burncare_app.security;
 
 import com.burncare.burncare_app.config.SecurityConfig;
 import com.burncare.burncare_app.controllers.AdminController;
+import com.burncare.burncare_app.services.AdminBulkService;
 import com.burncare.burncare_app.services.AdminService;
+import com.burncare.burncare_app.services.UserSearchService;
 import com.burncare.burncare_app.services.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -33,6 +39,12 @@ class SecurityIntegrationTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private AdminBulkService adminBulkService;
+
+    @MockBean
+    private UserSearchService userSearchService;
+
     @Test
     void accessAdmin_ShouldBeForbidden_ForSimpleUser() throws Exception {
         // ACT & ASSERT
@@ -49,6 +61,7 @@ class SecurityIntegrationTest {
     void accessAdmin_ShouldBeAllowed_ForAdmin() throws Exception {
         // ACT & ASSERT
         // Simulation d'un utilisateur avec le rôle "ADMIN"
+        when(adminService.searchUsers(anyInt(), any(), any(), any(), any(), any(), any())).thenReturn(Page.empty());
 
         mockMvc.perform(get("/api/admin/users")
                         .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN")))
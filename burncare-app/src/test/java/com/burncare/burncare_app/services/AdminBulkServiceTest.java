@@ -0,0 +1,104 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.BulkUserActionRequest;
+import com.burncare.burncare_app.dto.BulkUserActionResult;
+import com.burncare.burncare_app.dto.UserKeycloakRef;
+import com.burncare.burncare_app.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminBulkServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AdminService adminService;
+
+    @Mock
+    private KeycloakOutbox keycloakOutbox;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private AdminBulkService adminBulkService;
+
+    @BeforeEach
+    void setUp() {
+        adminBulkService = new AdminBulkService(userRepository, adminService, keycloakOutbox, transactionTemplate, eventPublisher);
+    }
+
+    @Test
+    void approve_ShouldUpdateOnceAndQueueKeycloakPerUser() {
+        // ARRANGE : 1 et 2 existent, 3 n'a pas de compte Keycloak, 4 n'existe pas
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        Set<Long> ids = Set.of(1L, 2L, 3L, 4L);
+        when(userRepository.findKeycloakRefs(any())).thenReturn(List.of(
+                new UserKeycloakRef(1L, "kc-1"), new UserKeycloakRef(2L, "kc-2"), new UserKeycloakRef(3L, null)));
+
+        // ACT
+        List<BulkUserActionResult> results = adminBulkService.apply(
+                new BulkUserActionRequest("approve", List.of(1L, 2L, 3L, 4L, 1L)));
+
+        // ASSERT : ordre conservé, doublon ignoré, Keycloak mis à jour par l'outbox (dans la transaction)
+        assertEquals(List.of(
+                BulkUserActionResult.of(1L, BulkUserActionResult.UPDATED),
+                BulkUserActionResult.of(2L, BulkUserActionResult.UPDATED),
+                BulkUserActionResult.of(3L, BulkUserActionResult.UPDATED),
+                BulkUserActionResult.of(4L, BulkUserActionResult.NOT_FOUND)), results);
+        verify(userRepository, times(1)).updateEnabled(argThat(c -> Set.copyOf(c).equals(ids)), eq(true));
+        KeycloakUserChange enable = new KeycloakUserChange(null, null, null, true, null);
+        verify(keycloakOutbox).update("kc-1", enable);
+        verify(keycloakOutbox).update("kc-2", enable);
+        verifyNoMoreInteractions(keycloakOutbox);
+        verify(eventPublisher).publishEvent(new UserChangedEvent(List.of(1L, 2L, 3L)));
+    }
+
+    @Test
+    void delete_ShouldDeleteEachExistingUser() {
+        // ARRANGE
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(2L)).thenReturn(false);
+
+        // ACT
+        List<BulkUserActionResult> results = adminBulkService.apply(new BulkUserActionRequest("DELETE", List.of(1L, 2L)));
+
+        // ASSERT
+        assertEquals(BulkUserActionResult.DELETED, results.get(0).status());
+        assertEquals(BulkUserActionResult.NOT_FOUND, results.get(1).status());
+        verify(adminService).deleteUser(1L);
+        verify(adminService, never()).deleteUser(2L);
+        verifyNoInteractions(keycloakOutbox);
+    }
+
+    @Test
+    void apply_ShouldRejectInvalidRequests() {
+        assertThrows(ResponseStatusException.class,
+                () -> adminBulkService.apply(new BulkUserActionRequest("PROMOTE", List.of(1L))));
+        assertThrows(ResponseStatusException.class,
+                () -> adminBulkService.apply(new BulkUserActionRequest("DISABLE", List.of())));
+        assertThrows(ResponseStatusException.class, () -> adminBulkService.apply(new BulkUserActionRequest(
+                "DISABLE", Collections.nCopies(AdminBulkService.MAX_IDS + 1, 1L))));
+        verifyNoInteractions(userRepository, adminService);
+    }
+}
@@ -1,24 +1,33 @@
 package com.burncare.burncare_app.services;
 
+import com.burncare.burncare_app.dto.AdminUserSummary;
+import com.burncare.burncare_app.dto.RollupSample;
+import com.burncare.burncare_app.dto.ScoreBucketCount;
 import com.burncare.burncare_app.entities.User;
+import com.burncare.burncare_app.repositories.BurnoutResultRepository;
+import com.burncare.burncare_app.repositories.FatigueResultRepository;
 import com.burncare.burncare_app.repositories.UserRepository;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.keycloak.admin.client.Keycloak;
-import org.keycloak.admin.client.resource.RealmResource;
-import org.keycloak.admin.client.resource.UserResource;
-import org.keycloak.admin.client.resource.UsersResource;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,35 +37,80 @@ class AdminServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private Keycloak keycloak;
+    private BurnoutResultRepository burnoutResultRepository;
+
+    @Mock
+    private FatigueResultRepository fatigueResultRepository;
+
+    @Mock
+    private StatsCounterService statsCounterService;
+
+    @Mock
+    private StatsRollupService statsRollupService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private KeycloakOutbox keycloakOutbox;
 
     @InjectMocks
     private AdminService adminService;
 
-    // Keycloak Mocks
-    @Mock private RealmResource realmResource;
-    @Mock private UsersResource usersResource;
-    @Mock private UserResource userResource;
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchUsers_ShouldReturnSummaryPageWithDefaultSize() {
+        // ARRANGE
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("a@test.com");
+        user.setPassword("secret");
+        user.setEnabled(true);
+        when(userRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenAnswer(inv -> new PageImpl<>(Arrays.asList(user, new User()), inv.getArgument(1), 2));
+
+        // ACT
+        Page<AdminUserSummary> result = adminService.searchUsers(0, null, null, null, null, null, "  A ");
 
-    @BeforeEach
-    void setUp() {
-        ReflectionTestUtils.setField(adminService, "realm", "test-realm");
+        // ASSERT
+        assertEquals(2, result.getTotalElements());
+        assertEquals(AdminService.DEFAULT_PAGE_SIZE, result.getSize());
+        assertEquals("a@test.com", result.getContent().get(0).email());
+        assertTrue(result.getContent().get(0).enabled());
     }
 
     @Test
-    void getAllUsers_ShouldReturnList() {
+    void searchUsers_ShouldRejectOversizedPage() {
+        assertThrows(ResponseStatusException.class,
+                () -> adminService.searchUsers(0, AdminService.MAX_PAGE_SIZE + 1, null, null, null, null, null));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getUser_ShouldReturnSummaryOr404() {
         // ARRANGE
-        when(userRepository.findAll()).thenReturn(Arrays.asList(new User(), new User()));
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("a@test.com");
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(userRepository.findById(8L)).thenReturn(Optional.empty());
 
-        // ACT
-        List<User> result = adminService.getAllUsers();
+        // ACT & ASSERT
+        assertEquals("a@test.com", adminService.getUser(7L).email());
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> adminService.getUser(8L));
+        assertEquals(404, ex.getStatusCode().value());
+    }
 
-        // ASSERT
-        assertEquals(2, result.size());
+    @Test
+    void parseSort_ShouldWhitelistPropertiesAndAddIdTieBreaker() {
+        assertEquals(Sort.by("id"), AdminService.parseSort(null));
+        assertEquals(Sort.by(Sort.Direction.DESC, "lastName").and(Sort.by("id")), AdminService.parseSort("lastName,desc"));
+        assertThrows(ResponseStatusException.class, () -> AdminService.parseSort("password"));
+        assertThrows(ResponseStatusException.class, () -> AdminService.parseSort("email,sideways"));
     }
 
     @Test
-    void deleteUser_ShouldRemoveFromKeycloakAndDb() {
+    void deleteUser_ShouldBulkDeleteResultsAndDeferKeycloakRemoval() {
         // ARRANGE
         Long userId = 1L;
         User user = new User();
@@ -64,19 +118,33 @@ class AdminServiceTest {
         user.setKeycloakId("uuid-123");
         user.setEmail("test@delete.com");
 
+        List<ScoreBucketCount> burnoutBuckets = List.of(new ScoreBucketCount("Élevé", 80, 20_000L));
+        List<ScoreBucketCount> fatigueBuckets = List.of(new ScoreBucketCount("Moyen", 50, 3L));
+        List<RollupSample> burnoutSamples = List.of(new RollupSample(Instant.parse("2024-03-01T08:00:00Z"), "Élevé", 80));
+        List<RollupSample> fatigueSamples = List.of(new RollupSample(Instant.parse("2024-03-02T08:00:00Z"), "Moyen", 50));
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-
-        // Mock Keycloak
-        when(keycloak.realm(anyString())).thenReturn(realmResource);
-        when(realmResource.users()).thenReturn(usersResource);
-        when(usersResource.get("uuid-123")).thenReturn(userResource);
+        when(burnoutResultRepository.countByLabelAndScoreForUser(user)).thenReturn(burnoutBuckets);
+        when(fatigueResultRepository.countByLabelAndScoreForUser(userId)).thenReturn(fatigueBuckets);
+        when(burnoutResultRepository.findRollupSamplesForUser(user)).thenReturn(burnoutSamples);
+        when(fatigueResultRepository.findRollupSamplesForUser(userId)).thenReturn(fatigueSamples);
+        when(burnoutResultRepository.deleteByUser(user)).thenReturn(20_000);
+        when(fatigueResultRepository.deleteByUserId(userId)).thenReturn(3);
 
         // ACT
         adminService.deleteUser(userId);
 
-        // ASSERT
-        verify(userResource).remove(); // Vérifie appel Keycloak
-        verify(userRepository).delete(user); // Vérifie appel DB
+        // ASSERT : compteurs ajustés avant les DELETE groupés, rollups après, Keycloak seulement via l'outbox
+        InOrder order = inOrder(statsCounterService, statsRollupService,
+                burnoutResultRepository, fatigueResultRepository, userRepository);
+        order.verify(statsCounterService).remove(StatsCounterService.BURNOUT, burnoutBuckets);
+        order.verify(burnoutResultRepository).deleteByUser(user);
+        order.verify(statsRollupService).remove(StatsCounterService.BURNOUT, burnoutSamples);
+        order.verify(statsCounterService).remove(StatsCounterService.FATIGUE, fatigueBuckets);
+        order.verify(fatigueResultRepository).deleteByUserId(userId);
+        order.verify(statsRollupService).remove(StatsCounterService.FATIGUE, fatigueSamples);
+        order.verify(userRepository).delete(user);
+        verify(burnoutResultRepository, never()).findByUserOrderByCreatedAtDesc(any());
+        verify(keycloakOutbox).delete("uuid-123");
     }
 
     @Test
@@ -86,7 +154,8 @@ class AdminServiceTest {
 
         // ACT & ASSERT
         assertThrows(RuntimeException.class, () -> adminService.deleteUser(99L));
-        // S'assurer qu'on ne touche pas à Keycloak si l'user n'existe pas en local
-        verifyNoInteractions(keycloak);
+        // S'assurer qu'on ne déclenche pas la suppression Keycloak si l'user n'existe pas en local
+        verifyNoInteractions(eventPublisher, keycloakOutbox, burnoutResultRepository, fatigueResultRepository,
+                statsRollupService);
     }
-}
\ No newline at end of file
+}
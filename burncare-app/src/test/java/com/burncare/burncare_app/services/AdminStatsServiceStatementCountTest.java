@@ -0,0 +1,102 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.AdminStatsResponse;
+import com.burncare.burncare_app.entities.BurnoutResult;
+import com.burncare.burncare_app.entities.FatigueResult;
+import com.burncare.burncare_app.entities.User;
+import com.burncare.burncare_app.repositories.BurnoutResultRepository;
+import com.burncare.burncare_app.repositories.FatigueResultRepository;
+import com.burncare.burncare_app.repositories.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Vérifie sur une vraie base (H2) que le tableau de bord lit un nombre fixe de requêtes
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({AdminStatsService.class, StatsCounterService.class})
+class AdminStatsServiceStatementCountTest {
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BurnoutResultRepository burnoutResultRepository;
+
+    @Autowired
+    private FatigueResultRepository fatigueResultRepository;
+
+    @Autowired
+    private StatsCounterService statsCounterService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void getStats_ShouldReadCountersInConstantStatements() {
+        // ARRANGE
+        User user = new User();
+        user.setEmail("stats@test.com");
+        user.setKeycloakId("kc-stats");
+        user = userRepository.save(user);
+
+        burnoutResultRepository.save(burnout(user, 20, "Faible"));
+        burnoutResultRepository.save(burnout(user, 50, "Moyen"));
+        burnoutResultRepository.save(burnout(user, 80, "Élevé"));
+        burnoutResultRepository.save(burnout(user, 85, "Élevé"));
+
+        fatigueResultRepository.save(fatigue(user, 40, "Faible"));
+        fatigueResultRepository.save(fatigue(user, 60, "Moyen"));
+        // Remplissage initial des compteurs depuis les tables (chemin du vérificateur)
+        statsCounterService.rebuild();
+        fatigueResultRepository.flush();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // ACT
+        AdminStatsResponse stats = adminStatsService.getStats();
+
+        // ASSERT : users + stats_counters, sans parcourir les tables de résultats
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        assertThat(stats.getTotalUsers()).isEqualTo(1L);
+        assertThat(stats.getBurnoutTotal()).isEqualTo(4L);
+        assertThat(stats.getBurnoutLow()).isEqualTo(1L);
+        assertThat(stats.getBurnoutMedium()).isEqualTo(1L);
+        assertThat(stats.getBurnoutHigh()).isEqualTo(2L);
+        assertThat(stats.getFatigueTotal()).isEqualTo(2L);
+        assertThat(stats.getFatigueAlert()).isEqualTo(1L);
+        assertThat(stats.getFatigueNonVigilant()).isEqualTo(1L);
+        assertThat(stats.getFatigueTired()).isZero();
+        assertThat(stats.getAvgFatigueScore()).isEqualTo(50.0);
+    }
+
+    private BurnoutResult burnout(User user, int score, String label) {
+        BurnoutResult r = new BurnoutResult();
+        r.setUser(user);
+        r.setBurnoutScore(score);
+        r.setRiskLabel(label);
+        r.setCreatedAt(Instant.now());
+        return r;
+    }
+
+    private FatigueResult fatigue(User user, int score, String label) {
+        FatigueResult r = new FatigueResult();
+        r.setUser(user);
+        r.setFatigueScore(score);
+        r.setRiskLabel(label);
+        r.setCreatedAt(Instant.now());
+        return r;
+    }
+}
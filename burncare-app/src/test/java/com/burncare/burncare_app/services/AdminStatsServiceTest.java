@@ -1,8 +1,6 @@
 package com.burncare.burncare_app.services;
 
 import com.burncare.burncare_app.dto.AdminStatsResponse;
-import com.burncare.burncare_app.repositories.BurnoutResultRepository;
-import com.burncare.burncare_app.repositories.FatigueResultRepository;
 import com.burncare.burncare_app.repositories.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +9,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.burncare.burncare_app.services.StatsCounterService.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
@@ -21,27 +23,31 @@ class AdminStatsServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private BurnoutResultRepository burnoutRepo;
-
-    @Mock
-    private FatigueResultRepository fatigueRepo;
+    private StatsCounterService statsCounterService;
 
     @InjectMocks
     private AdminStatsService adminStatsService;
 
+    private Map<String, Long> counters;
+
     @BeforeEach
     void setUp() {
-        // Setup default mock values
+        // Setup default counter values
+        counters = new HashMap<>();
+        counters.put(totalKey(BURNOUT), 50L);
+        counters.put(labelKey(BURNOUT, LOW), 20L);
+        counters.put(labelKey(BURNOUT, MEDIUM), 20L);
+        counters.put(labelKey(BURNOUT, HIGH), 10L);
+        counters.put(totalKey(FATIGUE), 75L);
+        counters.put(labelKey(FATIGUE, LOW), 25L);
+        counters.put(labelKey(FATIGUE, MEDIUM), 30L);
+        counters.put(labelKey(FATIGUE, HIGH), 20L);
+        // Histogramme : 2 × 60 et 2 × 71 -> moyenne 65.5
+        counters.put(scoreKey(FATIGUE, 60), 2L);
+        counters.put(scoreKey(FATIGUE, 71), 2L);
+
         when(userRepository.count()).thenReturn(100L);
-        when(burnoutRepo.countAll()).thenReturn(50L);
-        when(burnoutRepo.countByRiskLabel("Faible")).thenReturn(20L);
-        when(burnoutRepo.countByRiskLabel("Moyen")).thenReturn(20L);
-        when(burnoutRepo.countByRiskLabel("Élevé")).thenReturn(10L);
-        when(fatigueRepo.countAll()).thenReturn(75L);
-        when(fatigueRepo.countByRiskLabel("Faible")).thenReturn(25L);
-        when(fatigueRepo.countByRiskLabel("Moyen")).thenReturn(30L);
-        when(fatigueRepo.countByRiskLabel("Élevé")).thenReturn(20L);
-        when(fatigueRepo.averageFatigueScore()).thenReturn(65.5);
+        when(statsCounterService.snapshot()).thenReturn(counters);
     }
 
     @Test
@@ -65,17 +71,9 @@ class AdminStatsServiceTest {
 
     @Test
     void shouldHandleZeroValues() {
-        // ARRANGE
+        // ARRANGE : compteurs absents (pas encore initialisés)
         when(userRepository.count()).thenReturn(0L);
-        when(burnoutRepo.countAll()).thenReturn(0L);
-        when(burnoutRepo.countByRiskLabel("Faible")).thenReturn(0L);
-        when(burnoutRepo.countByRiskLabel("Moyen")).thenReturn(0L);
-        when(burnoutRepo.countByRiskLabel("Élevé")).thenReturn(0L);
-        when(fatigueRepo.countAll()).thenReturn(0L);
-        when(fatigueRepo.countByRiskLabel("Faible")).thenReturn(0L);
-        when(fatigueRepo.countByRiskLabel("Moyen")).thenReturn(0L);
-        when(fatigueRepo.countByRiskLabel("Élevé")).thenReturn(0L);
-        when(fatigueRepo.averageFatigueScore()).thenReturn(null);
+        when(statsCounterService.snapshot()).thenReturn(Map.of());
 
         // ACT
         AdminStatsResponse stats = adminStatsService.getStats();
@@ -89,9 +87,10 @@ class AdminStatsServiceTest {
     }
 
     @Test
-    void shouldHandleNullAverageFatigueScore() {
+    void shouldHandleEmptyScoreHistogram() {
         // ARRANGE
-        when(fatigueRepo.averageFatigueScore()).thenReturn(null);
+        counters.remove(scoreKey(FATIGUE, 60));
+        counters.remove(scoreKey(FATIGUE, 71));
 
         // ACT
         AdminStatsResponse stats = adminStatsService.getStats();
@@ -104,15 +103,12 @@ class AdminStatsServiceTest {
     void shouldHandleLargeValues() {
         // ARRANGE
         when(userRepository.count()).thenReturn(10000L);
-        when(burnoutRepo.countAll()).thenReturn(5000L);
-        when(burnoutRepo.countByRiskLabel("Faible")).thenReturn(2000L);
-        when(burnoutRepo.countByRiskLabel("Moyen")).thenReturn(2000L);
-        when(burnoutRepo.countByRiskLabel("Élevé")).thenReturn(1000L);
-        when(fatigueRepo.countAll()).thenReturn(7500L);
-        when(fatigueRepo.countByRiskLabel("Faible")).thenReturn(2500L);
-        when(fatigueRepo.countByRiskLabel("Moyen")).thenReturn(3000L);
-        when(fatigueRepo.countByRiskLabel("Élevé")).thenReturn(2000L);
-        when(fatigueRepo.averageFatigueScore()).thenReturn(75.75);
+        counters.put(totalKey(BURNOUT), 5000L);
+        counters.put(totalKey(FATIGUE), 7500L);
+        counters.put(scoreKey(FATIGUE, 60), 0L);
+        counters.put(scoreKey(FATIGUE, 71), 0L);
+        counters.put(scoreKey(FATIGUE, 75), 5_000_000L);
+        counters.put(scoreKey(FATIGUE, 76), 5_000_000L);
 
         // ACT
         AdminStatsResponse stats = adminStatsService.getStats();
@@ -121,16 +117,16 @@ class AdminStatsServiceTest {
         assertThat(stats.getTotalUsers()).isEqualTo(10000L);
         assertThat(stats.getBurnoutTotal()).isEqualTo(5000L);
         assertThat(stats.getFatigueTotal()).isEqualTo(7500L);
-        assertThat(stats.getAvgFatigueScore()).isEqualTo(75.75);
+        assertThat(stats.getAvgFatigueScore()).isEqualTo(75.5);
     }
 
     @Test
     void shouldCalculateCorrectBurnoutDistribution() {
         // ARRANGE
-        when(burnoutRepo.countAll()).thenReturn(100L);
-        when(burnoutRepo.countByRiskLabel("Faible")).thenReturn(40L);
-        when(burnoutRepo.countByRiskLabel("Moyen")).thenReturn(35L);
-        when(burnoutRepo.countByRiskLabel("Élevé")).thenReturn(25L);
+        counters.put(totalKey(BURNOUT), 100L);
+        counters.put(labelKey(BURNOUT, LOW), 40L);
+        counters.put(labelKey(BURNOUT, MEDIUM), 35L);
+        counters.put(labelKey(BURNOUT, HIGH), 25L);
 
         // ACT
         AdminStatsResponse stats = adminStatsService.getStats();
@@ -148,10 +144,10 @@ class AdminStatsServiceTest {
     @Test
     void shouldCalculateCorrectFatigueDistribution() {
         // ARRANGE
-        when(fatigueRepo.countAll()).thenReturn(100L);
-        when(fatigueRepo.countByRiskLabel("Faible")).thenReturn(30L);
-        when(fatigueRepo.countByRiskLabel("Moyen")).thenReturn(40L);
-        when(fatigueRepo.countByRiskLabel("Élevé")).thenReturn(30L);
+        counters.put(totalKey(FATIGUE), 100L);
+        counters.put(labelKey(FATIGUE, LOW), 30L);
+        counters.put(labelKey(FATIGUE, MEDIUM), 40L);
+        counters.put(labelKey(FATIGUE, HIGH), 30L);
 
         // ACT
         AdminStatsResponse stats = adminStatsService.getStats();
@@ -168,14 +164,13 @@ class AdminStatsServiceTest {
 
     @Test
     void shouldHandleDecimalAverageScore() {
-        // ARRANGE
-        when(fatigueRepo.averageFatigueScore()).thenReturn(67.123456);
+        // ARRANGE : 1 × 60, 2 × 71 -> 202 / 3
+        counters.put(scoreKey(FATIGUE, 60), 1L);
 
         // ACT
         AdminStatsResponse stats = adminStatsService.getStats();
 
         // ASSERT
-        assertThat(stats.getAvgFatigueScore()).isEqualTo(67.123456);
+        assertThat(stats.getAvgFatigueScore()).isEqualTo(202.0 / 3);
     }
 }
-
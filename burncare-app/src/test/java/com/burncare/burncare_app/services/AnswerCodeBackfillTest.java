@@ -0,0 +1,76 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.entities.BurnoutResult;
+import com.burncare.burncare_app.repositories.BurnoutResultRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AnswerCodeBackfillTest {
+
+    @Mock
+    private BurnoutResultRepository burnoutResultRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private AnswerCodeBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        backfill = new AnswerCodeBackfill(burnoutResultRepository, transactionTemplate, new ObjectMapper());
+        ReflectionTestUtils.setField(backfill, "batchSize", 2);
+    }
+
+    @Test
+    void encodeBatch_ShouldEncodeValidRowsAndKeepLegacyOnes() {
+        // ARRANGE
+        BurnoutResult valid = row(5L, "[1,2,3,4,0,1,2,3,4,0,1,2]");
+        BurnoutResult legacy = row(9L, "[4,4,3,5]");
+        when(burnoutResultRepository.findAnswersToEncode(0L, Limit.of(2))).thenReturn(List.of(valid, legacy));
+
+        // ACT
+        AnswerCodeBackfill.BatchResult result = backfill.encodeBatch(0L);
+
+        // ASSERT
+        assertEquals(9L, result.lastId());
+        assertEquals(1, result.converted());
+        assertEquals(1, result.skipped());
+        assertNull(valid.getAnswersJson());
+        assertEquals(List.of(1, 2, 3, 4, 0, 1, 2, 3, 4, 0, 1, 2), AnswerCodec.decode(valid.getAnswersCode()));
+        assertEquals("[4,4,3,5]", legacy.getAnswersJson());
+        assertEquals(AnswerCodec.UNCONVERTIBLE, legacy.getAnswersCode());
+        assertFalse(AnswerCodec.isEncoded(legacy.getAnswersCode()));
+    }
+
+    @Test
+    void encodeBatch_ShouldSignalEndWhenNothingLeft() {
+        // ARRANGE
+        when(burnoutResultRepository.findAnswersToEncode(9L, Limit.of(2))).thenReturn(List.of());
+
+        // ACT
+        AnswerCodeBackfill.BatchResult result = backfill.encodeBatch(9L);
+
+        // ASSERT
+        assertNull(result.lastId());
+    }
+
+    private BurnoutResult row(Long id, String json) {
+        BurnoutResult r = new BurnoutResult();
+        r.setId(id);
+        r.setAnswersJson(json);
+        return r;
+    }
+}
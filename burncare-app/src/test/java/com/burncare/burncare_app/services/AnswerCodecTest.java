@@ -0,0 +1,49 @@
+package com.burncare.burncare_app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnswerCodecTest {
+
+    @Test
+    void encodeDecode_ShouldRoundTrip() {
+        // ARRANGE
+        List<Integer> answers = Arrays.asList(0, 1, 2, 3, 4, 4, 3, 2, 1, 0, 2, 3);
+
+        // ACT
+        int code = AnswerCodec.encode(answers);
+
+        // ASSERT
+        assertEquals(answers, AnswerCodec.decode(code));
+        assertEquals(4, AnswerCodec.answerAt(code, 4));
+        assertEquals(3, AnswerCodec.answerAt(code, 11));
+    }
+
+    @Test
+    void encode_ShouldFitInIntForExtremeValues() {
+        // ACT
+        int min = AnswerCodec.encode(Collections.nCopies(12, 0));
+        int max = AnswerCodec.encode(Collections.nCopies(12, 4));
+
+        // ASSERT : 5^12 - 1
+        assertEquals(0, min);
+        assertEquals(244_140_624, max);
+        assertEquals(Collections.nCopies(12, 4), AnswerCodec.decode(max));
+    }
+
+    @Test
+    void encode_ShouldRejectInvalidAnswers() {
+        assertThrows(IllegalArgumentException.class, () -> AnswerCodec.encode(null));
+        assertThrows(IllegalArgumentException.class, () -> AnswerCodec.encode(List.of(1, 2, 3)));
+        assertThrows(IllegalArgumentException.class,
+                () -> AnswerCodec.encode(Arrays.asList(1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 0, 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> AnswerCodec.encode(Arrays.asList(1, 2, 3, 4, null, 0, 1, 2, 3, 4, 0, 1)));
+        assertThrows(IllegalArgumentException.class, () -> AnswerCodec.answerAt(0, 12));
+    }
+}
@@ -1,24 +1,36 @@
 package com.burncare.burncare_app.services;
 
+import com.burncare.burncare_app.dto.BatchItemResult;
 import com.burncare.burncare_app.dto.BurnoutResultRequest;
 import com.burncare.burncare_app.dto.BurnoutResultResponse;
+import com.burncare.burncare_app.dto.BurnoutResultSummary;
+import com.burncare.burncare_app.dto.CursorPage;
+import com.burncare.burncare_app.dto.ResultCursor;
+import com.burncare.burncare_app.dto.ScoreBucketCount;
+import com.burncare.burncare_app.dto.UserSnapshot;
 import com.burncare.burncare_app.entities.BurnoutResult;
 import com.burncare.burncare_app.entities.User;
 import com.burncare.burncare_app.repositories.BurnoutResultRepository;
 import com.burncare.burncare_app.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,9 +42,18 @@ class BurnoutResultServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    @Mock
+    private StatsCounterService statsCounterService;
+
     private BurnoutResultService burnoutResultService;
 
+    @BeforeEach
+    void setUp() {
+        // Vrai cache (vide à chaque test) devant le repository mocké
+        burnoutResultService = new BurnoutResultService(burnoutResultRepository, userRepository, statsCounterService,
+                new UserSnapshotCache(userRepository, new SimpleMeterRegistry(), 100, 60));
+    }
+
     @Test
     void saveForUser_ShouldSaveAndReturnResponse() {
         // ARRANGE
@@ -41,7 +62,7 @@ class BurnoutResultServiceTest {
         user.setKeycloakId(keycloakId);
 
         BurnoutResultRequest request = new BurnoutResultRequest(
-                65, "Élevé", "Risque", "Msg", "Reco", Arrays.asList(1, 2, 3)
+                65, "Élevé", "Risque", "Msg", "Reco", Arrays.asList(1, 2, 3, 4, 0, 1, 2, 3, 4, 0, 1, 2)
         );
 
         BurnoutResult savedEntity = new BurnoutResult();
@@ -51,7 +72,9 @@ class BurnoutResultServiceTest {
         savedEntity.setRiskLabel("Élevé");
         savedEntity.setRiskTitle("Risque"); // Assurez-vous que ce champ n'est pas null
 
-        when(userRepository.findByKeycloakId(keycloakId)).thenReturn(Optional.of(user));
+        user.setId(1L);
+        when(userRepository.findSnapshotByKeycloakId(keycloakId)).thenReturn(Optional.of(new UserSnapshot(1L, true)));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
         when(burnoutResultRepository.save(any(BurnoutResult.class))).thenReturn(savedEntity);
 
         // ACT
@@ -61,30 +84,219 @@ class BurnoutResultServiceTest {
         assertNotNull(response);
         assertEquals(10L, response.id());
         assertEquals(65, response.burnoutScore());
-        verify(burnoutResultRepository).save(any(BurnoutResult.class));
+        verify(burnoutResultRepository).save(argThat(r ->
+                r.getAnswersJson() == null
+                        && AnswerCodec.decode(r.getAnswersCode()).equals(request.answers())));
+        verify(statsCounterService).record(StatsCounterService.BURNOUT, "Élevé", 65);
     }
 
     @Test
-    void getResultsForUser_ShouldReturnList() {
+    void saveForUser_ShouldRejectInvalidAnswers() {
         // ARRANGE
         String keycloakId = "user-123";
         User user = new User();
+        user.setKeycloakId(keycloakId);
+        user.setId(1L);
+        when(userRepository.findSnapshotByKeycloakId(keycloakId)).thenReturn(Optional.of(new UserSnapshot(1L, true)));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+
+        BurnoutResultRequest tooShort = new BurnoutResultRequest(
+                65, "Élevé", "Risque", "Msg", "Reco", Arrays.asList(1, 2, 3));
+        BurnoutResultRequest outOfRange = new BurnoutResultRequest(
+                65, "Élevé", "Risque", "Msg", "Reco", Arrays.asList(1, 2, 3, 5, 0, 1, 2, 3, 4, 0, 1, 2));
+
+        // ACT & ASSERT
+        assertThrows(ResponseStatusException.class, () -> burnoutResultService.saveForUser(keycloakId, tooShort));
+        assertThrows(ResponseStatusException.class, () -> burnoutResultService.saveForUser(keycloakId, outOfRange));
+        verify(burnoutResultRepository, never()).save(any());
+    }
+
+    @Test
+    void checkRequest_ShouldRejectTextsLongerThanTheirColumn() {
+        // ARRANGE
+        List<Integer> answers = Arrays.asList(1, 2, 3, 4, 0, 1, 2, 3, 4, 0, 1, 2);
+        BurnoutResultRequest longMessage = new BurnoutResultRequest(65, "Élevé", "Risque", "x".repeat(2001), "Reco", answers);
+        BurnoutResultRequest longLabel = new BurnoutResultRequest(65, "x".repeat(256), "Risque", "Msg", "Reco", answers);
+        BurnoutResultRequest maxLength = new BurnoutResultRequest(65, "x".repeat(255), "Risque", "x".repeat(2000), "x".repeat(2000), answers);
+
+        // ACT & ASSERT
+        assertThrows(ResponseStatusException.class, () -> burnoutResultService.checkRequest(longMessage));
+        assertThrows(ResponseStatusException.class, () -> burnoutResultService.checkRequest(longLabel));
+        assertDoesNotThrow(() -> burnoutResultService.checkRequest(maxLength));
+    }
+
+    @Test
+    void checkRequest_ShouldRejectScoreOutsideCounterHistogram() {
+        // ARRANGE
+        List<Integer> answers = Arrays.asList(1, 2, 3, 4, 0, 1, 2, 3, 4, 0, 1, 2);
+        BurnoutResultRequest tooHigh = new BurnoutResultRequest(101, "Élevé", "Risque", "Msg", "Reco", answers);
+        BurnoutResultRequest negative = new BurnoutResultRequest(-5, "Faible", "Risque", "Msg", "Reco", answers);
+        BurnoutResultRequest bounds = new BurnoutResultRequest(100, "Élevé", "Risque", "Msg", "Reco", answers);
+
+        // ACT & ASSERT
+        assertThrows(ResponseStatusException.class, () -> burnoutResultService.checkRequest(tooHigh));
+        assertThrows(ResponseStatusException.class, () -> burnoutResultService.checkRequest(negative));
+        assertDoesNotThrow(() -> burnoutResultService.checkRequest(bounds));
+    }
+
+    @Test
+    void saveBatchForUser_ShouldSaveValidItemsAndRejectInvalidOnes() {
+        // ARRANGE
+        String keycloakId = "user-123";
+        User user = new User();
+        user.setKeycloakId(keycloakId);
+        user.setId(1L);
+        when(userRepository.findSnapshotByKeycloakId(keycloakId)).thenReturn(Optional.of(new UserSnapshot(1L, true)));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(burnoutResultRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<BurnoutResult> entities = inv.getArgument(0);
+            long id = 100;
+            for (BurnoutResult r : entities) {
+                r.setId(id++);
+            }
+            return entities;
+        });
+
+        BurnoutResultRequest valid1 = new BurnoutResultRequest(
+                65, "Élevé", "Risque", "Msg", "Reco", Arrays.asList(1, 2, 3, 4, 0, 1, 2, 3, 4, 0, 1, 2));
+        BurnoutResultRequest invalid = new BurnoutResultRequest(
+                65, "Élevé", "Risque", "Msg", "Reco", Arrays.asList(1, 2, 3));
+        BurnoutResultRequest valid2 = new BurnoutResultRequest(
+                20, "Faible", "OK", "Msg", "Reco", Arrays.asList(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0));
+
+        // ACT
+        List<BatchItemResult> results = burnoutResultService.saveBatchForUser(
+                keycloakId, Arrays.asList(valid1, invalid, null, valid2));
+
+        // ASSERT
+        assertEquals(4, results.size());
+        assertEquals(BatchItemResult.created(0, 100L), results.get(0));
+        assertEquals(BatchItemResult.REJECTED, results.get(1).status());
+        assertEquals(1, results.get(1).index());
+        assertNotNull(results.get(1).error());
+        assertEquals(BatchItemResult.REJECTED, results.get(2).status());
+        assertEquals(BatchItemResult.created(3, 101L), results.get(3));
+        verify(burnoutResultRepository).saveAll(argThat(list -> ((List<?>) list).size() == 2));
+        verify(statsCounterService).recordAll(StatsCounterService.BURNOUT, List.of(
+                new ScoreBucketCount("Élevé", 65, 1L), new ScoreBucketCount("Faible", 20, 1L)));
+    }
+
+    @Test
+    void saveQueued_ShouldStampWriteTimeAndKeepTicket() {
+        // ARRANGE
+        User user = new User();
+        user.setId(1L);
+        when(userRepository.findSnapshotByKeycloakId("user-123")).thenReturn(Optional.of(new UserSnapshot(1L, true)));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(burnoutResultRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        BurnoutResultRequest request = new BurnoutResultRequest(
+                65, "Élevé", "Risque", "Msg", "Reco", Arrays.asList(1, 2, 3, 4, 0, 1, 2, 3, 4, 0, 1, 2));
+        Instant before = Instant.now();
+
+        // ACT
+        int saved = burnoutResultService.saveQueued(List.of(
+                new IngestionRecord(1, "ticket-1", ResultIngestionService.BURNOUT, "user-123", request)));
+
+        // ASSERT : createdAt = heure d'écriture (rollup), ticket conservé pour GET /tickets/{ticket}
+        assertEquals(1, saved);
+        verify(burnoutResultRepository).saveAll(argThat((List<BurnoutResult> list) -> {
+            BurnoutResult r = list.get(0);
+            return "ticket-1".equals(r.getIngestionTicket()) && !r.getCreatedAt().isBefore(before);
+        }));
+    }
+
+    @Test
+    void saveBatchForUser_ShouldRejectEmptyOrOversizedBatch() {
+        // ARRANGE
+        BurnoutResultRequest request = new BurnoutResultRequest(
+                65, "Élevé", "Risque", "Msg", "Reco", Arrays.asList(1, 2, 3, 4, 0, 1, 2, 3, 4, 0, 1, 2));
+        List<BurnoutResultRequest> oversized = Collections.nCopies(BatchItemResult.MAX_BATCH_SIZE + 1, request);
 
-        BurnoutResult r1 = new BurnoutResult();
-        r1.setId(1L); r1.setBurnoutScore(10); r1.setCreatedAt(Instant.now());
+        // ACT & ASSERT
+        assertThrows(ResponseStatusException.class, () -> burnoutResultService.saveBatchForUser("user-123", List.of()));
+        assertThrows(ResponseStatusException.class, () -> burnoutResultService.saveBatchForUser("user-123", oversized));
+        verifyNoInteractions(burnoutResultRepository, statsCounterService);
+    }
 
-        BurnoutResult r2 = new BurnoutResult();
-        r2.setId(2L); r2.setBurnoutScore(20); r2.setCreatedAt(Instant.now());
+    @Test
+    void getResultsForUser_ShouldReturnList() {
+        // ARRANGE
+        String keycloakId = "user-123";
+        BurnoutResultSummary r1 = new BurnoutResultSummary(1L, 10, "Faible", "Risque Faible", Instant.now());
+        BurnoutResultSummary r2 = new BurnoutResultSummary(2L, 20, "Faible", "Risque Faible", Instant.now());
 
-        when(userRepository.findByKeycloakId(keycloakId)).thenReturn(Optional.of(user));
-        when(burnoutResultRepository.findByUserOrderByCreatedAtDesc(user))
+        when(burnoutResultRepository.findSummaries(eq(keycloakId), any(Limit.class)))
                 .thenReturn(Arrays.asList(r1, r2));
 
         // ACT
-        List<BurnoutResultResponse> results = burnoutResultService.getResultsForUser(keycloakId);
+        CursorPage<BurnoutResultResponse> page = burnoutResultService.getResultsForUser(keycloakId, null, null);
+
+        // ASSERT : une seule requête, sans charger l'utilisateur
+        assertEquals(2, page.items().size());
+        assertEquals(10, page.items().get(0).burnoutScore());
+        assertEquals("Risque Faible", page.items().get(0).riskTitle());
+        assertNull(page.nextCursor());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getResultsForUser_ShouldReturnNextCursor_WhenMoreResultsExist() {
+        // ARRANGE
+        String keycloakId = "user-123";
+        Instant createdAt = Instant.parse("2025-01-02T10:00:00.123456Z");
+
+        BurnoutResultSummary r1 = new BurnoutResultSummary(5L, 10, "Faible", "Titre", createdAt);
+        BurnoutResultSummary r2 = new BurnoutResultSummary(4L, 20, "Faible", "Titre", createdAt.minusSeconds(60));
+
+        when(burnoutResultRepository.findSummaries(keycloakId, Limit.of(2)))
+                .thenReturn(Arrays.asList(r1, r2));
+
+        // ACT
+        CursorPage<BurnoutResultResponse> page = burnoutResultService.getResultsForUser(keycloakId, null, 1);
 
         // ASSERT
-        assertEquals(2, results.size());
-        assertEquals(10, results.get(0).burnoutScore());
+        assertEquals(1, page.items().size());
+        assertNotNull(page.nextCursor());
+        ResultCursor cursor = ResultCursor.decode(page.nextCursor());
+        assertEquals(createdAt, cursor.createdAt());
+        assertEquals(5L, cursor.id());
+    }
+
+    @Test
+    void getResultsForUser_ShouldQueryAfterCursor() {
+        // ARRANGE
+        String keycloakId = "user-123";
+        Instant createdAt = Instant.parse("2025-01-02T10:00:00Z");
+        String cursor = new ResultCursor(createdAt, 5L).encode();
+
+        when(burnoutResultRepository.findSummariesBefore(keycloakId, createdAt, 5L, Limit.of(11)))
+                .thenReturn(List.of());
+        when(userRepository.findSnapshotByKeycloakId(keycloakId)).thenReturn(Optional.of(new UserSnapshot(1L, true)));
+
+        // ACT
+        CursorPage<BurnoutResultResponse> page = burnoutResultService.getResultsForUser(keycloakId, cursor, 10);
+
+        // ASSERT
+        assertTrue(page.items().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getResultsForUser_ShouldRejectUnknownUser() {
+        // ARRANGE
+        when(burnoutResultRepository.findSummaries(eq("unknown"), any(Limit.class))).thenReturn(List.of());
+        when(userRepository.findSnapshotByKeycloakId("unknown")).thenReturn(Optional.empty());
+
+        // ACT & ASSERT
+        assertThrows(RuntimeException.class, () -> burnoutResultService.getResultsForUser("unknown", null, null));
+    }
+
+    @Test
+    void getResultsForUser_ShouldRejectInvalidCursorAndLimit() {
+        // ACT & ASSERT
+        assertThrows(ResponseStatusException.class,
+                () -> burnoutResultService.getResultsForUser("user-123", "pas-un-curseur", null));
+        assertThrows(ResponseStatusException.class,
+                () -> burnoutResultService.getResultsForUser("user-123", null, 0));
     }
-}
\ No newline at end of file
+}
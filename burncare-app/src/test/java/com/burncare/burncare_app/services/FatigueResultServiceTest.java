@@ -1,25 +1,41 @@
 package com.burncare.burncare_app.services;
 
+import com.burncare.burncare_app.dto.BatchItemResult;
+import com.burncare.burncare_app.dto.CursorPage;
 import com.burncare.burncare_app.dto.FatigueResultRequest;
 import com.burncare.burncare_app.dto.FatigueResultResponse;
+import com.burncare.burncare_app.dto.FatigueResultSummary;
+import com.burncare.burncare_app.dto.ResultCursor;
+import com.burncare.burncare_app.dto.ScoreBucketCount;
+import com.burncare.burncare_app.dto.UserSnapshot;
 import com.burncare.burncare_app.entities.FatigueResult;
+import com.burncare.burncare_app.entities.User;
 import com.burncare.burncare_app.repositories.FatigueResultRepository;
+import com.burncare.burncare_app.repositories.UserRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,19 +44,36 @@ class FatigueResultServiceTest {
     @Mock
     private FatigueResultRepository fatigueResultRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
     @Mock
     private ObjectMapper objectMapper;
 
-    @InjectMocks
+    @Mock
+    private StatsCounterService statsCounterService;
+
     private FatigueResultService fatigueResultService;
 
     private FatigueResultRequest request;
     private FatigueResult savedEntity;
     private String keycloakId;
+    private Long userId;
+    private User user;
 
     @BeforeEach
     void setUp() {
         keycloakId = "test-user-123";
+        userId = 42L;
+        user = new User();
+        user.setId(userId);
+        user.setKeycloakId(keycloakId);
+        // Vrai cache (vide à chaque test) devant le repository mocké
+        fatigueResultService = new FatigueResultService(fatigueResultRepository, userRepository, objectMapper,
+                statsCounterService, new UserSnapshotCache(userRepository, new SimpleMeterRegistry(), 100, 60));
+        lenient().when(userRepository.findSnapshotByKeycloakId(keycloakId))
+                .thenReturn(Optional.of(new UserSnapshot(userId, true)));
+        lenient().when(userRepository.getReferenceById(userId)).thenReturn(user);
         
         request = new FatigueResultRequest();
         request.setFatigueScore(75);
@@ -53,7 +86,7 @@ class FatigueResultServiceTest {
 
         savedEntity = new FatigueResult();
         savedEntity.setId(1L);
-        savedEntity.setUserId(keycloakId);
+        savedEntity.setUser(user);
         savedEntity.setFatigueScore(75);
         savedEntity.setRiskLabel("Élevé");
         savedEntity.setRiskTitle("Risque Élevé");
@@ -85,10 +118,86 @@ class FatigueResultServiceTest {
         assertThat(response.getRecommendationText()).isEqualTo("Prenez des vacances");
         assertThat(response.getCreatedAt()).isNotNull();
 
-        verify(fatigueResultRepository, times(1)).save(any(FatigueResult.class));
+        verify(fatigueResultRepository, times(1)).save(argThat(r -> r.getUser() == user));
         verify(objectMapper, times(1)).writeValueAsString(request.getRecommendations());
     }
 
+    @Test
+    void shouldSaveBatchAndReportEachItem() throws JsonProcessingException {
+        // ARRANGE
+        when(objectMapper.writeValueAsString(any())).thenReturn("[]");
+        when(fatigueResultRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<FatigueResult> entities = invocation.getArgument(0);
+            long id = 200;
+            for (FatigueResult r : entities) {
+                r.setId(id++);
+            }
+            return entities;
+        });
+
+        // ACT
+        List<BatchItemResult> results = fatigueResultService.saveBatchForUser(
+                keycloakId, Arrays.asList(request, null, request));
+
+        // ASSERT
+        assertThat(results).containsExactly(
+                BatchItemResult.created(0, 200L),
+                BatchItemResult.rejected(1, "Résultat vide"),
+                BatchItemResult.created(2, 201L));
+        verify(fatigueResultRepository).saveAll(argThat(list -> ((List<?>) list).size() == 2));
+        verify(statsCounterService).recordAll(StatsCounterService.FATIGUE, List.of(
+                new ScoreBucketCount("Élevé", 75, 1L), new ScoreBucketCount("Élevé", 75, 1L)));
+    }
+
+    @Test
+    void shouldRejectOversizedBatch() {
+        // ARRANGE
+        List<FatigueResultRequest> oversized = Collections.nCopies(BatchItemResult.MAX_BATCH_SIZE + 1, request);
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> fatigueResultService.saveBatchForUser(keycloakId, oversized))
+                .isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(fatigueResultRepository, statsCounterService);
+    }
+
+    @Test
+    void shouldRejectLabelLongerThanItsColumn() {
+        // ARRANGE
+        FatigueResultRequest longLabel = new FatigueResultRequest(70, "x".repeat(256), "Titre", "Msg", 0.9, null, null);
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> fatigueResultService.checkRequest(longLabel)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> fatigueResultService.saveForUser(keycloakId, longLabel)).isInstanceOf(ResponseStatusException.class);
+        verify(fatigueResultRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRejectScoreOutsideCounterHistogram() {
+        // ARRANGE
+        FatigueResultRequest tooHigh = new FatigueResultRequest(101, "Élevé", "Titre", "Msg", 0.9, null, null);
+        FatigueResultRequest negative = new FatigueResultRequest(-1, "Faible", "Titre", "Msg", 0.9, null, null);
+        FatigueResultRequest noScore = new FatigueResultRequest(null, "Faible", "Titre", "Msg", 0.9, null, null);
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> fatigueResultService.checkRequest(tooHigh)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> fatigueResultService.checkRequest(negative)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> fatigueResultService.saveForUser(keycloakId, tooHigh)).isInstanceOf(ResponseStatusException.class);
+        assertThatCode(() -> fatigueResultService.checkRequest(noScore)).doesNotThrowAnyException();
+        verify(fatigueResultRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRejectUnknownUser() {
+        // ARRANGE
+        when(userRepository.findSnapshotByKeycloakId("unknown")).thenReturn(Optional.empty());
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> fatigueResultService.saveForUser("unknown", request))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("User not found");
+        verify(fatigueResultRepository, never()).save(any());
+    }
+
     @Test
     void shouldHandleJsonProcessingException() throws JsonProcessingException {
         // ARRANGE
@@ -182,63 +291,89 @@ class FatigueResultServiceTest {
     @Test
     void shouldGetResultsForUser() {
         // ARRANGE
-        FatigueResult result1 = new FatigueResult();
-        result1.setId(1L);
-        result1.setUserId(keycloakId);
-        result1.setFatigueScore(75);
-        result1.setRiskLabel("Élevé");
-        result1.setCreatedAt(Instant.now().minusSeconds(3600));
-
-        FatigueResult result2 = new FatigueResult();
-        result2.setId(2L);
-        result2.setUserId(keycloakId);
-        result2.setFatigueScore(50);
-        result2.setRiskLabel("Moyen");
-        result2.setCreatedAt(Instant.now());
-
-        List<FatigueResult> results = Arrays.asList(result2, result1); // Plus récent en premier
-        when(fatigueResultRepository.findByUserIdOrderByCreatedAtDesc(keycloakId))
+        FatigueResultSummary result2 = new FatigueResultSummary(2L, 50, "Moyen", Instant.now());
+        FatigueResultSummary result1 = new FatigueResultSummary(1L, 75, "Élevé", Instant.now().minusSeconds(3600));
+
+        List<FatigueResultSummary> results = Arrays.asList(result2, result1); // Plus récent en premier
+        when(fatigueResultRepository.findSummaries(eq(keycloakId), any(Instant.class), any(Instant.class), any(Limit.class)))
                 .thenReturn(results);
 
         // ACT
-        List<FatigueResultResponse> responses = fatigueResultService.getResultsForUser(keycloakId);
+        CursorPage<FatigueResultSummary> page = fatigueResultService.getResultsForUser(keycloakId, null, null, null, null);
 
         // ASSERT
-        assertThat(responses)
+        assertThat(page.items())
                 .isNotNull()
                 .hasSize(2);
-        assertThat(responses.get(0).getId()).isEqualTo(2L);
-        assertThat(responses.get(0).getFatigueScore()).isEqualTo(50);
-        assertThat(responses.get(1).getId()).isEqualTo(1L);
-        assertThat(responses.get(1).getFatigueScore()).isEqualTo(75);
-        
-        verify(fatigueResultRepository, times(1))
-                .findByUserIdOrderByCreatedAtDesc(keycloakId);
+        assertThat(page.items().get(0).id()).isEqualTo(2L);
+        assertThat(page.items().get(0).fatigueScore()).isEqualTo(50);
+        assertThat(page.items().get(1).id()).isEqualTo(1L);
+        assertThat(page.items().get(1).fatigueScore()).isEqualTo(75);
+        assertThat(page.nextCursor()).isNull();
     }
 
     @Test
     void shouldReturnEmptyListWhenNoResults() {
         // ARRANGE
-        when(fatigueResultRepository.findByUserIdOrderByCreatedAtDesc(keycloakId))
+        when(fatigueResultRepository.findSummaries(eq(keycloakId), any(Instant.class), any(Instant.class), any(Limit.class)))
                 .thenReturn(List.of());
 
         // ACT
-        List<FatigueResultResponse> responses = fatigueResultService.getResultsForUser(keycloakId);
+        CursorPage<FatigueResultSummary> page = fatigueResultService.getResultsForUser(keycloakId, null, null, null, null);
 
         // ASSERT
-        assertThat(responses)
+        assertThat(page.items())
                 .isNotNull()
                 .isEmpty();
         verify(fatigueResultRepository, times(1))
-                .findByUserIdOrderByCreatedAtDesc(keycloakId);
+                .findSummaries(eq(keycloakId), any(Instant.class), any(Instant.class), eq(Limit.of(CursorPage.DEFAULT_PAGE_SIZE + 1)));
+    }
+
+    @Test
+    void shouldApplyTimeWindowAndReturnNextCursor() {
+        // ARRANGE
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        Instant to = Instant.parse("2024-02-01T00:00:00Z");
+        FatigueResultSummary newest = new FatigueResultSummary(9L, 40, "Faible", Instant.parse("2024-01-20T08:00:00Z"));
+        FatigueResultSummary older = new FatigueResultSummary(8L, 60, "Moyen", Instant.parse("2024-01-10T08:00:00Z"));
+
+        when(fatigueResultRepository.findSummaries(keycloakId, from, to, Limit.of(2)))
+                .thenReturn(List.of(newest, older));
+
+        // ACT
+        CursorPage<FatigueResultSummary> page = fatigueResultService.getResultsForUser(keycloakId, from, to, null, 1);
+
+        // ASSERT
+        assertThat(page.items()).containsExactly(newest);
+        ResultCursor cursor = ResultCursor.decode(page.nextCursor());
+        assertThat(cursor.createdAt()).isEqualTo(newest.createdAt());
+        assertThat(cursor.id()).isEqualTo(9L);
     }
 
     @Test
-    void shouldMapAllFieldsWhenGettingResults() {
+    void shouldContinueFromCursor() {
+        // ARRANGE
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        Instant createdAt = Instant.parse("2024-01-20T08:00:00Z");
+        String cursor = new ResultCursor(createdAt, 9L).encode();
+
+        when(fatigueResultRepository.findSummariesBefore(keycloakId, from, createdAt, 9L, Limit.of(11)))
+                .thenReturn(List.of());
+
+        // ACT
+        CursorPage<FatigueResultSummary> page = fatigueResultService.getResultsForUser(keycloakId, from, null, cursor, 10);
+
+        // ASSERT
+        assertThat(page.items()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void shouldMapAllFieldsWhenGettingSingleResult() {
         // ARRANGE
         FatigueResult result = new FatigueResult();
         result.setId(10L);
-        result.setUserId(keycloakId);
+        result.setUser(user);
         result.setFatigueScore(85);
         result.setRiskLabel("Très Élevé");
         result.setRiskTitle("Risque Très Élevé");
@@ -248,15 +383,13 @@ class FatigueResultServiceTest {
         result.setRecommendationText("Consultez un médecin");
         result.setCreatedAt(Instant.parse("2024-01-15T10:00:00Z"));
 
-        when(fatigueResultRepository.findByUserIdOrderByCreatedAtDesc(keycloakId))
-                .thenReturn(List.of(result));
+        when(fatigueResultRepository.findByIdAndUserId(10L, userId))
+                .thenReturn(Optional.of(result));
 
         // ACT
-        List<FatigueResultResponse> responses = fatigueResultService.getResultsForUser(keycloakId);
+        FatigueResultResponse response = fatigueResultService.getResultForUser(keycloakId, 10L);
 
         // ASSERT
-        assertThat(responses).hasSize(1);
-        FatigueResultResponse response = responses.get(0);
         assertThat(response.getId()).isEqualTo(10L);
         assertThat(response.getFatigueScore()).isEqualTo(85);
         assertThat(response.getRiskLabel()).isEqualTo("Très Élevé");
@@ -268,6 +401,17 @@ class FatigueResultServiceTest {
         assertThat(response.getCreatedAt()).isEqualTo(Instant.parse("2024-01-15T10:00:00Z"));
     }
 
+    @Test
+    void shouldReturnNotFoundForResultOfAnotherUser() {
+        // ARRANGE
+        when(fatigueResultRepository.findByIdAndUserId(10L, userId))
+                .thenReturn(Optional.empty());
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> fatigueResultService.getResultForUser(keycloakId, 10L))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
     @Test
     void shouldHandleNullFieldsInRequest() throws JsonProcessingException {
         // ARRANGE
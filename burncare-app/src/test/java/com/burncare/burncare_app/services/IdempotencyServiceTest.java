@@ -0,0 +1,241 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.IngestionTicket;
+import com.burncare.burncare_app.dto.UserSnapshot;
+import com.burncare.burncare_app.entities.IdempotencyRecord;
+import com.burncare.burncare_app.repositories.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    @Mock
+    private UserSnapshotCache userSnapshotCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final Instant now = Instant.parse("2025-01-01T08:00:00Z");
+    private final AtomicInteger inserts = new AtomicInteger();
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotencyService(repository, userSnapshotCache, transactionTemplate, new ObjectMapper(),
+                24, 100, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @Test
+    void execute_ShouldClaimKeyThenRunActionOnceAndReplayFromMemory() {
+        // ARRANGE
+        inTransaction();
+        claimSucceeds();
+        when(userSnapshotCache.require("kc-1")).thenReturn(new UserSnapshot(1L, true));
+
+        // ACT : deux envois avec la même clé
+        ResponseEntity<?> first = service.execute("kc-1", "key-1", ResultIngestionService.BURNOUT, this::insert);
+        ResponseEntity<?> retry = service.execute("kc-1", "key-1", ResultIngestionService.BURNOUT, this::insert);
+
+        // ASSERT : clé réservée (en cours) puis complétée ; la seconde réponse est l'originale sans relire la base
+        assertEquals(1, inserts.get());
+        assertEquals(Map.of("id", 1), first.getBody());
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertEquals("{\"id\":1}", retry.getBody());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+
+        ArgumentCaptor<IdempotencyRecord> claimed = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).saveAndFlush(claimed.capture());
+        assertEquals(1L, claimed.getValue().getUserId());
+        assertEquals("key-1", claimed.getValue().getIdempotencyKey());
+        assertEquals(IdempotencyService.PENDING, claimed.getValue().getStatusCode());
+        verify(repository).complete(10L, 200, "{\"id\":1}");
+        verify(repository, times(1)).findByUserIdAndIdempotencyKey(1L, "key-1");
+    }
+
+    @Test
+    void execute_ShouldReplayStoredRecordAfterConcurrentClaim() {
+        // ARRANGE : une tentative simultanée a réservé la clé entre la lecture et l'insert, puis a répondu
+        inTransaction();
+        when(userSnapshotCache.require("kc-1")).thenReturn(new UserSnapshot(1L, true));
+        IdempotencyRecord stored = new IdempotencyRecord(5L, 1L, "key-1", ResultIngestionService.FATIGUE,
+                200, "{\"id\":9}", now.minusSeconds(1));
+        when(repository.findByUserIdAndIdempotencyKey(1L, "key-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(stored));
+        when(repository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("uk_idempotency_keys_user_key"));
+
+        // ACT
+        ResponseEntity<?> response = service.execute("kc-1", "key-1", ResultIngestionService.FATIGUE, this::insert);
+
+        // ASSERT : l'action n'est pas exécutée
+        assertEquals(0, inserts.get());
+        assertEquals("{\"id\":9}", response.getBody());
+        assertEquals("true", response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void execute_ConcurrentRetryWithIngestion_ShouldJournalOnce() throws Exception {
+        // ARRANGE : ingestion asynchrone, l'envoi d'origine est en cours (journalisé, pas encore répondu)
+        inTransaction();
+        when(userSnapshotCache.require("kc-1")).thenReturn(new UserSnapshot(1L, true));
+        IdempotencyRecord pending = new IdempotencyRecord(10L, 1L, "key-1", ResultIngestionService.BURNOUT,
+                IdempotencyService.PENDING, null, now);
+        // Les deux tentatives lisent la clé absente ; la seconde perd la course à l'insert
+        when(repository.findByUserIdAndIdempotencyKey(1L, "key-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(pending));
+        when(repository.saveAndFlush(any()))
+                .thenAnswer(inv -> withId(inv.getArgument(0)))
+                .thenThrow(new DataIntegrityViolationException("uk_idempotency_keys_user_key"));
+        ResultIngestionService ingestion = mock(ResultIngestionService.class);
+        when(ingestion.submitBurnout(any(), any())).thenReturn(IngestionTicket.accepted("ticket-1"));
+
+        CountDownLatch journaled = new CountDownLatch(1);
+        CountDownLatch respond = new CountDownLatch(1);
+        Supplier<ResponseEntity<?>> submit = () -> {
+            IngestionTicket ticket = ingestion.submitBurnout("kc-1", null);
+            journaled.countDown();
+            try {
+                respond.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ResponseEntity.accepted().body(ticket);
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<ResponseEntity<?>> original = executor.submit(
+                () -> service.execute("kc-1", "key-1", ResultIngestionService.BURNOUT, submit));
+        assertTrue(journaled.await(5, TimeUnit.SECONDS));
+
+        // ACT : nouvel essai (Wi-Fi) pendant l'envoi d'origine
+        ResponseStatusException retry = assertThrows(ResponseStatusException.class,
+                () -> service.execute("kc-1", "key-1", ResultIngestionService.BURNOUT, submit));
+        respond.countDown();
+
+        // ASSERT : un seul passage dans le journal d'ingestion, le nouvel essai reçoit 409
+        assertEquals(HttpStatus.ACCEPTED, original.get(5, TimeUnit.SECONDS).getStatusCode());
+        executor.shutdown();
+        assertEquals(HttpStatus.CONFLICT, retry.getStatusCode());
+        verify(ingestion, times(1)).submitBurnout(any(), any());
+        verify(repository).complete(eq(10L), eq(202), any());
+    }
+
+    @Test
+    void execute_ShouldReplaceExpiredKeysAndRejectOtherKind() {
+        // ARRANGE
+        inTransaction();
+        claimSucceeds();
+        when(userSnapshotCache.require("kc-1")).thenReturn(new UserSnapshot(1L, true));
+        when(repository.findByUserIdAndIdempotencyKey(1L, "old")).thenReturn(Optional.of(new IdempotencyRecord(
+                1L, 1L, "old", ResultIngestionService.BURNOUT, 200, "{}", now.minus(Duration.ofHours(25)))));
+        when(repository.findByUserIdAndIdempotencyKey(1L, "used")).thenReturn(Optional.of(new IdempotencyRecord(
+                2L, 1L, "used", ResultIngestionService.BURNOUT, 200, "{}", now.minusSeconds(10))));
+
+        // ACT
+        service.execute("kc-1", "old", ResultIngestionService.BURNOUT, this::insert);
+        ResponseStatusException conflict = assertThrows(ResponseStatusException.class,
+                () -> service.execute("kc-1", "used", ResultIngestionService.FATIGUE, this::insert));
+
+        // ASSERT : la clé expirée est remplacée, la clé utilisée pour un burnout est refusée en fatigue
+        assertEquals(1, inserts.get());
+        verify(repository).deleteRecord(1L);
+        assertEquals(HttpStatus.CONFLICT, conflict.getStatusCode());
+    }
+
+    @Test
+    void execute_ShouldReleaseKeyOnErrorAndValidateKey() {
+        // ARRANGE
+        inTransaction();
+        claimSucceeds();
+        when(userSnapshotCache.require("kc-1")).thenReturn(new UserSnapshot(1L, true));
+
+        // ACT
+        ResponseEntity<?> withoutKey = service.execute("kc-1", null, ResultIngestionService.BURNOUT, this::insert);
+        ResponseEntity<?> rejected = service.execute("kc-1", "key-2", ResultIngestionService.BURNOUT,
+                () -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        assertThrows(IllegalStateException.class, () -> service.execute("kc-1", "key-3", ResultIngestionService.BURNOUT,
+                () -> { throw new IllegalStateException("base indisponible"); }));
+        ResponseStatusException tooLong = assertThrows(ResponseStatusException.class,
+                () -> service.execute("kc-1", "x".repeat(101), ResultIngestionService.BURNOUT, this::insert));
+
+        // ASSERT : les réservations des échecs sont libérées (nouvel essai possible avec la même clé)
+        assertEquals(HttpStatus.OK, withoutKey.getStatusCode());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, tooLong.getStatusCode());
+        verify(repository, times(2)).deleteRecord(10L);
+        verify(repository, never()).complete(any(), anyInt(), any());
+    }
+
+    @Test
+    void purgeExpired_ShouldDeleteKeysOlderThanTtl() {
+        // ARRANGE
+        inTransaction();
+        when(repository.deleteCreatedBefore(now.minus(Duration.ofHours(24)))).thenReturn(3);
+
+        // ACT
+        service.purgeExpired();
+
+        // ASSERT
+        verify(repository).deleteCreatedBefore(now.minus(Duration.ofHours(24)));
+    }
+
+    private ResponseEntity<?> insert() {
+        return ResponseEntity.ok(Map.of("id", inserts.incrementAndGet()));
+    }
+
+    private void inTransaction() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        lenient().doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private void claimSucceeds() {
+        when(repository.saveAndFlush(any())).thenAnswer(inv -> withId(inv.getArgument(0)));
+    }
+
+    private static IdempotencyRecord withId(IdempotencyRecord record) {
+        record.setId(10L);
+        return record;
+    }
+}
@@ -0,0 +1,185 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.entities.KeycloakOutboxEntry;
+import com.burncare.burncare_app.repositories.KeycloakOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.ws.rs.NotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.resource.RealmResource;
+import org.keycloak.admin.client.resource.RoleMappingResource;
+import org.keycloak.admin.client.resource.RoleResource;
+import org.keycloak.admin.client.resource.RoleScopeResource;
+import org.keycloak.admin.client.resource.RolesResource;
+import org.keycloak.admin.client.resource.UserResource;
+import org.keycloak.admin.client.resource.UsersResource;
+import org.keycloak.representations.idm.RoleRepresentation;
+import org.keycloak.representations.idm.UserRepresentation;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KeycloakOutboxRelayTest {
+
+    @Mock
+    private KeycloakOutboxRepository repository;
+
+    @Mock
+    private Keycloak keycloak;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    // Keycloak Mocks
+    @Mock private RealmResource realmResource;
+    @Mock private UsersResource usersResource;
+    @Mock private UserResource okResource;
+    @Mock private UserResource failingResource;
+    @Mock private UserResource missingResource;
+
+    private final Instant now = Instant.parse("2025-01-01T08:00:00Z");
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private KeycloakOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new KeycloakOutboxRelay(repository, keycloak, transactionTemplate, objectMapper, meterRegistry,
+                10, 2, 3, 1000, 4000, 60_000, Clock.fixed(now, ZoneOffset.UTC));
+        ReflectionTestUtils.setField(relay, "realm", "test-realm");
+        when(keycloak.realm("test-realm")).thenReturn(realmResource);
+        when(realmResource.users()).thenReturn(usersResource);
+    }
+
+    private void inTransaction() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.shutdown();
+    }
+
+    @Test
+    void relay_ShouldDeleteAppliedEntriesAndBackOffFailures() throws Exception {
+        // ARRANGE : kc-1 supprimé, kc-2 Keycloak en erreur, kc-3 déjà absent de Keycloak
+        KeycloakOutboxEntry deleted = entry(1L, "kc-1", KeycloakOutboxEntry.DELETE, null, 0);
+        KeycloakOutboxEntry failing = entry(2L, "kc-2", KeycloakOutboxEntry.UPDATE,
+                new KeycloakUserChange(null, null, null, true, null), 0);
+        KeycloakOutboxEntry missing = entry(3L, "kc-3", KeycloakOutboxEntry.DELETE, null, 0);
+        when(repository.findReady(eq(now), any())).thenReturn(List.of(deleted, failing, missing));
+        when(usersResource.get("kc-1")).thenReturn(okResource);
+        when(usersResource.get("kc-2")).thenReturn(failingResource);
+        when(usersResource.get("kc-3")).thenReturn(missingResource);
+        when(failingResource.toRepresentation()).thenThrow(new RuntimeException("timeout"));
+        doThrow(new NotFoundException()).when(missingResource).remove();
+        inTransaction();
+        when(repository.countByFailed(false)).thenReturn(1L);
+        when(repository.findOldestPendingCreatedAt()).thenReturn(now.minusSeconds(30));
+
+        // ACT
+        relay.relay();
+
+        // ASSERT : lot réservé avant les appels, entrées appliquées supprimées en une requête,
+        // échec reporté par un UPDATE ciblé (pas de save qui recréerait une ligne supprimée ailleurs)
+        InOrder order = inOrder(repository, okResource);
+        order.verify(repository).lease(List.of(1L, 2L, 3L), now.plusSeconds(60));
+        order.verify(okResource).remove();
+        verify(repository).deleteByIds(List.of(1L, 3L));
+        verify(repository).recordFailure(2L, 1, "timeout", now.plusSeconds(1), false);
+        verify(repository, never()).saveAll(any());
+        verify(repository, never()).save(any());
+
+        assertEquals(2.0, meterRegistry.get("burncare.keycloak.outbox.applied").counter().count());
+        assertEquals(1.0, meterRegistry.get("burncare.keycloak.outbox.pending").gauge().value());
+        assertEquals(30.0, meterRegistry.get("burncare.keycloak.outbox.lag").gauge().value());
+    }
+
+    @Test
+    void apply_ShouldUpdateFieldsAndAssignExistingRoles() throws Exception {
+        // ARRANGE
+        UserRepresentation kcUser = new UserRepresentation();
+        kcUser.setEmail("old@test.com");
+        when(usersResource.get("kc-1")).thenReturn(okResource);
+        when(okResource.toRepresentation()).thenReturn(kcUser);
+
+        RolesResource rolesResource = mock(RolesResource.class);
+        RoleResource medecin = mock(RoleResource.class);
+        RoleResource admin = mock(RoleResource.class);
+        RoleMappingResource roleMapping = mock(RoleMappingResource.class);
+        RoleScopeResource realmLevel = mock(RoleScopeResource.class);
+        RoleRepresentation medecinRep = new RoleRepresentation();
+        when(realmResource.roles()).thenReturn(rolesResource);
+        when(rolesResource.get("MEDECIN")).thenReturn(medecin);
+        when(rolesResource.get("ADMIN")).thenReturn(admin);
+        when(medecin.toRepresentation()).thenReturn(medecinRep);
+        when(admin.toRepresentation()).thenThrow(new NotFoundException());
+        when(okResource.roles()).thenReturn(roleMapping);
+        when(roleMapping.realmLevel()).thenReturn(realmLevel);
+
+        // ACT
+        String updateError = relay.apply(entry(1L, "kc-1", KeycloakOutboxEntry.UPDATE,
+                new KeycloakUserChange("Jean", null, null, false, null), 0));
+        String rolesError = relay.apply(entry(2L, "kc-1", KeycloakOutboxEntry.ASSIGN_ROLES,
+                KeycloakUserChange.roles(List.of("MEDECIN", "ADMIN")), 0));
+
+        // ASSERT : champs null inchangés, rôle inexistant ignoré
+        assertNull(updateError);
+        assertNull(rolesError);
+        assertEquals("Jean", kcUser.getFirstName());
+        assertEquals("old@test.com", kcUser.getEmail());
+        assertFalse(kcUser.isEnabled());
+        verify(okResource).update(kcUser);
+        verify(realmLevel).add(List.of(medecinRep));
+    }
+
+    @Test
+    void relay_ShouldGiveUpAfterMaxAttempts() throws Exception {
+        // ARRANGE : 3e tentative (maximum) en échec
+        KeycloakOutboxEntry entry = entry(1L, "kc-1", KeycloakOutboxEntry.DELETE, null, 2);
+        when(repository.findReady(eq(now), any())).thenReturn(List.of(entry));
+        when(usersResource.get("kc-1")).thenReturn(failingResource);
+        doThrow(new RuntimeException("Connection refused")).when(failingResource).remove();
+        inTransaction();
+
+        // ACT
+        relay.relay();
+
+        // ASSERT
+        verify(repository).recordFailure(eq(1L), eq(3), eq("Connection refused"), any(), eq(true));
+        verify(repository, never()).deleteByIds(any());
+        assertEquals(Duration.ofSeconds(2), relay.retryDelay(2));
+        assertEquals(Duration.ofSeconds(4), relay.retryDelay(30));
+    }
+
+    private KeycloakOutboxEntry entry(Long id, String keycloakId, String operation, KeycloakUserChange change,
+                                      int attempts) throws Exception {
+        String payload = change == null ? null : objectMapper.writeValueAsString(change);
+        return new KeycloakOutboxEntry(id, keycloakId, operation, payload, now.minusSeconds(5), attempts, now, null, false);
+    }
+}
@@ -0,0 +1,86 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.RecommendationTagStats;
+import com.burncare.burncare_app.repositories.RecommendationStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecommendationStatsServiceTest {
+
+    private static final Instant FROM = Instant.parse("2024-03-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2024-04-01T00:00:00Z");
+
+    @Mock
+    private RecommendationStatsRepository recommendationStatsRepository;
+
+    @InjectMocks
+    private RecommendationStatsService recommendationStatsService;
+
+    @Test
+    void getRecommendationStats_ShouldNormalizeFiltersAndDelegate() {
+        // ARRANGE
+        List<RecommendationTagStats> rows = List.of(new RecommendationTagStats("sécurité", 4, 3L, 2L));
+        when(recommendationStatsRepository.isSupported()).thenReturn(true);
+        when(recommendationStatsRepository.countByTagAndSeverity(FROM, TO, "sécurité", 3, "INFIRMIER"))
+                .thenReturn(rows);
+
+        // ACT
+        List<RecommendationTagStats> result =
+                recommendationStatsService.getRecommendationStats(" sécurité ", 3, "infirmier", FROM, TO);
+
+        // ASSERT
+        assertEquals(rows, result);
+    }
+
+    @Test
+    void getRecommendationStats_ShouldDefaultToLast30Days() {
+        // ARRANGE
+        when(recommendationStatsRepository.isSupported()).thenReturn(true);
+
+        // ACT
+        recommendationStatsService.getRecommendationStats("", null, null, null, TO);
+
+        // ASSERT
+        verify(recommendationStatsRepository).countByTagAndSeverity(
+                eq(Instant.parse("2024-03-02T00:00:00Z")), eq(TO), isNull(), isNull(), isNull());
+    }
+
+    @Test
+    void getRecommendationStats_ShouldRejectInvalidFilters() {
+        assertThrows(ResponseStatusException.class,
+                () -> recommendationStatsService.getRecommendationStats(null, 6, null, FROM, TO));
+        assertThrows(ResponseStatusException.class,
+                () -> recommendationStatsService.getRecommendationStats(null, null, "PILOTE", FROM, TO));
+        assertThrows(ResponseStatusException.class,
+                () -> recommendationStatsService.getRecommendationStats(null, null, null, TO, FROM));
+        verify(recommendationStatsRepository, never()).countByTagAndSeverity(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getRecommendationStats_ShouldReturnNotImplementedOutsidePostgres() {
+        // ARRANGE
+        when(recommendationStatsRepository.isSupported()).thenReturn(false);
+
+        // ACT
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> recommendationStatsService.getRecommendationStats(null, null, null, FROM, TO));
+
+        // ASSERT
+        assertEquals(HttpStatus.NOT_IMPLEMENTED, ex.getStatusCode());
+    }
+}
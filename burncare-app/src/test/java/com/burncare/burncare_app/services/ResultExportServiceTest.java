@@ -0,0 +1,152 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.ResultExport;
+import com.burncare.burncare_app.entities.BurnoutResult;
+import com.burncare.burncare_app.entities.FatigueResult;
+import com.burncare.burncare_app.entities.User;
+import com.burncare.burncare_app.repositories.BurnoutResultRepository;
+import com.burncare.burncare_app.repositories.FatigueResultRepository;
+import com.burncare.burncare_app.repositories.ResultExportRepository;
+import com.burncare.burncare_app.repositories.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({ResultExportService.class, ResultExportRepository.class, JacksonAutoConfiguration.class})
+class ResultExportServiceTest {
+
+    @Autowired
+    private ResultExportService resultExportService;
+
+    @Autowired
+    private BurnoutResultRepository burnoutResultRepository;
+
+    @Autowired
+    private FatigueResultRepository fatigueResultRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("kc-export@test.com");
+        user.setKeycloakId("kc-export");
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void exportBurnoutCsv_ShouldStreamFilteredRowsInOrder() throws Exception {
+        // ARRANGE
+        BurnoutResult high = burnout(80, "Élevé", "2024-03-02T10:00:00Z");
+        high.setMessage("Repos, puis \"pause\"");
+        burnoutResultRepository.save(high);
+        burnoutResultRepository.save(burnout(20, "Faible", "2024-03-01T10:00:00Z"));
+        burnoutResultRepository.save(burnout(90, "Élevé", "2024-03-01T09:00:00Z"));
+        burnoutResultRepository.flush();
+
+        // ACT
+        ResultExport export = resultExportService.export("burnout", "csv", null, null, "Élevé");
+        String[] lines = write(export).split("\r\n");
+
+        // ASSERT
+        assertThat(export.fileName()).isEqualTo("burnout-results.csv");
+        assertThat(export.mediaType().toString()).startsWith("text/csv");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("id,userId,createdAt,burnoutScore,riskLabel,riskTitle,answers,message,recommendation");
+        assertThat(lines[1]).contains(",2024-03-01T09:00:00Z,90,Élevé,");
+        assertThat(lines[2]).contains(",2024-03-02T10:00:00Z,80,Élevé,")
+                .contains("\"[1, 2, 3, 4, 0, 1, 2, 3, 4, 0, 1, 2]\"")
+                .contains("\"Repos, puis \"\"pause\"\"\"");
+    }
+
+    @Test
+    void exportFatigueNdjson_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        // ARRANGE
+        fatigueResultRepository.save(fatigue(75, "2024-03-01T10:00:00Z"));
+        fatigueResultRepository.save(fatigue(40, "2024-03-05T10:00:00Z"));
+        fatigueResultRepository.flush();
+
+        // ACT
+        ResultExport export = resultExportService.export("fatigue", "ndjson",
+                Instant.parse("2024-03-01T00:00:00Z"), Instant.parse("2024-03-02T00:00:00Z"), null);
+        List<String> lines = write(export).lines().toList();
+
+        // ASSERT
+        assertThat(lines).hasSize(1);
+        JsonNode row = objectMapper.readTree(lines.get(0));
+        assertThat(row.get("userId").asLong()).isEqualTo(user.getId());
+        assertThat(row.get("fatigueScore").asInt()).isEqualTo(75);
+        assertThat(row.get("confidence").asDouble()).isEqualTo(0.9);
+        assertThat(row.get("createdAt").asText()).isEqualTo("2024-03-01T10:00:00Z");
+        assertThat(row.get("recommendations").isArray()).isTrue();
+        assertThat(row.get("recommendations").get(0).get("tag").asText()).isEqualTo("sommeil");
+        assertThat(row.get("message").isNull()).isTrue();
+    }
+
+    @Test
+    void export_ShouldRejectInvalidParameters() {
+        assertThatThrownBy(() -> resultExportService.export("stress", "csv", null, null, null))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> resultExportService.export("burnout", "xlsx", null, null, null))
+                .isInstanceOf(ResponseStatusException.class);
+        Instant now = Instant.now();
+        assertThatThrownBy(() -> resultExportService.export("burnout", "csv", now, now, null))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void escape_ShouldQuoteOnlyWhenNeeded() {
+        assertThat(ResultExportService.escape("Faible")).isEqualTo("Faible");
+        assertThat(ResultExportService.escape("a,b")).isEqualTo("\"a,b\"");
+        assertThat(ResultExportService.escape("ligne\nsuivante")).isEqualTo("\"ligne\nsuivante\"");
+    }
+
+    private static String write(ResultExport export) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.body().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private BurnoutResult burnout(int score, String label, String createdAt) {
+        BurnoutResult r = new BurnoutResult();
+        r.setUser(user);
+        r.setBurnoutScore(score);
+        r.setRiskLabel(label);
+        r.setRiskTitle("Risque " + label);
+        r.setAnswersCode(AnswerCodec.encode(List.of(1, 2, 3, 4, 0, 1, 2, 3, 4, 0, 1, 2)));
+        r.setCreatedAt(Instant.parse(createdAt));
+        return r;
+    }
+
+    private FatigueResult fatigue(int score, String createdAt) {
+        FatigueResult r = new FatigueResult();
+        r.setUser(user);
+        r.setFatigueScore(score);
+        r.setRiskLabel("Fatigué");
+        r.setConfidence(0.9);
+        r.setRecommendationsJson("[{\"tag\":\"sommeil\",\"severity\":3}]");
+        r.setCreatedAt(Instant.parse(createdAt));
+        return r;
+    }
+}
@@ -0,0 +1,145 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.BurnoutResultResponse;
+import com.burncare.burncare_app.dto.CursorPage;
+import com.burncare.burncare_app.dto.FatigueResultSummary;
+import com.burncare.burncare_app.entities.BurnoutResult;
+import com.burncare.burncare_app.entities.FatigueResult;
+import com.burncare.burncare_app.entities.User;
+import com.burncare.burncare_app.repositories.BurnoutResultRepository;
+import com.burncare.burncare_app.repositories.FatigueResultRepository;
+import com.burncare.burncare_app.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Garde-fou des historiques /me : une seule requête, sans les colonnes volumineuses (message, JSON, réponses)
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.burncare.burncare_app.services.ResultHistoryStatementCountTest$SqlCapture"
+})
+@Import({BurnoutResultService.class, FatigueResultService.class, StatsCounterService.class, UserSnapshotCache.class,
+        SimpleMeterRegistry.class, JacksonAutoConfiguration.class})
+class ResultHistoryStatementCountTest {
+
+    @Autowired
+    private BurnoutResultService burnoutResultService;
+
+    @Autowired
+    private FatigueResultService fatigueResultService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BurnoutResultRepository burnoutResultRepository;
+
+    @Autowired
+    private FatigueResultRepository fatigueResultRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("history@test.com");
+        user.setKeycloakId("kc-history");
+        user = userRepository.save(user);
+
+        for (int i = 0; i < 3; i++) {
+            BurnoutResult b = new BurnoutResult();
+            b.setUser(user);
+            b.setBurnoutScore(20 * i);
+            b.setRiskLabel("Moyen");
+            b.setRiskTitle("Risque Moyen");
+            b.setMessage("x".repeat(2000));
+            b.setRecommendation("y".repeat(2000));
+            b.setAnswersCode(AnswerCodec.encode(List.of(1, 2, 3, 4, 0, 1, 2, 3, 4, 0, 1, 2)));
+            b.setCreatedAt(Instant.now().minusSeconds(i));
+            burnoutResultRepository.save(b);
+
+            FatigueResult f = new FatigueResult();
+            f.setUser(user);
+            f.setFatigueScore(30 * i);
+            f.setRiskLabel("Moyen");
+            f.setMessage("x".repeat(2000));
+            f.setRecommendationsJson("[{\"tag\":\"sommeil\",\"severity\":3}]");
+            f.setRecommendationText("y".repeat(2000));
+            f.setCreatedAt(Instant.now().minusSeconds(i));
+            fatigueResultRepository.save(f);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    @Test
+    void burnoutHistory_ShouldUseOneSlimStatement() {
+        // ACT
+        CursorPage<BurnoutResultResponse> page = burnoutResultService.getResultsForUser("kc-history", null, null);
+
+        // ASSERT
+        assertThat(page.items()).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertSlimSelect("burnout_results", "message", "recommendation", "answers_code", "answers_json");
+    }
+
+    @Test
+    void fatigueHistory_ShouldUseOneSlimStatement() {
+        // ACT
+        CursorPage<FatigueResultSummary> page = fatigueResultService.getResultsForUser("kc-history", null, null, null, null);
+
+        // ASSERT
+        assertThat(page.items()).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertSlimSelect("fatigue_results", "message", "recommendations_json", "recommendation_text", "confidence");
+    }
+
+    private static void assertSlimSelect(String table, String... excludedColumns) {
+        assertThat(SqlCapture.STATEMENTS).hasSize(1);
+        String sql = SqlCapture.STATEMENTS.get(0).toLowerCase();
+        assertThat(sql).contains(table).contains("join users").contains("keycloak_id");
+        String selectList = sql.substring(sql.indexOf("select"), sql.indexOf(" from "));
+        for (String column : excludedColumns) {
+            assertThat(selectList).doesNotContain(column);
+        }
+    }
+
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
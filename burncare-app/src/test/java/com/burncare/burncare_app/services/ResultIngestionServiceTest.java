@@ -0,0 +1,257 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.BurnoutResultRequest;
+import com.burncare.burncare_app.dto.FatigueResultRequest;
+import com.burncare.burncare_app.dto.IngestionTicket;
+import com.burncare.burncare_app.dto.UserSnapshot;
+import com.burncare.burncare_app.entities.IngestionCheckpoint;
+import com.burncare.burncare_app.repositories.IngestionCheckpointRepository;
+import com.burncare.burncare_app.repositories.IngestionDeadLetterRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResultIngestionServiceTest {
+
+    @Mock
+    private BurnoutResultService burnoutResultService;
+
+    @Mock
+    private FatigueResultService fatigueResultService;
+
+    @Mock
+    private UserSnapshotCache userSnapshotCache;
+
+    @Mock
+    private IngestionCheckpointRepository checkpointRepository;
+
+    @Mock
+    private IngestionDeadLetterRepository deadLetterRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<Long> savedSeqs = new ArrayList<>();
+    private ResultIngestionService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(userSnapshotCache.require(any())).thenReturn(new UserSnapshot(1L, true));
+        lenient().doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(burnoutResultService.saveQueued(any())).thenAnswer(inv -> {
+            List<IngestionRecord> records = inv.getArgument(0);
+            synchronized (savedSeqs) {
+                records.forEach(r -> savedSeqs.add(r.seq()));
+            }
+            return records.size();
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void submit_ShouldLogThenWriteInBatchesWithCheckpoint() throws Exception {
+        // ARRANGE
+        service = newService(100);
+        service.start();
+
+        // ACT
+        IngestionTicket ticket = service.submitBurnout("kc-1", burnout());
+        service.submitBurnout("kc-1", burnout());
+
+        // ASSERT : réponse immédiate, puis écriture en base et position du journal à 2
+        assertEquals(IngestionTicket.ACCEPTED, ticket.status());
+        verify(checkpointRepository, timeout(5000).atLeastOnce()).save(argThat(c -> c.getCommittedSeq() == 2));
+        assertEquals(List.of(1L, 2L), savedSeqs);
+        verify(burnoutResultService, times(2)).checkRequest(any());
+    }
+
+    @Test
+    void start_ShouldReplayOnlyEntriesAfterCheckpoint() throws Exception {
+        // ARRANGE : journal de 3 entrées, la 1re déjà en base
+        Path log = tempDir.resolve("ingestion.log");
+        try (IngestionLog ingestionLog = new IngestionLog(log, objectMapper)) {
+            for (long seq = 1; seq <= 3; seq++) {
+                ingestionLog.write(new IngestionRecord(seq, "t" + seq, ResultIngestionService.BURNOUT, "kc-1", burnout()));
+            }
+        }
+        Files.writeString(log, "{\"seq\": 4, \"tic", StandardOpenOption.APPEND); // ligne tronquée
+        when(checkpointRepository.findById("test")).thenReturn(Optional.of(new IngestionCheckpoint("test", 1)));
+        service = newService(100);
+
+        // ACT
+        service.start();
+
+        // ASSERT : 2 et 3 rejouées, puis le journal est vidé ; la numérotation reprend après 3
+        verify(checkpointRepository, timeout(5000)).save(argThat(c -> c.getCommittedSeq() == 3));
+        assertEquals(List.of(2L, 3L), savedSeqs);
+        service.submitFatigue("kc-1", new FatigueResultRequest());
+        verify(checkpointRepository, timeout(5000)).save(argThat(c -> c.getCommittedSeq() == 4));
+    }
+
+    @Test
+    void start_ShouldWriteReplayedEntriesBeforeConcurrentSubmissions() throws Exception {
+        // ARRANGE : 50 entrées en attente dans le journal, capacité 10 ; des requêtes arrivent pendant le démarrage
+        Path log = tempDir.resolve("ingestion.log");
+        try (IngestionLog ingestionLog = new IngestionLog(log, objectMapper)) {
+            for (long seq = 1; seq <= 50; seq++) {
+                ingestionLog.write(new IngestionRecord(seq, "t" + seq, ResultIngestionService.BURNOUT, "kc-1", burnout()));
+            }
+        }
+        List<Long> checkpoints = new ArrayList<>();
+        when(checkpointRepository.save(any())).thenAnswer(inv -> {
+            synchronized (checkpoints) {
+                checkpoints.add(inv.<IngestionCheckpoint>getArgument(0).getCommittedSeq());
+            }
+            return inv.getArgument(0);
+        });
+        service = newService(10);
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> submissions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            submissions.add(clients.submit(() -> {
+                go.await();
+                while (true) {
+                    try {
+                        return service.submitBurnout("kc-1", burnout());
+                    } catch (ResponseStatusException e) {
+                        Thread.sleep(1); // pas encore démarré ou file pleine : le client réessaie
+                    }
+                }
+            }));
+        }
+
+        // ACT
+        go.countDown();
+        service.start();
+        for (Future<?> submission : submissions) {
+            submission.get(10, TimeUnit.SECONDS);
+        }
+        clients.shutdown();
+
+        // ASSERT : écrites dans l'ordre du journal, position validée croissante sans jamais sauter d'entrée
+        verify(checkpointRepository, timeout(5000).atLeastOnce()).save(argThat(c -> c.getCommittedSeq() == 70));
+        synchronized (savedSeqs) {
+            assertEquals(LongStream.rangeClosed(1, 70).boxed().toList(), savedSeqs);
+        }
+        synchronized (checkpoints) {
+            for (int i = 1; i < checkpoints.size(); i++) {
+                assertTrue(checkpoints.get(i) > checkpoints.get(i - 1));
+            }
+        }
+        assertTrue(ResultIngestionService.isContiguous(3, List.of(record(4), record(5))));
+        assertFalse(ResultIngestionService.isContiguous(3, List.of(record(5))));
+    }
+
+    @Test
+    void drain_ShouldSetAsideRecordRejectedAloneAndKeepGoing() throws Exception {
+        // ARRANGE : le 2e résultat est refusé par la base (ex. utilisateur supprimé), les autres passent
+        doAnswer(inv -> {
+            List<IngestionRecord> records = inv.getArgument(0);
+            if (records.stream().anyMatch(r -> r.seq() == 2)) {
+                throw new RuntimeException("violation de clé étrangère");
+            }
+            synchronized (savedSeqs) {
+                records.forEach(r -> savedSeqs.add(r.seq()));
+            }
+            return records.size();
+        }).when(burnoutResultService).saveQueued(any());
+        service = newService(100);
+        service.start();
+
+        // ACT
+        for (int i = 0; i < 3; i++) {
+            service.submitBurnout("kc-1", burnout());
+        }
+
+        // ASSERT : 2 mis de côté, la position atteint 3 et la file reste utilisable
+        verify(checkpointRepository, timeout(5000).atLeastOnce()).save(argThat(c -> c.getCommittedSeq() == 3));
+        verify(deadLetterRepository).save(argThat(d -> d.getSeq() == 2 && d.getError().contains("clé étrangère")));
+        assertEquals(List.of(1L, 3L), savedSeqs);
+        assertEquals(IngestionTicket.ACCEPTED, service.submitBurnout("kc-1", burnout()).status());
+        verify(checkpointRepository, timeout(5000)).save(argThat(c -> c.getCommittedSeq() == 4));
+    }
+
+    @Test
+    void submit_ShouldApplyBackpressure_WhenQueueIsFull() throws Exception {
+        // ARRANGE : base indisponible, une seule place
+        doThrow(new RuntimeException("connexion refusée")).when(transactionTemplate).executeWithoutResult(any());
+        service = newService(1);
+        service.start();
+        service.submitBurnout("kc-1", burnout());
+
+        // ACT & ASSERT
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> service.submitBurnout("kc-1", burnout()));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        assertFalse(Files.readString(tempDir.resolve("ingestion.log")).isEmpty());
+    }
+
+    @Test
+    void submit_ShouldBeRejected_WhenDisabled() {
+        service = new ResultIngestionService(burnoutResultService, fatigueResultService, userSnapshotCache,
+                checkpointRepository, deadLetterRepository, transactionTemplate, objectMapper, new SimpleMeterRegistry(),
+                false, 10, 10, 10, tempDir.resolve("ingestion.log").toString(), "test");
+
+        assertFalse(service.isEnabled());
+        assertThrows(ResponseStatusException.class, () -> service.submitBurnout("kc-1", burnout()));
+    }
+
+    private ResultIngestionService newService(int capacity) {
+        return new ResultIngestionService(burnoutResultService, fatigueResultService, userSnapshotCache,
+                checkpointRepository, deadLetterRepository, transactionTemplate, objectMapper, new SimpleMeterRegistry(),
+                true, capacity, 50, 20, tempDir.resolve("ingestion.log").toString(), "test");
+    }
+
+    private static IngestionRecord record(long seq) {
+        return new IngestionRecord(seq, "t" + seq, ResultIngestionService.BURNOUT, "kc-1", burnout());
+    }
+
+    private static BurnoutResultRequest burnout() {
+        return new BurnoutResultRequest(65, "Élevé", "Risque", "Msg", "Reco",
+                Arrays.asList(1, 2, 3, 4, 0, 1, 2, 3, 4, 0, 1, 2));
+    }
+}
@@ -0,0 +1,103 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.ScoreBucketCount;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class ResultPartitionManagerTest {
+
+    @Test
+    void createPartitionSql_ShouldCoverOneUtcMonth() {
+        // ACT
+        String sql = ResultPartitionManager.createPartitionSql("fatigue_results", YearMonth.of(2024, 12));
+
+        // ASSERT
+        assertThat(sql).isEqualTo("CREATE TABLE fatigue_results_p202412 PARTITION OF fatigue_results " +
+                "FOR VALUES FROM ('2024-12-01 00:00:00+00') TO ('2025-01-01 00:00:00+00')");
+    }
+
+    @Test
+    void partitionMonth_ShouldIgnoreDefaultAndForeignPartitions() {
+        assertThat(ResultPartitionManager.partitionMonth("burnout_results", "burnout_results_p202403"))
+                .isEqualTo(YearMonth.of(2024, 3));
+        assertThat(ResultPartitionManager.partitionMonth("burnout_results", "burnout_results_pdefault")).isNull();
+        assertThat(ResultPartitionManager.partitionMonth("burnout_results", "fatigue_results_p202403")).isNull();
+    }
+
+    @Test
+    void expiredPartitions_ShouldKeepRetentionWindowIncludingCurrentMonth() {
+        // ARRANGE
+        List<String> partitions = List.of(
+                "burnout_results_p202401",
+                "burnout_results_p202402",
+                "burnout_results_p202403",
+                "burnout_results_p202406",
+                "burnout_results_pdefault"
+        );
+
+        // ACT : rétention de 3 mois en juin 2024 -> avril, mai, juin conservés
+        List<String> expired = ResultPartitionManager.expiredPartitions(
+                "burnout_results", partitions, YearMonth.of(2024, 6), 3);
+
+        // ASSERT
+        assertThat(expired).containsExactly(
+                "burnout_results_p202401", "burnout_results_p202402", "burnout_results_p202403");
+    }
+
+    @Test
+    void retire_ShouldDecrementCountersFromDetachedRowsBeforeDrop() {
+        // ARRANGE
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        StatsCounterService statsCounterService = mock(StatsCounterService.class);
+        ResultPartitionManager manager = new ResultPartitionManager(
+                jdbcTemplate, mock(TransactionTemplate.class), statsCounterService);
+        ReflectionTestUtils.setField(manager, "retentionAction", "drop");
+        List<ScoreBucketCount> buckets = List.of(new ScoreBucketCount("Élevé", 72, 4L));
+        when(jdbcTemplate.query(startsWith("SELECT risk_label, fatigue_score"), ArgumentMatchers.<RowMapper<ScoreBucketCount>>any()))
+                .thenReturn(buckets);
+
+        // ACT
+        manager.retire("fatigue_results", "fatigue_results_p202401");
+
+        // ASSERT : détachement, comptage de la partition détachée, compteurs, puis suppression
+        InOrder order = inOrder(jdbcTemplate, statsCounterService);
+        order.verify(jdbcTemplate).execute("ALTER TABLE fatigue_results DETACH PARTITION fatigue_results_p202401");
+        order.verify(jdbcTemplate).query(eq("SELECT risk_label, fatigue_score AS score, COUNT(*) AS n " +
+                "FROM fatigue_results_p202401 GROUP BY risk_label, fatigue_score"), ArgumentMatchers.<RowMapper<ScoreBucketCount>>any());
+        order.verify(statsCounterService).remove(StatsCounterService.FATIGUE, buckets);
+        order.verify(jdbcTemplate).execute("DROP TABLE fatigue_results_p202401");
+    }
+
+    @Test
+    void retire_ShouldKeepDetachedTableWithDetachAction() {
+        // ARRANGE
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        StatsCounterService statsCounterService = mock(StatsCounterService.class);
+        ResultPartitionManager manager = new ResultPartitionManager(
+                jdbcTemplate, mock(TransactionTemplate.class), statsCounterService);
+        ReflectionTestUtils.setField(manager, "retentionAction", "detach");
+
+        // ACT
+        manager.retire("burnout_results", "burnout_results_p202401");
+
+        // ASSERT
+        verify(jdbcTemplate).query(startsWith("SELECT risk_label, burnout_score"), ArgumentMatchers.<RowMapper<ScoreBucketCount>>any());
+        verify(statsCounterService).remove(StatsCounterService.BURNOUT, List.of());
+        verify(jdbcTemplate, never()).execute(startsWith("DROP"));
+        verify(jdbcTemplate, times(1)).execute(anyString());
+    }
+}
@@ -0,0 +1,142 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.ScoreBucketCount;
+import com.burncare.burncare_app.entities.FatigueResult;
+import com.burncare.burncare_app.entities.StatsCounter;
+import com.burncare.burncare_app.entities.User;
+import com.burncare.burncare_app.repositories.FatigueResultRepository;
+import com.burncare.burncare_app.repositories.UserRepository;
+import com.burncare.burncare_app.repositories.StatsCounterRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static com.burncare.burncare_app.services.StatsCounterService.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(StatsCounterService.class)
+class StatsCounterServiceTest {
+
+    @Autowired
+    private StatsCounterService statsCounterService;
+
+    @Autowired
+    private StatsCounterRepository statsCounterRepository;
+
+    @Autowired
+    private FatigueResultRepository fatigueResultRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("kc-counter@test.com");
+        user.setKeycloakId("kc-counter");
+        user = userRepository.save(user);
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void rebuild_ShouldCreateAllCountersFromSourceTables() {
+        // ARRANGE
+        fatigueResultRepository.save(fatigue(40, LOW));
+        fatigueResultRepository.save(fatigue(40, LOW));
+        fatigueResultRepository.save(fatigue(90, HIGH));
+
+        // ACT
+        int repaired = statsCounterService.rebuild();
+
+        // ASSERT : 2 types × (total + 3 niveaux + 101 scores)
+        assertThat(repaired).isEqualTo(2 * (1 + 3 + 101));
+        Map<String, Long> counters = statsCounterService.snapshot();
+        assertThat(counters.get(totalKey(FATIGUE))).isEqualTo(3L);
+        assertThat(counters.get(labelKey(FATIGUE, LOW))).isEqualTo(2L);
+        assertThat(counters.get(labelKey(FATIGUE, HIGH))).isEqualTo(1L);
+        assertThat(counters.get(scoreKey(FATIGUE, 40))).isEqualTo(2L);
+        assertThat(counters.get(totalKey(BURNOUT))).isZero();
+    }
+
+    @Test
+    void recordAndRemove_ShouldMoveCountersIncrementally() {
+        // ARRANGE
+        statsCounterService.rebuild();
+
+        // ACT
+        statsCounterService.record(FATIGUE, MEDIUM, 55);
+        statsCounterService.record(FATIGUE, MEDIUM, 55);
+        statsCounterService.record(FATIGUE, HIGH, 80);
+        statsCounterService.remove(FATIGUE, List.of(new ScoreBucketCount(MEDIUM, 55, 1L)));
+        entityManager.clear();
+
+        // ASSERT
+        Map<String, Long> counters = statsCounterService.snapshot();
+        assertThat(counters.get(totalKey(FATIGUE))).isEqualTo(2L);
+        assertThat(counters.get(labelKey(FATIGUE, MEDIUM))).isEqualTo(1L);
+        assertThat(counters.get(labelKey(FATIGUE, HIGH))).isEqualTo(1L);
+        assertThat(counters.get(scoreKey(FATIGUE, 55))).isEqualTo(1L);
+        assertThat(counters.get(scoreKey(FATIGUE, 80))).isEqualTo(1L);
+    }
+
+    @Test
+    void recordAll_ShouldApplyDifferentDeltasInOneUpdate() {
+        // ARRANGE
+        statsCounterService.rebuild();
+
+        // ACT : deltas distincts par compteur (total 4, Faible 3, Élevé 1, score 20 ×3, score 90 ×1)
+        statsCounterService.recordAll(FATIGUE, List.of(
+                new ScoreBucketCount(LOW, 20, 1L),
+                new ScoreBucketCount(LOW, 20, 2L),
+                new ScoreBucketCount(HIGH, 90, 1L)));
+        entityManager.clear();
+
+        // ASSERT
+        Map<String, Long> counters = statsCounterService.snapshot();
+        assertThat(counters.get(totalKey(FATIGUE))).isEqualTo(4L);
+        assertThat(counters.get(labelKey(FATIGUE, LOW))).isEqualTo(3L);
+        assertThat(counters.get(labelKey(FATIGUE, HIGH))).isEqualTo(1L);
+        assertThat(counters.get(scoreKey(FATIGUE, 20))).isEqualTo(3L);
+        assertThat(counters.get(scoreKey(FATIGUE, 90))).isEqualTo(1L);
+        assertThat(counters.get(labelKey(FATIGUE, MEDIUM))).isZero();
+        assertThat(counters.get(totalKey(BURNOUT))).isZero();
+    }
+
+    @Test
+    void rebuild_ShouldRepairOnlyDriftedCounters() {
+        // ARRANGE
+        fatigueResultRepository.save(fatigue(30, LOW));
+        statsCounterService.rebuild();
+        StatsCounter total = statsCounterRepository.findById(totalKey(FATIGUE)).orElseThrow();
+        total.setValue(42L);
+        statsCounterRepository.saveAndFlush(total);
+
+        // ACT
+        int repaired = statsCounterService.rebuild();
+
+        // ASSERT
+        assertThat(repaired).isEqualTo(1);
+        assertThat(statsCounterService.snapshot().get(totalKey(FATIGUE))).isEqualTo(1L);
+    }
+
+    private FatigueResult fatigue(int score, String label) {
+        FatigueResult r = new FatigueResult();
+        r.setUser(user);
+        r.setFatigueScore(score);
+        r.setRiskLabel(label);
+        r.setCreatedAt(Instant.now());
+        return r;
+    }
+}
@@ -0,0 +1,184 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.RollupSample;
+import com.burncare.burncare_app.dto.StatsTimeseriesPoint;
+import com.burncare.burncare_app.entities.FatigueResult;
+import com.burncare.burncare_app.entities.StatsGranularity;
+import com.burncare.burncare_app.entities.StatsRollupWatermark;
+import com.burncare.burncare_app.entities.User;
+import com.burncare.burncare_app.repositories.FatigueResultRepository;
+import com.burncare.burncare_app.repositories.UserRepository;
+import com.burncare.burncare_app.repositories.StatsRollupWatermarkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+
+import static com.burncare.burncare_app.services.StatsCounterService.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import(StatsRollupService.class)
+class StatsRollupServiceTest {
+
+    private static final Instant DAY_1 = Instant.parse("2024-03-01T00:00:00Z");
+    private static final Instant DAY_2 = Instant.parse("2024-03-02T00:00:00Z");
+    private static final Instant DAY_4 = Instant.parse("2024-03-04T00:00:00Z");
+
+    @Autowired
+    private StatsRollupService statsRollupService;
+
+    @Autowired
+    private FatigueResultRepository fatigueResultRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("kc-rollup@test.com");
+        user.setKeycloakId("kc-rollup");
+        user = userRepository.save(user);
+    }
+
+    @Autowired
+    private StatsRollupWatermarkRepository watermarkRepository;
+
+    @Test
+    void rollUp_ShouldBuildHourlyAndDailyBucketsChunkByChunk() {
+        // ARRANGE : deux heures le jour 1, une heure le jour 2
+        fatigueResultRepository.save(fatigue(20, LOW, "2024-03-01T08:05:00Z"));
+        fatigueResultRepository.save(fatigue(60, MEDIUM, "2024-03-01T08:40:00Z"));
+        fatigueResultRepository.save(fatigue(90, HIGH, "2024-03-01T15:00:00Z"));
+        fatigueResultRepository.save(fatigue(null, HIGH, "2024-03-02T10:00:00Z"));
+
+        // ACT : une transaction par jour jusqu'à rattrapage
+        int chunks = rollUpAll(FATIGUE, DAY_4);
+
+        // ASSERT
+        assertThat(chunks).isEqualTo(3);
+        List<StatsTimeseriesPoint> daily = statsRollupService.getTimeseries(FATIGUE, "day", DAY_1, DAY_4);
+        assertThat(daily).hasSize(2);
+        StatsTimeseriesPoint first = daily.get(0);
+        assertThat(first.bucketStart()).isEqualTo(DAY_1);
+        assertThat(first.total()).isEqualTo(3L);
+        assertThat(first.low()).isEqualTo(1L);
+        assertThat(first.medium()).isEqualTo(1L);
+        assertThat(first.high()).isEqualTo(1L);
+        assertThat(first.avgScore()).isEqualTo(170.0 / 3);
+        assertThat(first.minScore()).isEqualTo(20);
+        assertThat(first.maxScore()).isEqualTo(90);
+        assertThat(daily.get(1).avgScore()).isNull();
+
+        List<StatsTimeseriesPoint> hourly = statsRollupService.getTimeseries(FATIGUE, "HOUR", DAY_1, DAY_2);
+        assertThat(hourly).extracting(StatsTimeseriesPoint::bucketStart)
+                .containsExactly(Instant.parse("2024-03-01T08:00:00Z"), Instant.parse("2024-03-01T15:00:00Z"));
+        assertThat(hourly.get(0).total()).isEqualTo(2L);
+    }
+
+    @Test
+    void rollUp_ShouldOnlyAddResultsBeyondWatermark() {
+        // ARRANGE
+        fatigueResultRepository.save(fatigue(40, LOW, "2024-03-01T08:05:00Z"));
+        rollUpAll(FATIGUE, Instant.parse("2024-03-01T09:00:00Z"));
+
+        // Nouveau résultat dans le même bucket horaire, après le watermark
+        fatigueResultRepository.save(fatigue(80, HIGH, "2024-03-01T09:30:00Z"));
+
+        // ACT
+        rollUpAll(FATIGUE, Instant.parse("2024-03-01T10:00:00Z"));
+
+        // ASSERT : chaque résultat compté une seule fois
+        StatsTimeseriesPoint day = statsRollupService.getTimeseries(FATIGUE, "day", DAY_1, DAY_2).get(0);
+        assertThat(day.total()).isEqualTo(2L);
+        assertThat(day.avgScore()).isEqualTo(60.0);
+        StatsRollupWatermark watermark = watermarkRepository.findById(FATIGUE).orElseThrow();
+        assertThat(watermark.getProcessedUntil()).isEqualTo(Instant.parse("2024-03-01T10:00:00Z"));
+    }
+
+    @Test
+    void remove_ShouldSubtractDeletedResultsFromRolledUpBucketsOnly() {
+        // ARRANGE : deux résultats agrégés le jour 1, un troisième après le watermark
+        User other = new User();
+        other.setEmail("kc-rollup-other@test.com");
+        other.setKeycloakId("kc-rollup-other");
+        other = userRepository.save(other);
+        fatigueResultRepository.save(fatigue(20, LOW, "2024-03-01T08:05:00Z"));
+        FatigueResult kept = fatigue(60, MEDIUM, "2024-03-01T08:40:00Z");
+        kept.setUser(other);
+        fatigueResultRepository.save(kept);
+        fatigueResultRepository.save(fatigue(90, HIGH, "2024-03-01T15:00:00Z"));
+        rollUpAll(FATIGUE, Instant.parse("2024-03-01T12:00:00Z"));
+
+        // ACT : suppression des résultats de l'utilisateur (comme AdminService.deleteUser)
+        List<RollupSample> samples = fatigueResultRepository.findRollupSamplesForUser(user.getId());
+        fatigueResultRepository.deleteByUserId(user.getId());
+        statsRollupService.remove(FATIGUE, samples);
+        rollUpAll(FATIGUE, DAY_2);
+
+        // ASSERT : seul le résultat de l'autre utilisateur reste, min / max recalculés
+        List<StatsTimeseriesPoint> daily = statsRollupService.getTimeseries(FATIGUE, "day", DAY_1, DAY_2);
+        assertThat(daily).hasSize(1);
+        StatsTimeseriesPoint day = daily.get(0);
+        assertThat(day.total()).isEqualTo(1L);
+        assertThat(day.low()).isZero();
+        assertThat(day.medium()).isEqualTo(1L);
+        assertThat(day.high()).isZero();
+        assertThat(day.avgScore()).isEqualTo(60.0);
+        assertThat(day.minScore()).isEqualTo(60);
+        assertThat(day.maxScore()).isEqualTo(60);
+        List<StatsTimeseriesPoint> hourly = statsRollupService.getTimeseries(FATIGUE, "hour", DAY_1, DAY_2);
+        assertThat(hourly).extracting(StatsTimeseriesPoint::bucketStart)
+                .containsExactly(Instant.parse("2024-03-01T08:00:00Z"));
+    }
+
+    @Test
+    void rollUp_ShouldStartAtUpperBoundWhenTableIsEmpty() {
+        // ACT
+        int chunks = rollUpAll(BURNOUT, DAY_2);
+
+        // ASSERT
+        assertThat(chunks).isEqualTo(1);
+        assertThat(watermarkRepository.findById(BURNOUT).orElseThrow().getProcessedUntil()).isEqualTo(DAY_2);
+    }
+
+    @Test
+    void getTimeseries_ShouldRejectInvalidParameters() {
+        assertThatThrownBy(() -> statsRollupService.getTimeseries("sleep", "day", DAY_1, DAY_2))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> statsRollupService.getTimeseries(FATIGUE, "week", DAY_1, DAY_2))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> statsRollupService.getTimeseries(FATIGUE, "day", DAY_2, DAY_1))
+                .isInstanceOf(ResponseStatusException.class);
+        // 1000 heures ou plus : trop de points
+        assertThatThrownBy(() -> statsRollupService.getTimeseries(FATIGUE, "hour",
+                DAY_1, DAY_1.plus(StatsGranularity.HOUR.getUnit().getDuration().multipliedBy(1000))))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    private int rollUpAll(String kind, Instant upTo) {
+        int chunks = 1;
+        while (statsRollupService.rollUpNextChunk(kind, upTo)) {
+            chunks++;
+        }
+        return chunks;
+    }
+
+    private FatigueResult fatigue(Integer score, String label, String createdAt) {
+        FatigueResult r = new FatigueResult();
+        r.setUser(user);
+        r.setFatigueScore(score);
+        r.setRiskLabel(label);
+        r.setCreatedAt(Instant.parse(createdAt));
+        return r;
+    }
+}
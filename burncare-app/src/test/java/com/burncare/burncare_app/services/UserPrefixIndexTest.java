@@ -0,0 +1,86 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.AdminUserSummary;
+import com.burncare.burncare_app.entities.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserPrefixIndexTest {
+
+    private UserPrefixIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserPrefixIndex();
+        index.put(user(1L, "Jean", "Dupont", "jean.dupont@chu.fr"));
+        index.put(user(2L, "Marie", "Dupuis", "m.dupuis@chu.fr"));
+        index.put(user(3L, "Hélène", "Martin", "helene.martin@clinique.fr"));
+        index.put(user(4L, "Paul", "Dup", "paul@chu.fr"));
+    }
+
+    @Test
+    void search_ShouldMatchPrefixesAndRankExactWordsFirst() {
+        // ACT
+        List<Long> ids = ids(index.search("dup", 10));
+
+        // ASSERT : "Dup" (mot exact) puis les préfixes, triés par nom
+        assertEquals(List.of(4L, 1L, 2L), ids);
+    }
+
+    @Test
+    void search_ShouldIgnoreCaseAndAccentsAndCombineTerms() {
+        assertEquals(List.of(3L), ids(index.search("HELENE", 10)));
+        assertEquals(List.of(3L), ids(index.search("mart hél", 10)));
+        assertEquals(List.of(1L), ids(index.search("jean.dupont@", 10)));
+        assertEquals(List.of(), ids(index.search("jean martin", 10)));
+    }
+
+    @Test
+    void search_ShouldTolerateTypos() {
+        // ACT : inversion de deux lettres, lettre manquante
+        List<Long> swapped = ids(index.search("dupnot", 10));
+        List<Long> missing = ids(index.search("mrtin", 10));
+
+        // ASSERT
+        assertEquals(List.of(1L), swapped);
+        assertEquals(List.of(), missing); // la première lettre doit être juste : pas de parcours complet de l'index
+        assertEquals(List.of(3L), ids(index.search("matrin", 10)));
+    }
+
+    @Test
+    void putAndRemove_ShouldKeepIndexInSync() {
+        // ACT : Jean Dupont change de nom, Marie est supprimée
+        index.put(user(1L, "Jean", "Bernard", "jean.bernard@chu.fr"));
+        index.remove(2L);
+
+        // ASSERT
+        assertEquals(List.of(4L), ids(index.search("dup", 10)));
+        assertEquals(List.of(1L), ids(index.search("bern", 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void search_ShouldRespectLimitAndIgnoreBlankQueries() {
+        assertEquals(2, index.search("chu", 2).size());
+        assertTrue(index.search("   ", 10).isEmpty());
+    }
+
+    @Test
+    void prefixDistance_ShouldCompareTermWithTokenPrefix() {
+        assertEquals(0, UserPrefixIndex.prefixDistance("dup", "dupont", 1));
+        assertEquals(1, UserPrefixIndex.prefixDistance("dupnot", "dupont", 1));
+        assertTrue(UserPrefixIndex.prefixDistance("xyz", "dupont", 1) > 1);
+    }
+
+    private static AdminUserSummary user(Long id, String firstName, String lastName, String email) {
+        return new AdminUserSummary(id, firstName, lastName, email, Role.USER, null, true);
+    }
+
+    private static List<Long> ids(List<AdminUserSummary> users) {
+        return users.stream().map(AdminUserSummary::id).toList();
+    }
+}
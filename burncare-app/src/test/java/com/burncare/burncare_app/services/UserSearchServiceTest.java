@@ -0,0 +1,127 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.AdminUserSummary;
+import com.burncare.burncare_app.entities.Role;
+import com.burncare.burncare_app.entities.User;
+import com.burncare.burncare_app.repositories.UserRepository;
+import com.burncare.burncare_app.repositories.UserSearchRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserSearchServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserSearchRepository userSearchRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private UserSearchService userSearchService;
+
+    @Test
+    void inMemoryIndex_ShouldLoadOnStartupAndFollowUserChanges() {
+        // ARRANGE : base H2, deux utilisateurs au démarrage
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<String>>any())).thenReturn("H2");
+        when(userRepository.findAll(any(Pageable.class))).thenAnswer(inv ->
+                new PageImpl<>(List.of(user(1L, "Dupont"), user(2L, "Dupuis")), inv.getArgument(0), 2));
+        userSearchService.initialize();
+
+        // ACT : 1 renommé, 2 supprimé
+        when(userRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(user(1L, "Bernard")));
+        userSearchService.onUserChanged(new UserChangedEvent(List.of(1L, 2L)));
+
+        // ASSERT
+        assertTrue(userSearchService.search("dup", null).isEmpty());
+        assertEquals(List.of(1L), userSearchService.search("bern", null).stream().map(AdminUserSummary::id).toList());
+        verifyNoInteractions(userSearchRepository);
+    }
+
+    @Test
+    void postgresWithTrigram_ShouldQueryDatabaseAndIgnoreEvents() {
+        // ARRANGE
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<String>>any())).thenReturn("PostgreSQL");
+        when(userSearchRepository.trigramAvailable()).thenReturn(true);
+        userSearchService.initialize();
+
+        // ACT
+        userSearchService.search("  Dupnot ", 5);
+        userSearchService.onUserChanged(UserChangedEvent.of(1L));
+
+        // ASSERT
+        verify(userSearchRepository).searchTrigram("dupnot", 5);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void postgresWithoutTrigram_ShouldSearchByPrefixInDatabaseAndNeverLoadMemoryIndex() {
+        // ARRANGE : plusieurs instances partagent la base, l'index en mémoire serait périmé
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<String>>any())).thenReturn("PostgreSQL");
+        when(userSearchRepository.trigramAvailable()).thenReturn(false);
+        when(userRepository.findAll(any(Specification.class), any(Pageable.class))).thenAnswer(inv ->
+                new PageImpl<>(List.of(user(1L, "Dupont")), inv.getArgument(1), 1));
+        userSearchService.initialize();
+
+        // ACT
+        List<AdminUserSummary> result = userSearchService.search(" Dup ", 5);
+        userSearchService.onUserChanged(UserChangedEvent.of(1L));
+
+        // ASSERT
+        assertEquals(List.of(1L), result.stream().map(AdminUserSummary::id).toList());
+        verify(userRepository, never()).findAll(any(Pageable.class));
+        verify(userRepository, never()).findAllById(any());
+        verify(userSearchRepository, never()).searchTrigram(any(), anyInt());
+    }
+
+    @Test
+    void inMemoryIndex_ShouldMatchEveryWordOfAMultiWordQuery() {
+        // ARRANGE
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<String>>any())).thenReturn("H2");
+        User jean = user(1L, "Dupont");
+        jean.setFirstName("Jean");
+        User marie = user(2L, "Dupont");
+        marie.setFirstName("Marie");
+        when(userRepository.findAll(any(Pageable.class))).thenAnswer(inv ->
+                new PageImpl<>(List.of(jean, marie), inv.getArgument(0), 2));
+        userSearchService.initialize();
+
+        // ACT & ASSERT
+        assertEquals(List.of(1L), userSearchService.search("jean dupont", null).stream().map(AdminUserSummary::id).toList());
+    }
+
+    @Test
+    void search_ShouldRejectInvalidLimit() {
+        assertThrows(ResponseStatusException.class, () -> userSearchService.search("dup", UserSearchService.MAX_LIMIT + 1));
+    }
+
+    private static User user(Long id, String lastName) {
+        User user = new User();
+        user.setId(id);
+        user.setLastName(lastName);
+        user.setEmail(lastName.toLowerCase() + "@chu.fr");
+        user.setRole(Role.USER);
+        return user;
+    }
+}
@@ -15,10 +15,10 @@ import org.keycloak.admin.client.resource.RealmResource;
 import org.keycloak.admin.client.resource.UserResource;
 import org.keycloak.admin.client.resource.UsersResource;
 import org.keycloak.representations.idm.CredentialRepresentation;
-import org.keycloak.representations.idm.UserRepresentation;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Optional;
@@ -37,6 +37,12 @@ class UserServiceTest {
     @Mock
     private Keycloak keycloak;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private KeycloakOutbox keycloakOutbox;
+
     @InjectMocks
     private UserService userService;
 
@@ -52,7 +58,7 @@ class UserServiceTest {
     }
 
     @Test
-    void updateProfile_ShouldUpdateLocalAndKeycloak() {
+    void updateProfile_ShouldUpdateLocalAndQueueKeycloak() {
         // ARRANGE
         UpdateProfileRequest req = new UpdateProfileRequest("jean@mail.com", "Jean", "NewName");
         User user = new User();
@@ -63,19 +69,15 @@ class UserServiceTest {
 
         when(userRepository.findByEmail(req.email())).thenReturn(Optional.of(user));
 
-        // Mock Keycloak calls
-        when(keycloak.realm(anyString())).thenReturn(realmResource);
-        when(realmResource.users()).thenReturn(usersResource);
-        when(usersResource.get("uuid-123")).thenReturn(userResource);
-        when(userResource.toRepresentation()).thenReturn(new UserRepresentation());
-
         // ACT
         userService.updateProfile(req);
 
         // ASSERT
         assertEquals("NewName", user.getLastName()); // Vérifie l'objet local modifié
         verify(userRepository).save(user); // Vérifie la sauvegarde locale
-        verify(userResource).update(any(UserRepresentation.class)); // Vérifie Keycloak
+        // Keycloak : pas d'appel pendant la requête, modification enregistrée dans l'outbox
+        verify(keycloakOutbox).update("uuid-123", new KeycloakUserChange("Jean", "NewName", null, null, null));
+        verifyNoInteractions(keycloak);
     }
 
     @Test
@@ -109,12 +111,6 @@ class UserServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
-        // Mock Keycloak calls for admin update
-        when(keycloak.realm(anyString())).thenReturn(realmResource);
-        when(realmResource.users()).thenReturn(usersResource);
-        when(usersResource.get("uuid-123")).thenReturn(userResource);
-        when(userResource.toRepresentation()).thenReturn(new UserRepresentation());
-
         // ACT
         User result = userService.updateUser(userId, dto);
 
@@ -122,5 +118,6 @@ class UserServiceTest {
         assertEquals(Role.ADMIN, result.getRole());
         assertTrue(result.isEnabled());
         verify(userRepository).save(user);
+        verify(keycloakOutbox).update("uuid-123", new KeycloakUserChange("Jean", "Dupont", "jean@mail.com", true, null));
     }
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.burncare.burncare_app.services;
+
+import com.burncare.burncare_app.dto.UserSnapshot;
+import com.burncare.burncare_app.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserSnapshotCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MutableClock clock;
+    private UserSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-01T08:00:00Z"));
+        cache = new UserSnapshotCache(userRepository, meterRegistry, 2, 60, clock);
+    }
+
+    @Test
+    void get_ShouldHitUntilTtlExpires() {
+        // ARRANGE
+        when(userRepository.findSnapshotByKeycloakId("kc-1")).thenReturn(Optional.of(snapshot(1L)));
+
+        // ACT : 1 lecture en base, puis 2 lectures en cache, puis expiration
+        cache.get("kc-1");
+        cache.get("kc-1");
+        clock.advance(Duration.ofSeconds(59));
+        cache.get("kc-1");
+        clock.advance(Duration.ofSeconds(2));
+        cache.get("kc-1");
+
+        // ASSERT
+        verify(userRepository, times(2)).findSnapshotByKeycloakId("kc-1");
+        assertEquals(2.0, counter("hit"));
+        assertEquals(2.0, counter("miss"));
+    }
+
+    @Test
+    void get_ShouldEvictLeastRecentlyUsedAndNotCacheUnknownUsers() {
+        // ARRANGE
+        when(userRepository.findSnapshotByKeycloakId("kc-1")).thenReturn(Optional.of(snapshot(1L)));
+        when(userRepository.findSnapshotByKeycloakId("kc-2")).thenReturn(Optional.of(snapshot(2L)));
+        when(userRepository.findSnapshotByKeycloakId("kc-3")).thenReturn(Optional.of(snapshot(3L)));
+        when(userRepository.findSnapshotByKeycloakId("unknown")).thenReturn(Optional.empty());
+
+        // ACT : kc-1 relu avant l'arrivée de kc-3 -> kc-2 est évincé
+        cache.get("kc-1");
+        cache.get("kc-2");
+        cache.get("kc-1");
+        cache.get("kc-3");
+        cache.get("kc-2");
+        assertTrue(cache.get("unknown").isEmpty());
+
+        // ASSERT
+        verify(userRepository, times(2)).findSnapshotByKeycloakId("kc-2");
+        verify(userRepository, times(1)).findSnapshotByKeycloakId("kc-1");
+        assertEquals(2, cache.size());
+        assertEquals(2.0, meterRegistry.get("cache.evictions").functionCounter().count());
+        assertThrows(RuntimeException.class, () -> cache.require("unknown"));
+    }
+
+    @Test
+    void onUserChanged_ShouldInvalidateByUserId() {
+        // ARRANGE
+        when(userRepository.findSnapshotByKeycloakId("kc-1"))
+                .thenReturn(Optional.of(snapshot(1L)))
+                .thenReturn(Optional.of(new UserSnapshot(1L, false)));
+        cache.get("kc-1");
+
+        // ACT : l'admin désactive l'utilisateur 1
+        cache.onUserChanged(new UserChangedEvent(List.of(1L)));
+
+        // ASSERT
+        assertFalse(cache.get("kc-1").orElseThrow().enabled());
+        assertThrows(ResponseStatusException.class, () -> cache.require("kc-1"));
+        verify(userRepository, times(2)).findSnapshotByKeycloakId("kc-1");
+    }
+
+    @Test
+    void get_ShouldNotCacheValueReadBeforeConcurrentInvalidation() {
+        // ARRANGE : pendant la lecture de kc-1 (valeur encore active), l'admin désactive l'utilisateur 1 ;
+        // l'invalidation d'un autre utilisateur pendant la lecture de kc-2 n'empêche pas sa mise en cache
+        when(userRepository.findSnapshotByKeycloakId("kc-1"))
+                .thenAnswer(inv -> {
+                    cache.onUserChanged(UserChangedEvent.of(1L));
+                    return Optional.of(snapshot(1L));
+                })
+                .thenReturn(Optional.of(new UserSnapshot(1L, false)));
+        when(userRepository.findSnapshotByKeycloakId("kc-2")).thenAnswer(inv -> {
+            cache.onUserChanged(UserChangedEvent.of(1L));
+            return Optional.of(snapshot(2L));
+        });
+
+        // ACT
+        boolean firstRead = cache.get("kc-1").orElseThrow().enabled();
+        boolean secondRead = cache.get("kc-1").orElseThrow().enabled();
+        cache.get("kc-2");
+        cache.get("kc-2");
+
+        // ASSERT : la valeur antérieure à l'invalidation n'a pas été conservée
+        assertTrue(firstRead);
+        assertFalse(secondRead);
+        verify(userRepository, times(2)).findSnapshotByKeycloakId("kc-1");
+        verify(userRepository, times(1)).findSnapshotByKeycloakId("kc-2");
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("cache.gets").tag("result", result).functionCounter().count();
+    }
+
+    private static UserSnapshot snapshot(Long id) {
+        return new UserSnapshot(id, true);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -1,4 +1,5 @@
 import 'package:flutter/material.dart';
+import '../../services/admin_service.dart';
 import '../../services/api_client.dart';
 import '../../utils/api_config.dart';
 import 'admin_user_details_screen.dart';
@@ -13,9 +14,13 @@ class AdminUsersScreen extends StatefulWidget {
 class _AdminUsersScreenState extends State<AdminUsersScreen> {
   // ✅ URL adaptée automatiquement selon la plateforme
   final apiClient = ApiClient(baseUrl: getSpringApiBaseUrl());
+  late final adminService = AdminService(apiClient);
 
   List<dynamic> users = [];
+  int totalUsers = 0;
+  int nextPage = 0;
   bool isLoading = true;
+  bool isLoadingMore = false;
   String? error;
 
   @override
@@ -24,16 +29,18 @@ class _AdminUsersScreenState extends State<AdminUsersScreen> {
     _fetchUsers();
   }
 
-  // --- RÉCUPÉRATION DES UTILISATEURS ---
+  // --- RÉCUPÉRATION DES UTILISATEURS (première page) ---
   Future<void> _fetchUsers() async {
     setState(() {
       isLoading = true;
       error = null;
     });
     try {
-      final fetchedUsers = await apiClient.get('/api/admin/users');
+      final page = await adminService.getUsersPage();
       setState(() {
-        users = fetchedUsers;
+        users = page.users;
+        totalUsers = page.total;
+        nextPage = 1;
         isLoading = false;
       });
     } catch (e) {
@@ -44,6 +51,26 @@ class _AdminUsersScreenState extends State<AdminUsersScreen> {
     }
   }
 
+  // --- PAGE SUIVANTE ---
+  Future<void> _fetchMoreUsers() async {
+    if (isLoadingMore || users.length >= totalUsers) return;
+    setState(() => isLoadingMore = true);
+    try {
+      final page = await adminService.getUsersPage(page: nextPage);
+      setState(() {
+        users = [...users, ...page.users];
+        totalUsers = page.total;
+        nextPage++;
+      });
+    } catch (e) {
+      if (mounted) {
+        ScaffoldMessenger.of(context).showSnackBar(SnackBar(content: Text("Erreur: $e"), backgroundColor: Colors.red));
+      }
+    } finally {
+      if (mounted) setState(() => isLoadingMore = false);
+    }
+  }
+
   // --- SUPPRESSION D'UN UTILISATEUR ---
   Future<void> _deleteUser(int id) async {
     bool confirm = await showDialog(
@@ -215,8 +242,18 @@ class _AdminUsersScreenState extends State<AdminUsersScreen> {
           ? Center(child: Text("Erreur : $error", style: const TextStyle(color: Colors.red)))
           : ListView.builder(
         padding: const EdgeInsets.all(15),
-        itemCount: users.length,
+        itemCount: users.length + (users.length < totalUsers ? 1 : 0),
         itemBuilder: (ctx, index) {
+          if (index == users.length) {
+            return Center(
+              child: isLoadingMore
+                  ? const CircularProgressIndicator()
+                  : TextButton(
+                      onPressed: _fetchMoreUsers,
+                      child: Text("Charger plus (${users.length}/$totalUsers)"),
+                    ),
+            );
+          }
           final user = users[index];
           final String name = "${user['firstName'] ?? ''} ${user['lastName'] ?? ''}".trim();
           final String role = user['role'] ?? 'USER';
@@ -26,6 +26,12 @@ class _MyResultsScreenState extends State<MyResultsScreen>
   List<BurnoutResultItem> _burnoutResults = [];
   List<FatigueResultItem> _fatigueResults = [];
 
+  // Curseur de la page suivante (en-tête X-Next-Cursor), null en fin d'historique
+  String? _burnoutCursor;
+  String? _fatigueCursor;
+  bool _loadingMoreBurnout = false;
+  bool _loadingMoreFatigue = false;
+
   @override
   void initState() {
     super.initState();
@@ -71,6 +77,22 @@ class _MyResultsScreenState extends State<MyResultsScreen>
     return auth.token;
   }
 
+  // GET d'une page d'historique : éléments + curseur suivant (en-tête X-Next-Cursor)
+  Future<({List<dynamic> items, String? nextCursor})> _getPage(String path, String token, String? cursor) async {
+    final query = cursor == null ? "" : "?cursor=${Uri.encodeQueryComponent(cursor)}";
+    final response = await http.get(
+      Uri.parse("${getSpringApiBaseUrl()}$path$query"),
+      headers: {"Authorization": "Bearer $token"},
+    );
+    if (response.statusCode != 200) {
+      throw Exception("Erreur API : ${response.statusCode}");
+    }
+    return (
+      items: jsonDecode(response.body) as List<dynamic>,
+      nextCursor: response.headers['x-next-cursor'],
+    );
+  }
+
   Future<void> _fetchBurnoutResults() async {
     setState(() {
       _loadingBurnout = true;
@@ -87,28 +109,16 @@ class _MyResultsScreenState extends State<MyResultsScreen>
         return;
       }
 
-      final url = "${getSpringApiBaseUrl()}/api/burnout-results/me";
-      final response = await http.get(
-        Uri.parse(url),
-        headers: {"Authorization": "Bearer $token"},
-      );
-
-      if (response.statusCode == 200) {
-        final List<dynamic> list = jsonDecode(response.body);
-        final items = list
-            .map((e) => BurnoutResultItem.fromJson(e as Map<String, dynamic>))
-            .toList();
+      final page = await _getPage("/api/burnout-results/me", token, null);
+      final items = page.items
+          .map((e) => BurnoutResultItem.fromJson(e as Map<String, dynamic>))
+          .toList();
 
-        setState(() {
-          _burnoutResults = items;
-          _loadingBurnout = false;
-        });
-      } else {
-        setState(() {
-          _loadingBurnout = false;
-          _errorBurnout = "Erreur API burnout : ${response.statusCode}";
-        });
-      }
+      setState(() {
+        _burnoutResults = items;
+        _burnoutCursor = page.nextCursor;
+        _loadingBurnout = false;
+      });
     } catch (e) {
       setState(() {
         _loadingBurnout = false;
@@ -133,28 +143,16 @@ class _MyResultsScreenState extends State<MyResultsScreen>
         return;
       }
 
-      final url = "${getSpringApiBaseUrl()}/api/fatigue-results/me";
-      final response = await http.get(
-        Uri.parse(url),
-        headers: {"Authorization": "Bearer $token"},
-      );
+      final page = await _getPage("/api/fatigue-results/me", token, null);
+      final items = page.items
+          .map((e) => FatigueResultItem.fromJson(e as Map<String, dynamic>))
+          .toList();
 
-      if (response.statusCode == 200) {
-        final List<dynamic> list = jsonDecode(response.body);
-        final items = list
-            .map((e) => FatigueResultItem.fromJson(e as Map<String, dynamic>))
-            .toList();
-
-        setState(() {
-          _fatigueResults = items;
-          _loadingFatigue = false;
-        });
-      } else {
-        setState(() {
-          _loadingFatigue = false;
-          _errorFatigue = "Erreur API fatigue : ${response.statusCode}";
-        });
-      }
+      setState(() {
+        _fatigueResults = items;
+        _fatigueCursor = page.nextCursor;
+        _loadingFatigue = false;
+      });
     } catch (e) {
       setState(() {
         _loadingFatigue = false;
@@ -163,6 +161,88 @@ class _MyResultsScreenState extends State<MyResultsScreen>
     }
   }
 
+  Future<void> _fetchMoreBurnoutResults() async {
+    final cursor = _burnoutCursor;
+    if (cursor == null || _loadingMoreBurnout) return;
+    setState(() => _loadingMoreBurnout = true);
+
+    try {
+      final token = await _getToken();
+      if (token == null) return;
+      final page = await _getPage("/api/burnout-results/me", token, cursor);
+      setState(() {
+        _burnoutResults = [
+          ..._burnoutResults,
+          ...page.items.map((e) => BurnoutResultItem.fromJson(e as Map<String, dynamic>)),
+        ];
+        _burnoutCursor = page.nextCursor;
+      });
+    } catch (e) {
+      _showError("Erreur de chargement burnout : $e");
+    } finally {
+      if (mounted) setState(() => _loadingMoreBurnout = false);
+    }
+  }
+
+  Future<void> _fetchMoreFatigueResults() async {
+    final cursor = _fatigueCursor;
+    if (cursor == null || _loadingMoreFatigue) return;
+    setState(() => _loadingMoreFatigue = true);
+
+    try {
+      final token = await _getToken();
+      if (token == null) return;
+      final page = await _getPage("/api/fatigue-results/me", token, cursor);
+      setState(() {
+        _fatigueResults = [
+          ..._fatigueResults,
+          ...page.items.map((e) => FatigueResultItem.fromJson(e as Map<String, dynamic>)),
+        ];
+        _fatigueCursor = page.nextCursor;
+      });
+    } catch (e) {
+      _showError("Erreur de chargement fatigue : $e");
+    } finally {
+      if (mounted) setState(() => _loadingMoreFatigue = false);
+    }
+  }
+
+  // L'historique fatigue ne contient que le résumé : le détail est chargé à l'ouverture
+  Future<void> _openFatigueDetails(FatigueResultItem item) async {
+    try {
+      final token = await _getToken();
+      if (token == null) return;
+      final response = await http.get(
+        Uri.parse("${getSpringApiBaseUrl()}/api/fatigue-results/${item.id}"),
+        headers: {"Authorization": "Bearer $token"},
+      );
+      if (response.statusCode != 200) {
+        throw Exception("Erreur API : ${response.statusCode}");
+      }
+      final detail = FatigueResultDetail.fromJson(jsonDecode(response.body) as Map<String, dynamic>);
+      if (!mounted) return;
+      _openDetails(
+        type: ResultType.fatigue,
+        title: detail.riskTitle ?? "Détails Fatigue",
+        riskLabel: item.riskLabel,
+        score: item.fatigueScore,
+        createdAt: item.createdAt,
+        message: detail.message,
+        recommendationText: detail.recommendationText,
+        confidence: detail.confidence,
+      );
+    } catch (e) {
+      _showError("Erreur de chargement du détail : $e");
+    }
+  }
+
+  void _showError(String text) {
+    if (!mounted) return;
+    ScaffoldMessenger.of(context).showSnackBar(
+      SnackBar(content: Text(text), backgroundColor: Colors.red),
+    );
+  }
+
   void _openDetails({
     required ResultType type,
     required String title,
@@ -329,6 +409,21 @@ class _MyResultsScreenState extends State<MyResultsScreen>
     );
   }
 
+  Widget _loadMoreButton(bool loading, VoidCallback onPressed) {
+    return Padding(
+      padding: const EdgeInsets.symmetric(vertical: 8),
+      child: Center(
+        child: loading
+            ? const CircularProgressIndicator()
+            : TextButton.icon(
+                onPressed: onPressed,
+                icon: const Icon(Icons.expand_more),
+                label: const Text("Charger plus"),
+              ),
+      ),
+    );
+  }
+
   Widget _buildEmpty(String text, VoidCallback onRetry) {
     return Center(
       child: Padding(
@@ -372,6 +467,7 @@ class _MyResultsScreenState extends State<MyResultsScreen>
     required String? message,
     String? recommendationText,
     double? confidence,
+    VoidCallback? onDetails,
   }) {
     final color = _colorForRisk(riskLabel);
 
@@ -467,7 +563,7 @@ class _MyResultsScreenState extends State<MyResultsScreen>
                   Align(
                     alignment: Alignment.centerRight,
                     child: TextButton.icon(
-                      onPressed: () {
+                      onPressed: onDetails ?? () {
                         _openDetails(
                           type: type,
                           title: type == ResultType.burnout ? "Détails Burnout" : "Détails Fatigue",
@@ -503,8 +599,8 @@ class _MyResultsScreenState extends State<MyResultsScreen>
         bottom: TabBar(
           controller: _tabController,
           tabs: [
-            Tab(text: "Burnout ($burnoutCount)", icon: Icon(_iconForType(ResultType.burnout))),
-            Tab(text: "Fatigue ($fatigueCount)", icon: Icon(_iconForType(ResultType.fatigue))),
+            Tab(text: "Burnout ($burnoutCount${_burnoutCursor != null ? '+' : ''})", icon: Icon(_iconForType(ResultType.burnout))),
+            Tab(text: "Fatigue ($fatigueCount${_fatigueCursor != null ? '+' : ''})", icon: Icon(_iconForType(ResultType.fatigue))),
           ],
         ),
         actions: [
@@ -539,8 +635,11 @@ class _MyResultsScreenState extends State<MyResultsScreen>
                 const SizedBox(height: 12),
                 Expanded(
                   child: ListView.builder(
-                    itemCount: _burnoutResults.length,
+                    itemCount: _burnoutResults.length + (_burnoutCursor != null ? 1 : 0),
                     itemBuilder: (context, index) {
+                      if (index == _burnoutResults.length) {
+                        return _loadMoreButton(_loadingMoreBurnout, _fetchMoreBurnoutResults);
+                      }
                       final item = _burnoutResults[index];
                       return _resultCard(
                         type: ResultType.burnout,
@@ -577,18 +676,20 @@ class _MyResultsScreenState extends State<MyResultsScreen>
                 const SizedBox(height: 12),
                 Expanded(
                   child: ListView.builder(
-                    itemCount: _fatigueResults.length,
+                    itemCount: _fatigueResults.length + (_fatigueCursor != null ? 1 : 0),
                     itemBuilder: (context, index) {
+                      if (index == _fatigueResults.length) {
+                        return _loadMoreButton(_loadingMoreFatigue, _fetchMoreFatigueResults);
+                      }
                       final item = _fatigueResults[index];
                       return _resultCard(
                         type: ResultType.fatigue,
-                        riskTitle: item.riskTitle,
+                        riskTitle: "Analyse fatigue",
                         riskLabel: item.riskLabel,
                         score: item.fatigueScore,
                         createdAt: item.createdAt,
-                        message: item.message,
-                        recommendationText: item.recommendationText,
-                        confidence: item.confidence,
+                        message: null,
+                        onDetails: () => _openFatigueDetails(item),
                       );
                     },
                   ),
@@ -640,40 +741,52 @@ class BurnoutResultItem {
   }
 }
 
+// Ligne d'historique (GET /api/fatigue-results/me) : résumé uniquement
 class FatigueResultItem {
   final int id;
   final int fatigueScore;
   final String riskLabel;
-  final String riskTitle;
   final DateTime createdAt;
-  final String? message;
-  final double? confidence;
-
-  final String? recommendationText;
 
   FatigueResultItem({
     required this.id,
     required this.fatigueScore,
     required this.riskLabel,
-    required this.riskTitle,
     required this.createdAt,
+  });
+
+  factory FatigueResultItem.fromJson(Map<String, dynamic> json) {
+    return FatigueResultItem(
+      id: (json['id'] as num).toInt(),
+      fatigueScore: (json['fatigueScore'] as num).toInt(),
+      riskLabel: json['riskLabel']?.toString() ?? "Moyen",
+      createdAt: DateTime.parse(json['createdAt'] as String),
+    );
+  }
+}
+
+// Détail chargé à la demande (GET /api/fatigue-results/{id})
+class FatigueResultDetail {
+  final String? riskTitle;
+  final String? message;
+  final double? confidence;
+  final String? recommendationText;
+
+  FatigueResultDetail({
+    this.riskTitle,
     this.message,
     this.confidence,
     this.recommendationText,
   });
 
-  factory FatigueResultItem.fromJson(Map<String, dynamic> json) {
+  factory FatigueResultDetail.fromJson(Map<String, dynamic> json) {
     double? conf;
     final rawConf = json['confidence'];
     if (rawConf is num) conf = rawConf.toDouble();
     if (rawConf is String) conf = double.tryParse(rawConf);
 
-    return FatigueResultItem(
-      id: (json['id'] as num).toInt(),
-      fatigueScore: (json['fatigueScore'] as num).toInt(),
-      riskLabel: json['riskLabel']?.toString() ?? "Moyen",
-      riskTitle: json['riskTitle']?.toString() ?? "Risque",
-      createdAt: DateTime.parse(json['createdAt'] as String),
+    return FatigueResultDetail(
+      riskTitle: json['riskTitle']?.toString(),
       message: json['message']?.toString(),
       confidence: conf,
       recommendationText: json['recommendationText']?.toString(),
@@ -5,10 +5,20 @@ class AdminService {
 
   AdminService(this.apiClient);
 
-  // Récupérer la liste des utilisateurs
-  Future<List<dynamic>> getAllUsers() async {
-    final response = await apiClient.get('/api/admin/users');
-    return response as List<dynamic>;
+  static const int pageSize = 50;
+
+  // Récupérer une page d'utilisateurs (le total est dans l'en-tête X-Total-Count)
+  Future<({List<dynamic> users, int total})> getUsersPage({int page = 0, int size = pageSize}) async {
+    final response = await apiClient.getWithHeaders('/api/admin/users?page=$page&size=$size');
+    final users = response.body as List<dynamic>;
+    final total = int.tryParse(response.headers['x-total-count'] ?? '') ?? users.length;
+    return (users: users, total: total);
+  }
+
+  // Récupérer un utilisateur par ID
+  Future<Map<String, dynamic>> getUserById(int id) async {
+    final response = await apiClient.get('/api/admin/users/$id');
+    return response as Map<String, dynamic>;
   }
 
   // Supprimer un utilisateur
@@ -62,6 +62,23 @@ class ApiClient {
     return _handleResponse(response);
   }
 
+  // 3️⃣ bis GET avec en-têtes (pagination : X-Total-Count, X-Next-Cursor)
+  Future<({dynamic body, Map<String, String> headers})> getWithHeaders(String path) async {
+    final url = Uri.parse('$baseUrl$path');
+    final token = await _storage.read(key: 'token');
+
+    final response = await http.get(
+      url,
+      headers: {
+        'Content-Type': 'application/json',
+        if (token != null) 'Authorization': 'Bearer $token',
+      },
+    );
+
+    // Les clés de response.headers sont en minuscules
+    return (body: _handleResponse(response), headers: response.headers);
+  }
+
   // 4️⃣ Méthode DELETE (Pour l'Admin Dashboard)
   Future<dynamic> delete(String path) async {
     final url = Uri.parse('$baseUrl$path');